@@ -0,0 +1,28 @@
+#!/bin/bash
+
+# Starts a three-node local cluster (ports 8081-8083) from the packaged JAR
+
+JAR=target/shipment-tracking-api-1.0.0.jar
+
+if [ ! -f "$JAR" ]; then
+    echo "📦 Building application..."
+    mvn clean package -DskipTests || { echo "❌ Build failed!"; exit 1; }
+fi
+
+PIDS=()
+for i in 1 2 3; do
+    PORT=$((8080 + i))
+    echo "🚀 Starting node-$i on http://localhost:$PORT"
+    java -jar "$JAR" \
+        --spring.profiles.active=cluster \
+        --server.port=$PORT \
+        --shipment.cluster.node-id=node-$i \
+        > "target/node-$i.log" 2>&1 &
+    PIDS+=($!)
+done
+
+trap 'echo "Stopping cluster..."; kill "${PIDS[@]}" 2>/dev/null' INT TERM EXIT
+
+echo "Logs: target/node-{1,2,3}.log"
+echo "Press Ctrl+C to stop the cluster"
+wait
@@ -0,0 +1,79 @@
+package com.logistics.shipment.accesslog;
+
+import com.logistics.shipment.web.ShipmentPaths;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outermost API filter that records one access log entry per request. The sampling decision is
+ * made after the response, so errors and slow requests are always kept while only a fraction of
+ * ordinary successes is handed to the asynchronous writer.
+ */
+public class AccessLogFilter extends OncePerRequestFilter {
+    
+    private final AccessLogProperties properties;
+    private final AsyncAccessLog accessLog;
+    private final long slowThresholdNanos;
+    
+    public AccessLogFilter(AccessLogProperties properties, AsyncAccessLog accessLog) {
+        this.properties = properties;
+        this.accessLog = accessLog;
+        this.slowThresholdNanos = properties.getSlowThreshold().toNanos();
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled();
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long startMillis = System.currentTimeMillis();
+        long start = System.nanoTime();
+        CountingHttpServletResponse counting = new CountingHttpServletResponse(response);
+        boolean failed = true;
+        try {
+            chain.doFilter(request, counting);
+            failed = false;
+        } finally {
+            long latencyNanos = System.nanoTime() - start;
+            // An exception escaping the chain becomes a 500 once the container handles it
+            int status = failed ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : counting.getStatus();
+            AccessLogRecord.Reason reason = reasonFor(status, latencyNanos);
+            if (reason != null) {
+                accessLog.submit(new AccessLogRecord(startMillis, request.getMethod(), endpointOf(request),
+                        ShipmentPaths.orderIdOf(request.getRequestURI()), status,
+                        TimeUnit.NANOSECONDS.toMicros(latencyNanos), counting.getBytesWritten(), reason));
+            }
+        }
+    }
+    
+    /**
+     * @return why the request is logged, or null if it is sampled away
+     */
+    AccessLogRecord.Reason reasonFor(int status, long latencyNanos) {
+        if (status >= 400) {
+            return AccessLogRecord.Reason.ERROR;
+        }
+        if (latencyNanos >= slowThresholdNanos) {
+            return AccessLogRecord.Reason.SLOW;
+        }
+        double rate = properties.getSuccessSampleRate();
+        return rate > 0 && ThreadLocalRandom.current().nextDouble() < rate ? AccessLogRecord.Reason.SAMPLED : null;
+    }
+    
+    // Route templates keep the endpoint low-cardinality; requests rejected before dispatch fall back to the path
+    private static String endpointOf(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : request.getRequestURI();
+    }
+}
\ No newline at end of file
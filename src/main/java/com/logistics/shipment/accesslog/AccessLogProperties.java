@@ -0,0 +1,40 @@
+package com.logistics.shipment.accesslog;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Structured access logging for the API (prefix: shipment.access-log)
+ */
+@ConfigurationProperties(prefix = "shipment.access-log")
+public class AccessLogProperties {
+    
+    private boolean enabled = true;
+    
+    // Records waiting for the writer thread; rounded up to a power of two, new records are dropped when full
+    private int bufferSize = 8192;
+    
+    // Fraction of fast, successful requests that are logged; errors and slow requests always are
+    private double successSampleRate = 0.01;
+    
+    private Duration slowThreshold = Duration.ofMillis(500);
+    
+    // How long the writer thread waits before checking an empty buffer again
+    private Duration idleWait = Duration.ofMillis(20);
+    
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    
+    public int getBufferSize() { return bufferSize; }
+    public void setBufferSize(int bufferSize) { this.bufferSize = bufferSize; }
+    
+    public double getSuccessSampleRate() { return successSampleRate; }
+    public void setSuccessSampleRate(double successSampleRate) { this.successSampleRate = successSampleRate; }
+    
+    public Duration getSlowThreshold() { return slowThreshold; }
+    public void setSlowThreshold(Duration slowThreshold) { this.slowThreshold = slowThreshold; }
+    
+    public Duration getIdleWait() { return idleWait; }
+    public void setIdleWait(Duration idleWait) { this.idleWait = idleWait; }
+}
\ No newline at end of file
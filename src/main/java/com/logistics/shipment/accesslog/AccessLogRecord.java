@@ -0,0 +1,92 @@
+package com.logistics.shipment.accesslog;
+
+/**
+ * One completed API request as it appears in the access log
+ */
+public class AccessLogRecord {
+    
+    /**
+     * Coarse result of a request, derived from the response status
+     */
+    public enum Outcome {
+        SUCCESS,
+        CLIENT_ERROR,
+        SERVER_ERROR;
+        
+        public static Outcome of(int status) {
+            if (status >= 500) {
+                return SERVER_ERROR;
+            }
+            return status >= 400 ? CLIENT_ERROR : SUCCESS;
+        }
+    }
+    
+    /**
+     * Why a record was logged rather than sampled away
+     */
+    public enum Reason {
+        ERROR,
+        SLOW,
+        SAMPLED
+    }
+    
+    private final long timestampMillis;
+    private final String method;
+    private final String endpoint;
+    private final String orderId;
+    private final int status;
+    private final long latencyMicros;
+    private final long bytes;
+    private final Reason reason;
+    
+    public AccessLogRecord(long timestampMillis, String method, String endpoint, String orderId, int status,
+                           long latencyMicros, long bytes, Reason reason) {
+        this.timestampMillis = timestampMillis;
+        this.method = method;
+        this.endpoint = endpoint;
+        this.orderId = orderId;
+        this.status = status;
+        this.latencyMicros = latencyMicros;
+        this.bytes = bytes;
+        this.reason = reason;
+    }
+    
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+    
+    public String getMethod() {
+        return method;
+    }
+    
+    /**
+     * @return the matched route template, such as /api/v1/shipments/{orderId}, or the raw path if no route matched
+     */
+    public String getEndpoint() {
+        return endpoint;
+    }
+    
+    public String getOrderId() {
+        return orderId;
+    }
+    
+    public int getStatus() {
+        return status;
+    }
+    
+    public Outcome getOutcome() {
+        return Outcome.of(status);
+    }
+    
+    public long getLatencyMicros() {
+        return latencyMicros;
+    }
+    
+    public long getBytes() {
+        return bytes;
+    }
+    
+    public Reason getReason() {
+        return reason;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,76 @@
+package com.logistics.shipment.accesslog;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded multi-producer ring buffer. Each slot carries a sequence number that tells producers
+ * and the consumer whose turn it is, so request threads publish with one CAS and never wait for
+ * each other or for the writer; a full ring fails the offer instead of blocking.
+ */
+class AccessLogRing<T> {
+    
+    private final Object[] slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    
+    private final AtomicLong head = new AtomicLong();
+    // Only advanced by the single consumer
+    private long tail;
+    
+    AccessLogRing(int requestedCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(2, requestedCapacity - 1)) << 1;
+        this.slots = new Object[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+    
+    int capacity() {
+        return slots.length;
+    }
+    
+    /**
+     * @return false if the ring is full
+     */
+    boolean offer(T value) {
+        long position = head.get();
+        while (true) {
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (head.compareAndSet(position, position + 1)) {
+                    slots[index] = value;
+                    // Publishes the slot to the consumer
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = head.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = head.get();
+            }
+        }
+    }
+    
+    /**
+     * Removes the oldest value; must only be called from the consumer thread
+     * @return the value, or null if the ring is empty or the next slot is still being written
+     */
+    @SuppressWarnings("unchecked")
+    T poll() {
+        int index = (int) tail & mask;
+        if (sequences.get(index) != tail + 1) {
+            return null;
+        }
+        T value = (T) slots[index];
+        slots[index] = null;
+        // Hands the slot back to producers for the next lap
+        sequences.set(index, tail + slots.length);
+        tail++;
+        return value;
+    }
+}
\ No newline at end of file
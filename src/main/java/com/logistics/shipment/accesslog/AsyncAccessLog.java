@@ -0,0 +1,132 @@
+package com.logistics.shipment.accesslog;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Writes access log records as JSON lines from a background thread. Request threads only put the
+ * record into a ring buffer; formatting and the (synchronous) logging appenders run on the writer
+ * thread. When the writer falls behind and the buffer fills up, records are dropped and counted
+ * rather than slowing requests down.
+ */
+public class AsyncAccessLog implements AutoCloseable {
+    
+    public static final String LOGGER_NAME = "com.logistics.shipment.access";
+    
+    private static final Logger log = LoggerFactory.getLogger(AsyncAccessLog.class);
+    private static final JsonFactory JSON = new JsonFactory();
+    
+    private final AccessLogRing<AccessLogRecord> ring;
+    private final Consumer<String> sink;
+    private final long idleWaitNanos;
+    private final Thread writer;
+    private volatile boolean running = true;
+    
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    
+    public AsyncAccessLog(AccessLogProperties properties) {
+        this(properties, LoggerFactory.getLogger(LOGGER_NAME)::info);
+    }
+    
+    AsyncAccessLog(AccessLogProperties properties, Consumer<String> sink) {
+        this.ring = new AccessLogRing<>(properties.getBufferSize());
+        this.sink = sink;
+        this.idleWaitNanos = properties.getIdleWait().toNanos();
+        this.writer = new Thread(this::writeLoop, "access-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+    
+    /**
+     * Queues a record without blocking
+     * @return false if the buffer was full and the record was dropped
+     */
+    public boolean submit(AccessLogRecord record) {
+        if (ring.offer(record)) {
+            return true;
+        }
+        dropped.incrementAndGet();
+        return false;
+    }
+    
+    public long getDropped() {
+        return dropped.get();
+    }
+    
+    public long getWritten() {
+        return written.get();
+    }
+    
+    public int getBufferSize() {
+        return ring.capacity();
+    }
+    
+    /**
+     * Stops the writer after it has written what is already buffered
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private void writeLoop() {
+        StringWriter buffer = new StringWriter(256);
+        while (true) {
+            AccessLogRecord record = ring.poll();
+            if (record != null) {
+                write(record, buffer);
+            } else if (running) {
+                LockSupport.parkNanos(this, idleWaitNanos);
+            } else {
+                return;
+            }
+        }
+    }
+    
+    private void write(AccessLogRecord record, StringWriter buffer) {
+        buffer.getBuffer().setLength(0);
+        try {
+            format(record, buffer);
+            sink.accept(buffer.toString());
+            written.incrementAndGet();
+        } catch (IOException | RuntimeException e) {
+            // A broken appender must not kill the writer and silently stop the access log
+            log.warn("Failed to write access log record", e);
+        }
+    }
+    
+    static void format(AccessLogRecord record, StringWriter out) throws IOException {
+        try (JsonGenerator gen = JSON.createGenerator(out)) {
+            gen.writeStartObject();
+            gen.writeStringField("timestamp", Instant.ofEpochMilli(record.getTimestampMillis()).toString());
+            gen.writeStringField("method", record.getMethod());
+            gen.writeStringField("endpoint", record.getEndpoint());
+            if (record.getOrderId() != null) {
+                gen.writeStringField("orderId", record.getOrderId());
+            }
+            gen.writeNumberField("status", record.getStatus());
+            gen.writeStringField("outcome", record.getOutcome().name());
+            gen.writeNumberField("latencyMicros", record.getLatencyMicros());
+            gen.writeNumberField("bytes", record.getBytes());
+            gen.writeStringField("reason", record.getReason().name());
+            gen.writeEndObject();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,93 @@
+package com.logistics.shipment.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limiter whose limit follows observed latency (AIMD).
+ * The limit grows by roughly one per window of successful requests while latency stays
+ * under target and is cut multiplicatively when latency exceeds it.
+ */
+public class AdaptiveConcurrencyLimiter {
+    
+    private static final double BACKOFF_RATIO = 0.9;
+    
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetLatencyNanos;
+    // Minimum spacing between two decreases so one slow burst does not collapse the limit
+    private final long decreaseIntervalNanos;
+    
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final ReentrantLock updateLock = new ReentrantLock();
+    
+    private volatile double limit;
+    private long lastDecreaseNanos;
+    
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, long targetLatencyNanos) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Invalid limiter bounds: min=" + minLimit + ", max=" + maxLimit);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.targetLatencyNanos = targetLatencyNanos;
+        this.decreaseIntervalNanos = targetLatencyNanos;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+    
+    /**
+     * Tries to reserve a slot; callers must call {@link #release(long)} when a slot was acquired
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+    
+    /**
+     * Releases a slot and feeds the observed latency into the limit
+     */
+    public void release(long latencyNanos) {
+        int observedInFlight = inFlight.getAndDecrement();
+        // Samples are dropped rather than waited for when another thread is updating
+        if (!updateLock.tryLock()) {
+            return;
+        }
+        try {
+            double current = limit;
+            if (latencyNanos > targetLatencyNanos) {
+                long now = System.nanoTime();
+                if (now - lastDecreaseNanos >= decreaseIntervalNanos) {
+                    lastDecreaseNanos = now;
+                    limit = Math.max(minLimit, current * BACKOFF_RATIO);
+                }
+            } else if (observedInFlight * 2 >= current) {
+                // Only grow while the limit is actually being used
+                limit = Math.min(maxLimit, current + 1.0 / current);
+            }
+        } finally {
+            updateLock.unlock();
+        }
+    }
+    
+    /**
+     * Releases a slot without recording a latency sample
+     */
+    public void releaseWithoutSample() {
+        inFlight.decrementAndGet();
+    }
+    
+    public int getLimit() {
+        return (int) limit;
+    }
+    
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
\ No newline at end of file
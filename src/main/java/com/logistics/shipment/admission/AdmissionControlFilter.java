@@ -0,0 +1,135 @@
+package com.logistics.shipment.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logistics.shipment.web.FilterErrorResponses;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.security.Principal;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Servlet filter in front of the shipment API that sheds load before it reaches Tomcat's worker pool.
+ * Each endpoint class has its own latency-adaptive concurrency limit and may only use its share
+ * of the global budget, so list, export and stats calls are rejected before single-shipment reads.
+ */
+public class AdmissionControlFilter extends OncePerRequestFilter {
+    
+    private final AdmissionControlProperties properties;
+    private final ObjectMapper objectMapper;
+    private final ClientRateLimiter rateLimiter;
+    
+    private final Map<EndpointClass, AdaptiveConcurrencyLimiter> limiters = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, Integer> globalCeilings = new EnumMap<>(EndpointClass.class);
+    private final AtomicInteger globalInFlight = new AtomicInteger();
+    
+    public AdmissionControlFilter(AdmissionControlProperties properties, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        AdmissionControlProperties.RateLimit rateLimit = properties.getRateLimit();
+        this.rateLimiter = rateLimit.isEnabled()
+                ? new ClientRateLimiter(rateLimit.getCapacity(), rateLimit.getRefillPerSecond(), rateLimit.getMaxClients())
+                : null;
+        
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            AdmissionControlProperties.ClassLimits limits = properties.limitsFor(endpointClass);
+            limiters.put(endpointClass, new AdaptiveConcurrencyLimiter(
+                    limits.getInitialLimit(),
+                    limits.getMinLimit(),
+                    limits.getMaxLimit(),
+                    limits.getTargetLatency().toNanos()));
+            globalCeilings.put(endpointClass,
+                    Math.max(1, (int) (properties.getMaxConcurrency() * limits.getShare())));
+        }
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled();
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        EndpointClass endpointClass = EndpointClass.classify(request.getMethod(), request.getRequestURI());
+        if (endpointClass == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        
+        if (rateLimiter != null) {
+            long waitNanos = rateLimiter.tryConsume(clientId(request));
+            if (waitNanos > 0) {
+                long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+                reject(response, HttpStatus.TOO_MANY_REQUESTS, retryAfter,
+                        "Client request rate exceeded");
+                return;
+            }
+        }
+        
+        // Lower-priority classes hit their ceiling first as the global budget fills up
+        if (globalInFlight.incrementAndGet() > globalCeilings.get(endpointClass)) {
+            globalInFlight.decrementAndGet();
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, properties.getRetryAfterSeconds(),
+                    "Server is shedding load, please retry later");
+            return;
+        }
+        
+        AdaptiveConcurrencyLimiter limiter = limiters.get(endpointClass);
+        if (!limiter.tryAcquire()) {
+            globalInFlight.decrementAndGet();
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, properties.getRetryAfterSeconds(),
+                    "Server is shedding load, please retry later");
+            return;
+        }
+        
+        long start = System.nanoTime();
+        boolean completed = false;
+        try {
+            chain.doFilter(request, response);
+            completed = true;
+        } finally {
+            globalInFlight.decrementAndGet();
+            if (completed) {
+                limiter.release(System.nanoTime() - start);
+            } else {
+                limiter.releaseWithoutSample();
+            }
+        }
+    }
+    
+    /**
+     * Current adaptive limit of an endpoint class
+     */
+    public int getLimit(EndpointClass endpointClass) {
+        return limiters.get(endpointClass).getLimit();
+    }
+    
+    // The authenticated caller, else the configured gateway header, else the remote address. A
+    // free-form header from the caller would let one client spread its requests over any number
+    // of buckets, so it is only read when the deployment says a gateway sets it
+    private String clientId(HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        if (principal != null) {
+            return principal.getName();
+        }
+        String header = properties.getClientIdHeader();
+        String clientId = header != null && !header.isBlank() ? request.getHeader(header) : null;
+        return clientId != null && !clientId.isBlank() ? clientId : request.getRemoteAddr();
+    }
+    
+    private void reject(HttpServletResponse response, HttpStatus status, long retryAfterSeconds, String message)
+            throws IOException {
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        FilterErrorResponses.write(response, objectMapper, status, message);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,124 @@
+package com.logistics.shipment.admission;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration for admission control and load shedding (prefix: shipment.admission)
+ */
+@ConfigurationProperties(prefix = "shipment.admission")
+public class AdmissionControlProperties {
+    
+    private boolean enabled = true;
+    
+    // Global in-flight budget shared by all endpoint classes
+    private int maxConcurrency = 200;
+    
+    private int retryAfterSeconds = 1;
+    
+    // Header naming the client for rate limiting, only to be set when a gateway in front of the
+    // service sets it and drops any value sent by callers; unset, clients are keyed by address
+    private String clientIdHeader;
+    
+    private ClassLimits cheapRead = new ClassLimits(64, 8, 400, Duration.ofMillis(50), 1.0);
+    
+    private ClassLimits write = new ClassLimits(32, 4, 200, Duration.ofMillis(100), 0.9);
+    
+    private ClassLimits expensive = new ClassLimits(8, 1, 50, Duration.ofMillis(500), 0.5);
+    
+    private RateLimit rateLimit = new RateLimit();
+    
+    public ClassLimits limitsFor(EndpointClass endpointClass) {
+        return switch (endpointClass) {
+            case CHEAP_READ -> cheapRead;
+            case WRITE -> write;
+            case EXPENSIVE -> expensive;
+        };
+    }
+    
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    
+    public int getMaxConcurrency() { return maxConcurrency; }
+    public void setMaxConcurrency(int maxConcurrency) { this.maxConcurrency = maxConcurrency; }
+    
+    public int getRetryAfterSeconds() { return retryAfterSeconds; }
+    public void setRetryAfterSeconds(int retryAfterSeconds) { this.retryAfterSeconds = retryAfterSeconds; }
+    
+    public String getClientIdHeader() { return clientIdHeader; }
+    public void setClientIdHeader(String clientIdHeader) { this.clientIdHeader = clientIdHeader; }
+    
+    public ClassLimits getCheapRead() { return cheapRead; }
+    public void setCheapRead(ClassLimits cheapRead) { this.cheapRead = cheapRead; }
+    
+    public ClassLimits getWrite() { return write; }
+    public void setWrite(ClassLimits write) { this.write = write; }
+    
+    public ClassLimits getExpensive() { return expensive; }
+    public void setExpensive(ClassLimits expensive) { this.expensive = expensive; }
+    
+    public RateLimit getRateLimit() { return rateLimit; }
+    public void setRateLimit(RateLimit rateLimit) { this.rateLimit = rateLimit; }
+    
+    /**
+     * Adaptive concurrency limits for one endpoint class
+     */
+    public static class ClassLimits {
+        private int initialLimit;
+        private int minLimit;
+        private int maxLimit;
+        // Latency above which the limit is reduced
+        private Duration targetLatency;
+        // Fraction of the global budget this class may occupy before it is shed
+        private double share;
+        
+        public ClassLimits() {}
+        
+        public ClassLimits(int initialLimit, int minLimit, int maxLimit, Duration targetLatency, double share) {
+            this.initialLimit = initialLimit;
+            this.minLimit = minLimit;
+            this.maxLimit = maxLimit;
+            this.targetLatency = targetLatency;
+            this.share = share;
+        }
+        
+        public int getInitialLimit() { return initialLimit; }
+        public void setInitialLimit(int initialLimit) { this.initialLimit = initialLimit; }
+        
+        public int getMinLimit() { return minLimit; }
+        public void setMinLimit(int minLimit) { this.minLimit = minLimit; }
+        
+        public int getMaxLimit() { return maxLimit; }
+        public void setMaxLimit(int maxLimit) { this.maxLimit = maxLimit; }
+        
+        public Duration getTargetLatency() { return targetLatency; }
+        public void setTargetLatency(Duration targetLatency) { this.targetLatency = targetLatency; }
+        
+        public double getShare() { return share; }
+        public void setShare(double share) { this.share = share; }
+    }
+    
+    /**
+     * Per-client token bucket settings
+     */
+    public static class RateLimit {
+        private boolean enabled = true;
+        private int capacity = 200;
+        private double refillPerSecond = 100;
+        // Upper bound on tracked clients; new clients beyond it replace idle buckets or share one
+        private int maxClients = 10_000;
+        
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+        
+        public int getCapacity() { return capacity; }
+        public void setCapacity(int capacity) { this.capacity = capacity; }
+        
+        public double getRefillPerSecond() { return refillPerSecond; }
+        public void setRefillPerSecond(double refillPerSecond) { this.refillPerSecond = refillPerSecond; }
+        
+        public int getMaxClients() { return maxClients; }
+        public void setMaxClients(int maxClients) { this.maxClients = maxClients; }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,149 @@
+package com.logistics.shipment.admission;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-client token buckets so a single noisy caller cannot consume the whole service. At most
+ * maxClients buckets are kept: a new client at the limit takes the place of an idle one, and if
+ * none of the few looked at is idle it shares one overflow bucket with every other such client,
+ * so a flood of new identities is limited as one caller instead of growing the map.
+ */
+public class ClientRateLimiter {
+    
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final int EVICTION_BATCH = 8;
+    private static final int EVICTION_SCAN = 64;
+    
+    private final double capacity;
+    private final double refillPerNano;
+    private final int maxClients;
+    private final LongSupplier clock;
+    
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    // Buckets in the map plus slots reserved by clients being added, never above maxClients
+    private final AtomicInteger tracked = new AtomicInteger();
+    private final TokenBucket overflow;
+    private final AtomicBoolean evicting = new AtomicBoolean();
+    // Guarded by evicting
+    private Iterator<Map.Entry<String, TokenBucket>> evictionHand;
+    
+    public ClientRateLimiter(int capacity, double refillPerSecond, int maxClients) {
+        this(capacity, refillPerSecond, maxClients, System::nanoTime);
+    }
+    
+    ClientRateLimiter(int capacity, double refillPerSecond, int maxClients, LongSupplier clock) {
+        this.capacity = capacity;
+        this.refillPerNano = refillPerSecond / NANOS_PER_SECOND;
+        this.maxClients = maxClients;
+        this.clock = clock;
+        this.overflow = new TokenBucket(capacity, clock.getAsLong());
+    }
+    
+    /**
+     * Takes one token for the client
+     * @return 0 if the request is allowed, otherwise the number of nanoseconds until a token is available
+     */
+    public long tryConsume(String clientId) {
+        long now = clock.getAsLong();
+        TokenBucket bucket = buckets.get(clientId);
+        if (bucket == null) {
+            bucket = admit(clientId, now);
+        }
+        return bucket.tryConsume(now);
+    }
+    
+    public int getTrackedClients() {
+        return buckets.size();
+    }
+    
+    private TokenBucket admit(String clientId, long now) {
+        if (!reserve()) {
+            evictIdle(now);
+            if (!reserve()) {
+                return overflow;
+            }
+        }
+        TokenBucket created = new TokenBucket(capacity, now);
+        TokenBucket existing = buckets.putIfAbsent(clientId, created);
+        if (existing != null) {
+            tracked.decrementAndGet();
+            return existing;
+        }
+        return created;
+    }
+    
+    private boolean reserve() {
+        if (tracked.incrementAndGet() <= maxClients) {
+            return true;
+        }
+        tracked.decrementAndGet();
+        return false;
+    }
+    
+    /**
+     * Evicts buckets that have refilled completely, since they carry no state worth keeping.
+     * Scanning resumes where the previous call stopped and looks at no more than
+     * {@link #EVICTION_SCAN} buckets, so the request that finds the map full pays a small fixed cost.
+     */
+    private void evictIdle(long now) {
+        if (!evicting.compareAndSet(false, true)) {
+            // Another request is already making room; this one falls back to the overflow bucket
+            return;
+        }
+        try {
+            int evicted = 0;
+            for (int scanned = 0; scanned < EVICTION_SCAN && evicted < EVICTION_BATCH; scanned++) {
+                if (evictionHand == null || !evictionHand.hasNext()) {
+                    evictionHand = buckets.entrySet().iterator();
+                    if (!evictionHand.hasNext()) {
+                        break;
+                    }
+                }
+                Map.Entry<String, TokenBucket> entry = evictionHand.next();
+                if (entry.getValue().isFull(now) && buckets.remove(entry.getKey(), entry.getValue())) {
+                    tracked.decrementAndGet();
+                    evicted++;
+                }
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+    
+    private final class TokenBucket {
+        private double tokens;
+        private long lastRefillNanos;
+        
+        TokenBucket(double tokens, long now) {
+            this.tokens = tokens;
+            this.lastRefillNanos = now;
+        }
+        
+        synchronized long tryConsume(long now) {
+            refill(now);
+            if (tokens >= 1.0) {
+                tokens -= 1.0;
+                return 0;
+            }
+            return (long) Math.ceil((1.0 - tokens) / refillPerNano);
+        }
+        
+        synchronized boolean isFull(long now) {
+            refill(now);
+            return tokens >= capacity;
+        }
+        
+        private void refill(long now) {
+            long elapsed = now - lastRefillNanos;
+            if (elapsed > 0) {
+                tokens = Math.min(capacity, tokens + elapsed * refillPerNano);
+                lastRefillNanos = now;
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,34 @@
+package com.logistics.shipment.admission;
+
+import com.logistics.shipment.web.ShipmentPaths;
+
+/**
+ * Cost classes used by admission control to decide which requests are shed first.
+ * Classes with a lower share of the global concurrency budget are rejected earlier
+ * as the service approaches saturation.
+ */
+public enum EndpointClass {
+    CHEAP_READ,
+    WRITE,
+    EXPENSIVE;
+    
+    /**
+     * Classifies a request by HTTP method and path
+     * @return the endpoint class, or null if the request is not subject to admission control
+     */
+    public static EndpointClass classify(String method, String path) {
+        String subPath = ShipmentPaths.subPath(path);
+        if (subPath == null) {
+            return null;
+        }
+        if (!"GET".equalsIgnoreCase(method) && !"HEAD".equalsIgnoreCase(method)) {
+            // Bulk import writes a whole file in one request
+            return ShipmentPaths.isCollectionResource(subPath) ? EXPENSIVE : WRITE;
+        }
+        if (subPath.isEmpty()) {
+            return EXPENSIVE; // list
+        }
+        // Collection-wide resources such as stats and export scan the whole store
+        return ShipmentPaths.isCollectionResource(subPath) ? EXPENSIVE : CHEAP_READ;
+    }
+}
\ No newline at end of file
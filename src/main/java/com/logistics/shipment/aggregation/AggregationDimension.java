@@ -0,0 +1,31 @@
+package com.logistics.shipment.aggregation;
+
+/**
+ * Shipment attributes that aggregation results can be grouped by
+ */
+public enum AggregationDimension {
+    STATUS("status"),
+    ORIGIN("origin"),
+    DESTINATION("destination"),
+    CREATED_DATE("createdDate");
+    
+    private final String value;
+    
+    AggregationDimension(String value) {
+        this.value = value;
+    }
+    
+    public String getValue() {
+        return value;
+    }
+    
+    public static AggregationDimension fromValue(String value) {
+        for (AggregationDimension dimension : values()) {
+            if (dimension.value.equalsIgnoreCase(value)) {
+                return dimension;
+            }
+        }
+        throw new IllegalArgumentException("Invalid groupBy dimension: " + value
+                + " (expected status, origin, destination or createdDate)");
+    }
+}
\ No newline at end of file
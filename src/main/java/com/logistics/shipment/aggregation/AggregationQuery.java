@@ -0,0 +1,87 @@
+package com.logistics.shipment.aggregation;
+
+import com.logistics.shipment.model.Shipment;
+import com.logistics.shipment.model.ShipmentStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Group-by dimensions and filters of one aggregation. Filters are combined with AND;
+ * origin and destination match case-insensitively, createdFrom is inclusive and createdTo exclusive.
+ */
+public class AggregationQuery {
+    
+    private final List<AggregationDimension> dimensions;
+    private final DateBucket bucket;
+    private final ShipmentStatus status;
+    private final String origin;
+    private final String destination;
+    private final LocalDateTime createdFrom;
+    private final LocalDateTime createdTo;
+    
+    public AggregationQuery(List<AggregationDimension> dimensions, DateBucket bucket, ShipmentStatus status,
+                            String origin, String destination, LocalDateTime createdFrom, LocalDateTime createdTo) {
+        this.dimensions = List.copyOf(dimensions);
+        this.bucket = bucket != null ? bucket : DateBucket.DAY;
+        this.status = status;
+        this.origin = origin;
+        this.destination = destination;
+        this.createdFrom = createdFrom;
+        this.createdTo = createdTo;
+    }
+    
+    /**
+     * Builds a query from request parameters
+     * @param groupBy Comma-separated dimension names; empty or null gives a single overall count
+     * @throws IllegalArgumentException for unknown dimensions, buckets or statuses, or repeated dimensions
+     */
+    public static AggregationQuery of(String groupBy, String bucket, String status, String origin,
+                                      String destination, LocalDateTime createdFrom, LocalDateTime createdTo) {
+        List<AggregationDimension> dimensions = new ArrayList<>();
+        Set<AggregationDimension> seen = EnumSet.noneOf(AggregationDimension.class);
+        if (groupBy != null) {
+            for (String name : groupBy.split(",")) {
+                if (name.isBlank()) {
+                    continue;
+                }
+                AggregationDimension dimension = AggregationDimension.fromValue(name.trim());
+                if (!seen.add(dimension)) {
+                    throw new IllegalArgumentException("Duplicate groupBy dimension: " + dimension.getValue());
+                }
+                dimensions.add(dimension);
+            }
+        }
+        return new AggregationQuery(dimensions,
+                bucket != null ? DateBucket.fromValue(bucket) : null,
+                status != null ? ShipmentStatus.fromValue(status) : null,
+                origin, destination, createdFrom, createdTo);
+    }
+    
+    /**
+     * A shipment without a creation time falls outside every createdFrom/createdTo window
+     */
+    public boolean matches(Shipment shipment) {
+        LocalDateTime createdAt = shipment.getCreatedAt();
+        return (status == null || shipment.getStatus() == status)
+                && (origin == null || origin.equalsIgnoreCase(shipment.getOrigin()))
+                && (destination == null || destination.equalsIgnoreCase(shipment.getDestination()))
+                && (createdFrom == null || createdAt != null && !createdAt.isBefore(createdFrom))
+                && (createdTo == null || createdAt != null && createdAt.isBefore(createdTo));
+    }
+    
+    public List<AggregationDimension> getDimensions() {
+        return dimensions;
+    }
+    
+    public boolean groupsBy(AggregationDimension dimension) {
+        return dimensions.contains(dimension);
+    }
+    
+    public DateBucket getBucket() {
+        return bucket;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,58 @@
+package com.logistics.shipment.aggregation;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Response of an aggregation: one group per distinct combination of the group-by values,
+ * largest groups first
+ */
+public class AggregationResult {
+    
+    private final List<String> groupBy;
+    private final String bucket;
+    private final long matched;
+    private final List<Group> groups;
+    
+    public AggregationResult(List<String> groupBy, String bucket, long matched, List<Group> groups) {
+        this.groupBy = groupBy;
+        this.bucket = bucket;
+        this.matched = matched;
+        this.groups = groups;
+    }
+    
+    public List<String> getGroupBy() { return groupBy; }
+    
+    /**
+     * Date bucket width, or null if the result is not grouped by createdDate
+     */
+    public String getBucket() { return bucket; }
+    
+    /**
+     * Number of shipments that passed the filters
+     */
+    public long getMatched() { return matched; }
+    
+    public List<Group> getGroups() { return groups; }
+    
+    /**
+     * Values of the group-by dimensions, keyed by dimension name, and the number of shipments
+     */
+    public static class Group {
+        // A null value is a real group (e.g. shipments without a createdAt), so it is written out
+        @JsonInclude(content = JsonInclude.Include.ALWAYS)
+        private final Map<String, String> key;
+        private final long count;
+        
+        public Group(Map<String, String> key, long count) {
+            this.key = key;
+            this.count = count;
+        }
+        
+        public Map<String, String> getKey() { return key; }
+        
+        public long getCount() { return count; }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,76 @@
+package com.logistics.shipment.aggregation;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Locale;
+
+/**
+ * Width of the createdDate groups. Buckets are numbered with a long while aggregating,
+ * so grouping a shipment does not allocate a date object.
+ */
+public enum DateBucket {
+    HOUR {
+        @Override
+        long bucketOf(LocalDateTime timestamp) {
+            return timestamp.toLocalDate().toEpochDay() * 24 + timestamp.getHour();
+        }
+        
+        @Override
+        String format(long bucket) {
+            return LocalDate.ofEpochDay(Math.floorDiv(bucket, 24)).atTime(Math.floorMod(bucket, 24), 0).toString();
+        }
+    },
+    DAY {
+        @Override
+        long bucketOf(LocalDateTime timestamp) {
+            return timestamp.toLocalDate().toEpochDay();
+        }
+        
+        @Override
+        String format(long bucket) {
+            return LocalDate.ofEpochDay(bucket).toString();
+        }
+    },
+    WEEK {
+        // Weeks start on Monday; epoch day 0 was a Thursday
+        @Override
+        long bucketOf(LocalDateTime timestamp) {
+            long epochDay = timestamp.toLocalDate().toEpochDay();
+            return epochDay - Math.floorMod(epochDay + 3, 7);
+        }
+        
+        @Override
+        String format(long bucket) {
+            return LocalDate.ofEpochDay(bucket).toString();
+        }
+    },
+    MONTH {
+        @Override
+        long bucketOf(LocalDateTime timestamp) {
+            return timestamp.getYear() * 12L + timestamp.getMonthValue() - 1;
+        }
+        
+        @Override
+        String format(long bucket) {
+            return YearMonth.of((int) Math.floorDiv(bucket, 12), Math.floorMod(bucket, 12) + 1).toString();
+        }
+    };
+    
+    abstract long bucketOf(LocalDateTime timestamp);
+    
+    abstract String format(long bucket);
+    
+    public String getValue() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+    
+    public static DateBucket fromValue(String value) {
+        for (DateBucket bucket : values()) {
+            if (bucket.name().equalsIgnoreCase(value)) {
+                return bucket;
+            }
+        }
+        throw new IllegalArgumentException("Invalid bucket: " + value + " (expected hour, day, week or month)");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,172 @@
+package com.logistics.shipment.aggregation;
+
+import com.logistics.shipment.model.Shipment;
+import com.logistics.shipment.model.ShipmentStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collector;
+import java.util.stream.Stream;
+
+/**
+ * Evaluates an {@link AggregationQuery} in one pass. On a parallel stream the fork-join framework
+ * gives every leaf task its own partial aggregate, which is filled without synchronization
+ * and merged with its siblings as the tasks complete.
+ */
+public final class ShipmentAggregator {
+    
+    // Bucket of shipments stored without a creation time; reported as a null createdDate
+    private static final long NO_DATE = Long.MIN_VALUE;
+    
+    private ShipmentAggregator() {
+    }
+    
+    public static AggregationResult aggregate(Stream<Shipment> shipments, AggregationQuery query) {
+        Partial result = shipments.collect(Collector.of(
+                () -> new Partial(query),
+                Partial::add,
+                Partial::merge,
+                Collector.Characteristics.UNORDERED));
+        return result.toResult();
+    }
+    
+    /**
+     * Counts per group for the shipments seen by one fork-join task
+     */
+    private static final class Partial {
+        private final AggregationQuery query;
+        private final boolean byStatus;
+        private final boolean byOrigin;
+        private final boolean byDestination;
+        private final boolean byCreatedDate;
+        private final Map<GroupKey, long[]> counts = new HashMap<>();
+        // Reused for lookups; only groups seen for the first time allocate a key of their own
+        private final GroupKey probe = new GroupKey();
+        private long matched;
+        
+        Partial(AggregationQuery query) {
+            this.query = query;
+            this.byStatus = query.groupsBy(AggregationDimension.STATUS);
+            this.byOrigin = query.groupsBy(AggregationDimension.ORIGIN);
+            this.byDestination = query.groupsBy(AggregationDimension.DESTINATION);
+            this.byCreatedDate = query.groupsBy(AggregationDimension.CREATED_DATE);
+        }
+        
+        void add(Shipment shipment) {
+            if (!query.matches(shipment)) {
+                return;
+            }
+            matched++;
+            probe.set(byStatus ? shipment.getStatus() : null,
+                    byOrigin ? shipment.getOrigin() : null,
+                    byDestination ? shipment.getDestination() : null,
+                    byCreatedDate ? bucketOf(shipment) : 0);
+            long[] count = counts.get(probe);
+            if (count == null) {
+                counts.put(probe.copy(), new long[] {1});
+            } else {
+                count[0]++;
+            }
+        }
+        
+        private long bucketOf(Shipment shipment) {
+            LocalDateTime createdAt = shipment.getCreatedAt();
+            return createdAt != null ? query.getBucket().bucketOf(createdAt) : NO_DATE;
+        }
+        
+        Partial merge(Partial other) {
+            Partial larger = counts.size() >= other.counts.size() ? this : other;
+            Partial smaller = larger == this ? other : this;
+            smaller.counts.forEach((key, count) -> {
+                long[] existing = larger.counts.putIfAbsent(key, count);
+                if (existing != null) {
+                    existing[0] += count[0];
+                }
+            });
+            larger.matched += smaller.matched;
+            return larger;
+        }
+        
+        AggregationResult toResult() {
+            List<AggregationResult.Group> groups = new ArrayList<>(counts.size());
+            counts.forEach((key, count) -> groups.add(new AggregationResult.Group(describe(key), count[0])));
+            groups.sort(Comparator.comparingLong(AggregationResult.Group::getCount).reversed()
+                    .thenComparing(group -> group.getKey().toString()));
+            
+            List<String> groupBy = query.getDimensions().stream().map(AggregationDimension::getValue).toList();
+            String bucket = byCreatedDate ? query.getBucket().getValue() : null;
+            return new AggregationResult(groupBy, bucket, matched, groups);
+        }
+        
+        private Map<String, String> describe(GroupKey key) {
+            Map<String, String> values = new LinkedHashMap<>();
+            for (AggregationDimension dimension : query.getDimensions()) {
+                values.put(dimension.getValue(), switch (dimension) {
+                    case STATUS -> key.status.name();
+                    case ORIGIN -> key.origin;
+                    case DESTINATION -> key.destination;
+                    case CREATED_DATE -> key.bucket != NO_DATE ? query.getBucket().format(key.bucket) : null;
+                });
+            }
+            return values;
+        }
+    }
+    
+    /**
+     * Group-by values of one shipment; dimensions that are not grouped on stay null or 0
+     */
+    private static final class GroupKey {
+        private ShipmentStatus status;
+        private String origin;
+        private String destination;
+        private long bucket;
+        private int hash;
+        
+        void set(ShipmentStatus status, String origin, String destination, long bucket) {
+            this.status = status;
+            this.origin = origin;
+            this.destination = destination;
+            this.bucket = bucket;
+            int h = Objects.hashCode(status);
+            h = 31 * h + Objects.hashCode(origin);
+            h = 31 * h + Objects.hashCode(destination);
+            this.hash = 31 * h + Long.hashCode(bucket);
+        }
+        
+        GroupKey copy() {
+            GroupKey copy = new GroupKey();
+            copy.status = status;
+            copy.origin = origin;
+            copy.destination = destination;
+            copy.bucket = bucket;
+            copy.hash = hash;
+            return copy;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof GroupKey other)) {
+                return false;
+            }
+            return hash == other.hash
+                    && bucket == other.bucket
+                    && status == other.status
+                    && Objects.equals(origin, other.origin)
+                    && Objects.equals(destination, other.destination);
+        }
+        
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,77 @@
+package com.logistics.shipment.bulkexport;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Growable little-endian byte buffer that one column chunk is encoded into before it is written
+ */
+final class ColumnBuffer {
+    
+    private byte[] bytes;
+    private int size;
+    
+    ColumnBuffer(int initialCapacity) {
+        bytes = new byte[Math.max(16, initialCapacity)];
+    }
+    
+    int size() {
+        return size;
+    }
+    
+    void clear() {
+        size = 0;
+    }
+    
+    void putByte(int value) {
+        ensureCapacity(1);
+        bytes[size++] = (byte) value;
+    }
+    
+    void putInt(int value) {
+        ensureCapacity(Integer.BYTES);
+        for (int shift = 0; shift < Integer.SIZE; shift += 8) {
+            bytes[size++] = (byte) (value >>> shift);
+        }
+    }
+    
+    void putLong(long value) {
+        ensureCapacity(Long.BYTES);
+        for (int shift = 0; shift < Long.SIZE; shift += 8) {
+            bytes[size++] = (byte) (value >>> shift);
+        }
+    }
+    
+    // Unsigned LEB128: seven bits per byte, high bit set on all but the last
+    void putVarLong(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        bytes[size++] = (byte) value;
+    }
+    
+    void putBytes(byte[] value) {
+        ensureCapacity(value.length);
+        System.arraycopy(value, 0, bytes, size, value.length);
+        size += value.length;
+    }
+    
+    void setInt(int position, int value) {
+        for (int shift = 0; shift < Integer.SIZE; shift += 8) {
+            bytes[position++] = (byte) (value >>> shift);
+        }
+    }
+    
+    void writeTo(OutputStream out) throws IOException {
+        out.write(bytes, 0, size);
+    }
+    
+    private void ensureCapacity(int extra) {
+        if (size + extra > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+        }
+    }
+}
\ No newline at end of file
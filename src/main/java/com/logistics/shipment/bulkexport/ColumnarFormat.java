@@ -0,0 +1,67 @@
+package com.logistics.shipment.bulkexport;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Layout of the columnar shipment export. All numbers are little-endian.
+ * <pre>
+ * file      := MAGIC rowGroup* footer footerLength:int32 MAGIC
+ * rowGroup  := one chunk per {@link ShipmentColumn}, in declaration order
+ * footer    := formatVersion:int32 snapshotVersion:int64 exportedAtMillis:int64 rowCount:int64
+ *              statusCount:int32 string*  dictionarySize:int32 string*
+ *              rowGroupCount:int32 (rows:int32 (offset:int64 length:int32){columns})*
+ * string    := length:int32 utf8Bytes
+ * </pre>
+ * Column chunks:
+ * <ul>
+ *   <li>ORDER_ID: rows + 1 int32 offsets into the UTF-8 bytes that follow them</li>
+ *   <li>ORIGIN, DESTINATION: int32 index per row into the location dictionary, which both share</li>
+ *   <li>STATUS: one byte per row, indexing the status names in the footer</li>
+ *   <li>CREATED_AT: first value as int64, then the difference to the previous row as a zigzag
+ *       varint. Rows are sorted by creation time within a row group, so differences are small.</li>
+ *   <li>UPDATED_AT: the difference to the row's CREATED_AT as a zigzag varint</li>
+ * </ul>
+ * Timestamps are nanoseconds since 1970-01-01T00:00 of the stored local time, and
+ * {@link #NULL_TIMESTAMP} stands for a missing one. Differences wrap around on overflow.
+ */
+public final class ColumnarFormat {
+    
+    public static final int FORMAT_VERSION = 1;
+    
+    public static final long NULL_TIMESTAMP = Long.MIN_VALUE;
+    
+    static final byte[] MAGIC = "SHPCOL01".getBytes(StandardCharsets.US_ASCII);
+    
+    // footerLength and the closing magic
+    static final int TRAILER_BYTES = Integer.BYTES + 8;
+    
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    
+    private ColumnarFormat() {
+    }
+    
+    public static long toEpochNanos(LocalDateTime timestamp) {
+        if (timestamp == null) {
+            return NULL_TIMESTAMP;
+        }
+        return timestamp.toEpochSecond(ZoneOffset.UTC) * NANOS_PER_SECOND + timestamp.getNano();
+    }
+    
+    public static LocalDateTime toLocalDateTime(long epochNanos) {
+        if (epochNanos == NULL_TIMESTAMP) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(epochNanos, NANOS_PER_SECOND),
+                (int) Math.floorMod(epochNanos, NANOS_PER_SECOND), ZoneOffset.UTC);
+    }
+    
+    static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+    
+    static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,244 @@
+package com.logistics.shipment.bulkexport;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+
+/**
+ * Reads a columnar shipment export by memory-mapping it. Each scan maps and decodes only the
+ * chunks of the columns it needs, row group by row group, and hands out primitive values, so
+ * counting statuses or bucketing creation times never builds a row or touches other columns.
+ * <p>
+ * Within a row group rows are ordered by creation time; the n-th value of every column scan
+ * belongs to the same shipment.
+ */
+public final class ColumnarShipmentReader implements AutoCloseable {
+    
+    private static final int COLUMNS = ShipmentColumn.values().length;
+    
+    private final FileChannel channel;
+    private final long snapshotVersion;
+    private final long exportedAtMillis;
+    private final long rowCount;
+    private final List<String> statuses;
+    private final List<String> locations;
+    private final int[] rowGroupRows;
+    private final long[] chunkOffsets;
+    private final int[] chunkLengths;
+    
+    private ColumnarShipmentReader(FileChannel channel) throws IOException {
+        this.channel = channel;
+        long size = channel.size();
+        if (size < ColumnarFormat.MAGIC.length + ColumnarFormat.TRAILER_BYTES
+                || !hasMagic(map(0, ColumnarFormat.MAGIC.length))) {
+            throw new IOException("Not a columnar shipment export");
+        }
+        ByteBuffer trailer = map(size - ColumnarFormat.TRAILER_BYTES, ColumnarFormat.TRAILER_BYTES);
+        int footerLength = trailer.getInt();
+        if (!hasMagic(trailer) || footerLength < 0
+                || footerLength > size - ColumnarFormat.MAGIC.length - ColumnarFormat.TRAILER_BYTES) {
+            throw new IOException("Columnar shipment export is truncated");
+        }
+        
+        ByteBuffer footer = map(size - ColumnarFormat.TRAILER_BYTES - footerLength, footerLength);
+        int formatVersion = footer.getInt();
+        if (formatVersion != ColumnarFormat.FORMAT_VERSION) {
+            throw new IOException("Unsupported columnar export version " + formatVersion);
+        }
+        snapshotVersion = footer.getLong();
+        exportedAtMillis = footer.getLong();
+        rowCount = footer.getLong();
+        statuses = readStrings(footer);
+        locations = readStrings(footer);
+        int rowGroups = footer.getInt();
+        rowGroupRows = new int[rowGroups];
+        chunkOffsets = new long[rowGroups * COLUMNS];
+        chunkLengths = new int[rowGroups * COLUMNS];
+        for (int group = 0; group < rowGroups; group++) {
+            rowGroupRows[group] = footer.getInt();
+            for (int column = 0; column < COLUMNS; column++) {
+                chunkOffsets[group * COLUMNS + column] = footer.getLong();
+                chunkLengths[group * COLUMNS + column] = footer.getInt();
+            }
+        }
+    }
+    
+    public static ColumnarShipmentReader open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            return new ColumnarShipmentReader(channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+    
+    /**
+     * @return commit version of the store snapshot the export was written from
+     */
+    public long getSnapshotVersion() {
+        return snapshotVersion;
+    }
+    
+    public long getExportedAtMillis() {
+        return exportedAtMillis;
+    }
+    
+    public long getRowCount() {
+        return rowCount;
+    }
+    
+    public int getRowGroupCount() {
+        return rowGroupRows.length;
+    }
+    
+    /**
+     * @return status names by the ordinal that {@link #scanStatuses} reports
+     */
+    public List<String> getStatuses() {
+        return statuses;
+    }
+    
+    /**
+     * @return origins and destinations by the index that {@link #scanOrigins} and {@link #scanDestinations} report
+     */
+    public List<String> getLocations() {
+        return locations;
+    }
+    
+    public void scanOrderIds(Consumer<String> action) throws IOException {
+        for (int group = 0; group < rowGroupRows.length; group++) {
+            ByteBuffer chunk = chunk(group, ShipmentColumn.ORDER_ID);
+            int rows = rowGroupRows[group];
+            int dataStart = (rows + 1) * Integer.BYTES;
+            byte[] bytes = new byte[64];
+            for (int i = 0; i < rows; i++) {
+                int start = chunk.getInt(i * Integer.BYTES);
+                int length = chunk.getInt((i + 1) * Integer.BYTES) - start;
+                if (length > bytes.length) {
+                    bytes = new byte[length];
+                }
+                chunk.get(dataStart + start, bytes, 0, length);
+                action.accept(new String(bytes, 0, length, StandardCharsets.UTF_8));
+            }
+        }
+    }
+    
+    /**
+     * Reports each row's index into {@link #getLocations()}, or -1 if it has no origin
+     */
+    public void scanOrigins(IntConsumer action) throws IOException {
+        scanInts(ShipmentColumn.ORIGIN, action);
+    }
+    
+    /**
+     * Reports each row's index into {@link #getLocations()}, or -1 if it has no destination
+     */
+    public void scanDestinations(IntConsumer action) throws IOException {
+        scanInts(ShipmentColumn.DESTINATION, action);
+    }
+    
+    /**
+     * Reports each row's index into {@link #getStatuses()}
+     */
+    public void scanStatuses(IntConsumer action) throws IOException {
+        for (int group = 0; group < rowGroupRows.length; group++) {
+            ByteBuffer chunk = chunk(group, ShipmentColumn.STATUS);
+            for (int i = 0; i < rowGroupRows[group]; i++) {
+                action.accept(chunk.get(i) & 0xFF);
+            }
+        }
+    }
+    
+    /**
+     * Reports each row's creation time in epoch nanoseconds, see {@link ColumnarFormat#toLocalDateTime}
+     */
+    public void scanCreatedAt(LongConsumer action) throws IOException {
+        for (int group = 0; group < rowGroupRows.length; group++) {
+            ByteBuffer createdAt = chunk(group, ShipmentColumn.CREATED_AT);
+            long value = createdAt.getLong();
+            action.accept(value);
+            for (int i = 1; i < rowGroupRows[group]; i++) {
+                value += ColumnarFormat.unzigzag(readVarLong(createdAt));
+                action.accept(value);
+            }
+        }
+    }
+    
+    /**
+     * Reports each row's last update time in epoch nanoseconds. It is stored relative to the
+     * creation time, so that column is decoded alongside.
+     */
+    public void scanUpdatedAt(LongConsumer action) throws IOException {
+        for (int group = 0; group < rowGroupRows.length; group++) {
+            ByteBuffer createdAt = chunk(group, ShipmentColumn.CREATED_AT);
+            ByteBuffer updatedAt = chunk(group, ShipmentColumn.UPDATED_AT);
+            long created = 0;
+            for (int i = 0; i < rowGroupRows[group]; i++) {
+                created = i == 0 ? createdAt.getLong() : created + ColumnarFormat.unzigzag(readVarLong(createdAt));
+                action.accept(created + ColumnarFormat.unzigzag(readVarLong(updatedAt)));
+            }
+        }
+    }
+    
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+    
+    private void scanInts(ShipmentColumn column, IntConsumer action) throws IOException {
+        for (int group = 0; group < rowGroupRows.length; group++) {
+            ByteBuffer chunk = chunk(group, column);
+            for (int i = 0; i < rowGroupRows[group]; i++) {
+                action.accept(chunk.getInt(i * Integer.BYTES));
+            }
+        }
+    }
+    
+    private ByteBuffer chunk(int group, ShipmentColumn column) throws IOException {
+        int index = group * COLUMNS + column.ordinal();
+        return map(chunkOffsets[index], chunkLengths[index]);
+    }
+    
+    private ByteBuffer map(long offset, int length) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_ONLY, offset, length).order(ByteOrder.LITTLE_ENDIAN);
+    }
+    
+    private static boolean hasMagic(ByteBuffer buffer) {
+        byte[] magic = new byte[ColumnarFormat.MAGIC.length];
+        buffer.get(magic);
+        return Arrays.equals(magic, ColumnarFormat.MAGIC);
+    }
+    
+    private static List<String> readStrings(ByteBuffer buffer) {
+        int count = buffer.getInt();
+        List<String> strings = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            byte[] bytes = new byte[buffer.getInt()];
+            buffer.get(bytes);
+            strings.add(new String(bytes, StandardCharsets.UTF_8));
+        }
+        return List.copyOf(strings);
+    }
+    
+    private static long readVarLong(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,186 @@
+package com.logistics.shipment.bulkexport;
+
+import com.logistics.shipment.model.Shipment;
+import com.logistics.shipment.model.ShipmentStatus;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes shipments in the {@link ColumnarFormat} layout. Only the current row group and the
+ * location dictionary are held in memory; each full row group is sorted by creation time, encoded
+ * column by column and written out.
+ */
+public class ColumnarShipmentWriter {
+    
+    private static final ShipmentColumn[] COLUMNS = ShipmentColumn.values();
+    private static final Comparator<Shipment> BY_CREATED_AT =
+            Comparator.comparingLong(shipment -> ColumnarFormat.toEpochNanos(shipment.getCreatedAt()));
+    
+    private final OutputStream out;
+    private final Shipment[] rows;
+    private final ColumnBuffer chunk;
+    private final Map<String, Integer> locationIds = new HashMap<>();
+    private final List<String> locations = new ArrayList<>();
+    private final List<RowGroup> rowGroups = new ArrayList<>();
+    private final long startNanos = System.nanoTime();
+    
+    private int bufferedRows;
+    private long totalRows;
+    private long position;
+    
+    public ColumnarShipmentWriter(OutputStream out, int rowGroupSize) throws IOException {
+        if (rowGroupSize <= 0) {
+            throw new IllegalArgumentException("Row group size must be positive: " + rowGroupSize);
+        }
+        this.out = out;
+        this.rows = new Shipment[rowGroupSize];
+        this.chunk = new ColumnBuffer(rowGroupSize * Long.BYTES);
+        out.write(ColumnarFormat.MAGIC);
+        position = ColumnarFormat.MAGIC.length;
+    }
+    
+    public void write(Shipment shipment) throws IOException {
+        rows[bufferedRows++] = shipment;
+        totalRows++;
+        if (bufferedRows == rows.length) {
+            writeRowGroup();
+        }
+    }
+    
+    /**
+     * Writes the last row group and the footer. The output stream is flushed, not closed.
+     */
+    public ExportSummary finish(long snapshotVersion) throws IOException {
+        if (bufferedRows > 0) {
+            writeRowGroup();
+        }
+        chunk.clear();
+        chunk.putInt(ColumnarFormat.FORMAT_VERSION);
+        chunk.putLong(snapshotVersion);
+        chunk.putLong(System.currentTimeMillis());
+        chunk.putLong(totalRows);
+        ShipmentStatus[] statuses = ShipmentStatus.values();
+        chunk.putInt(statuses.length);
+        for (ShipmentStatus status : statuses) {
+            putString(status.name());
+        }
+        chunk.putInt(locations.size());
+        for (String location : locations) {
+            putString(location);
+        }
+        chunk.putInt(rowGroups.size());
+        for (RowGroup rowGroup : rowGroups) {
+            chunk.putInt(rowGroup.rows());
+            for (int column = 0; column < COLUMNS.length; column++) {
+                chunk.putLong(rowGroup.offsets()[column]);
+                chunk.putInt(rowGroup.lengths()[column]);
+            }
+        }
+        int footerLength = chunk.size();
+        chunk.putInt(footerLength);
+        chunk.putBytes(ColumnarFormat.MAGIC);
+        chunk.writeTo(out);
+        position += chunk.size();
+        out.flush();
+        
+        return new ExportSummary(snapshotVersion, totalRows, rowGroups.size(), locations.size(), position,
+                (System.nanoTime() - startNanos) / 1_000_000);
+    }
+    
+    private void writeRowGroup() throws IOException {
+        int count = bufferedRows;
+        Arrays.sort(rows, 0, count, BY_CREATED_AT);
+        long[] offsets = new long[COLUMNS.length];
+        int[] lengths = new int[COLUMNS.length];
+        for (ShipmentColumn column : COLUMNS) {
+            chunk.clear();
+            encode(column, count);
+            offsets[column.ordinal()] = position;
+            lengths[column.ordinal()] = chunk.size();
+            chunk.writeTo(out);
+            position += chunk.size();
+        }
+        rowGroups.add(new RowGroup(count, offsets, lengths));
+        Arrays.fill(rows, 0, count, null);
+        bufferedRows = 0;
+    }
+    
+    private void encode(ShipmentColumn column, int count) {
+        switch (column) {
+            case ORDER_ID -> {
+                // Offsets first, filled in as the bytes are appended behind them
+                for (int i = 0; i <= count; i++) {
+                    chunk.putInt(0);
+                }
+                int start = chunk.size();
+                for (int i = 0; i < count; i++) {
+                    chunk.setInt(i * Integer.BYTES, chunk.size() - start);
+                    chunk.putBytes(rows[i].getOrderId().getBytes(StandardCharsets.UTF_8));
+                }
+                chunk.setInt(count * Integer.BYTES, chunk.size() - start);
+            }
+            case ORIGIN -> {
+                for (int i = 0; i < count; i++) {
+                    chunk.putInt(locationId(rows[i].getOrigin()));
+                }
+            }
+            case DESTINATION -> {
+                for (int i = 0; i < count; i++) {
+                    chunk.putInt(locationId(rows[i].getDestination()));
+                }
+            }
+            case STATUS -> {
+                for (int i = 0; i < count; i++) {
+                    chunk.putByte(rows[i].getStatus().ordinal());
+                }
+            }
+            case CREATED_AT -> {
+                long previous = ColumnarFormat.toEpochNanos(rows[0].getCreatedAt());
+                chunk.putLong(previous);
+                for (int i = 1; i < count; i++) {
+                    long createdAt = ColumnarFormat.toEpochNanos(rows[i].getCreatedAt());
+                    chunk.putVarLong(ColumnarFormat.zigzag(createdAt - previous));
+                    previous = createdAt;
+                }
+            }
+            case UPDATED_AT -> {
+                for (int i = 0; i < count; i++) {
+                    long createdAt = ColumnarFormat.toEpochNanos(rows[i].getCreatedAt());
+                    long updatedAt = ColumnarFormat.toEpochNanos(rows[i].getUpdatedAt());
+                    chunk.putVarLong(ColumnarFormat.zigzag(updatedAt - createdAt));
+                }
+            }
+        }
+    }
+    
+    // -1 for a missing location
+    private int locationId(String location) {
+        if (location == null) {
+            return -1;
+        }
+        Integer id = locationIds.get(location);
+        if (id == null) {
+            id = locations.size();
+            locationIds.put(location, id);
+            locations.add(location);
+        }
+        return id;
+    }
+    
+    private void putString(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        chunk.putInt(bytes.length);
+        chunk.putBytes(bytes);
+    }
+    
+    private record RowGroup(int rows, long[] offsets, int[] lengths) {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.logistics.shipment.bulkexport;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration for the columnar export (prefix: shipment.export)
+ */
+@ConfigurationProperties(prefix = "shipment.export")
+public class ExportProperties {
+    
+    // Rows per row group; one row group is buffered and sorted at a time while writing
+    private int rowGroupSize = 65_536;
+    
+    // Where downloads are encoded before they are sent; empty uses the system temp directory
+    private String spoolDir;
+    
+    public int getRowGroupSize() { return rowGroupSize; }
+    public void setRowGroupSize(int rowGroupSize) { this.rowGroupSize = rowGroupSize; }
+    
+    public String getSpoolDir() { return spoolDir; }
+    public void setSpoolDir(String spoolDir) { this.spoolDir = spoolDir; }
+}
\ No newline at end of file
@@ -0,0 +1,42 @@
+package com.logistics.shipment.bulkexport;
+
+/**
+ * Outcome of one columnar export
+ */
+public class ExportSummary {
+    
+    private final long snapshotVersion;
+    private final long rows;
+    private final int rowGroups;
+    private final int dictionarySize;
+    private final long bytes;
+    private final long elapsedMillis;
+    
+    public ExportSummary(long snapshotVersion, long rows, int rowGroups, int dictionarySize, long bytes,
+                         long elapsedMillis) {
+        this.snapshotVersion = snapshotVersion;
+        this.rows = rows;
+        this.rowGroups = rowGroups;
+        this.dictionarySize = dictionarySize;
+        this.bytes = bytes;
+        this.elapsedMillis = elapsedMillis;
+    }
+    
+    public long getSnapshotVersion() { return snapshotVersion; }
+    
+    public long getRows() { return rows; }
+    
+    public int getRowGroups() { return rowGroups; }
+    
+    public int getDictionarySize() { return dictionarySize; }
+    
+    public long getBytes() { return bytes; }
+    
+    public long getElapsedMillis() { return elapsedMillis; }
+    
+    @Override
+    public String toString() {
+        return "Export of snapshot " + snapshotVersion + ": " + rows + " rows in " + rowGroups + " row groups, "
+                + dictionarySize + " locations, " + bytes + " bytes in " + elapsedMillis + " ms";
+    }
+}
\ No newline at end of file
@@ -0,0 +1,13 @@
+package com.logistics.shipment.bulkexport;
+
+/**
+ * Columns of the columnar export, in the order their chunks appear in each row group
+ */
+public enum ShipmentColumn {
+    ORDER_ID,
+    ORIGIN,
+    DESTINATION,
+    STATUS,
+    CREATED_AT,
+    UPDATED_AT
+}
\ No newline at end of file
@@ -0,0 +1,76 @@
+package com.logistics.shipment.bulkexport;
+
+import com.logistics.shipment.model.Shipment;
+import com.logistics.shipment.store.ShipmentSnapshot;
+import com.logistics.shipment.store.ShipmentStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.function.LongConsumer;
+
+/**
+ * Exports the whole store in the columnar format from one snapshot. The snapshot keeps the export
+ * consistent without blocking writers. Downloads go through {@link #exportSpooled}, so the
+ * snapshot is closed before the client starts reading, however long it then takes.
+ */
+public class ShipmentExporter {
+    
+    private static final Logger log = LoggerFactory.getLogger(ShipmentExporter.class);
+    private static final int BUFFER_SIZE = 64 * 1024;
+    
+    private final ShipmentStore store;
+    private final ExportProperties properties;
+    
+    public ShipmentExporter(ShipmentStore store, ExportProperties properties) {
+        this.store = store;
+        this.properties = properties;
+    }
+    
+    public ExportSummary export(OutputStream out) throws IOException {
+        try (ShipmentSnapshot snapshot = store.snapshot()) {
+            ColumnarShipmentWriter writer = new ColumnarShipmentWriter(out, properties.getRowGroupSize());
+            Iterator<Shipment> shipments = snapshot.stream().iterator();
+            while (shipments.hasNext()) {
+                writer.write(shipments.next());
+            }
+            ExportSummary summary = writer.finish(snapshot.getVersion());
+            log.info("{}", summary);
+            return summary;
+        }
+    }
+    
+    /**
+     * Encodes the export into a file in spool-dir, closes the snapshot and only then copies the
+     * file to the output. An open snapshot keeps old versions and index removals alive, so a slow
+     * or stalled reader must not hold one for as long as it stays connected.
+     * @param beforeCopy receives the file length before copying starts, e.g. for Content-Length
+     */
+    public ExportSummary exportSpooled(OutputStream out, LongConsumer beforeCopy) throws IOException {
+        Path file = createSpoolFile();
+        try {
+            ExportSummary summary;
+            try (OutputStream spool = new BufferedOutputStream(Files.newOutputStream(file), BUFFER_SIZE)) {
+                summary = export(spool);
+            }
+            beforeCopy.accept(Files.size(file));
+            Files.copy(file, out);
+            return summary;
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+    
+    private Path createSpoolFile() throws IOException {
+        String spoolDir = properties.getSpoolDir();
+        if (spoolDir == null || spoolDir.isBlank()) {
+            return Files.createTempFile("shipments-", ".shpc");
+        }
+        return Files.createTempFile(Files.createDirectories(Path.of(spoolDir)), "shipments-", ".shpc");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,132 @@
+package com.logistics.shipment.bulkimport;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal RFC 4180 handling: splitting a stream into records and records into fields
+ */
+final class CsvRecords {
+    
+    private CsvRecords() {
+    }
+    
+    /**
+     * Reads the next record, joining physical lines while a quoted field is still open. A quote
+     * that does not close within maxRecordLength characters, or before the end of input, is
+     * taken as stray: only its own line is returned, which {@link #split} then rejects, and
+     * reading resumes at the line after it.
+     * @param lineNumber one-element counter of physical lines read so far, advanced in place
+     * @return the record without its line terminator, or null at end of input
+     */
+    static String next(BufferedReader reader, long[] lineNumber, int maxRecordLength) throws IOException {
+        String line = reader.readLine();
+        if (line == null) {
+            return null;
+        }
+        lineNumber[0]++;
+        if (!hasOpenQuote(line)) {
+            return line;
+        }
+        // Read ahead one character at a time within the mark, so a stray quote can neither pull in
+        // the rest of the file nor keep the lines after it from being read again
+        reader.mark(maxRecordLength);
+        StringBuilder record = new StringBuilder(line).append('\n');
+        long joined = 1;
+        boolean open = true;
+        boolean afterCarriageReturn = false;
+        for (int read = 0; read < maxRecordLength; read++) {
+            int c = reader.read();
+            if (c == -1) {
+                if (open) {
+                    break;
+                }
+                lineNumber[0] += joined;
+                return record.toString();
+            }
+            if (c == '\n' && afterCarriageReturn) {
+                afterCarriageReturn = false;
+                continue;
+            }
+            afterCarriageReturn = c == '\r';
+            if (c != '\r' && c != '\n') {
+                open ^= c == '"';
+                record.append((char) c);
+            } else if (open) {
+                joined++;
+                record.append('\n');
+            } else {
+                if (c == '\r') {
+                    skipLineFeed(reader);
+                }
+                lineNumber[0] += joined;
+                return record.toString();
+            }
+        }
+        reader.reset();
+        return line;
+    }
+    
+    private static void skipLineFeed(BufferedReader reader) throws IOException {
+        reader.mark(1);
+        if (reader.read() != '\n') {
+            reader.reset();
+        }
+    }
+    
+    /**
+     * Splits a record into its fields, removing quotes and unescaping doubled quotes
+     */
+    static List<String> split(String record) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < record.length(); i++) {
+            char c = record.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < record.length() && record.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+    
+    static String quote(String value) {
+        boolean needsQuotes = false;
+        for (int i = 0; i < value.length() && !needsQuotes; i++) {
+            char c = value.charAt(i);
+            needsQuotes = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        return needsQuotes ? '"' + value.replace("\"", "\"\"") + '"' : value;
+    }
+    
+    // An odd number of quote characters leaves a quoted field open at the end of the line
+    private static boolean hasOpenQuote(String line) {
+        boolean open = false;
+        for (int i = 0; i < line.length(); i++) {
+            if (line.charAt(i) == '"') {
+                open = !open;
+            }
+        }
+        return open;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,272 @@
+package com.logistics.shipment.bulkimport;
+
+import com.logistics.shipment.exception.WriteBackpressureException;
+import com.logistics.shipment.model.Shipment;
+import com.logistics.shipment.model.ShipmentStatus;
+import com.logistics.shipment.service.ShipmentService;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Streams shipments from CSV into the store. The calling thread only splits the input into
+ * records; chunks of records are parsed, validated and inserted by a pool of parser threads.
+ * At most two chunks per parser thread are in flight, so memory use does not depend on the input size.
+ * <p>
+ * The header row names the columns: orderId, origin and destination are required, status is
+ * optional and defaults to pending. Rows that fail validation or whose order ID already exists
+ * are written to a reject file together with their line number and the reason.
+ */
+public class CsvShipmentImporter {
+    
+    private static final Logger log = LoggerFactory.getLogger(CsvShipmentImporter.class);
+    
+    private final ShipmentService shipmentService;
+    private final Validator validator;
+    private final ImportProperties properties;
+    
+    public CsvShipmentImporter(ShipmentService shipmentService, Validator validator, ImportProperties properties) {
+        this.shipmentService = shipmentService;
+        this.validator = validator;
+        this.properties = properties;
+    }
+    
+    /**
+     * Imports every record of the input; the caller closes the reader
+     * @throws IllegalArgumentException if the input is empty or the header lacks a required column
+     */
+    public ImportSummary importCsv(Reader input) throws IOException {
+        String importId = LocalDate.now() + "-" + UUID.randomUUID().toString().substring(0, 8);
+        long start = System.nanoTime();
+        BufferedReader reader = input instanceof BufferedReader buffered ? buffered : new BufferedReader(input, 1 << 16);
+        long[] lineNumber = {0};
+        int maxRecordLength = properties.getMaxRecordLength();
+        
+        String header = CsvRecords.next(reader, lineNumber, maxRecordLength);
+        if (header == null) {
+            throw new IllegalArgumentException("CSV input is empty");
+        }
+        Columns columns = Columns.of(CsvRecords.split(stripByteOrderMark(header)));
+        
+        int parallelism = properties.effectiveParallelism();
+        int maxInFlight = parallelism * 2;
+        int chunkSize = Math.max(1, properties.getChunkSize());
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        Counters counters = new Counters();
+        ExecutorService parsers = Executors.newFixedThreadPool(parallelism, parserThreads(importId));
+        
+        try (RejectWriter rejects = new RejectWriter(Path.of(properties.getRejectDir(), importId + "-rejects.csv"))) {
+            List<RawRecord> chunk = new ArrayList<>(chunkSize);
+            String record;
+            long recordLine = lineNumber[0] + 1;
+            while (counters.failure.get() == null && (record = CsvRecords.next(reader, lineNumber, maxRecordLength)) != null) {
+                if (!record.isBlank()) {
+                    chunk.add(new RawRecord(recordLine, record));
+                    if (chunk.size() == chunkSize) {
+                        submit(parsers, inFlight, chunk, columns, rejects, counters);
+                        chunk = new ArrayList<>(chunkSize);
+                    }
+                }
+                recordLine = lineNumber[0] + 1;
+            }
+            if (!chunk.isEmpty()) {
+                submit(parsers, inFlight, chunk, columns, rejects, counters);
+            }
+            // All permits back means every chunk has finished
+            acquire(inFlight, maxInFlight);
+            
+            Throwable failure = counters.failure.get();
+            if (failure instanceof RuntimeException e) {
+                throw e;
+            } else if (failure != null) {
+                throw new IllegalStateException("Import " + importId + " failed", failure);
+            }
+            
+            Path rejectFile = rejects.getFile();
+            ImportSummary summary = new ImportSummary(importId, counters.total.get(), counters.imported.get(),
+                    counters.rejected.get(), (System.nanoTime() - start) / 1_000_000,
+                    rejectFile != null ? rejectFile.toString() : null);
+            log.info("{}", summary);
+            return summary;
+        } finally {
+            parsers.shutdownNow();
+        }
+    }
+    
+    private void submit(ExecutorService parsers, Semaphore inFlight, List<RawRecord> chunk, Columns columns,
+                        RejectWriter rejects, Counters counters) throws InterruptedIOException {
+        acquire(inFlight, 1);
+        parsers.execute(() -> {
+            try {
+                importChunk(chunk, columns, rejects, counters);
+            } catch (Throwable e) {
+                counters.failure.compareAndSet(null, e);
+            } finally {
+                inFlight.release();
+            }
+        });
+    }
+    
+    private void importChunk(List<RawRecord> chunk, Columns columns, RejectWriter rejects, Counters counters) {
+        List<Shipment> valid = new ArrayList<>(chunk.size());
+        List<RawRecord> validRecords = new ArrayList<>(chunk.size());
+        for (RawRecord record : chunk) {
+            try {
+                Shipment shipment = columns.toShipment(CsvRecords.split(record.text()));
+                String violations = violationsOf(shipment);
+                if (violations == null) {
+                    valid.add(shipment);
+                    validRecords.add(record);
+                } else {
+                    rejects.reject(record.line(), violations, record.text());
+                }
+            } catch (IllegalArgumentException e) {
+                rejects.reject(record.line(), e.getMessage(), record.text());
+            }
+        }
+        
+        List<Shipment> duplicates = valid.isEmpty() ? List.of() : insert(valid);
+        if (!duplicates.isEmpty()) {
+            Map<Shipment, RawRecord> recordOf = new IdentityHashMap<>(valid.size());
+            for (int i = 0; i < valid.size(); i++) {
+                recordOf.put(valid.get(i), validRecords.get(i));
+            }
+            for (Shipment duplicate : duplicates) {
+                RawRecord record = recordOf.get(duplicate);
+                rejects.reject(record.line(), "Shipment with order ID already exists: " + duplicate.getOrderId(),
+                        record.text());
+            }
+        }
+        
+        int rejected = chunk.size() - valid.size() + duplicates.size();
+        counters.total.addAndGet(chunk.size());
+        counters.imported.addAndGet(chunk.size() - rejected);
+        counters.rejected.addAndGet(rejected);
+    }
+    
+    // An import outlasts any backpressure timeout, so it waits for persistence instead of failing
+    private List<Shipment> insert(List<Shipment> shipments) {
+        while (true) {
+            try {
+                return shipmentService.importShipments(shipments);
+            } catch (WriteBackpressureException e) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw e;
+                }
+            }
+        }
+    }
+    
+    private String violationsOf(Shipment shipment) {
+        Set<ConstraintViolation<Shipment>> violations = validator.validate(shipment);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+    
+    private static void acquire(Semaphore semaphore, int permits) throws InterruptedIOException {
+        try {
+            semaphore.acquire(permits);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while importing");
+        }
+    }
+    
+    private static String stripByteOrderMark(String header) {
+        return !header.isEmpty() && header.charAt(0) == '\uFEFF' ? header.substring(1) : header;
+    }
+    
+    private static ThreadFactory parserThreads(String importId) {
+        AtomicInteger sequence = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "csv-import-" + importId + "-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+    
+    private record RawRecord(long line, String text) {
+    }
+    
+    private static final class Counters {
+        final AtomicLong total = new AtomicLong();
+        final AtomicLong imported = new AtomicLong();
+        final AtomicLong rejected = new AtomicLong();
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+    }
+    
+    /**
+     * Positions of the shipment fields in the header, matched case-insensitively
+     */
+    private static final class Columns {
+        private final int width;
+        private final int orderId;
+        private final int origin;
+        private final int destination;
+        private final int status;
+        
+        private Columns(int width, int orderId, int origin, int destination, int status) {
+            this.width = width;
+            this.orderId = orderId;
+            this.origin = origin;
+            this.destination = destination;
+            this.status = status;
+        }
+        
+        static Columns of(List<String> header) {
+            List<String> names = header.stream().map(name -> name.trim().toLowerCase(Locale.ROOT)).toList();
+            return new Columns(names.size(), required(names, "orderId"), required(names, "origin"),
+                    required(names, "destination"), names.indexOf("status"));
+        }
+        
+        private static int required(List<String> names, String column) {
+            int index = names.indexOf(column.toLowerCase(Locale.ROOT));
+            if (index < 0) {
+                throw new IllegalArgumentException("CSV header is missing the " + column + " column");
+            }
+            return index;
+        }
+        
+        Shipment toShipment(List<String> fields) {
+            if (fields.size() != width) {
+                throw new IllegalArgumentException("Expected " + width + " fields but found " + fields.size());
+            }
+            Shipment shipment = new Shipment();
+            shipment.setOrderId(fields.get(orderId));
+            shipment.setOrigin(fields.get(origin));
+            shipment.setDestination(fields.get(destination));
+            if (status >= 0 && !fields.get(status).isBlank()) {
+                shipment.setStatus(ShipmentStatus.fromValue(fields.get(status).trim()));
+            }
+            return shipment;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,48 @@
+package com.logistics.shipment.bulkimport;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration for CSV bulk import (prefix: shipment.import)
+ */
+@ConfigurationProperties(prefix = "shipment.import")
+public class ImportProperties {
+    
+    // CSV file imported at startup; the application exits afterwards unless exitAfterImport is false
+    private String file;
+    
+    private boolean exitAfterImport = true;
+    
+    // Parser threads per import; 0 means one per available processor
+    private int parallelism = 0;
+    
+    // Records handed to a parser thread at a time
+    private int chunkSize = 2000;
+    
+    // Characters a quoted field may run on for across lines before its opening quote is taken as stray
+    private int maxRecordLength = 64 * 1024;
+    
+    private String rejectDir = "./import-rejects";
+    
+    public String getFile() { return file; }
+    public void setFile(String file) { this.file = file; }
+    
+    public boolean isExitAfterImport() { return exitAfterImport; }
+    public void setExitAfterImport(boolean exitAfterImport) { this.exitAfterImport = exitAfterImport; }
+    
+    public int getParallelism() { return parallelism; }
+    public void setParallelism(int parallelism) { this.parallelism = parallelism; }
+    
+    public int getChunkSize() { return chunkSize; }
+    public void setChunkSize(int chunkSize) { this.chunkSize = chunkSize; }
+    
+    public int getMaxRecordLength() { return maxRecordLength; }
+    public void setMaxRecordLength(int maxRecordLength) { this.maxRecordLength = maxRecordLength; }
+    
+    public String getRejectDir() { return rejectDir; }
+    public void setRejectDir(String rejectDir) { this.rejectDir = rejectDir; }
+    
+    public int effectiveParallelism() {
+        return parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,52 @@
+package com.logistics.shipment.bulkimport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.BufferedReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Command-line mode: imports shipment.import.file once the application has started.
+ * With exitAfterImport the application then shuts down, which also drains write-behind persistence,
+ * and exits with status 0 if every row was imported, 2 if some rows were rejected and 1 on failure.
+ */
+public class ImportRunner implements ApplicationRunner {
+    
+    private static final Logger log = LoggerFactory.getLogger(ImportRunner.class);
+    
+    private final CsvShipmentImporter importer;
+    private final ImportProperties properties;
+    private final ConfigurableApplicationContext context;
+    
+    public ImportRunner(CsvShipmentImporter importer, ImportProperties properties,
+                        ConfigurableApplicationContext context) {
+        this.importer = importer;
+        this.properties = properties;
+        this.context = context;
+    }
+    
+    @Override
+    public void run(ApplicationArguments args) {
+        Path file = Path.of(properties.getFile());
+        int exitCode;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            ImportSummary summary = importer.importCsv(reader);
+            exitCode = summary.getRejected() > 0 ? 2 : 0;
+        } catch (Exception e) {
+            log.error("Import of {} failed", file, e);
+            exitCode = 1;
+        }
+        
+        if (properties.isExitAfterImport()) {
+            int status = exitCode;
+            System.exit(SpringApplication.exit(context, () -> status));
+        }
+    }
+}
\ No newline at end of file
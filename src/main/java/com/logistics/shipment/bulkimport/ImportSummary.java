@@ -0,0 +1,50 @@
+package com.logistics.shipment.bulkimport;
+
+/**
+ * Outcome of one CSV import
+ */
+public class ImportSummary {
+    
+    private final String importId;
+    private final long totalRows;
+    private final long imported;
+    private final long rejected;
+    private final long elapsedMillis;
+    private final String rejectFile;
+    
+    public ImportSummary(String importId, long totalRows, long imported, long rejected, long elapsedMillis,
+                         String rejectFile) {
+        this.importId = importId;
+        this.totalRows = totalRows;
+        this.imported = imported;
+        this.rejected = rejected;
+        this.elapsedMillis = elapsedMillis;
+        this.rejectFile = rejectFile;
+    }
+    
+    public String getImportId() { return importId; }
+    
+    public long getTotalRows() { return totalRows; }
+    
+    public long getImported() { return imported; }
+    
+    public long getRejected() { return rejected; }
+    
+    public long getElapsedMillis() { return elapsedMillis; }
+    
+    public long getRowsPerSecond() {
+        return elapsedMillis > 0 ? totalRows * 1000 / elapsedMillis : totalRows;
+    }
+    
+    /**
+     * Path of the reject file, or null if every row was imported
+     */
+    public String getRejectFile() { return rejectFile; }
+    
+    @Override
+    public String toString() {
+        return "Import " + importId + ": " + imported + " of " + totalRows + " rows imported, " + rejected
+                + " rejected in " + elapsedMillis + " ms (" + getRowsPerSecond() + " rows/s)"
+                + (rejectFile != null ? ", rejects in " + rejectFile : "");
+    }
+}
\ No newline at end of file
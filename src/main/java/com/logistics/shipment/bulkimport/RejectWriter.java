@@ -0,0 +1,54 @@
+package com.logistics.shipment.bulkimport;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Appends rejected rows to a CSV file shared by the parser threads of one import.
+ * The file is only created once the first row is rejected.
+ */
+class RejectWriter implements AutoCloseable {
+    
+    private final Path file;
+    private BufferedWriter writer;
+    
+    RejectWriter(Path file) {
+        this.file = file;
+    }
+    
+    synchronized void reject(long lineNumber, String reason, String record) {
+        try {
+            if (writer == null) {
+                Files.createDirectories(file.toAbsolutePath().getParent());
+                writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+                writer.write("line,reason,record\n");
+            }
+            writer.write(Long.toString(lineNumber));
+            writer.write(',');
+            writer.write(CsvRecords.quote(reason));
+            writer.write(',');
+            writer.write(CsvRecords.quote(record));
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write reject file " + file, e);
+        }
+    }
+    
+    /**
+     * @return the reject file, or null if nothing was rejected
+     */
+    synchronized Path getFile() {
+        return writer != null ? file : null;
+    }
+    
+    @Override
+    public synchronized void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,64 @@
+package com.logistics.shipment.cluster;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * HTTP client used to forward requests to other cluster nodes
+ */
+public class ClusterClient {
+    
+    // Marks a request that was already routed by a peer and must be served locally
+    public static final String FORWARDED_HEADER = "X-Cluster-Forwarded";
+    // Carries the cluster's shared secret, without which FORWARDED_HEADER is not trusted
+    public static final String SECRET_HEADER = "X-Cluster-Secret";
+    
+    private static final List<String> FORWARDED_REQUEST_HEADERS = List.of(
+            "Content-Type", "Accept", "X-Client-Id", "Idempotency-Key");
+    
+    private final String selfId;
+    private final String sharedSecret;
+    private final Duration timeout;
+    private final HttpClient httpClient;
+    
+    public ClusterClient(String selfId, String sharedSecret, Duration timeout) {
+        this.selfId = selfId;
+        this.sharedSecret = sharedSecret;
+        this.timeout = timeout;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(timeout)
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+    }
+    
+    /**
+     * Replays the request against another node
+     * @param body request body, or null to send none
+     */
+    public CompletableFuture<HttpResponse<byte[]>> forward(ClusterProperties.Node node, HttpServletRequest request,
+                                                           byte[] body) {
+        String target = node.getUrl() + request.getRequestURI()
+                + (request.getQueryString() != null ? "?" + request.getQueryString() : "");
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(target))
+                .timeout(timeout)
+                .header(FORWARDED_HEADER, selfId)
+                .header(SECRET_HEADER, sharedSecret)
+                .method(request.getMethod(), body == null
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofByteArray(body));
+        for (String header : FORWARDED_REQUEST_HEADERS) {
+            String value = request.getHeader(header);
+            if (value != null) {
+                builder.header(header, value);
+            }
+        }
+        return httpClient.sendAsync(builder.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+}
\ No newline at end of file
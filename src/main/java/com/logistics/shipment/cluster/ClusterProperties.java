@@ -0,0 +1,68 @@
+package com.logistics.shipment.cluster;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Static cluster membership (prefix: shipment.cluster)
+ */
+@ConfigurationProperties(prefix = "shipment.cluster")
+public class ClusterProperties {
+    
+    private boolean enabled = false;
+    
+    // ID of this node; must match one entry in nodes
+    private String nodeId;
+    
+    private List<Node> nodes = new ArrayList<>();
+    
+    // Sent by peers with every forwarded request; requests without it are routed like any client's
+    private String sharedSecret;
+    
+    // Ring positions per node; more positions give a more even key spread
+    private int virtualNodes = 128;
+    
+    private Duration requestTimeout = Duration.ofSeconds(2);
+    
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    
+    public String getNodeId() { return nodeId; }
+    public void setNodeId(String nodeId) { this.nodeId = nodeId; }
+    
+    public List<Node> getNodes() { return nodes; }
+    public void setNodes(List<Node> nodes) { this.nodes = nodes; }
+    
+    public String getSharedSecret() { return sharedSecret; }
+    public void setSharedSecret(String sharedSecret) { this.sharedSecret = sharedSecret; }
+    
+    public int getVirtualNodes() { return virtualNodes; }
+    public void setVirtualNodes(int virtualNodes) { this.virtualNodes = virtualNodes; }
+    
+    public Duration getRequestTimeout() { return requestTimeout; }
+    public void setRequestTimeout(Duration requestTimeout) { this.requestTimeout = requestTimeout; }
+    
+    /**
+     * A cluster member and the base URL it serves the API on
+     */
+    public static class Node {
+        private String id;
+        private String url;
+        
+        public Node() {}
+        
+        public Node(String id, String url) {
+            this.id = id;
+            this.url = url;
+        }
+        
+        public String getId() { return id; }
+        public void setId(String id) { this.id = id; }
+        
+        public String getUrl() { return url; }
+        public void setUrl(String url) { this.url = url; }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,267 @@
+package com.logistics.shipment.cluster;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.logistics.shipment.web.CachedBodyHttpServletRequest;
+import com.logistics.shipment.web.FilterErrorResponses;
+import com.logistics.shipment.web.ShipmentPaths;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Routes shipment API requests in cluster mode. Requests that address one order ID are served
+ * locally when this node owns the key and forwarded to the owner otherwise; list, stats and
+ * aggregate queries are scattered to every node and the partial results merged.
+ */
+public class ClusterRoutingFilter extends OncePerRequestFilter {
+    
+    // Connection-level headers of the hop to the owner (RFC 9110 7.6.1); the body length is set again here
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of("connection", "keep-alive",
+            "proxy-authenticate", "proxy-authorization", "te", "trailer", "transfer-encoding", "upgrade",
+            "content-length");
+    
+    private final String selfId;
+    private final byte[] sharedSecret;
+    private final ConsistentHashRing ring;
+    private final ClusterClient client;
+    private final ObjectMapper objectMapper;
+    private final long timeoutMillis;
+    private final Map<String, ClusterProperties.Node> nodes = new LinkedHashMap<>();
+    
+    public ClusterRoutingFilter(ClusterProperties properties, ConsistentHashRing ring, ClusterClient client,
+                                ObjectMapper objectMapper) {
+        this.selfId = properties.getNodeId();
+        this.sharedSecret = properties.getSharedSecret().getBytes(StandardCharsets.UTF_8);
+        this.ring = ring;
+        this.client = client;
+        this.objectMapper = objectMapper;
+        this.timeoutMillis = properties.getRequestTimeout().toMillis();
+        properties.getNodes().forEach(node -> nodes.put(node.getId(), node));
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String subPath = ShipmentPaths.subPath(request.getRequestURI());
+        if (subPath == null || isFromPeer(request)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        
+        String method = request.getMethod();
+        if (subPath.isEmpty()) {
+            if ("POST".equals(method)) {
+                routeCreate(request, response, chain);
+            } else if ("GET".equals(method)) {
+                scatterGather(request, response, chain, this::mergeArrays);
+            } else {
+                chain.doFilter(request, response);
+            }
+        } else if ("GET".equals(method) && "stats".equals(ShipmentPaths.firstSegment(subPath))) {
+            scatterGather(request, response, chain, this::mergeCounts);
+        } else if ("GET".equals(method) && "aggregate".equals(ShipmentPaths.firstSegment(subPath))) {
+            scatterGather(request, response, chain, this::mergeGroups);
+        } else if ("import".equals(ShipmentPaths.firstSegment(subPath))) {
+            // Rows would all land on this node regardless of which node owns their order ID
+            FilterErrorResponses.write(response, objectMapper, HttpStatus.NOT_IMPLEMENTED,
+                    "Bulk import is not supported in cluster mode; import on each node with its own share of rows");
+        } else if ("export".equals(ShipmentPaths.firstSegment(subPath))) {
+            // A file from this node alone would silently miss every other node's shipments
+            FilterErrorResponses.write(response, objectMapper, HttpStatus.NOT_IMPLEMENTED,
+                    "Export is not supported in cluster mode; export from each node and combine the files");
+        } else {
+            String orderId = ShipmentPaths.orderIdOf(request.getRequestURI());
+            if (orderId == null) {
+                chain.doFilter(request, response);
+            } else {
+                route(ring.ownerOf(orderId), request, response, chain);
+            }
+        }
+    }
+    
+    // Any client can send the forwarded header, so only a peer that knows the secret skips routing;
+    // otherwise a client could store shipments on a node that routing never looks at
+    private boolean isFromPeer(HttpServletRequest request) {
+        String secret = request.getHeader(ClusterClient.SECRET_HEADER);
+        return request.getHeader(ClusterClient.FORWARDED_HEADER) != null && secret != null
+                && MessageDigest.isEqual(sharedSecret, secret.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private void routeCreate(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        CachedBodyHttpServletRequest cached = new CachedBodyHttpServletRequest(request);
+        String orderId = null;
+        try {
+            JsonNode orderIdNode = objectMapper.readTree(cached.getBody()).get("orderId");
+            if (orderIdNode != null && orderIdNode.isTextual()) {
+                orderId = orderIdNode.asText();
+            }
+        } catch (IOException e) {
+            // Malformed body: let the controller produce the usual validation error
+        }
+        if (orderId == null) {
+            chain.doFilter(cached, response);
+            return;
+        }
+        route(ring.ownerOf(orderId), cached, response, chain);
+    }
+    
+    private void route(String owner, HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (selfId.equals(owner)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        byte[] body = request instanceof CachedBodyHttpServletRequest cached
+                ? cached.getBody()
+                : StreamUtils.copyToByteArray(request.getInputStream());
+        if (body.length == 0) {
+            body = null;
+        }
+        try {
+            HttpResponse<byte[]> forwarded = await(client.forward(nodes.get(owner), request, body));
+            response.setStatus(forwarded.statusCode());
+            forwarded.headers().map().forEach((name, values) -> {
+                if (!HOP_BY_HOP_HEADERS.contains(name.toLowerCase(Locale.ROOT)) && !name.startsWith(":")) {
+                    values.forEach(value -> response.addHeader(name, value));
+                }
+            });
+            response.getOutputStream().write(forwarded.body());
+        } catch (IOException e) {
+            unavailable(response, owner);
+        }
+    }
+    
+    private void scatterGather(HttpServletRequest request, HttpServletResponse response, FilterChain chain,
+                               Merger merger) throws ServletException, IOException {
+        List<String> peers = new ArrayList<>();
+        List<CompletableFuture<HttpResponse<byte[]>>> remote = new ArrayList<>();
+        for (ClusterProperties.Node node : nodes.values()) {
+            if (!node.getId().equals(selfId)) {
+                peers.add(node.getId());
+                remote.add(client.forward(node, request, null));
+            }
+        }
+        
+        ContentCachingResponseWrapper local = new ContentCachingResponseWrapper(response);
+        chain.doFilter(request, local);
+        if (local.getStatus() != HttpStatus.OK.value()) {
+            remote.forEach(future -> future.cancel(true));
+            local.copyBodyToResponse();
+            return;
+        }
+        
+        JsonNode merged = objectMapper.readTree(local.getContentAsByteArray());
+        for (int i = 0; i < remote.size(); i++) {
+            HttpResponse<byte[]> partial;
+            try {
+                partial = await(remote.get(i));
+            } catch (IOException e) {
+                unavailable(response, peers.get(i));
+                return;
+            }
+            if (partial.statusCode() != HttpStatus.OK.value()) {
+                unavailable(response, peers.get(i));
+                return;
+            }
+            merged = merger.merge(merged, objectMapper.readTree(partial.body()));
+        }
+        
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), merged);
+    }
+    
+    private JsonNode mergeArrays(JsonNode target, JsonNode source) {
+        ((ArrayNode) target).addAll((ArrayNode) source);
+        return target;
+    }
+    
+    // Sums numeric fields, recursing into nested objects such as countByStatus
+    private JsonNode mergeCounts(JsonNode target, JsonNode source) {
+        ObjectNode result = (ObjectNode) target;
+        Iterator<Map.Entry<String, JsonNode>> fields = source.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            JsonNode existing = result.get(field.getKey());
+            if (existing == null) {
+                result.set(field.getKey(), field.getValue());
+            } else if (existing.isNumber() && field.getValue().isNumber()) {
+                result.put(field.getKey(), existing.longValue() + field.getValue().longValue());
+            } else if (existing.isObject() && field.getValue().isObject()) {
+                mergeCounts(existing, field.getValue());
+            }
+        }
+        return result;
+    }
+    
+    // Adds up the counts of groups with equal keys and restores the largest-first order
+    private JsonNode mergeGroups(JsonNode target, JsonNode source) {
+        ObjectNode result = (ObjectNode) target;
+        Map<JsonNode, ObjectNode> groups = new LinkedHashMap<>();
+        for (JsonNode partial : List.of(target.get("groups"), source.get("groups"))) {
+            for (JsonNode group : partial) {
+                ObjectNode existing = groups.get(group.get("key"));
+                if (existing == null) {
+                    groups.put(group.get("key"), ((ObjectNode) group).deepCopy());
+                } else {
+                    existing.put("count", existing.get("count").longValue() + group.get("count").longValue());
+                }
+            }
+        }
+        List<ObjectNode> sorted = new ArrayList<>(groups.values());
+        sorted.sort(Comparator.comparingLong((ObjectNode group) -> group.get("count").longValue()).reversed()
+                .thenComparing(group -> group.get("key").toString()));
+        result.put("matched", target.get("matched").longValue() + source.get("matched").longValue());
+        result.putArray("groups").addAll(sorted);
+        return result;
+    }
+    
+    private HttpResponse<byte[]> await(CompletableFuture<HttpResponse<byte[]>> future) throws IOException {
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for cluster node", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IOException("Cluster node did not respond", e);
+        }
+    }
+    
+    private void unavailable(HttpServletResponse response, String nodeId) throws IOException {
+        response.resetBuffer();
+        FilterErrorResponses.write(response, objectMapper, HttpStatus.SERVICE_UNAVAILABLE,
+                "Cluster node unavailable: " + nodeId);
+    }
+    
+    @FunctionalInterface
+    private interface Merger {
+        JsonNode merge(JsonNode target, JsonNode source);
+    }
+}
\ No newline at end of file
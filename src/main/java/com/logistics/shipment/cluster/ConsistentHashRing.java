@@ -0,0 +1,50 @@
+package com.logistics.shipment.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Consistent-hash ring mapping order IDs to owning nodes. Each node is placed at several
+ * virtual positions so adding or removing a node only moves the keys adjacent to its positions.
+ */
+public class ConsistentHashRing {
+    
+    private final NavigableMap<Long, String> ring = new TreeMap<>();
+    
+    public ConsistentHashRing(Collection<String> nodeIds, int virtualNodes) {
+        if (nodeIds.isEmpty() || virtualNodes < 1) {
+            throw new IllegalArgumentException("Ring needs at least one node and one virtual node per node");
+        }
+        for (String nodeId : nodeIds) {
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.put(hash(nodeId + "#" + i), nodeId);
+            }
+        }
+    }
+    
+    /**
+     * @return the ID of the node that owns the given order ID
+     */
+    public String ownerOf(String orderId) {
+        Map.Entry<Long, String> entry = ring.ceilingEntry(hash(orderId));
+        return entry != null ? entry.getValue() : ring.firstEntry().getValue();
+    }
+    
+    // 64-bit FNV-1a followed by a murmur3 finalizer to spread short, similar keys
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
\ No newline at end of file
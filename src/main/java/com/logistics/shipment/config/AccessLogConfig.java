@@ -0,0 +1,34 @@
+package com.logistics.shipment.config;
+
+import com.logistics.shipment.accesslog.AccessLogFilter;
+import com.logistics.shipment.accesslog.AccessLogProperties;
+import com.logistics.shipment.accesslog.AsyncAccessLog;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Registers the sampled, asynchronous access log in front of the API
+ */
+@Configuration
+@EnableConfigurationProperties(AccessLogProperties.class)
+public class AccessLogConfig {
+    
+    @Bean(destroyMethod = "close")
+    public AsyncAccessLog asyncAccessLog(AccessLogProperties properties) {
+        return new AsyncAccessLog(properties);
+    }
+    
+    @Bean
+    public FilterRegistrationBean<AccessLogFilter> accessLogFilter(
+            AccessLogProperties properties, AsyncAccessLog asyncAccessLog) {
+        FilterRegistrationBean<AccessLogFilter> registration =
+                new FilterRegistrationBean<>(new AccessLogFilter(properties, asyncAccessLog));
+        registration.addUrlPatterns("/api/*");
+        // Outside the replica, admission and cluster filters, so their rejections are logged too
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 5);
+        return registration;
+    }
+}
\ No newline at end of file
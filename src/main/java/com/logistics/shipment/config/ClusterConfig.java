@@ -0,0 +1,51 @@
+package com.logistics.shipment.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logistics.shipment.cluster.ClusterClient;
+import com.logistics.shipment.cluster.ClusterProperties;
+import com.logistics.shipment.cluster.ClusterRoutingFilter;
+import com.logistics.shipment.cluster.ConsistentHashRing;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Cluster mode: static membership, consistent-hash ownership and request routing
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "shipment.cluster", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(ClusterProperties.class)
+public class ClusterConfig {
+    
+    @Bean
+    public ConsistentHashRing consistentHashRing(ClusterProperties properties) {
+        boolean selfListed = properties.getNodes().stream()
+                .anyMatch(node -> node.getId().equals(properties.getNodeId()));
+        if (!selfListed) {
+            throw new IllegalStateException("shipment.cluster.node-id '" + properties.getNodeId()
+                    + "' is not listed in shipment.cluster.nodes");
+        }
+        if (properties.getSharedSecret() == null || properties.getSharedSecret().isBlank()) {
+            throw new IllegalStateException("shipment.cluster.shared-secret must be set in cluster mode");
+        }
+        return new ConsistentHashRing(
+                properties.getNodes().stream().map(ClusterProperties.Node::getId).toList(),
+                properties.getVirtualNodes());
+    }
+    
+    @Bean
+    public FilterRegistrationBean<ClusterRoutingFilter> clusterRoutingFilter(
+            ClusterProperties properties, ConsistentHashRing ring, ObjectMapper objectMapper) {
+        ClusterClient client = new ClusterClient(properties.getNodeId(), properties.getSharedSecret(),
+                properties.getRequestTimeout());
+        FilterRegistrationBean<ClusterRoutingFilter> registration =
+                new FilterRegistrationBean<>(new ClusterRoutingFilter(properties, ring, client, objectMapper));
+        registration.addUrlPatterns("/api/*");
+        // After admission control, so forwarded work is still subject to this node's limits
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+        return registration;
+    }
+}
\ No newline at end of file
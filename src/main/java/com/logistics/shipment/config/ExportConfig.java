@@ -0,0 +1,21 @@
+package com.logistics.shipment.config;
+
+import com.logistics.shipment.bulkexport.ExportProperties;
+import com.logistics.shipment.bulkexport.ShipmentExporter;
+import com.logistics.shipment.store.ShipmentStore;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Columnar bulk export over HTTP
+ */
+@Configuration
+@EnableConfigurationProperties(ExportProperties.class)
+public class ExportConfig {
+    
+    @Bean
+    public ShipmentExporter shipmentExporter(ShipmentStore store, ExportProperties properties) {
+        return new ShipmentExporter(store, properties);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,37 @@
+package com.logistics.shipment.config;
+
+import com.logistics.shipment.events.StatusEventReconciler;
+import com.logistics.shipment.grpc.GrpcProperties;
+import com.logistics.shipment.grpc.GrpcServer;
+import com.logistics.shipment.grpc.ScanEventHandler;
+import com.logistics.shipment.grpc.ShipmentIngestService;
+import com.logistics.shipment.service.ShipmentService;
+import jakarta.validation.Validator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Optional gRPC ingestion endpoint for scanners, backed by the same service as the REST API.
+ * Events are applied locally, so it does not start on replication followers or in cluster mode.
+ */
+@Configuration
+@ConditionalOnExpression("${shipment.grpc.enabled:false}"
+        + " && !'${shipment.replication.role:none}'.equalsIgnoreCase('follower')"
+        + " && !${shipment.cluster.enabled:false}")
+@EnableConfigurationProperties(GrpcProperties.class)
+public class GrpcConfig {
+    
+    @Bean
+    public ShipmentIngestService shipmentIngestService(ShipmentService shipmentService, Validator validator,
+                                                       StatusEventReconciler reconciler, GrpcProperties properties) {
+        return new ShipmentIngestService(new ScanEventHandler(shipmentService, validator, reconciler),
+                properties.getWindow(), properties.getMaxReportedFailures());
+    }
+    
+    @Bean
+    public GrpcServer grpcServer(GrpcProperties properties, ShipmentIngestService shipmentIngestService) {
+        return new GrpcServer(properties, shipmentIngestService);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,35 @@
+package com.logistics.shipment.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logistics.shipment.idempotency.IdempotencyCache;
+import com.logistics.shipment.idempotency.IdempotencyFilter;
+import com.logistics.shipment.idempotency.IdempotencyProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Registers idempotency key handling for POST and PATCH requests
+ */
+@Configuration
+@EnableConfigurationProperties(IdempotencyProperties.class)
+public class IdempotencyConfig {
+    
+    @Bean
+    public IdempotencyCache idempotencyCache(IdempotencyProperties properties) {
+        return new IdempotencyCache(properties.getMaxEntries(), properties.getTtl().toNanos());
+    }
+    
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(
+            IdempotencyProperties properties, IdempotencyCache idempotencyCache, ObjectMapper objectMapper) {
+        FilterRegistrationBean<IdempotencyFilter> registration =
+                new FilterRegistrationBean<>(new IdempotencyFilter(properties, idempotencyCache, objectMapper));
+        registration.addUrlPatterns("/api/*");
+        // After cluster routing, so keys are remembered on the node that owns the order ID
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 30);
+        return registration;
+    }
+}
\ No newline at end of file
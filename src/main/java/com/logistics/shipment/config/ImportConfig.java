@@ -0,0 +1,33 @@
+package com.logistics.shipment.config;
+
+import com.logistics.shipment.bulkimport.CsvShipmentImporter;
+import com.logistics.shipment.bulkimport.ImportProperties;
+import com.logistics.shipment.bulkimport.ImportRunner;
+import com.logistics.shipment.service.ShipmentService;
+import jakarta.validation.Validator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * CSV bulk import, available over HTTP and as a command-line mode when shipment.import.file is set
+ */
+@Configuration
+@EnableConfigurationProperties(ImportProperties.class)
+public class ImportConfig {
+    
+    @Bean
+    public CsvShipmentImporter csvShipmentImporter(ShipmentService shipmentService, Validator validator,
+                                                   ImportProperties properties) {
+        return new CsvShipmentImporter(shipmentService, validator, properties);
+    }
+    
+    @Bean
+    @ConditionalOnProperty(prefix = "shipment.import", name = "file")
+    public ImportRunner importRunner(CsvShipmentImporter importer, ImportProperties properties,
+                                     ConfigurableApplicationContext context) {
+        return new ImportRunner(importer, properties, context);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,30 @@
+package com.logistics.shipment.config;
+
+import com.logistics.shipment.events.StatusEventReconciler;
+import com.logistics.shipment.idempotency.IdempotencyCache;
+import com.logistics.shipment.memory.MemoryFootprintEndpoint;
+import com.logistics.shipment.memory.MemoryFootprintProperties;
+import com.logistics.shipment.sla.SlaMonitor;
+import com.logistics.shipment.store.ShipmentStore;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the memory footprint actuator endpoint over the store and whichever caches are running
+ */
+@Configuration
+@EnableConfigurationProperties(MemoryFootprintProperties.class)
+public class MemoryFootprintConfig {
+    
+    @Bean
+    public MemoryFootprintEndpoint memoryFootprintEndpoint(ShipmentStore store,
+                                                           ObjectProvider<SlaMonitor> slaMonitor,
+                                                           ObjectProvider<IdempotencyCache> idempotencyCache,
+                                                           ObjectProvider<StatusEventReconciler> statusEventReconciler,
+                                                           MemoryFootprintProperties properties) {
+        return new MemoryFootprintEndpoint(store, slaMonitor.getIfAvailable(), idempotencyCache.getIfAvailable(),
+                statusEventReconciler.getIfAvailable(), properties);
+    }
+}
\ No newline at end of file
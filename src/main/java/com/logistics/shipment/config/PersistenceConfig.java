@@ -0,0 +1,24 @@
+package com.logistics.shipment.config;
+
+import com.logistics.shipment.persistence.PersistenceProperties;
+import com.logistics.shipment.persistence.WriteBehindShipmentPersister;
+import com.logistics.shipment.store.ShipmentStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Optional embedded-database persistence fed by a write-behind queue
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "shipment.persistence", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(PersistenceProperties.class)
+public class PersistenceConfig {
+    
+    @Bean
+    public WriteBehindShipmentPersister writeBehindShipmentPersister(PersistenceProperties properties,
+                                                                     ShipmentStore store) {
+        return new WriteBehindShipmentPersister(properties, store);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,40 @@
+package com.logistics.shipment.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logistics.shipment.events.StatusEventReconciler;
+import com.logistics.shipment.reactive.ReactiveProperties;
+import com.logistics.shipment.reactive.ReactiveServer;
+import com.logistics.shipment.reactive.ReactiveShipmentService;
+import com.logistics.shipment.reactive.ShipmentHandler;
+import com.logistics.shipment.service.ShipmentService;
+import jakarta.validation.Validator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Optional non-blocking variant of the shipment API on its own port, backed by the same service.
+ * Like gRPC ingestion it writes locally, so it does not start on replication followers or in cluster mode.
+ */
+@Configuration
+@ConditionalOnExpression("${shipment.reactive.enabled:false}"
+        + " && !'${shipment.replication.role:none}'.equalsIgnoreCase('follower')"
+        + " && !${shipment.cluster.enabled:false}")
+@EnableConfigurationProperties(ReactiveProperties.class)
+public class ReactiveConfig {
+    
+    @Bean
+    public ReactiveShipmentService reactiveShipmentService(ShipmentService shipmentService,
+                                                           StatusEventReconciler reconciler) {
+        return new ReactiveShipmentService(shipmentService, reconciler);
+    }
+    
+    @Bean
+    public ReactiveServer reactiveServer(ReactiveProperties properties, ReactiveShipmentService reactiveShipmentService,
+                                         Validator validator, ObjectMapper objectMapper) {
+        ShipmentHandler handler = new ShipmentHandler(reactiveShipmentService, validator, objectMapper,
+                properties.getListBatchSize());
+        return new ReactiveServer(properties, handler.routes(), objectMapper);
+    }
+}
\ No newline at end of file
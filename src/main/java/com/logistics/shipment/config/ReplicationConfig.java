@@ -0,0 +1,54 @@
+package com.logistics.shipment.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logistics.shipment.replication.ReadOnlyReplicaFilter;
+import com.logistics.shipment.replication.ReplicationFollower;
+import com.logistics.shipment.replication.ReplicationPrimary;
+import com.logistics.shipment.replication.ReplicationProperties;
+import com.logistics.shipment.service.ShipmentService;
+import com.logistics.shipment.store.ShipmentStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Leader-follower replication: the primary ships its mutation log, followers serve lagging reads
+ */
+@Configuration
+@EnableConfigurationProperties(ReplicationProperties.class)
+public class ReplicationConfig {
+    
+    @Configuration
+    @ConditionalOnProperty(prefix = "shipment.replication", name = "role", havingValue = "primary")
+    static class Primary {
+        
+        @Bean
+        public ReplicationPrimary replicationPrimary(ReplicationProperties properties, ShipmentStore store) {
+            return new ReplicationPrimary(properties, store);
+        }
+    }
+    
+    @Configuration
+    @ConditionalOnProperty(prefix = "shipment.replication", name = "role", havingValue = "follower")
+    static class Follower {
+        
+        @Bean
+        public ReplicationFollower replicationFollower(ReplicationProperties properties, ShipmentService shipmentService) {
+            return new ReplicationFollower(properties, shipmentService);
+        }
+        
+        @Bean
+        public FilterRegistrationBean<ReadOnlyReplicaFilter> readOnlyReplicaFilter(
+                ReplicationFollower follower, ObjectMapper objectMapper) {
+            FilterRegistrationBean<ReadOnlyReplicaFilter> registration =
+                    new FilterRegistrationBean<>(new ReadOnlyReplicaFilter(follower, objectMapper));
+            registration.addUrlPatterns("/api/*");
+            // Before admission control so rejected writes do not consume the write budget
+            registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 8);
+            return registration;
+        }
+    }
+}
\ No newline at end of file
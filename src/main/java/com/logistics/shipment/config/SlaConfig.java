@@ -0,0 +1,27 @@
+package com.logistics.shipment.config;
+
+import com.logistics.shipment.sla.SlaMonitor;
+import com.logistics.shipment.sla.SlaProperties;
+import com.logistics.shipment.store.ShipmentStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * SLA monitoring of dispatched and in-transit shipments. Followers skip it because replicated
+ * changes bypass the service listeners; the primary reports breaches for the whole data set.
+ */
+@Configuration
+@EnableConfigurationProperties(SlaProperties.class)
+@ConditionalOnExpression(SlaConfig.ENABLED)
+public class SlaConfig {
+    
+    public static final String ENABLED = "${shipment.sla.enabled:true}"
+            + " && !'${shipment.replication.role:none}'.equalsIgnoreCase('follower')";
+    
+    @Bean
+    public SlaMonitor slaMonitor(SlaProperties properties, ShipmentStore store) {
+        return new SlaMonitor(properties, store);
+    }
+}
\ No newline at end of file
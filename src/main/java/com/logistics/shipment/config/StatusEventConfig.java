@@ -0,0 +1,22 @@
+package com.logistics.shipment.config;
+
+import com.logistics.shipment.events.StatusEventProperties;
+import com.logistics.shipment.events.StatusEventReconciler;
+import com.logistics.shipment.service.ShipmentService;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers reconciliation of duplicate and out-of-order scanner status events
+ */
+@Configuration
+@EnableConfigurationProperties(StatusEventProperties.class)
+public class StatusEventConfig {
+    
+    @Bean
+    public StatusEventReconciler statusEventReconciler(ShipmentService shipmentService,
+                                                       StatusEventProperties properties) {
+        return new StatusEventReconciler(shipmentService, properties);
+    }
+}
\ No newline at end of file
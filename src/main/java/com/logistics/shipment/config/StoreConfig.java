@@ -0,0 +1,28 @@
+package com.logistics.shipment.config;
+
+import com.logistics.shipment.store.ConcurrentMapShipmentStore;
+import com.logistics.shipment.store.IndexedShipmentStore;
+import com.logistics.shipment.store.PartitionedShipmentStore;
+import com.logistics.shipment.store.ShipmentStore;
+import com.logistics.shipment.store.StoreProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Selects the storage engine used by the shipment service and wraps it with the configured secondary indexes
+ */
+@Configuration
+@EnableConfigurationProperties(StoreProperties.class)
+public class StoreConfig {
+    
+    @Bean(destroyMethod = "close")
+    public ShipmentStore shipmentStore(StoreProperties properties) {
+        ShipmentStore engine = switch (properties.getEngine()) {
+            case CONCURRENT_MAP -> new ConcurrentMapShipmentStore();
+            case PARTITIONED -> new PartitionedShipmentStore(
+                    properties.resolvePartitions(), properties.getMailboxCapacity());
+        };
+        return properties.getIndexes().isEmpty() ? engine : new IndexedShipmentStore(engine, properties.getIndexes());
+    }
+}
\ No newline at end of file
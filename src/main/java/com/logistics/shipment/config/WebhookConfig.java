@@ -0,0 +1,27 @@
+package com.logistics.shipment.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logistics.shipment.webhook.WebhookDispatcher;
+import com.logistics.shipment.webhook.WebhookProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Asynchronous webhook delivery of status changes. Like SLA monitoring it runs where writes are
+ * applied through the service, so not on replication followers.
+ */
+@Configuration
+@EnableConfigurationProperties(WebhookProperties.class)
+@ConditionalOnExpression(WebhookConfig.ENABLED)
+public class WebhookConfig {
+    
+    public static final String ENABLED = "${shipment.webhooks.enabled:true}"
+            + " && !'${shipment.replication.role:none}'.equalsIgnoreCase('follower')";
+    
+    @Bean(destroyMethod = "close")
+    public WebhookDispatcher webhookDispatcher(WebhookProperties properties, ObjectMapper objectMapper) {
+        return new WebhookDispatcher(properties, objectMapper);
+    }
+}
\ No newline at end of file
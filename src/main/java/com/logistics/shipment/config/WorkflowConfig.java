@@ -0,0 +1,26 @@
+package com.logistics.shipment.config;
+
+import com.logistics.shipment.model.StatusTransitions;
+import com.logistics.shipment.workflow.WorkflowProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Compiles the status workflow, with any shipment.workflow.transitions overrides, for the
+ * service and the status event reconciler of this context. Nodes that share data (replication
+ * followers, cluster peers) must be given the same workflow.
+ */
+@Configuration
+@EnableConfigurationProperties(WorkflowProperties.class)
+public class WorkflowConfig {
+    
+    @Bean
+    public StatusTransitions statusTransitions(WorkflowProperties properties) {
+        try {
+            return StatusTransitions.withOverrides(properties.getTransitions());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("Invalid shipment.workflow.transitions: " + e.getMessage(), e);
+        }
+    }
+}
\ No newline at end of file
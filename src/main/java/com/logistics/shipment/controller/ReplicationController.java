@@ -0,0 +1,36 @@
+package com.logistics.shipment.controller;
+
+import com.logistics.shipment.replication.ReplicationStatus;
+import com.logistics.shipment.replication.ReplicationStatusSource;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST Controller exposing replication state; only present when replication is enabled
+ */
+@RestController
+@RequestMapping("/api/v1/replication")
+@Tag(name = "Replication", description = "Leader-follower replication status")
+@ConditionalOnExpression("!'${shipment.replication.role:none}'.equalsIgnoreCase('none')")
+public class ReplicationController {
+    
+    private final ReplicationStatusSource statusSource;
+    
+    public ReplicationController(ReplicationStatusSource statusSource) {
+        this.statusSource = statusSource;
+    }
+    
+    /**
+     * GET /replication/status - Role, sequence positions and lag of this instance
+     */
+    @GetMapping("/status")
+    @Operation(summary = "Get replication status",
+               description = "Returns the replication role, applied and primary sequence numbers, and lag in milliseconds")
+    public ReplicationStatus getStatus() {
+        return statusSource.getStatus();
+    }
+}
\ No newline at end of file
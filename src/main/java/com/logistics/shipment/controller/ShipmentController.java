@@ -1,7 +1,17 @@
 package com.logistics.shipment.controller;
 
+import com.logistics.shipment.aggregation.AggregationQuery;
+import com.logistics.shipment.aggregation.AggregationResult;
+import com.logistics.shipment.events.StatusEvent;
+import com.logistics.shipment.events.StatusEventReconciler;
+import com.logistics.shipment.events.StatusEventResult;
+import com.logistics.shipment.exception.InvalidStatusTransitionException;
+import com.logistics.shipment.json.ProjectedShipment;
+import com.logistics.shipment.json.ProjectedShipmentList;
+import com.logistics.shipment.json.ShipmentFields;
 import com.logistics.shipment.model.Shipment;
 import com.logistics.shipment.model.ShipmentStatus;
+import com.logistics.shipment.model.StatusChange;
 import com.logistics.shipment.service.ShipmentService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -10,10 +20,12 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -25,11 +37,16 @@ import java.util.Map;
 @Tag(name = "Shipment Tracking", description = "API for tracking shipments in a logistics system")
 public class ShipmentController {
     
+    // Response header telling a scanner whether its event was applied or ignored
+    public static final String EVENT_OUTCOME_HEADER = "Event-Outcome";
+    
     private final ShipmentService shipmentService;
+    private final StatusEventReconciler statusEventReconciler;
     
     @Autowired
-    public ShipmentController(ShipmentService shipmentService) {
+    public ShipmentController(ShipmentService shipmentService, StatusEventReconciler statusEventReconciler) {
         this.shipmentService = shipmentService;
+        this.statusEventReconciler = statusEventReconciler;
     }
     
     /**
@@ -60,12 +77,37 @@ public class ShipmentController {
         @ApiResponse(responseCode = "200", description = "Shipment found"),
         @ApiResponse(responseCode = "404", description = "Shipment not found")
     })
-    public ResponseEntity<Shipment> getShipmentByOrderId(
+    public ResponseEntity<?> getShipmentByOrderId(
             @Parameter(description = "Order ID of the shipment to retrieve")
+            @PathVariable String orderId,
+            @Parameter(description = "Comma-separated fields to return, e.g. orderId,status (default: all)")
+            @RequestParam(required = false) String fields) {
+        
+        ShipmentFields projection = ShipmentFields.parse(fields);
+        Shipment shipment = shipmentService.getShipmentByOrderId(orderId);
+        if (projection.isAll()) {
+            return ResponseEntity.ok(shipment);
+        }
+        return ResponseEntity.ok(new ProjectedShipment(shipment, projection));
+    }
+    
+    /**
+     * GET /shipments/{orderId}/history - Status timeline of a shipment
+     */
+    @GetMapping("/shipments/{orderId}/history")
+    @Operation(summary = "Get shipment status history", 
+               description = "Returns every status the shipment has had with the time it was set, oldest first")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "History found"),
+        @ApiResponse(responseCode = "404", description = "Shipment not found")
+    })
+    public ResponseEntity<ShipmentHistory> getShipmentHistory(
+            @Parameter(description = "Order ID of the shipment")
             @PathVariable String orderId) {
         
         Shipment shipment = shipmentService.getShipmentByOrderId(orderId);
-        return ResponseEntity.ok(shipment);
+        return ResponseEntity.ok(new ShipmentHistory(shipment.getOrderId(), shipment.getStatus(),
+                shipment.getStatusHistory()));
     }
     
     /**
@@ -73,9 +115,12 @@ public class ShipmentController {
      */
     @PatchMapping("/shipments/{orderId}")
     @Operation(summary = "Update shipment status", 
-               description = "Updates the status of a shipment. Valid transitions: pending → dispatched → in-transit → delivered")
+               description = "Updates the status of a shipment. Valid transitions: pending → dispatched → in-transit → delivered, "
+                       + "with cancellation, exceptions and returns as set by shipment.workflow.transitions. "
+                       + "With an eventId or eventTimestamp, resent and out-of-order events are acknowledged without "
+                       + "being applied and the Event-Outcome header says which")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Status updated successfully"),
+        @ApiResponse(responseCode = "200", description = "Status updated successfully, or event ignored as a duplicate or stale"),
         @ApiResponse(responseCode = "400", description = "Invalid status transition"),
         @ApiResponse(responseCode = "404", description = "Shipment not found")
     })
@@ -84,11 +129,25 @@ public class ShipmentController {
             @PathVariable String orderId,
             @RequestBody StatusUpdateRequest statusUpdateRequest) {
         
-        Shipment updatedShipment = shipmentService.updateShipmentStatus(
-            orderId, 
-            statusUpdateRequest.getStatus()
-        );
-        return ResponseEntity.ok(updatedShipment);
+        if (statusUpdateRequest.getEventId() == null && statusUpdateRequest.getEventTimestamp() == null) {
+            Shipment updatedShipment = shipmentService.updateShipmentStatus(
+                orderId, 
+                statusUpdateRequest.getStatus()
+            );
+            return ResponseEntity.ok(updatedShipment);
+        }
+        
+        ShipmentStatus status;
+        try {
+            status = ShipmentStatus.fromValue(statusUpdateRequest.getStatus());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidStatusTransitionException("Invalid status value: " + statusUpdateRequest.getStatus());
+        }
+        StatusEventResult result = statusEventReconciler.apply(StatusEvent.of(orderId, status,
+                statusUpdateRequest.getEventId(), statusUpdateRequest.getEventTimestamp()));
+        return ResponseEntity.ok()
+                .header(EVENT_OUTCOME_HEADER, result.getOutcome().name())
+                .body(result.getShipment());
     }
     
     /**
@@ -96,18 +155,27 @@ public class ShipmentController {
      */
     @GetMapping("/shipments")
     @Operation(summary = "Get all shipments", 
-               description = "Retrieves all shipments with optional filtering by status and origin")
+               description = "Retrieves all shipments with optional filtering by status, origin and a search query")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Shipments retrieved successfully")
+        @ApiResponse(responseCode = "200", description = "Shipments retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid search query")
     })
-    public ResponseEntity<List<Shipment>> getAllShipments(
+    public ResponseEntity<?> getAllShipments(
             @Parameter(description = "Filter by shipment status")
             @RequestParam(required = false) String status,
             @Parameter(description = "Filter by origin location")
-            @RequestParam(required = false) String origin) {
+            @RequestParam(required = false) String origin,
+            @Parameter(description = "Search query, e.g. status IN (pending, dispatched) AND createdAt >= 2024-01-01")
+            @RequestParam(required = false) String q,
+            @Parameter(description = "Comma-separated fields to return per shipment, e.g. orderId,status (default: all)")
+            @RequestParam(required = false) String fields) {
         
-        List<Shipment> shipments = shipmentService.getShipments(status, origin);
-        return ResponseEntity.ok(shipments);
+        ShipmentFields projection = ShipmentFields.parse(fields);
+        List<Shipment> shipments = shipmentService.getShipments(status, origin, q);
+        if (projection.isAll()) {
+            return ResponseEntity.ok(shipments);
+        }
+        return ResponseEntity.ok(new ProjectedShipmentList(shipments, projection));
     }
     
     /**
@@ -118,18 +186,54 @@ public class ShipmentController {
                description = "Returns statistics about shipments including count by status")
     @ApiResponse(responseCode = "200", description = "Statistics retrieved successfully")
     public ResponseEntity<ShipmentStats> getShipmentStats() {
+        // Both figures come from one snapshot, so the total always matches the per-status counts
         Map<ShipmentStatus, Long> countByStatus = shipmentService.getShipmentCountByStatus();
-        int totalCount = shipmentService.getTotalShipmentCount();
+        int totalCount = (int) countByStatus.values().stream().mapToLong(Long::longValue).sum();
         
         ShipmentStats stats = new ShipmentStats(totalCount, countByStatus);
         return ResponseEntity.ok(stats);
     }
     
+    /**
+     * GET /shipments/aggregate - Count shipments grouped by any combination of dimensions
+     */
+    @GetMapping("/shipments/aggregate")
+    @Operation(summary = "Aggregate shipments", 
+               description = "Counts shipments per combination of status, origin, destination and created-date "
+                       + "bucket, after applying the optional filters")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Aggregation computed successfully"),
+        @ApiResponse(responseCode = "400", description = "Unknown dimension, bucket or status")
+    })
+    public ResponseEntity<AggregationResult> aggregateShipments(
+            @Parameter(description = "Comma-separated dimensions: status, origin, destination, createdDate")
+            @RequestParam(required = false) String groupBy,
+            @Parameter(description = "Created-date bucket: hour, day (default), week or month")
+            @RequestParam(required = false) String bucket,
+            @Parameter(description = "Filter by shipment status")
+            @RequestParam(required = false) String status,
+            @Parameter(description = "Filter by origin location")
+            @RequestParam(required = false) String origin,
+            @Parameter(description = "Filter by destination location")
+            @RequestParam(required = false) String destination,
+            @Parameter(description = "Only shipments created at or after this time (ISO-8601)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @Parameter(description = "Only shipments created before this time (ISO-8601)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo) {
+        
+        AggregationQuery query = AggregationQuery.of(groupBy, bucket, status, origin, destination,
+                createdFrom, createdTo);
+        return ResponseEntity.ok(shipmentService.aggregate(query));
+    }
+    
     /**
      * Request body for status updates
      */
     public static class StatusUpdateRequest {
         private String status;
+        // Optional scanner event identity, used to ignore resent and out-of-order events
+        private String eventId;
+        private LocalDateTime eventTimestamp;
         
         public StatusUpdateRequest() {}
         
@@ -137,6 +241,12 @@ public class ShipmentController {
             this.status = status;
         }
         
+        public StatusUpdateRequest(String status, String eventId, LocalDateTime eventTimestamp) {
+            this.status = status;
+            this.eventId = eventId;
+            this.eventTimestamp = eventTimestamp;
+        }
+        
         public String getStatus() {
             return status;
         }
@@ -144,6 +254,22 @@ public class ShipmentController {
         public void setStatus(String status) {
             this.status = status;
         }
+        
+        public String getEventId() {
+            return eventId;
+        }
+        
+        public void setEventId(String eventId) {
+            this.eventId = eventId;
+        }
+        
+        public LocalDateTime getEventTimestamp() {
+            return eventTimestamp;
+        }
+        
+        public void setEventTimestamp(LocalDateTime eventTimestamp) {
+            this.eventTimestamp = eventTimestamp;
+        }
     }
     
     /**
@@ -174,4 +300,31 @@ public class ShipmentController {
             this.countByStatus = countByStatus;
         }
     }
+    
+    /**
+     * Response model for a shipment's status history
+     */
+    public static class ShipmentHistory {
+        private String orderId;
+        private ShipmentStatus currentStatus;
+        private List<StatusChange> history;
+        
+        public ShipmentHistory(String orderId, ShipmentStatus currentStatus, List<StatusChange> history) {
+            this.orderId = orderId;
+            this.currentStatus = currentStatus;
+            this.history = history;
+        }
+        
+        public String getOrderId() {
+            return orderId;
+        }
+        
+        public ShipmentStatus getCurrentStatus() {
+            return currentStatus;
+        }
+        
+        public List<StatusChange> getHistory() {
+            return history;
+        }
+    }
 }
\ No newline at end of file
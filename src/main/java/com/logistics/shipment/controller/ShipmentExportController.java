@@ -0,0 +1,55 @@
+package com.logistics.shipment.controller;
+
+import com.logistics.shipment.bulkexport.ShipmentExporter;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * REST Controller for the columnar bulk export
+ */
+@RestController
+@RequestMapping("/api/v1")
+@Tag(name = "Shipment Export", description = "Bulk export of shipments for offline analytics")
+public class ShipmentExportController {
+    
+    private static final int BUFFER_SIZE = 64 * 1024;
+    
+    private final ShipmentExporter exporter;
+    
+    @Autowired
+    public ShipmentExportController(ShipmentExporter exporter) {
+        this.exporter = exporter;
+    }
+    
+    /**
+     * GET /shipments/export - Download every shipment as a columnar binary file
+     */
+    @GetMapping("/shipments/export")
+    @Operation(summary = "Export shipments in columnar format", 
+               description = "Sends every shipment, as of one point in time, as a columnar binary file with "
+                       + "dictionary-encoded locations, status ordinals and delta-encoded timestamps in row "
+                       + "groups. Read it with ColumnarShipmentReader")
+    @ApiResponse(responseCode = "200", description = "Export streamed")
+    public void exportShipments(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename("shipments.shpc").build().toString());
+        // Encoded to a spool file first, so the store snapshot is not held while the client downloads
+        try (OutputStream out = new BufferedOutputStream(response.getOutputStream(), BUFFER_SIZE)) {
+            exporter.exportSpooled(out, response::setContentLengthLong);
+        }
+    }
+}
\ No newline at end of file
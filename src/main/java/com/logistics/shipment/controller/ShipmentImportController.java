@@ -0,0 +1,58 @@
+package com.logistics.shipment.controller;
+
+import com.logistics.shipment.bulkimport.CsvShipmentImporter;
+import com.logistics.shipment.bulkimport.ImportSummary;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * REST Controller for CSV bulk import
+ */
+@RestController
+@RequestMapping("/api/v1")
+@Tag(name = "Shipment Import", description = "Bulk import of shipments from CSV")
+public class ShipmentImportController {
+    
+    private final CsvShipmentImporter importer;
+    
+    @Autowired
+    public ShipmentImportController(CsvShipmentImporter importer) {
+        this.importer = importer;
+    }
+    
+    /**
+     * POST /shipments/import - Import shipments from a CSV request body
+     */
+    @PostMapping(value = "/shipments/import", consumes = {"text/csv", "text/plain"})
+    @Operation(summary = "Import shipments from CSV", 
+               description = "Streams the CSV body into the store. The header row names the columns orderId, "
+                       + "origin, destination and optionally status; invalid and duplicate rows are written "
+                       + "to a reject file")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Import finished, see the summary for rejected rows"),
+        @ApiResponse(responseCode = "400", description = "Empty input or missing header column")
+    })
+    public ResponseEntity<ImportSummary> importShipments(HttpServletRequest request) throws IOException {
+        // Read the body as a stream; binding it to a String would hold the whole file in memory
+        Charset charset = request.getCharacterEncoding() != null
+                ? Charset.forName(request.getCharacterEncoding())
+                : StandardCharsets.UTF_8;
+        try (Reader reader = new InputStreamReader(request.getInputStream(), charset)) {
+            return ResponseEntity.ok(importer.importCsv(reader));
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,44 @@
+package com.logistics.shipment.controller;
+
+import com.logistics.shipment.config.SlaConfig;
+import com.logistics.shipment.sla.SlaMonitor;
+import com.logistics.shipment.sla.SlaReport;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST Controller exposing SLA breaches; only present when SLA monitoring is enabled
+ */
+@RestController
+@RequestMapping("/api/v1/sla")
+@Tag(name = "SLA", description = "Shipments stuck in dispatched or in-transit")
+@ConditionalOnExpression(SlaConfig.ENABLED)
+public class SlaController {
+    
+    private final SlaMonitor slaMonitor;
+    
+    public SlaController(SlaMonitor slaMonitor) {
+        this.slaMonitor = slaMonitor;
+    }
+    
+    /**
+     * GET /sla/breaches - Counters and open breaches, earliest deadline first
+     */
+    @GetMapping("/breaches")
+    @Operation(summary = "Get SLA breaches",
+               description = "Returns SLA counters and the shipments that have overstayed their lane's limit")
+    public SlaReport getBreaches(
+            @Parameter(description = "Maximum number of breaches to list")
+            @RequestParam(defaultValue = "100") int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("limit must not be negative");
+        }
+        return slaMonitor.getReport(limit);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,105 @@
+package com.logistics.shipment.controller;
+
+import com.logistics.shipment.config.WebhookConfig;
+import com.logistics.shipment.model.ShipmentStatus;
+import com.logistics.shipment.webhook.WebhookDispatcher;
+import com.logistics.shipment.webhook.WebhookEndpointStatus;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * REST Controller for registering webhook receivers of status changes
+ */
+@RestController
+@RequestMapping("/api/v1/webhooks")
+@Tag(name = "Webhooks", description = "Push notifications of shipment status changes")
+@ConditionalOnExpression(WebhookConfig.ENABLED)
+public class WebhookController {
+    
+    private final WebhookDispatcher dispatcher;
+    
+    public WebhookController(WebhookDispatcher dispatcher) {
+        this.dispatcher = dispatcher;
+    }
+    
+    /**
+     * POST /webhooks - Register a receiver
+     */
+    @PostMapping
+    @Operation(summary = "Register a webhook",
+               description = "Status changes are POSTed to the URL in batches of {\"events\": [...]}")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", description = "Webhook registered"),
+        @ApiResponse(responseCode = "400", description = "Invalid URL")
+    })
+    public ResponseEntity<WebhookEndpointStatus> register(@Valid @RequestBody Registration registration) {
+        return new ResponseEntity<>(dispatcher.register(registration.getUrl(), registration.getStatuses()),
+                HttpStatus.CREATED);
+    }
+    
+    /**
+     * GET /webhooks - Registered receivers with their queue depth, counters and circuit state
+     */
+    @GetMapping
+    @Operation(summary = "List webhooks")
+    public List<WebhookEndpointStatus> getWebhooks() {
+        return dispatcher.getEndpoints();
+    }
+    
+    /**
+     * DELETE /webhooks/{id} - Unregister a receiver, discarding its undelivered events
+     */
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Unregister a webhook")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "204", description = "Webhook removed"),
+        @ApiResponse(responseCode = "404", description = "Webhook not found")
+    })
+    public ResponseEntity<Void> unregister(@PathVariable String id) {
+        return dispatcher.unregister(id) ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+    
+    /**
+     * Request body for webhook registration
+     */
+    public static class Registration {
+        @NotBlank(message = "URL is required")
+        private String url;
+        
+        // Empty or missing means all statuses
+        private Set<ShipmentStatus> statuses;
+        
+        public String getUrl() {
+            return url;
+        }
+        
+        public void setUrl(String url) {
+            this.url = url;
+        }
+        
+        public Set<ShipmentStatus> getStatuses() {
+            return statuses;
+        }
+        
+        public void setStatuses(Set<ShipmentStatus> statuses) {
+            this.statuses = statuses;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.logistics.shipment.events;
+
+/**
+ * What happened to a status event
+ */
+public enum EventOutcome {
+    // The event moved the shipment to its status
+    APPLIED,
+    // The event ID was already seen for this shipment
+    DUPLICATE,
+    // The event is older than one already applied, or the shipment has already had its status
+    STALE;
+    
+    public boolean isIgnored() {
+        return this != APPLIED;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,56 @@
+package com.logistics.shipment.events;
+
+import com.logistics.shipment.model.ShipmentStatus;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * A status change reported by a scanner, identified by an event ID and stamped with the time it happened
+ */
+public class StatusEvent {
+    
+    // Events without a timestamp are ordered by arrival and never considered stale by time
+    public static final long NO_TIMESTAMP = Long.MIN_VALUE;
+    
+    private final String orderId;
+    private final ShipmentStatus status;
+    private final String eventId;
+    private final long eventTimeMillis;
+    
+    public StatusEvent(String orderId, ShipmentStatus status, String eventId, long eventTimeMillis) {
+        this.orderId = orderId;
+        this.status = status;
+        this.eventId = eventId;
+        this.eventTimeMillis = eventTimeMillis;
+    }
+    
+    public static StatusEvent of(String orderId, ShipmentStatus status, String eventId, LocalDateTime eventTimestamp) {
+        return new StatusEvent(orderId, status, eventId, eventTimestamp == null
+                ? NO_TIMESTAMP
+                : eventTimestamp.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    }
+    
+    public String getOrderId() {
+        return orderId;
+    }
+    
+    public ShipmentStatus getStatus() {
+        return status;
+    }
+    
+    /**
+     * @return the event ID, or null if the sender did not supply one
+     */
+    public String getEventId() {
+        return eventId;
+    }
+    
+    public long getEventTimeMillis() {
+        return eventTimeMillis;
+    }
+    
+    public boolean hasTimestamp() {
+        return eventTimeMillis != NO_TIMESTAMP;
+    }
+}
\ No newline at end of file
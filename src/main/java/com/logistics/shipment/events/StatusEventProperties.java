@@ -0,0 +1,22 @@
+package com.logistics.shipment.events;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Status event reconciliation settings (prefix: shipment.events)
+ */
+@ConfigurationProperties(prefix = "shipment.events")
+public class StatusEventProperties {
+    
+    // Recent event IDs remembered per shipment for de-duplication
+    private int windowSize = 16;
+    
+    // Upper bound on tracked shipments; idle ones are evicted beyond this
+    private int maxTracked = 100_000;
+    
+    public int getWindowSize() { return windowSize; }
+    public void setWindowSize(int windowSize) { this.windowSize = windowSize; }
+    
+    public int getMaxTracked() { return maxTracked; }
+    public void setMaxTracked(int maxTracked) { this.maxTracked = maxTracked; }
+}
\ No newline at end of file
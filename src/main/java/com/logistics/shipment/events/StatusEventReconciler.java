@@ -0,0 +1,424 @@
+package com.logistics.shipment.events;
+
+import com.logistics.shipment.exception.InvalidStatusTransitionException;
+import com.logistics.shipment.memory.ObjectSizes;
+import com.logistics.shipment.model.Shipment;
+import com.logistics.shipment.model.ShipmentStatus;
+import com.logistics.shipment.model.StatusTransitions;
+import com.logistics.shipment.service.ShipmentService;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Applies scanner status events that may arrive twice or out of order.
+ * <p>
+ * Each shipment keeps a bounded window of recently seen event IDs and the time of the newest
+ * applied event. Duplicates, events older than that time, and events to a status the shipment has
+ * already passed through and cannot move to from where it is now are answered with the current
+ * shipment instead of an error, which costs a lookup. A status the workflow loops back to is
+ * applied again when it is the next step.
+ * Events for the same order ID that arrive together are combined: the first caller drains the
+ * queue, orders it by event time and applies it as one store update, while the others wait.
+ */
+public class StatusEventReconciler {
+    
+    // Attempts at a combined update before falling back to applying events one by one
+    private static final int MAX_BATCH_ATTEMPTS = 3;
+    
+    // Work done by one eviction at maxTracked: windows removed, and windows looked at for them
+    private static final int EVICTION_BATCH = 8;
+    private static final int EVICTION_SCAN = 64;
+    
+    private static final Comparator<Pending> BY_EVENT_TIME =
+            Comparator.comparingLong(pending -> pending.event.getEventTimeMillis());
+    
+    private final ShipmentService shipmentService;
+    private final StatusTransitions transitions;
+    private final int windowSize;
+    private final int maxTracked;
+    
+    private final Map<String, OrderEvents> orders = new ConcurrentHashMap<>();
+    // Clock hand of the eviction sweep; weakly consistent, restarted when it runs off the end
+    private final AtomicBoolean evicting = new AtomicBoolean();
+    private Iterator<OrderEvents> evictionHand;
+    
+    private final AtomicLong applied = new AtomicLong();
+    private final AtomicLong duplicates = new AtomicLong();
+    private final AtomicLong stale = new AtomicLong();
+    private final AtomicLong storeUpdates = new AtomicLong();
+    // Estimated bytes retained by the tracked windows, adjusted as they change
+    private final LongAdder retainedBytes = new LongAdder();
+    
+    public StatusEventReconciler(ShipmentService shipmentService, StatusEventProperties properties) {
+        this.shipmentService = shipmentService;
+        this.transitions = shipmentService.getStatusTransitions();
+        this.windowSize = Math.max(1, properties.getWindowSize());
+        this.maxTracked = properties.getMaxTracked();
+    }
+    
+    /**
+     * Applies a status event, waiting for it if it is combined with others for the same shipment
+     * @return the outcome and the shipment afterwards
+     * @throws com.logistics.shipment.exception.ShipmentNotFoundException if no shipment is found
+     * @throws InvalidStatusTransitionException if the event is neither applicable nor stale
+     */
+    public StatusEventResult apply(StatusEvent event) {
+        Pending pending = new Pending(event);
+        OrderEvents order;
+        boolean leader;
+        while (true) {
+            order = track(event.getOrderId());
+            synchronized (order) {
+                if (order.retired) {
+                    continue;
+                }
+                order.referenced = true;
+                EventOutcome ignored = order.check(event);
+                if (ignored != null) {
+                    return ignore(ignored, shipmentService.getShipmentByOrderId(event.getOrderId()));
+                }
+                order.queue.add(pending);
+                leader = !order.draining;
+                order.draining = true;
+            }
+            break;
+        }
+        if (leader) {
+            drain(order);
+        }
+        try {
+            return pending.result.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+    
+    public long getApplied() {
+        return applied.get();
+    }
+    
+    public long getDuplicates() {
+        return duplicates.get();
+    }
+    
+    public long getStale() {
+        return stale.get();
+    }
+    
+    /**
+     * Number of store updates made for applied events; lower than {@link #getApplied()} when bursts are combined
+     */
+    public long getStoreUpdates() {
+        return storeUpdates.get();
+    }
+    
+    public int getTrackedShipments() {
+        return orders.size();
+    }
+    
+    /**
+     * Estimated heap bytes retained by the per-shipment windows
+     */
+    public long getRetainedBytes() {
+        return retainedBytes.sum();
+    }
+    
+    private OrderEvents track(String orderId) {
+        OrderEvents order = orders.get(orderId);
+        if (order == null) {
+            if (orders.size() >= maxTracked) {
+                evictIdle();
+            }
+            order = orders.computeIfAbsent(orderId, id -> {
+                OrderEvents created = new OrderEvents(id, windowSize);
+                retainedBytes.add(created.retainedBytes);
+                return created;
+            });
+        }
+        return order;
+    }
+    
+    /**
+     * Second-chance (CLOCK) eviction: the hand moves over the windows, clearing the referenced bit
+     * of those used since it last passed and evicting idle ones that were not. Each call removes
+     * at most {@link #EVICTION_BATCH} windows and looks at no more than {@link #EVICTION_SCAN}, so
+     * the request that hits the limit pays a small fixed cost and recently used windows survive.
+     * Forgetting a window only makes a late resend fall through to the history check.
+     */
+    private void evictIdle() {
+        if (!evicting.compareAndSet(false, true)) {
+            // Another request is already making room; the map may briefly exceed maxTracked
+            return;
+        }
+        try {
+            int evicted = 0;
+            // Evicted anyway if every window scanned had been used, so the limit holds
+            OrderEvents fallback = null;
+            for (int scanned = 0; scanned < EVICTION_SCAN && evicted < EVICTION_BATCH; scanned++) {
+                if (evictionHand == null || !evictionHand.hasNext()) {
+                    evictionHand = orders.values().iterator();
+                    if (!evictionHand.hasNext()) {
+                        break;
+                    }
+                }
+                OrderEvents order = evictionHand.next();
+                synchronized (order) {
+                    if (order.draining || order.retired) {
+                        continue;
+                    }
+                    if (order.referenced) {
+                        order.referenced = false;
+                        fallback = fallback != null ? fallback : order;
+                        continue;
+                    }
+                }
+                if (retire(order)) {
+                    evicted++;
+                }
+            }
+            if (evicted == 0 && fallback != null) {
+                retire(fallback);
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+    
+    private boolean retire(OrderEvents order) {
+        synchronized (order) {
+            if (order.draining || order.retired) {
+                return false;
+            }
+            order.retired = true;
+        }
+        if (orders.remove(order.orderId, order)) {
+            retainedBytes.add(-order.retainedBytes);
+            return true;
+        }
+        return false;
+    }
+    
+    private StatusEventResult ignore(EventOutcome outcome, Shipment shipment) {
+        (outcome == EventOutcome.DUPLICATE ? duplicates : stale).incrementAndGet();
+        return new StatusEventResult(outcome, shipment);
+    }
+    
+    private void drain(OrderEvents order) {
+        while (true) {
+            List<Pending> batch;
+            synchronized (order) {
+                if (order.queue.isEmpty()) {
+                    order.draining = false;
+                    return;
+                }
+                batch = new ArrayList<>(order.queue);
+                order.queue.clear();
+            }
+            try {
+                applyBatch(order, batch);
+            } catch (RuntimeException e) {
+                for (Pending pending : batch) {
+                    pending.result.completeExceptionally(e);
+                }
+            }
+        }
+    }
+    
+    private void applyBatch(OrderEvents order, List<Pending> batch) {
+        orderByEventTime(batch);
+        String orderId = batch.get(0).event.getOrderId();
+        
+        for (int attempt = 1; ; attempt++) {
+            Shipment current = shipmentService.getShipmentByOrderId(orderId);
+            List<ShipmentStatus> path = new ArrayList<>(batch.size());
+            ShipmentStatus reached = current.getStatus();
+            synchronized (order) {
+                for (int i = 0; i < batch.size(); i++) {
+                    Pending pending = batch.get(i);
+                    ShipmentStatus status = pending.event.getStatus();
+                    pending.error = null;
+                    pending.outcome = order.check(pending.event);
+                    if (pending.outcome == null && isRepeated(batch, i)) {
+                        pending.outcome = EventOutcome.DUPLICATE;
+                    }
+                    if (pending.outcome != null) {
+                        continue;
+                    }
+                    if (transitions.allows(reached, status)) {
+                        reached = status;
+                        path.add(status);
+                    } else if (current.hasHadStatus(status) || path.contains(status)) {
+                        // Already passed and not the next step: a late copy of an earlier event
+                        pending.outcome = EventOutcome.STALE;
+                    } else {
+                        pending.error = new InvalidStatusTransitionException(reached, status,
+                                transitions.targetsOf(reached));
+                    }
+                }
+            }
+            
+            Shipment updated = current;
+            if (!path.isEmpty()) {
+                try {
+                    updated = shipmentService.updateShipmentStatuses(orderId, path);
+                    storeUpdates.incrementAndGet();
+                } catch (InvalidStatusTransitionException e) {
+                    // A plain status update got in between; plan again from the new state
+                    if (attempt < MAX_BATCH_ATTEMPTS) {
+                        continue;
+                    }
+                    applyEach(order, batch);
+                    return;
+                }
+            }
+            
+            // Rejected events stay out of the window so a corrected resend is not taken for a duplicate
+            synchronized (order) {
+                for (Pending pending : batch) {
+                    if (pending.error == null && pending.outcome != EventOutcome.DUPLICATE) {
+                        retainedBytes.add(order.seen(pending.event, pending.outcome == null));
+                    }
+                }
+            }
+            for (Pending pending : batch) {
+                complete(pending, updated);
+            }
+            return;
+        }
+    }
+    
+    /**
+     * Sorts the timestamped events by event time within the slots they arrived in. Events without
+     * a timestamp keep their arrival position, and equal timestamps keep their arrival order.
+     */
+    static void orderByEventTime(List<Pending> batch) {
+        List<Pending> timestamped = new ArrayList<>(batch.size());
+        for (Pending pending : batch) {
+            if (pending.event.hasTimestamp()) {
+                timestamped.add(pending);
+            }
+        }
+        if (timestamped.size() < 2) {
+            return;
+        }
+        timestamped.sort(BY_EVENT_TIME);
+        int next = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            if (batch.get(i).event.hasTimestamp()) {
+                batch.set(i, timestamped.get(next++));
+            }
+        }
+    }
+    
+    private static boolean isRepeated(List<Pending> batch, int index) {
+        String eventId = batch.get(index).event.getEventId();
+        if (eventId == null) {
+            return false;
+        }
+        for (int i = 0; i < index; i++) {
+            Pending earlier = batch.get(i);
+            if (earlier.error == null && eventId.equals(earlier.event.getEventId())) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private void applyEach(OrderEvents order, List<Pending> batch) {
+        for (Pending pending : batch) {
+            try {
+                applyBatch(order, new ArrayList<>(List.of(pending)));
+            } catch (RuntimeException e) {
+                pending.result.completeExceptionally(e);
+            }
+        }
+    }
+    
+    private void complete(Pending pending, Shipment shipment) {
+        if (pending.error != null) {
+            pending.result.completeExceptionally(pending.error);
+        } else if (pending.outcome != null) {
+            pending.result.complete(ignore(pending.outcome, shipment));
+        } else {
+            applied.incrementAndGet();
+            pending.result.complete(new StatusEventResult(EventOutcome.APPLIED, shipment));
+        }
+    }
+    
+    static final class Pending {
+        final StatusEvent event;
+        final CompletableFuture<StatusEventResult> result = new CompletableFuture<>();
+        EventOutcome outcome;
+        RuntimeException error;
+        
+        Pending(StatusEvent event) {
+            this.event = event;
+        }
+    }
+    
+    /**
+     * Per-shipment state, guarded by its own monitor
+     */
+    private static final class OrderEvents {
+        final String orderId;
+        final String[] recentIds;
+        int nextSlot;
+        long newestApplied = StatusEvent.NO_TIMESTAMP;
+        final List<Pending> queue = new ArrayList<>(2);
+        boolean draining;
+        boolean retired;
+        // Set on every use, cleared by the eviction hand
+        boolean referenced = true;
+        long retainedBytes;
+        
+        OrderEvents(String orderId, int windowSize) {
+            this.orderId = orderId;
+            this.recentIds = new String[windowSize];
+            // Map entry and key, this object, the window and the idle queue
+            this.retainedBytes = ObjectSizes.HASH_ENTRY + ObjectSizes.string(orderId) + ObjectSizes.object(4, 23)
+                    + ObjectSizes.referenceArray(windowSize) + ObjectSizes.object(1, 8) + ObjectSizes.referenceArray(2);
+        }
+        
+        EventOutcome check(StatusEvent event) {
+            String eventId = event.getEventId();
+            if (eventId != null) {
+                for (String recent : recentIds) {
+                    if (eventId.equals(recent)) {
+                        return EventOutcome.DUPLICATE;
+                    }
+                }
+            }
+            if (event.hasTimestamp() && event.getEventTimeMillis() < newestApplied) {
+                return EventOutcome.STALE;
+            }
+            return null;
+        }
+        
+        /**
+         * @return the change in retained bytes
+         */
+        long seen(StatusEvent event, boolean applied) {
+            long delta = 0;
+            if (event.getEventId() != null) {
+                delta = ObjectSizes.string(event.getEventId()) - ObjectSizes.string(recentIds[nextSlot]);
+                recentIds[nextSlot] = event.getEventId();
+                nextSlot = (nextSlot + 1) % recentIds.length;
+            }
+            if (applied && event.hasTimestamp()) {
+                newestApplied = Math.max(newestApplied, event.getEventTimeMillis());
+            }
+            retainedBytes += delta;
+            return delta;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.logistics.shipment.events;
+
+import com.logistics.shipment.model.Shipment;
+
+/**
+ * Outcome of a status event together with the shipment as it stands afterwards
+ */
+public class StatusEventResult {
+    
+    private final EventOutcome outcome;
+    private final Shipment shipment;
+    
+    public StatusEventResult(EventOutcome outcome, Shipment shipment) {
+        this.outcome = outcome;
+        this.shipment = shipment;
+    }
+    
+    public EventOutcome getOutcome() {
+        return outcome;
+    }
+    
+    public Shipment getShipment() {
+        return shipment;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,11 @@
+package com.logistics.shipment.exception;
+
+/**
+ * Exception thrown when a search query cannot be parsed or uses a field or operator incorrectly
+ */
+public class InvalidQueryException extends RuntimeException {
+    
+    public InvalidQueryException(String message) {
+        super(message);
+    }
+}
\ No newline at end of file
@@ -2,19 +2,36 @@ package com.logistics.shipment.exception;
 
 import com.logistics.shipment.model.ShipmentStatus;
 
+import java.util.Set;
+import java.util.stream.Collectors;
+
 /**
  * Exception thrown when an invalid status transition is attempted
  */
 public class InvalidStatusTransitionException extends RuntimeException {
     
     public InvalidStatusTransitionException(ShipmentStatus currentStatus, ShipmentStatus targetStatus) {
-        super(String.format("Invalid status transition from %s to %s. Valid next status is: %s", 
-              currentStatus.getValue(), 
+        this(currentStatus, targetStatus, currentStatus.getValidNextStatuses());
+    }
+    
+    /**
+     * @param validNextStatuses the targets the workflow in use allows from the current status
+     */
+    public InvalidStatusTransitionException(ShipmentStatus currentStatus, ShipmentStatus targetStatus,
+                                            Set<ShipmentStatus> validNextStatuses) {
+        super(String.format("Invalid status transition from %s to %s. Valid next statuses are: %s",
+              currentStatus.getValue(),
               targetStatus.getValue(),
-              currentStatus.getNextStatus() != null ? currentStatus.getNextStatus().getValue() : "none"));
+              describe(validNextStatuses)));
     }
     
     public InvalidStatusTransitionException(String message) {
         super(message);
     }
+    
+    private static String describe(Set<ShipmentStatus> statuses) {
+        return statuses.isEmpty()
+                ? "none"
+                : statuses.stream().map(ShipmentStatus::getValue).collect(Collectors.joining(", "));
+    }
 }
\ No newline at end of file
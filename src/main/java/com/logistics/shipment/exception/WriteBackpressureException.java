@@ -0,0 +1,11 @@
+package com.logistics.shipment.exception;
+
+/**
+ * Exception thrown when a write is rejected because downstream persistence cannot keep up
+ */
+public class WriteBackpressureException extends RuntimeException {
+    
+    public WriteBackpressureException(String message) {
+        super(message);
+    }
+}
\ No newline at end of file
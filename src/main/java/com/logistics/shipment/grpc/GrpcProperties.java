@@ -0,0 +1,54 @@
+package com.logistics.shipment.grpc;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * gRPC ingestion server settings (prefix: shipment.grpc)
+ */
+@ConfigurationProperties(prefix = "shipment.grpc")
+public class GrpcProperties {
+    
+    private boolean enabled = false;
+    
+    private int port = 9090;
+    
+    // Threads applying events; caps concurrent store writes across all streams
+    private int threads = 0;
+    
+    // Events a stream may have received but not yet applied
+    private int window = 32;
+    
+    private int maxReportedFailures = 100;
+    
+    private int maxInboundMessageSize = 64 * 1024;
+    
+    // Scanners keep connections open; allow their keepalive pings at this rate
+    private Duration permitKeepAliveTime = Duration.ofSeconds(30);
+    
+    public int resolveThreads() {
+        return threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    }
+    
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    
+    public int getPort() { return port; }
+    public void setPort(int port) { this.port = port; }
+    
+    public int getThreads() { return threads; }
+    public void setThreads(int threads) { this.threads = threads; }
+    
+    public int getWindow() { return window; }
+    public void setWindow(int window) { this.window = window; }
+    
+    public int getMaxReportedFailures() { return maxReportedFailures; }
+    public void setMaxReportedFailures(int maxReportedFailures) { this.maxReportedFailures = maxReportedFailures; }
+    
+    public int getMaxInboundMessageSize() { return maxInboundMessageSize; }
+    public void setMaxInboundMessageSize(int maxInboundMessageSize) { this.maxInboundMessageSize = maxInboundMessageSize; }
+    
+    public Duration getPermitKeepAliveTime() { return permitKeepAliveTime; }
+    public void setPermitKeepAliveTime(Duration permitKeepAliveTime) { this.permitKeepAliveTime = permitKeepAliveTime; }
+}
\ No newline at end of file
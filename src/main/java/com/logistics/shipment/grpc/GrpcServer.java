@@ -0,0 +1,85 @@
+package com.logistics.shipment.grpc;
+
+import io.grpc.BindableService;
+import io.grpc.Server;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the gRPC server next to the servlet container, with a fixed pool of threads for applying events
+ */
+public class GrpcServer implements SmartLifecycle {
+    
+    private static final Logger log = LoggerFactory.getLogger(GrpcServer.class);
+    
+    private final GrpcProperties properties;
+    private final BindableService service;
+    
+    private Server server;
+    private ExecutorService executor;
+    
+    public GrpcServer(GrpcProperties properties, BindableService service) {
+        this.properties = properties;
+        this.service = service;
+    }
+    
+    @Override
+    public void start() {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(properties.resolveThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "grpc-ingest-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            server = NettyServerBuilder.forPort(properties.getPort())
+                    .addService(service)
+                    .executor(executor)
+                    .maxInboundMessageSize(properties.getMaxInboundMessageSize())
+                    .permitKeepAliveTime(properties.getPermitKeepAliveTime().toMillis(), TimeUnit.MILLISECONDS)
+                    .permitKeepAliveWithoutCalls(true)
+                    .build()
+                    .start();
+        } catch (IOException e) {
+            executor.shutdownNow();
+            throw new UncheckedIOException("Cannot start gRPC server on port " + properties.getPort(), e);
+        }
+        log.info("gRPC ingestion listening on port {}", server.getPort());
+    }
+    
+    @Override
+    public void stop() {
+        server.shutdown();
+        try {
+            if (!server.awaitTermination(5, TimeUnit.SECONDS)) {
+                server.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            server.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        executor.shutdownNow();
+        server = null;
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+    
+    /**
+     * Port the server is bound to, which differs from the configured one when that is 0
+     */
+    public int getPort() {
+        return server.getPort();
+    }
+}
\ No newline at end of file
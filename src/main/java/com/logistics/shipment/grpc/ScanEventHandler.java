@@ -0,0 +1,113 @@
+package com.logistics.shipment.grpc;
+
+import com.logistics.shipment.events.StatusEvent;
+import com.logistics.shipment.events.StatusEventReconciler;
+import com.logistics.shipment.events.StatusEventResult;
+import com.logistics.shipment.exception.DuplicateShipmentException;
+import com.logistics.shipment.exception.InvalidStatusTransitionException;
+import com.logistics.shipment.exception.ShipmentNotFoundException;
+import com.logistics.shipment.exception.WriteBackpressureException;
+import com.logistics.shipment.grpc.v1.CreateShipment;
+import com.logistics.shipment.grpc.v1.ResultCode;
+import com.logistics.shipment.grpc.v1.ScanEvent;
+import com.logistics.shipment.grpc.v1.ScanResult;
+import com.logistics.shipment.grpc.v1.StatusUpdate;
+import com.logistics.shipment.model.Shipment;
+import com.logistics.shipment.model.ShipmentStatus;
+import com.logistics.shipment.service.ShipmentService;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Applies scanner events through {@link ShipmentService} and maps the outcome to a result code,
+ * so a rejected event is reported in-band instead of failing the whole stream
+ */
+public class ScanEventHandler {
+    
+    private static final ShipmentStatus[] STATUSES = ShipmentStatus.values();
+    
+    private final ShipmentService shipmentService;
+    private final Validator validator;
+    private final StatusEventReconciler reconciler;
+    
+    public ScanEventHandler(ShipmentService shipmentService, Validator validator, StatusEventReconciler reconciler) {
+        this.shipmentService = shipmentService;
+        this.validator = validator;
+        this.reconciler = reconciler;
+    }
+    
+    public ScanResult apply(ScanEvent event) {
+        ScanResult.Builder result = ScanResult.newBuilder().setSequence(event.getSequence());
+        try {
+            Shipment shipment = switch (event.getEventCase()) {
+                case CREATE -> create(event.getCreate(), result);
+                case STATUS_UPDATE -> update(event.getStatusUpdate(), result);
+                case EVENT_NOT_SET -> throw new IllegalArgumentException("Event must contain create or status_update");
+            };
+            return result.setCode(ResultCode.OK).setStatus(toProto(shipment.getStatus())).build();
+        } catch (IllegalArgumentException e) {
+            return reject(result, ResultCode.INVALID_ARGUMENT, e);
+        } catch (ShipmentNotFoundException e) {
+            return reject(result, ResultCode.NOT_FOUND, e);
+        } catch (DuplicateShipmentException e) {
+            return reject(result, ResultCode.ALREADY_EXISTS, e);
+        } catch (InvalidStatusTransitionException e) {
+            return reject(result, ResultCode.INVALID_TRANSITION, e);
+        } catch (WriteBackpressureException e) {
+            return reject(result, ResultCode.UNAVAILABLE, e);
+        }
+    }
+    
+    private Shipment create(CreateShipment create, ScanResult.Builder result) {
+        result.setOrderId(create.getOrderId());
+        Shipment shipment = new Shipment(create.getOrderId(), create.getOrigin(), create.getDestination(),
+                fromProto(create.getStatusValue(), true));
+        Set<ConstraintViolation<Shipment>> violations = validator.validate(shipment);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+        return shipmentService.createShipment(shipment);
+    }
+    
+    private Shipment update(StatusUpdate update, ScanResult.Builder result) {
+        result.setOrderId(update.getOrderId());
+        if (update.getOrderId().isEmpty()) {
+            throw new IllegalArgumentException("Order ID is required");
+        }
+        ShipmentStatus status = fromProto(update.getStatusValue(), false);
+        if (update.getEventId().isEmpty() && update.getEventTimeMillis() == 0) {
+            return shipmentService.updateShipmentStatus(update.getOrderId(), status);
+        }
+        
+        StatusEventResult applied = reconciler.apply(new StatusEvent(update.getOrderId(), status,
+                update.getEventId().isEmpty() ? null : update.getEventId(),
+                update.getEventTimeMillis() == 0 ? StatusEvent.NO_TIMESTAMP : update.getEventTimeMillis()));
+        result.setIgnored(applied.getOutcome().isIgnored());
+        return applied.getShipment();
+    }
+    
+    private static ScanResult reject(ScanResult.Builder result, ResultCode code, RuntimeException e) {
+        return result.setCode(code).setMessage(e.getMessage() != null ? e.getMessage() : code.name()).build();
+    }
+    
+    // The proto enum lists the domain statuses in order, after the unspecified zero value
+    static ShipmentStatus fromProto(int number, boolean defaultPending) {
+        if (number == 0 && defaultPending) {
+            return ShipmentStatus.PENDING;
+        }
+        if (number < 1 || number > STATUSES.length) {
+            throw new IllegalArgumentException("Invalid shipment status: " + number);
+        }
+        return STATUSES[number - 1];
+    }
+    
+    static com.logistics.shipment.grpc.v1.ShipmentStatus toProto(ShipmentStatus status) {
+        return com.logistics.shipment.grpc.v1.ShipmentStatus.forNumber(status.ordinal() + 1);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,125 @@
+package com.logistics.shipment.grpc;
+
+import com.logistics.shipment.grpc.v1.IngestSummary;
+import com.logistics.shipment.grpc.v1.ResultCode;
+import com.logistics.shipment.grpc.v1.ScanEvent;
+import com.logistics.shipment.grpc.v1.ScanResult;
+import com.logistics.shipment.grpc.v1.ShipmentIngestGrpc;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * gRPC endpoint for scanner streams. Inbound flow control is manual: a stream may have at most
+ * {@code window} events delivered but not yet applied, and each applied event requests one more.
+ * Events are applied on the server's bounded executor, so the number of scanners writing to the
+ * store at once is capped too. On bidirectional streams a scanner that stops reading results also
+ * stops being read from, instead of having results pile up in memory.
+ */
+public class ShipmentIngestService extends ShipmentIngestGrpc.ShipmentIngestImplBase {
+    
+    private static final Logger log = LoggerFactory.getLogger(ShipmentIngestService.class);
+    
+    private final ScanEventHandler handler;
+    private final int window;
+    private final int maxReportedFailures;
+    
+    public ShipmentIngestService(ScanEventHandler handler, int window, int maxReportedFailures) {
+        this.handler = handler;
+        this.window = window;
+        this.maxReportedFailures = maxReportedFailures;
+    }
+    
+    @Override
+    public StreamObserver<ScanEvent> recordScans(StreamObserver<IngestSummary> responseObserver) {
+        ServerCallStreamObserver<IngestSummary> call = (ServerCallStreamObserver<IngestSummary>) responseObserver;
+        call.disableAutoRequest();
+        call.request(window);
+        
+        // Call callbacks are serialized by gRPC, so plain fields are safe
+        return new StreamObserver<>() {
+            private final IngestSummary.Builder summary = IngestSummary.newBuilder();
+            
+            @Override
+            public void onNext(ScanEvent event) {
+                ScanResult result = handler.apply(event);
+                summary.setReceived(summary.getReceived() + 1);
+                if (result.getCode() == ResultCode.OK) {
+                    summary.setAccepted(summary.getAccepted() + 1);
+                } else {
+                    summary.setRejected(summary.getRejected() + 1);
+                    if (summary.getFailuresCount() < maxReportedFailures) {
+                        summary.addFailures(result);
+                    }
+                }
+                call.request(1);
+            }
+            
+            @Override
+            public void onError(Throwable t) {
+                log.debug("Scanner stream failed after {} events", summary.getReceived(), t);
+            }
+            
+            @Override
+            public void onCompleted() {
+                call.onNext(summary.build());
+                call.onCompleted();
+            }
+        };
+    }
+    
+    @Override
+    public StreamObserver<ScanEvent> streamScans(StreamObserver<ScanResult> responseObserver) {
+        ServerCallStreamObserver<ScanResult> call = (ServerCallStreamObserver<ScanResult>) responseObserver;
+        call.disableAutoRequest();
+        BidiStream stream = new BidiStream(call);
+        call.setOnReadyHandler(stream::onReady);
+        call.request(window);
+        return stream;
+    }
+    
+    /**
+     * Holds back requests for more events while the scanner is not reading its results
+     */
+    private final class BidiStream implements StreamObserver<ScanEvent> {
+        private final ServerCallStreamObserver<ScanResult> call;
+        // Requests owed to the scanner, issued once the outbound buffer drains
+        private int deferred;
+        
+        BidiStream(ServerCallStreamObserver<ScanResult> call) {
+            this.call = call;
+        }
+        
+        @Override
+        public void onNext(ScanEvent event) {
+            ScanResult result = handler.apply(event);
+            if (call.isCancelled()) {
+                return;
+            }
+            call.onNext(result);
+            if (call.isReady()) {
+                call.request(1);
+            } else {
+                deferred++;
+            }
+        }
+        
+        void onReady() {
+            if (deferred > 0 && call.isReady()) {
+                call.request(deferred);
+                deferred = 0;
+            }
+        }
+        
+        @Override
+        public void onError(Throwable t) {
+            log.debug("Scanner stream failed", t);
+        }
+        
+        @Override
+        public void onCompleted() {
+            call.onCompleted();
+        }
+    }
+}
\ No newline at end of file
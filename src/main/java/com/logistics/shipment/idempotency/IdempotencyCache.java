@@ -0,0 +1,237 @@
+package com.logistics.shipment.idempotency;
+
+import com.logistics.shipment.memory.ObjectSizes;
+import org.springframework.http.HttpHeaders;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Size- and time-bounded map from idempotency key to the request that first used it.
+ * Every entry lives for the same TTL, so insertion order is also expiry order: eviction only
+ * ever looks at the head of a FIFO queue, with no scanning, sorting or per-access bookkeeping.
+ * Entries released or replaced before they reach the head leave a dead queue node behind; once
+ * there are more than maxEntries of those, one pass drops them all, so the queue stays within
+ * about twice maxEntries and the sweep costs amortized O(1) per removal.
+ */
+public class IdempotencyCache {
+    
+    // Insertion record, its dequeued flag and its queue node
+    private static final long INSERTION_BYTES =
+            ObjectSizes.object(3, 0) + ObjectSizes.object(0, 4) + ObjectSizes.object(2, 0);
+    
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+    
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Queue<Insertion> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+    // Estimated bytes retained by keys, fingerprints and stored responses
+    private final LongAdder retainedBytes = new LongAdder();
+    
+    public IdempotencyCache(int maxEntries, long ttlNanos) {
+        this(maxEntries, ttlNanos, System::nanoTime);
+    }
+    
+    IdempotencyCache(int maxEntries, long ttlNanos, LongSupplier clock) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttlNanos;
+        this.clock = clock;
+    }
+    
+    /**
+     * Claims a key for a new request
+     * @return the caller's own entry, to pass to {@link #complete} or {@link #release}, or the live
+     *         entry of the earlier request
+     */
+    public Claim claim(String key, byte[] fingerprint) {
+        long now = clock.getAsLong();
+        Entry claimed = new Entry(fingerprint, now + ttlNanos);
+        while (true) {
+            Entry existing = entries.putIfAbsent(key, claimed);
+            if (existing == null) {
+                retainedBytes.add(entryBytes(key, claimed) + INSERTION_BYTES);
+                insertionOrder.add(new Insertion(key, claimed));
+                queued.incrementAndGet();
+                evict(now);
+                sweepRemoved();
+                return new Claim(claimed, true);
+            }
+            if (!existing.isExpired(now)) {
+                return new Claim(existing, false);
+            }
+            // Expired but not evicted yet: replace it and try again
+            remove(key, existing);
+        }
+    }
+    
+    /**
+     * Records the final response of the request that claimed the key. Does nothing if the entry
+     * was evicted meanwhile, even when a later request has claimed the key again.
+     * @param entry the entry {@link #claim} returned to the caller
+     */
+    public void complete(String key, Entry entry, StoredResponse response) {
+        // Atomic with removal of the key, so the response is accounted for exactly once
+        entries.computeIfPresent(key, (id, current) -> {
+            if (current == entry) {
+                entry.response = response;
+                retainedBytes.add(responseBytes(response));
+            }
+            return current;
+        });
+    }
+    
+    /**
+     * Forgets a claim whose request failed, so a retry executes again. A later claim of the same
+     * key is left alone.
+     * @param entry the entry {@link #claim} returned to the caller
+     */
+    public void release(String key, Entry entry) {
+        if (entry.response == null) {
+            remove(key, entry);
+        }
+    }
+    
+    public int size() {
+        return entries.size();
+    }
+    
+    /**
+     * Insertions still queued, including those of entries that were already removed
+     */
+    int queuedInsertions() {
+        return queued.get();
+    }
+    
+    /**
+     * Estimated heap bytes retained by the cache, maintained as entries are added and removed
+     */
+    public long getRetainedBytes() {
+        return retainedBytes.sum();
+    }
+    
+    // Entry has identity equality, so only that entry is removed, never a later claim of the key
+    private void remove(String key, Entry entry) {
+        if (entries.remove(key, entry)) {
+            entry.removed = true;
+            retainedBytes.add(-entryBytes(key, entry) - responseBytes(entry.response));
+        }
+    }
+    
+    private static long entryBytes(String key, Entry entry) {
+        return ObjectSizes.HASH_ENTRY + ObjectSizes.string(key) + ObjectSizes.object(2, 9)
+                + ObjectSizes.array(entry.fingerprint.length, 1);
+    }
+    
+    private static long responseBytes(StoredResponse response) {
+        if (response == null) {
+            return 0;
+        }
+        long bytes = ObjectSizes.object(3, 4) + ObjectSizes.string(response.contentType())
+                + (response.body() != null ? ObjectSizes.array(response.body().length, 1) : 0);
+        if (response.headers() != null) {
+            // Case-insensitive map: a linked entry plus a lower-case key entry, and a value list
+            for (Map.Entry<String, List<String>> header : response.headers().entrySet()) {
+                bytes += 2 * ObjectSizes.HASH_ENTRY + 2 * ObjectSizes.string(header.getKey())
+                        + ObjectSizes.object(1, 8) + ObjectSizes.referenceArray(header.getValue().size());
+                for (String value : header.getValue()) {
+                    bytes += ObjectSizes.string(value);
+                }
+            }
+        }
+        return bytes;
+    }
+    
+    private void evict(long now) {
+        Insertion oldest;
+        while ((oldest = insertionOrder.peek()) != null
+                && (oldest.entry.removed || entries.size() > maxEntries || oldest.entry.isExpired(now))) {
+            insertionOrder.remove(oldest);
+            dequeued(oldest);
+            remove(oldest.key, oldest.entry);
+        }
+    }
+    
+    // Drops the queue nodes of released and replaced entries once they outnumber maxEntries
+    private void sweepRemoved() {
+        if (queued.get() - entries.size() <= maxEntries || !sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            insertionOrder.removeIf(insertion -> insertion.entry.removed && dequeued(insertion));
+        } finally {
+            sweeping.set(false);
+        }
+    }
+    
+    // The head eviction and the sweep can both reach a node; only the first accounts for it
+    private boolean dequeued(Insertion insertion) {
+        if (!insertion.dequeued.compareAndSet(false, true)) {
+            return false;
+        }
+        queued.decrementAndGet();
+        retainedBytes.add(-INSERTION_BYTES);
+        return true;
+    }
+    
+    private static final class Insertion {
+        private final String key;
+        private final Entry entry;
+        private final AtomicBoolean dequeued = new AtomicBoolean();
+        
+        Insertion(String key, Entry entry) {
+            this.key = key;
+            this.entry = entry;
+        }
+    }
+    
+    /**
+     * Result of {@link #claim}
+     * @param entry the caller's new entry if owned, otherwise the live entry of the earlier request
+     * @param owned whether the caller now owns the key
+     */
+    public record Claim(Entry entry, boolean owned) {
+    }
+    
+    /**
+     * A claimed key: in progress until its response is recorded
+     */
+    public static final class Entry {
+        private final byte[] fingerprint;
+        private final long expiresAtNanos;
+        private volatile StoredResponse response;
+        private volatile boolean removed;
+        
+        Entry(byte[] fingerprint, long expiresAtNanos) {
+            this.fingerprint = fingerprint;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+        
+        boolean isExpired(long now) {
+            return now - expiresAtNanos >= 0;
+        }
+        
+        public byte[] getFingerprint() { return fingerprint; }
+        
+        /**
+         * @return the recorded response, or null while the original request is still running
+         */
+        public StoredResponse getResponse() { return response; }
+    }
+    
+    /**
+     * Status, content type, headers and body of a completed request. The headers are the ones the
+     * request itself set, such as Location or Event-Outcome, without Content-Type and Content-Length.
+     */
+    public record StoredResponse(int status, String contentType, HttpHeaders headers, byte[] body) {
+    }
+}
\ No newline at end of file
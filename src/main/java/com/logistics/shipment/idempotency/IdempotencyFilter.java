@@ -0,0 +1,162 @@
+package com.logistics.shipment.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logistics.shipment.web.CachedBodyHttpServletRequest;
+import com.logistics.shipment.web.FilterErrorResponses;
+import com.logistics.shipment.web.ShipmentPaths;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Makes POST and PATCH requests that carry an Idempotency-Key safe to retry. The first request
+ * with a key executes normally and its response is stored; repeats of the same request get the
+ * stored response back instead of a 409 or 400 from executing twice. Server errors are not
+ * stored, so a retry after a 5xx executes again.
+ */
+public class IdempotencyFilter extends OncePerRequestFilter {
+    
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    
+    private final IdempotencyProperties properties;
+    private final IdempotencyCache cache;
+    private final ObjectMapper objectMapper;
+    
+    public IdempotencyFilter(IdempotencyProperties properties, ObjectMapper objectMapper) {
+        this(properties, new IdempotencyCache(properties.getMaxEntries(), properties.getTtl().toNanos()), objectMapper);
+    }
+    
+    public IdempotencyFilter(IdempotencyProperties properties, IdempotencyCache cache, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.cache = cache;
+        this.objectMapper = objectMapper;
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String method = request.getMethod();
+        return !properties.isEnabled()
+                || !("POST".equalsIgnoreCase(method) || "PATCH".equalsIgnoreCase(method))
+                || request.getHeader(properties.getHeader()) == null
+                || !acceptsIdempotencyKey(request.getRequestURI());
+    }
+    
+    // Bulk import bodies are streamed, so they are never buffered for fingerprinting
+    private static boolean acceptsIdempotencyKey(String path) {
+        String subPath = ShipmentPaths.subPath(path);
+        return subPath != null && !ShipmentPaths.isCollectionResource(subPath);
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String key = request.getHeader(properties.getHeader());
+        if (key.isBlank() || key.length() > properties.getMaxKeyLength()) {
+            FilterErrorResponses.write(response, objectMapper, HttpStatus.BAD_REQUEST,
+                    properties.getHeader() + " must be 1 to " + properties.getMaxKeyLength() + " characters");
+            return;
+        }
+        
+        CachedBodyHttpServletRequest cachedRequest = request instanceof CachedBodyHttpServletRequest cached
+                ? cached
+                : new CachedBodyHttpServletRequest(request);
+        byte[] fingerprint = fingerprint(cachedRequest);
+        
+        IdempotencyCache.Claim claim = cache.claim(key, fingerprint);
+        if (!claim.owned()) {
+            replay(claim.entry(), fingerprint, response);
+            return;
+        }
+        
+        ContentCachingResponseWrapper capturing = new ContentCachingResponseWrapper(response);
+        Set<String> earlierHeaders = new HashSet<>(response.getHeaderNames());
+        boolean stored = false;
+        try {
+            chain.doFilter(cachedRequest, capturing);
+            if (capturing.getStatus() < 500) {
+                cache.complete(key, claim.entry(), new IdempotencyCache.StoredResponse(capturing.getStatus(),
+                        capturing.getContentType(), headersSetBy(capturing, earlierHeaders),
+                        capturing.getContentAsByteArray()));
+                stored = true;
+            }
+        } finally {
+            if (!stored) {
+                cache.release(key, claim.entry());
+            }
+            capturing.copyBodyToResponse();
+        }
+    }
+    
+    // Headers added downstream of this filter; ones set before it belong to this request only
+    private static HttpHeaders headersSetBy(HttpServletResponse response, Set<String> earlierHeaders) {
+        HttpHeaders headers = new HttpHeaders();
+        for (String name : response.getHeaderNames()) {
+            if (!earlierHeaders.contains(name)
+                    && !HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(name)
+                    && !HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                headers.addAll(name, List.copyOf(response.getHeaders(name)));
+            }
+        }
+        return headers;
+    }
+    
+    /**
+     * Number of idempotency keys currently remembered
+     */
+    public int getCachedKeys() {
+        return cache.size();
+    }
+    
+    private void replay(IdempotencyCache.Entry previous, byte[] fingerprint, HttpServletResponse response)
+            throws IOException {
+        if (!Arrays.equals(previous.getFingerprint(), fingerprint)) {
+            FilterErrorResponses.write(response, objectMapper, HttpStatus.UNPROCESSABLE_ENTITY,
+                    properties.getHeader() + " was already used for a different request");
+            return;
+        }
+        IdempotencyCache.StoredResponse stored = previous.getResponse();
+        if (stored == null) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            FilterErrorResponses.write(response, objectMapper, HttpStatus.CONFLICT,
+                    "A request with this " + properties.getHeader() + " is still in progress");
+            return;
+        }
+        response.setStatus(stored.status());
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        stored.headers().forEach((name, values) -> values.forEach(value -> response.addHeader(name, value)));
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+    
+    // Identifies the request a key was first used for: method, path and body
+    private static byte[] fingerprint(CachedBodyHttpServletRequest request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(request.getMethod().getBytes(StandardCharsets.US_ASCII));
+            digest.update((byte) ' ');
+            digest.update(request.getRequestURI().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+            digest.update(request.getBody());
+            return digest.digest();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
\ No newline at end of file
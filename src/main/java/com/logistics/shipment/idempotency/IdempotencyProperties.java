@@ -0,0 +1,39 @@
+package com.logistics.shipment.idempotency;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Idempotency key settings for POST and PATCH requests (prefix: shipment.idempotency)
+ */
+@ConfigurationProperties(prefix = "shipment.idempotency")
+public class IdempotencyProperties {
+    
+    private boolean enabled = true;
+    
+    private String header = "Idempotency-Key";
+    
+    private int maxKeyLength = 255;
+    
+    // Stored responses; the oldest are evicted first beyond this
+    private int maxEntries = 50_000;
+    
+    // How long a key is remembered after its first use
+    private Duration ttl = Duration.ofHours(1);
+    
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    
+    public String getHeader() { return header; }
+    public void setHeader(String header) { this.header = header; }
+    
+    public int getMaxKeyLength() { return maxKeyLength; }
+    public void setMaxKeyLength(int maxKeyLength) { this.maxKeyLength = maxKeyLength; }
+    
+    public int getMaxEntries() { return maxEntries; }
+    public void setMaxEntries(int maxEntries) { this.maxEntries = maxEntries; }
+    
+    public Duration getTtl() { return ttl; }
+    public void setTtl(Duration ttl) { this.ttl = ttl; }
+}
\ No newline at end of file
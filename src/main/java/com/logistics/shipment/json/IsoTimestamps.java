@@ -0,0 +1,130 @@
+package com.logistics.shipment.json;
+
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+
+/**
+ * Formats and parses {@link LocalDateTime} in the exact text form of
+ * {@link java.time.format.DateTimeFormatter#ISO_LOCAL_DATE_TIME} without going through a formatter:
+ * seconds are always written, the fraction only when non-zero and without trailing zeros.
+ */
+final class IsoTimestamps {
+    
+    // Sign, up to 9 year digits, "-MM-ddTHH:mm:ss" and a 9-digit fraction with its point
+    static final int MAX_LENGTH = 35;
+    
+    private IsoTimestamps() {
+    }
+    
+    /**
+     * Writes the timestamp into the buffer
+     * @return the number of characters written
+     */
+    static int format(LocalDateTime timestamp, char[] buffer) {
+        int pos = 0;
+        int year = timestamp.getYear();
+        if (year > 9999) {
+            buffer[pos++] = '+';
+        } else if (year < 0) {
+            buffer[pos++] = '-';
+        }
+        int absYear = Math.abs(year);
+        if (absYear < 10000) {
+            pos = twoDigits(buffer, pos, absYear / 100);
+            pos = twoDigits(buffer, pos, absYear % 100);
+        } else {
+            String digits = Integer.toString(absYear);
+            digits.getChars(0, digits.length(), buffer, pos);
+            pos += digits.length();
+        }
+        buffer[pos++] = '-';
+        pos = twoDigits(buffer, pos, timestamp.getMonthValue());
+        buffer[pos++] = '-';
+        pos = twoDigits(buffer, pos, timestamp.getDayOfMonth());
+        buffer[pos++] = 'T';
+        pos = twoDigits(buffer, pos, timestamp.getHour());
+        buffer[pos++] = ':';
+        pos = twoDigits(buffer, pos, timestamp.getMinute());
+        buffer[pos++] = ':';
+        pos = twoDigits(buffer, pos, timestamp.getSecond());
+        
+        int nano = timestamp.getNano();
+        if (nano != 0) {
+            buffer[pos++] = '.';
+            int end = pos + 9;
+            for (int i = end - 1; i >= pos; i--) {
+                buffer[i] = (char) ('0' + nano % 10);
+                nano /= 10;
+            }
+            pos = end;
+            while (buffer[pos - 1] == '0') {
+                pos--;
+            }
+        }
+        return pos;
+    }
+    
+    /**
+     * Parses the common form yyyy-MM-ddTHH:mm[:ss[.fraction]]
+     * @return the timestamp, or null if the text is in any other form and needs the full ISO parser
+     */
+    static LocalDateTime parse(char[] text, int offset, int length) {
+        int end = offset + length;
+        if (length < 16 || text[offset + 4] != '-' || text[offset + 7] != '-' || text[offset + 10] != 'T'
+                || text[offset + 13] != ':') {
+            return null;
+        }
+        int year = digits(text, offset, 4);
+        int month = digits(text, offset + 5, 2);
+        int day = digits(text, offset + 8, 2);
+        int hour = digits(text, offset + 11, 2);
+        int minute = digits(text, offset + 14, 2);
+        int second = 0;
+        int nano = 0;
+        int pos = offset + 16;
+        if (pos < end) {
+            if (end - pos < 3 || text[pos] != ':') {
+                return null;
+            }
+            second = digits(text, pos + 1, 2);
+            pos += 3;
+            if (pos < end) {
+                int fractionDigits = end - pos - 1;
+                if (text[pos] != '.' || fractionDigits < 1 || fractionDigits > 9) {
+                    return null;
+                }
+                nano = digits(text, pos + 1, fractionDigits);
+                for (int i = fractionDigits; i < 9 && nano >= 0; i++) {
+                    nano *= 10;
+                }
+            }
+        }
+        if ((year | month | day | hour | minute | second | nano) < 0) {
+            return null;
+        }
+        try {
+            return LocalDateTime.of(year, month, day, hour, minute, second, nano);
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+    
+    private static int twoDigits(char[] buffer, int pos, int value) {
+        buffer[pos] = (char) ('0' + value / 10);
+        buffer[pos + 1] = (char) ('0' + value % 10);
+        return pos + 2;
+    }
+    
+    // Returns -1 if any character is not a digit
+    private static int digits(char[] text, int offset, int count) {
+        int value = 0;
+        for (int i = offset; i < offset + count; i++) {
+            int digit = text[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+}
\ No newline at end of file
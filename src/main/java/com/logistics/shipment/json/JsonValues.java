@@ -0,0 +1,102 @@
+package com.logistics.shipment.json;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.logistics.shipment.model.ShipmentStatus;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Field readers and writers shared by the hand-written serializers. Each one handles the common
+ * case directly and hands anything unusual to the regular Jackson deserializer or serializer,
+ * so coercion rules and error messages stay the same as with bean-based mapping.
+ */
+final class JsonValues {
+    
+    private static final ShipmentStatus[] STATUSES = ShipmentStatus.values();
+    
+    private JsonValues() {
+    }
+    
+    /**
+     * @return true if null properties of the type are left out, as with default-property-inclusion non_null
+     */
+    static boolean skipsNulls(SerializerProvider provider, Class<?> type) {
+        JsonInclude.Include inclusion = provider.getConfig().getDefaultPropertyInclusion(type).getValueInclusion();
+        return inclusion != JsonInclude.Include.ALWAYS && inclusion != JsonInclude.Include.USE_DEFAULTS;
+    }
+    
+    static void writeString(JsonGenerator gen, SerializableString name, String value, boolean skipNulls)
+            throws IOException {
+        if (value != null) {
+            gen.writeFieldName(name);
+            gen.writeString(value);
+        } else if (!skipNulls) {
+            gen.writeFieldName(name);
+            gen.writeNull();
+        }
+    }
+    
+    static void writeStatus(JsonGenerator gen, SerializableString name, ShipmentStatus value, boolean skipNulls)
+            throws IOException {
+        writeString(gen, name, value != null ? value.name() : null, skipNulls);
+    }
+    
+    static void writeTimestamp(JsonGenerator gen, SerializerProvider provider, SerializableString name,
+                               LocalDateTime value, boolean skipNulls) throws IOException {
+        if (value == null || provider.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)) {
+            if (value != null || !skipNulls) {
+                gen.writeFieldName(name);
+                provider.defaultSerializeValue(value, gen);
+            }
+            return;
+        }
+        char[] buffer = new char[IsoTimestamps.MAX_LENGTH];
+        int length = IsoTimestamps.format(value, buffer);
+        gen.writeFieldName(name);
+        gen.writeString(buffer, 0, length);
+    }
+    
+    static String readString(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (p.hasToken(JsonToken.VALUE_STRING)) {
+            return p.getText();
+        }
+        if (p.hasToken(JsonToken.VALUE_NULL)) {
+            return null;
+        }
+        return ctxt.readValue(p, String.class);
+    }
+    
+    static ShipmentStatus readStatus(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (p.hasToken(JsonToken.VALUE_STRING)) {
+            String text = p.getText();
+            for (ShipmentStatus status : STATUSES) {
+                if (status.name().equals(text)) {
+                    return status;
+                }
+            }
+        } else if (p.hasToken(JsonToken.VALUE_NULL)) {
+            return null;
+        }
+        return ctxt.readValue(p, ShipmentStatus.class);
+    }
+    
+    static LocalDateTime readTimestamp(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (p.hasToken(JsonToken.VALUE_STRING)) {
+            LocalDateTime parsed = IsoTimestamps.parse(p.getTextCharacters(), p.getTextOffset(), p.getTextLength());
+            if (parsed != null) {
+                return parsed;
+            }
+        } else if (p.hasToken(JsonToken.VALUE_NULL)) {
+            return null;
+        }
+        return ctxt.readValue(p, LocalDateTime.class);
+    }
+}
\ No newline at end of file
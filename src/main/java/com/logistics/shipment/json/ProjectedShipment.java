@@ -0,0 +1,25 @@
+package com.logistics.shipment.json;
+
+import com.logistics.shipment.model.Shipment;
+
+/**
+ * A shipment response limited to the requested fields; see {@link ShipmentJson.ProjectedSerializer}
+ */
+public class ProjectedShipment {
+    
+    private final Shipment shipment;
+    private final ShipmentFields fields;
+    
+    public ProjectedShipment(Shipment shipment, ShipmentFields fields) {
+        this.shipment = shipment;
+        this.fields = fields;
+    }
+    
+    public Shipment getShipment() {
+        return shipment;
+    }
+    
+    public ShipmentFields getFields() {
+        return fields;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,28 @@
+package com.logistics.shipment.json;
+
+import com.logistics.shipment.model.Shipment;
+
+import java.util.List;
+
+/**
+ * A list response whose rows are limited to the requested fields. The projection is applied
+ * while writing, so no per-row wrapper or map is created.
+ */
+public class ProjectedShipmentList {
+    
+    private final List<Shipment> shipments;
+    private final ShipmentFields fields;
+    
+    public ProjectedShipmentList(List<Shipment> shipments, ShipmentFields fields) {
+        this.shipments = shipments;
+        this.fields = fields;
+    }
+    
+    public List<Shipment> getShipments() {
+        return shipments;
+    }
+    
+    public ShipmentFields getFields() {
+        return fields;
+    }
+}
\ No newline at end of file
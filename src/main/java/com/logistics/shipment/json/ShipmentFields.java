@@ -0,0 +1,85 @@
+package com.logistics.shipment.json;
+
+import java.util.StringJoiner;
+
+/**
+ * The shipment properties a caller asked for with {@code fields=}, held as a bit mask so the
+ * serializer can test each property without any per-request collections
+ */
+public final class ShipmentFields {
+    
+    static final int ORDER_ID = 1;
+    static final int ORIGIN = 1 << 1;
+    static final int DESTINATION = 1 << 2;
+    static final int STATUS = 1 << 3;
+    static final int CREATED_AT = 1 << 4;
+    static final int UPDATED_AT = 1 << 5;
+    
+    // Indexed by bit position
+    private static final String[] NAMES = {"orderId", "origin", "destination", "status", "createdAt", "updatedAt"};
+    
+    public static final ShipmentFields ALL = new ShipmentFields((1 << NAMES.length) - 1);
+    
+    private final int mask;
+    
+    private ShipmentFields(int mask) {
+        this.mask = mask;
+    }
+    
+    /**
+     * Parses a comma-separated list of property names, e.g. "orderId,status"
+     * @return {@link #ALL} if the list is null or blank
+     * @throws IllegalArgumentException if a name is not a shipment property
+     */
+    public static ShipmentFields parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        int mask = 0;
+        int start = 0;
+        while (start <= fields.length()) {
+            int end = fields.indexOf(',', start);
+            if (end < 0) {
+                end = fields.length();
+            }
+            String name = fields.substring(start, end).trim();
+            if (!name.isEmpty()) {
+                mask |= bitOf(name);
+            }
+            start = end + 1;
+        }
+        if (mask == 0) {
+            throw new IllegalArgumentException("fields must name at least one property");
+        }
+        return mask == ALL.mask ? ALL : new ShipmentFields(mask);
+    }
+    
+    private static int bitOf(String name) {
+        for (int i = 0; i < NAMES.length; i++) {
+            if (NAMES[i].equals(name)) {
+                return 1 << i;
+            }
+        }
+        throw new IllegalArgumentException("Unknown field '" + name + "'. Expected any of "
+                + String.join(", ", NAMES));
+    }
+    
+    public boolean isAll() {
+        return mask == ALL.mask;
+    }
+    
+    boolean includes(int field) {
+        return (mask & field) != 0;
+    }
+    
+    @Override
+    public String toString() {
+        StringJoiner joiner = new StringJoiner(",");
+        for (int i = 0; i < NAMES.length; i++) {
+            if ((mask & (1 << i)) != 0) {
+                joiner.add(NAMES[i]);
+            }
+        }
+        return joiner.toString();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,134 @@
+package com.logistics.shipment.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.logistics.shipment.model.Shipment;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Streaming JSON mapping for {@link Shipment}, the body of every single-shipment request and response.
+ * Output is identical to the bean-based mapping: fields in declaration order, status by enum name,
+ * timestamps in ISO-8601 local form. Responses wrapped in {@link ProjectedShipment} or
+ * {@link ProjectedShipmentList} carry only the fields the caller asked for.
+ */
+@JsonComponent
+public class ShipmentJson {
+    
+    private static final SerializableString ORDER_ID = new SerializedString("orderId");
+    private static final SerializableString ORIGIN = new SerializedString("origin");
+    private static final SerializableString DESTINATION = new SerializedString("destination");
+    private static final SerializableString STATUS = new SerializedString("status");
+    private static final SerializableString CREATED_AT = new SerializedString("createdAt");
+    private static final SerializableString UPDATED_AT = new SerializedString("updatedAt");
+    
+    public static class Serializer extends JsonSerializer<Shipment> {
+        
+        @Override
+        public void serialize(Shipment shipment, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            write(shipment, ShipmentFields.ALL, gen, provider, JsonValues.skipsNulls(provider, Shipment.class));
+        }
+    }
+    
+    /**
+     * Writes only the requested fields of one shipment
+     */
+    public static class ProjectedSerializer extends JsonSerializer<ProjectedShipment> {
+        
+        @Override
+        public void serialize(ProjectedShipment projected, JsonGenerator gen, SerializerProvider provider)
+                throws IOException {
+            write(projected.getShipment(), projected.getFields(), gen, provider,
+                    JsonValues.skipsNulls(provider, Shipment.class));
+        }
+    }
+    
+    /**
+     * Writes the rows of a list response with only the requested fields
+     */
+    public static class ProjectedListSerializer extends JsonSerializer<ProjectedShipmentList> {
+        
+        @Override
+        public void serialize(ProjectedShipmentList projected, JsonGenerator gen, SerializerProvider provider)
+                throws IOException {
+            boolean skipNulls = JsonValues.skipsNulls(provider, Shipment.class);
+            ShipmentFields fields = projected.getFields();
+            List<Shipment> shipments = projected.getShipments();
+            gen.writeStartArray(shipments, shipments.size());
+            for (Shipment shipment : shipments) {
+                write(shipment, fields, gen, provider, skipNulls);
+            }
+            gen.writeEndArray();
+        }
+    }
+    
+    static void write(Shipment shipment, ShipmentFields fields, JsonGenerator gen, SerializerProvider provider,
+                      boolean skipNulls) throws IOException {
+        gen.writeStartObject(shipment);
+        if (fields.includes(ShipmentFields.ORDER_ID)) {
+            JsonValues.writeString(gen, ORDER_ID, shipment.getOrderId(), skipNulls);
+        }
+        if (fields.includes(ShipmentFields.ORIGIN)) {
+            JsonValues.writeString(gen, ORIGIN, shipment.getOrigin(), skipNulls);
+        }
+        if (fields.includes(ShipmentFields.DESTINATION)) {
+            JsonValues.writeString(gen, DESTINATION, shipment.getDestination(), skipNulls);
+        }
+        if (fields.includes(ShipmentFields.STATUS)) {
+            JsonValues.writeStatus(gen, STATUS, shipment.getStatus(), skipNulls);
+        }
+        if (fields.includes(ShipmentFields.CREATED_AT)) {
+            JsonValues.writeTimestamp(gen, provider, CREATED_AT, shipment.getCreatedAt(), skipNulls);
+        }
+        if (fields.includes(ShipmentFields.UPDATED_AT)) {
+            JsonValues.writeTimestamp(gen, provider, UPDATED_AT, shipment.getUpdatedAt(), skipNulls);
+        }
+        gen.writeEndObject();
+    }
+    
+    /**
+     * Applies the properties through the setters in the order they appear, as bean deserialization does
+     */
+    public static class Deserializer extends JsonDeserializer<Shipment> {
+        
+        @Override
+        public Shipment deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            String name;
+            if (p.isExpectedStartObjectToken()) {
+                name = p.nextFieldName();
+            } else if (p.hasToken(JsonToken.FIELD_NAME)) {
+                name = p.currentName();
+            } else if (p.hasToken(JsonToken.END_OBJECT)) {
+                name = null;
+            } else {
+                return (Shipment) ctxt.handleUnexpectedToken(Shipment.class, p);
+            }
+            
+            Shipment shipment = new Shipment();
+            for (; name != null; name = p.nextFieldName()) {
+                p.nextToken();
+                switch (name) {
+                    case "orderId" -> shipment.setOrderId(JsonValues.readString(p, ctxt));
+                    case "origin" -> shipment.setOrigin(JsonValues.readString(p, ctxt));
+                    case "destination" -> shipment.setDestination(JsonValues.readString(p, ctxt));
+                    case "status" -> shipment.setStatus(JsonValues.readStatus(p, ctxt));
+                    case "createdAt" -> shipment.setCreatedAt(JsonValues.readTimestamp(p, ctxt));
+                    case "updatedAt" -> shipment.setUpdatedAt(JsonValues.readTimestamp(p, ctxt));
+                    // @JsonIgnore'd properties are skipped even when unknown properties fail
+                    case "statusHistory", "packedHistory" -> p.skipChildren();
+                    default -> ctxt.handleUnknownProperty(p, this, Shipment.class, name);
+                }
+            }
+            return shipment;
+        }
+    }
+}
\ No newline at end of file
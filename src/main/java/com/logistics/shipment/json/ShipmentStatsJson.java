@@ -0,0 +1,48 @@
+package com.logistics.shipment.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.logistics.shipment.controller.ShipmentController.ShipmentStats;
+import com.logistics.shipment.model.ShipmentStatus;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Streaming JSON encoding for GET /shipments/stats. Counts are written in the map's own
+ * iteration order, exactly as the map serializer would.
+ */
+@JsonComponent
+public class ShipmentStatsJson {
+    
+    private static final SerializableString TOTAL_SHIPMENTS = new SerializedString("totalShipments");
+    private static final SerializableString COUNT_BY_STATUS = new SerializedString("countByStatus");
+    
+    public static class Serializer extends JsonSerializer<ShipmentStats> {
+        
+        @Override
+        public void serialize(ShipmentStats stats, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(stats);
+            gen.writeFieldName(TOTAL_SHIPMENTS);
+            gen.writeNumber(stats.getTotalShipments());
+            Map<ShipmentStatus, Long> counts = stats.getCountByStatus();
+            if (counts != null) {
+                gen.writeFieldName(COUNT_BY_STATUS);
+                gen.writeStartObject(counts);
+                for (Map.Entry<ShipmentStatus, Long> entry : counts.entrySet()) {
+                    gen.writeFieldName(entry.getKey().name());
+                    gen.writeNumber(entry.getValue());
+                }
+                gen.writeEndObject();
+            } else if (!JsonValues.skipsNulls(provider, ShipmentStats.class)) {
+                gen.writeFieldName(COUNT_BY_STATUS);
+                gen.writeNull();
+            }
+            gen.writeEndObject();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,49 @@
+package com.logistics.shipment.json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.logistics.shipment.controller.ShipmentController.StatusUpdateRequest;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+
+/**
+ * Streaming JSON decoding for the PATCH /shipments/{orderId} body
+ */
+@JsonComponent
+public class StatusUpdateRequestJson {
+    
+    public static class Deserializer extends JsonDeserializer<StatusUpdateRequest> {
+        
+        @Override
+        public StatusUpdateRequest deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            String name;
+            if (p.isExpectedStartObjectToken()) {
+                name = p.nextFieldName();
+            } else if (p.hasToken(JsonToken.FIELD_NAME)) {
+                name = p.currentName();
+            } else if (p.hasToken(JsonToken.END_OBJECT)) {
+                name = null;
+            } else {
+                return (StatusUpdateRequest) ctxt.handleUnexpectedToken(StatusUpdateRequest.class, p);
+            }
+            
+            StatusUpdateRequest request = new StatusUpdateRequest();
+            for (; name != null; name = p.nextFieldName()) {
+                p.nextToken();
+                if ("status".equals(name)) {
+                    request.setStatus(JsonValues.readString(p, ctxt));
+                } else if ("eventId".equals(name)) {
+                    request.setEventId(JsonValues.readString(p, ctxt));
+                } else if ("eventTimestamp".equals(name)) {
+                    request.setEventTimestamp(JsonValues.readTimestamp(p, ctxt));
+                } else {
+                    ctxt.handleUnknownProperty(p, this, StatusUpdateRequest.class, name);
+                }
+            }
+            return request;
+        }
+    }
+}
\ No newline at end of file
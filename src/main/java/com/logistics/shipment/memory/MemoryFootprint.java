@@ -0,0 +1,85 @@
+package com.logistics.shipment.memory;
+
+import java.util.Map;
+
+/**
+ * Estimated heap usage of the shipment data and the projected capacity at the current heap size
+ */
+public class MemoryFootprint {
+    
+    private final int shipments;
+    private final long bytesPerShipment;
+    private final Map<String, Long> perShipmentBytes;
+    private final Map<String, Long> cacheBytes;
+    private final long totalBytes;
+    private final long maxHeapBytes;
+    private final long usedHeapBytes;
+    private final double targetHeapOccupancy;
+    private final Long projectedMaxShipments;
+    
+    public MemoryFootprint(int shipments, long bytesPerShipment, Map<String, Long> perShipmentBytes,
+                           Map<String, Long> cacheBytes, long totalBytes, long maxHeapBytes, long usedHeapBytes,
+                           double targetHeapOccupancy, Long projectedMaxShipments) {
+        this.shipments = shipments;
+        this.bytesPerShipment = bytesPerShipment;
+        this.perShipmentBytes = perShipmentBytes;
+        this.cacheBytes = cacheBytes;
+        this.totalBytes = totalBytes;
+        this.maxHeapBytes = maxHeapBytes;
+        this.usedHeapBytes = usedHeapBytes;
+        this.targetHeapOccupancy = targetHeapOccupancy;
+        this.projectedMaxShipments = projectedMaxShipments;
+    }
+    
+    public int getShipments() {
+        return shipments;
+    }
+    
+    /**
+     * Average retained bytes per stored shipment across the store, its indexes and SLA deadlines
+     */
+    public long getBytesPerShipment() {
+        return bytesPerShipment;
+    }
+    
+    /**
+     * Retained bytes of the structures that grow with the number of shipments, by component
+     */
+    public Map<String, Long> getPerShipmentBytes() {
+        return perShipmentBytes;
+    }
+    
+    /**
+     * Retained bytes of the bounded caches, by component
+     */
+    public Map<String, Long> getCacheBytes() {
+        return cacheBytes;
+    }
+    
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+    
+    public long getMaxHeapBytes() {
+        return maxHeapBytes;
+    }
+    
+    /**
+     * Heap in use when the report was taken, including garbage not yet collected
+     */
+    public long getUsedHeapBytes() {
+        return usedHeapBytes;
+    }
+    
+    public double getTargetHeapOccupancy() {
+        return targetHeapOccupancy;
+    }
+    
+    /**
+     * Shipments that fit in the target share of the maximum heap next to everything else currently
+     * on the heap, or null while the store is empty and there is no per-shipment cost to go by
+     */
+    public Long getProjectedMaxShipments() {
+        return projectedMaxShipments;
+    }
+}
\ No newline at end of file
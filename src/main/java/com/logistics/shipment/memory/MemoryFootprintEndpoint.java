@@ -0,0 +1,94 @@
+package com.logistics.shipment.memory;
+
+import com.logistics.shipment.events.StatusEventReconciler;
+import com.logistics.shipment.idempotency.IdempotencyCache;
+import com.logistics.shipment.sla.SlaMonitor;
+import com.logistics.shipment.store.IndexedShipmentStore;
+import com.logistics.shipment.store.ShipmentStore;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Actuator endpoint (/actuator/memory) reporting how much heap the shipment data retains and how
+ * many shipments the current heap can hold. Every figure is read from a counter that its component
+ * keeps up to date on each write, so a report costs the same however many shipments are stored.
+ */
+@Endpoint(id = "memory")
+public class MemoryFootprintEndpoint {
+    
+    private final ShipmentStore store;
+    private final SlaMonitor slaMonitor;
+    private final IdempotencyCache idempotencyCache;
+    private final StatusEventReconciler statusEventReconciler;
+    private final MemoryFootprintProperties properties;
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    
+    /**
+     * @param slaMonitor null if SLA monitoring is disabled
+     * @param idempotencyCache null if not in use
+     * @param statusEventReconciler null if not in use
+     */
+    public MemoryFootprintEndpoint(ShipmentStore store, SlaMonitor slaMonitor, IdempotencyCache idempotencyCache,
+                                   StatusEventReconciler statusEventReconciler, MemoryFootprintProperties properties) {
+        this.store = store;
+        this.slaMonitor = slaMonitor;
+        this.idempotencyCache = idempotencyCache;
+        this.statusEventReconciler = statusEventReconciler;
+        this.properties = properties;
+    }
+    
+    @ReadOperation
+    public MemoryFootprint footprint() {
+        int shipments = store.size();
+        
+        Map<String, Long> perShipment = new LinkedHashMap<>();
+        long indexBytes = store instanceof IndexedShipmentStore indexed ? indexed.getIndexRetainedBytes() : 0;
+        perShipment.put("store", store.getRetainedBytes() - indexBytes);
+        perShipment.put("indexes", indexBytes);
+        if (slaMonitor != null) {
+            perShipment.put("slaDeadlines", slaMonitor.getRetainedBytes());
+        }
+        
+        Map<String, Long> caches = new LinkedHashMap<>();
+        if (idempotencyCache != null) {
+            caches.put("idempotency", idempotencyCache.getRetainedBytes());
+        }
+        if (statusEventReconciler != null) {
+            caches.put("statusEvents", statusEventReconciler.getRetainedBytes());
+        }
+        
+        long perShipmentTotal = sum(perShipment);
+        long total = perShipmentTotal + sum(caches);
+        long bytesPerShipment = shipments > 0 ? perShipmentTotal / shipments : 0;
+        
+        long maxHeap = memory.getHeapMemoryUsage().getMax();
+        if (maxHeap < 0) {
+            maxHeap = Runtime.getRuntime().maxMemory();
+        }
+        long usedHeap = memory.getHeapMemoryUsage().getUsed();
+        double occupancy = properties.getTargetHeapOccupancy();
+        
+        Long projected = null;
+        if (bytesPerShipment > 0) {
+            // Everything on the heap besides the shipments stays put as the store grows
+            long otherHeap = Math.max(0, usedHeap - perShipmentTotal);
+            long budget = (long) (maxHeap * occupancy) - otherHeap;
+            projected = Math.max(0, budget / bytesPerShipment);
+        }
+        return new MemoryFootprint(shipments, bytesPerShipment, perShipment, caches, total, maxHeap, usedHeap,
+                occupancy, projected);
+    }
+    
+    private static long sum(Map<String, Long> bytes) {
+        long sum = 0;
+        for (long value : bytes.values()) {
+            sum += value;
+        }
+        return sum;
+    }
+}
\ No newline at end of file
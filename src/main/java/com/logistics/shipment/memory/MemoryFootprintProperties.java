@@ -0,0 +1,16 @@
+package com.logistics.shipment.memory;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Capacity projection settings for the memory actuator endpoint (prefix: shipment.memory)
+ */
+@ConfigurationProperties(prefix = "shipment.memory")
+public class MemoryFootprintProperties {
+    
+    // Share of the maximum heap that live data may fill; the rest is garbage collector headroom
+    private double targetHeapOccupancy = 0.7;
+    
+    public double getTargetHeapOccupancy() { return targetHeapOccupancy; }
+    public void setTargetHeapOccupancy(double targetHeapOccupancy) { this.targetHeapOccupancy = targetHeapOccupancy; }
+}
\ No newline at end of file
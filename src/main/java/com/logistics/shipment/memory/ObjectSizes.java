@@ -0,0 +1,108 @@
+package com.logistics.shipment.memory;
+
+import com.logistics.shipment.model.Shipment;
+import com.sun.management.HotSpotDiagnosticMXBean;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Shallow and retained size estimates for the objects the service keeps on the heap, using the
+ * HotSpot object layout of the running JVM. Sizes are computed from field counts and string
+ * lengths, so they are cheap enough to maintain on every write instead of walking the heap.
+ */
+public final class ObjectSizes {
+    
+    public static final int REFERENCE;
+    public static final int OBJECT_HEADER;
+    public static final int ARRAY_HEADER;
+    
+    private static final int ALIGNMENT = 8;
+    
+    static {
+        boolean compressedOops = flag("UseCompressedOops", true);
+        boolean compressedClassPointers = flag("UseCompressedClassPointers", compressedOops);
+        REFERENCE = compressedOops ? 4 : 8;
+        OBJECT_HEADER = compressedClassPointers ? 12 : 16;
+        // Mark word, class pointer and length, padded so long elements stay aligned
+        ARRAY_HEADER = (int) align(OBJECT_HEADER + 4);
+    }
+    
+    // LocalDateTime holds a LocalDate (int, short, short) and a LocalTime (3 bytes and an int)
+    public static final long LOCAL_DATE_TIME = object(2, 0) + object(0, 8) + object(0, 7);
+    
+    // ConcurrentHashMap node (hash, key, value, next) plus its share of the table, which is
+    // between 1.33 and 2.67 slots per entry at the default load factor
+    public static final long HASH_ENTRY = object(3, 4) + 2L * REFERENCE;
+    
+    // Shipment fields: three strings, status, two timestamps and the history array
+    private static final long SHIPMENT_SHELL = object(7, 0);
+    
+    private ObjectSizes() {
+    }
+    
+    /**
+     * Size of an object with the given fields, including header and padding
+     */
+    public static long object(int references, int primitiveBytes) {
+        return align(OBJECT_HEADER + (long) references * REFERENCE + primitiveBytes);
+    }
+    
+    public static long array(int length, int elementBytes) {
+        return align(ARRAY_HEADER + (long) length * elementBytes);
+    }
+    
+    public static long referenceArray(int length) {
+        return array(length, REFERENCE);
+    }
+    
+    /**
+     * Retained size of a string, assuming it is not shared; compact strings use one byte per Latin-1 character
+     */
+    public static long string(String value) {
+        if (value == null) {
+            return 0;
+        }
+        int length = value.length();
+        int bytesPerChar = 1;
+        for (int i = 0; i < length; i++) {
+            if (value.charAt(i) > 0xFF) {
+                bytesPerChar = 2;
+                break;
+            }
+        }
+        // value reference, int hash, byte coder, boolean hashIsZero
+        return object(1, 6) + array(length, bytesPerChar);
+    }
+    
+    /**
+     * Retained size of a shipment: its strings, timestamps and status history. Enum constants are
+     * shared and not counted, and a timestamp shared by createdAt and updatedAt is counted once.
+     */
+    public static long shipment(Shipment shipment) {
+        long size = SHIPMENT_SHELL
+                + string(shipment.getOrderId())
+                + string(shipment.getOrigin())
+                + string(shipment.getDestination())
+                + array(shipment.getPackedHistory().length, Long.BYTES);
+        if (shipment.getCreatedAt() != null) {
+            size += LOCAL_DATE_TIME;
+        }
+        if (shipment.getUpdatedAt() != null && shipment.getUpdatedAt() != shipment.getCreatedAt()) {
+            size += LOCAL_DATE_TIME;
+        }
+        return size;
+    }
+    
+    static long align(long size) {
+        return (size + ALIGNMENT - 1) & -ALIGNMENT;
+    }
+    
+    private static boolean flag(String name, boolean defaultValue) {
+        try {
+            HotSpotDiagnosticMXBean hotSpot = ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class);
+            return hotSpot != null ? Boolean.parseBoolean(hotSpot.getVMOption(name).getValue()) : defaultValue;
+        } catch (RuntimeException e) {
+            return defaultValue;
+        }
+    }
+}
\ No newline at end of file
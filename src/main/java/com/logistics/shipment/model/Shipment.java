@@ -1,10 +1,17 @@
 package com.logistics.shipment.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Objects;
 
 /**
@@ -12,15 +19,27 @@ import java.util.Objects;
  */
 public class Shipment {
     
+    private static final long[] EMPTY_HISTORY = new long[0];
+    private static final int ORDINAL_BITS = 8;
+    private static final long ORDINAL_MASK = (1L << ORDINAL_BITS) - 1;
+    private static final ShipmentStatus[] STATUSES = ShipmentStatus.values();
+    // Workflow loops such as exception -> in-transit -> exception can repeat without end, so the
+    // history is compacted once it reaches this length; see compact()
+    public static final int MAX_HISTORY = 256;
+    private static final int COMPACTED_RECENT = MAX_HISTORY / 2;
+    
     @NotBlank(message = "Order ID is required")
+    @Size(max = 255, message = "Order ID must be at most 255 characters")
     @JsonProperty("orderId")
     private String orderId;
     
     @NotBlank(message = "Origin is required")
+    @Size(max = 255, message = "Origin must be at most 255 characters")
     @JsonProperty("origin")
     private String origin;
     
     @NotBlank(message = "Destination is required")
+    @Size(max = 255, message = "Destination must be at most 255 characters")
     @JsonProperty("destination")
     private String destination;
     
@@ -34,6 +53,11 @@ public class Shipment {
     @JsonProperty("updatedAt")
     private LocalDateTime updatedAt;
     
+    // Status timeline, one long per entry: epoch millis << 8 | status ordinal.
+    // Appends replace the array instead of modifying it, so a shared array is never written.
+    @JsonIgnore
+    private long[] history = EMPTY_HISTORY;
+    
     // Default constructor
     public Shipment() {
         this.createdAt = LocalDateTime.now();
@@ -55,6 +79,17 @@ public class Shipment {
         this.status = status != null ? status : ShipmentStatus.PENDING;
     }
     
+    // Copy constructor, private so Jackson never picks it as a creator
+    private Shipment(Shipment source) {
+        this.orderId = source.orderId;
+        this.origin = source.origin;
+        this.destination = source.destination;
+        this.status = source.status;
+        this.createdAt = source.createdAt;
+        this.updatedAt = source.updatedAt;
+        this.history = source.history;
+    }
+    
     // Getters and Setters
     public String getOrderId() {
         return orderId;
@@ -87,6 +122,10 @@ public class Shipment {
     public void setStatus(ShipmentStatus status) {
         this.status = status;
         this.updatedAt = LocalDateTime.now();
+        // A request body with "status": null must reach bean validation rather than fail here
+        if (status != null) {
+            appendHistory(status, updatedAt);
+        }
     }
     
     public LocalDateTime getCreatedAt() {
@@ -106,7 +145,94 @@ public class Shipment {
     }
     
     /**
-     * Updates the shipment status if the transition is valid
+     * Starts the status history over with the current status; called when the shipment is created
+     */
+    public void initHistory() {
+        this.history = new long[] {pack(status, updatedAt)};
+    }
+    
+    /**
+     * Status transitions in the order they happened, oldest first. A history that reached
+     * {@link #MAX_HISTORY} entries keeps the first entry of each status and the newest ones.
+     */
+    @JsonIgnore
+    public List<StatusChange> getStatusHistory() {
+        long[] entries = history;
+        List<StatusChange> changes = new ArrayList<>(entries.length);
+        for (long entry : entries) {
+            changes.add(new StatusChange(STATUSES[(int) (entry & ORDINAL_MASK)],
+                    LocalDateTime.ofInstant(Instant.ofEpochMilli(entry >>> ORDINAL_BITS), ZoneId.systemDefault())));
+        }
+        return changes;
+    }
+    
+    /**
+     * Checks the history without unpacking it
+     * @return true if the shipment has been in the given status at any point, including now
+     */
+    public boolean hasHadStatus(ShipmentStatus status) {
+        if (status == this.status) {
+            return true;
+        }
+        for (long entry : history) {
+            if ((entry & ORDINAL_MASK) == status.ordinal()) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Raw packed history, for replication and persistence
+     */
+    @JsonIgnore
+    public long[] getPackedHistory() {
+        return history;
+    }
+    
+    @JsonIgnore
+    public void setPackedHistory(long[] history) {
+        this.history = history != null ? history : EMPTY_HISTORY;
+    }
+    
+    private void appendHistory(ShipmentStatus status, LocalDateTime at) {
+        long[] current = history.length < MAX_HISTORY ? history : compact(history);
+        long[] appended = Arrays.copyOf(current, current.length + 1);
+        appended[current.length] = pack(status, at);
+        this.history = appended;
+    }
+    
+    // Keeps the first entry of each status, so hasHadStatus answers as before, and the newest
+    // COMPACTED_RECENT entries. Halving the history keeps compaction amortized O(1) per append.
+    private static long[] compact(long[] history) {
+        long[] kept = new long[STATUSES.length + COMPACTED_RECENT];
+        int count = 0;
+        int recentFrom = history.length - COMPACTED_RECENT;
+        long seen = 0;
+        for (int i = 0; i < history.length; i++) {
+            long ordinalBit = 1L << (history[i] & ORDINAL_MASK);
+            if (i >= recentFrom || (seen & ordinalBit) == 0) {
+                kept[count++] = history[i];
+            }
+            seen |= ordinalBit;
+        }
+        return Arrays.copyOf(kept, count);
+    }
+    
+    private static long pack(ShipmentStatus status, LocalDateTime at) {
+        long millis = at.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return millis << ORDINAL_BITS | status.ordinal();
+    }
+    
+    /**
+     * Creates an independent copy of this shipment
+     */
+    public Shipment copy() {
+        return new Shipment(this);
+    }
+    
+    /**
+     * Updates the shipment status if the built-in workflow allows the transition
      */
     public boolean updateStatus(ShipmentStatus newStatus) {
         if (this.status.canTransitionTo(newStatus)) {
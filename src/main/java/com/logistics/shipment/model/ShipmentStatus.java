@@ -1,14 +1,34 @@
 package com.logistics.shipment.model;
 
+import java.util.Set;
+
 /**
  * Enum representing the possible statuses of a shipment.
- * Status transitions follow: pending → dispatched → in-transit → delivered
+ * Status transitions follow: pending → dispatched → in-transit → delivered, with cancellation,
+ * delivery exceptions and returns on the side; see {@link StatusTransitions}.
+ * New statuses go at the end, since ordinals are stored in status history, replication records
+ * and exports.
  */
 public enum ShipmentStatus {
     PENDING("pending", "Shipment is pending processing"),
     DISPATCHED("dispatched", "Shipment has been dispatched"),
     IN_TRANSIT("in-transit", "Shipment is in transit"),
-    DELIVERED("delivered", "Shipment has been delivered");
+    DELIVERED("delivered", "Shipment has been delivered"),
+    CANCELLED("cancelled", "Shipment has been cancelled"),
+    RETURNED("returned", "Shipment has been returned to the sender"),
+    EXCEPTION("exception", "Shipment is held up by a delivery exception");
+    
+    // Open-addressing tables keyed by a case-insensitive hash, so lookups neither loop over values() nor allocate
+    private static final int TABLE_MASK = 31;
+    private static final ShipmentStatus[] BY_VALUE = new ShipmentStatus[TABLE_MASK + 1];
+    private static final ShipmentStatus[] BY_NAME = new ShipmentStatus[TABLE_MASK + 1];
+    
+    static {
+        for (ShipmentStatus status : values()) {
+            insert(BY_VALUE, status.value, status);
+            insert(BY_NAME, status.name(), status);
+        }
+    }
     
     private final String value;
     private final String description;
@@ -27,35 +47,85 @@ public enum ShipmentStatus {
     }
     
     /**
-     * Checks if this status can transition to the target status
+     * Checks if this status can transition to the target status in the built-in workflow
      */
     public boolean canTransitionTo(ShipmentStatus targetStatus) {
-        return switch (this) {
-            case PENDING -> targetStatus == DISPATCHED;
-            case DISPATCHED -> targetStatus == IN_TRANSIT;
-            case IN_TRANSIT -> targetStatus == DELIVERED;
-            case DELIVERED -> false; // No further transitions allowed
-        };
+        return targetStatus != null && StatusTransitions.defaults().allows(this, targetStatus);
     }
     
     /**
-     * Get the next valid status in the workflow
+     * Get the next valid status in the built-in workflow, the first of {@link #getValidNextStatuses()}
      */
     public ShipmentStatus getNextStatus() {
-        return switch (this) {
-            case PENDING -> DISPATCHED;
-            case DISPATCHED -> IN_TRANSIT;
-            case IN_TRANSIT -> DELIVERED;
-            case DELIVERED -> null; // No next status
-        };
+        return StatusTransitions.defaults().firstTargetOf(this);
     }
     
+    /**
+     * Get every status this one can transition to in the built-in workflow; empty for a final status
+     */
+    public Set<ShipmentStatus> getValidNextStatuses() {
+        return StatusTransitions.defaults().targetsOf(this);
+    }
+    
+    /**
+     * Looks a status up by its value ("in-transit"), ignoring case
+     * @throws IllegalArgumentException if no status has that value
+     */
     public static ShipmentStatus fromValue(String value) {
-        for (ShipmentStatus status : ShipmentStatus.values()) {
-            if (status.value.equalsIgnoreCase(value)) {
+        ShipmentStatus status = find(BY_VALUE, value, true);
+        if (status == null) {
+            throw new IllegalArgumentException("Invalid shipment status: " + value);
+        }
+        return status;
+    }
+    
+    /**
+     * Looks a status up by its value ("in-transit") or its name ("IN_TRANSIT"), ignoring case
+     * @return the status, or null if none matches
+     */
+    public static ShipmentStatus fromValueOrName(String text) {
+        ShipmentStatus status = find(BY_VALUE, text, true);
+        return status != null ? status : find(BY_NAME, text, false);
+    }
+    
+    private static ShipmentStatus find(ShipmentStatus[] table, String text, boolean byValue) {
+        if (text == null) {
+            return null;
+        }
+        for (int slot = hashIgnoreCase(text); ; slot++) {
+            ShipmentStatus status = table[slot & TABLE_MASK];
+            if (status == null) {
+                return null;
+            }
+            if ((byValue ? status.value : status.name()).equalsIgnoreCase(text)) {
                 return status;
             }
         }
-        throw new IllegalArgumentException("Invalid shipment status: " + value);
+    }
+    
+    private static void insert(ShipmentStatus[] table, String key, ShipmentStatus status) {
+        int slot = hashIgnoreCase(key);
+        while (table[slot & TABLE_MASK] != null) {
+            slot++;
+        }
+        table[slot & TABLE_MASK] = status;
+    }
+    
+    // Length and the first and last characters, as in a perfect hash; equalsIgnoreCase then makes
+    // one full comparison, against the candidate only
+    private static int hashIgnoreCase(String text) {
+        int length = text.length();
+        if (length == 0) {
+            return 0;
+        }
+        return length * 31 * 31 + fold(text.charAt(0)) * 31 + fold(text.charAt(length - 1));
+    }
+    
+    // Same folding as equalsIgnoreCase, with a shortcut for ASCII
+    private static int fold(char c) {
+        if (c < 0x80) {
+            return c >= 'A' && c <= 'Z' ? c + ('a' - 'A') : c;
+        }
+        return Character.toLowerCase(Character.toUpperCase(c));
     }
 }
\ No newline at end of file
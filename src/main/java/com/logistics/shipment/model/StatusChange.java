@@ -0,0 +1,25 @@
+package com.logistics.shipment.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * One entry of a shipment's status history
+ */
+public class StatusChange {
+    
+    private final ShipmentStatus status;
+    private final LocalDateTime timestamp;
+    
+    public StatusChange(ShipmentStatus status, LocalDateTime timestamp) {
+        this.status = status;
+        this.timestamp = timestamp;
+    }
+    
+    public ShipmentStatus getStatus() {
+        return status;
+    }
+    
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+}
\ No newline at end of file
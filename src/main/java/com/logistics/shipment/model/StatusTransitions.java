@@ -0,0 +1,105 @@
+package com.logistics.shipment.model;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The shipment state machine compiled into a transition table: one int per status whose bit n is
+ * set when the status may move to the status with ordinal n. {@link ShipmentStatus#canTransitionTo}
+ * is then an array load and a bit test.
+ *
+ * <p>The application compiles its table once at startup, with any
+ * {@code shipment.workflow.transitions} overrides, and hands it to the components that check
+ * transitions. The methods on {@link ShipmentStatus} answer for the built-in workflow.
+ */
+public final class StatusTransitions {
+    
+    private static final ShipmentStatus[] STATUSES = ShipmentStatus.values();
+    
+    private static final StatusTransitions DEFAULTS = builtIn();
+    
+    private final int[] masks;
+    
+    private StatusTransitions(int[] masks) {
+        this.masks = masks;
+    }
+    
+    /**
+     * The built-in workflow: pending → dispatched → in-transit → delivered as before, where pending
+     * and dispatched shipments can be cancelled, and dispatched or in-transit ones can hit an
+     * exception that ends in delivery, return to the sender or cancellation. Delivered, cancelled
+     * and returned are final.
+     */
+    public static StatusTransitions defaults() {
+        return DEFAULTS;
+    }
+    
+    private static StatusTransitions builtIn() {
+        Map<ShipmentStatus, Set<ShipmentStatus>> targets = new EnumMap<>(ShipmentStatus.class);
+        targets.put(ShipmentStatus.PENDING, EnumSet.of(ShipmentStatus.DISPATCHED, ShipmentStatus.CANCELLED));
+        targets.put(ShipmentStatus.DISPATCHED,
+                EnumSet.of(ShipmentStatus.IN_TRANSIT, ShipmentStatus.EXCEPTION, ShipmentStatus.CANCELLED));
+        targets.put(ShipmentStatus.IN_TRANSIT, EnumSet.of(ShipmentStatus.DELIVERED, ShipmentStatus.EXCEPTION));
+        targets.put(ShipmentStatus.EXCEPTION,
+                EnumSet.of(ShipmentStatus.DELIVERED, ShipmentStatus.RETURNED, ShipmentStatus.CANCELLED));
+        return compile(targets);
+    }
+    
+    /**
+     * Compiles a workflow given as the allowed targets of each status. Statuses missing from the
+     * map are final. Loops such as exception → in-transit → exception are allowed.
+     * @throws IllegalArgumentException if a status lists itself as a target
+     */
+    public static StatusTransitions compile(Map<ShipmentStatus, ? extends Set<ShipmentStatus>> targets) {
+        int[] masks = new int[STATUSES.length];
+        targets.forEach((from, to) -> {
+            if (to.contains(from)) {
+                throw new IllegalArgumentException("Status " + from.getValue() + " cannot transition to itself");
+            }
+            for (ShipmentStatus target : to) {
+                masks[from.ordinal()] |= 1 << target.ordinal();
+            }
+        });
+        return new StatusTransitions(masks);
+    }
+    
+    /**
+     * The defaults with the targets of each listed status replaced
+     */
+    public static StatusTransitions withOverrides(Map<ShipmentStatus, List<ShipmentStatus>> overrides) {
+        StatusTransitions defaults = defaults();
+        Map<ShipmentStatus, Set<ShipmentStatus>> targets = new EnumMap<>(ShipmentStatus.class);
+        for (ShipmentStatus status : STATUSES) {
+            targets.put(status, defaults.targetsOf(status));
+        }
+        overrides.forEach((from, to) -> targets.put(from,
+                to.isEmpty() ? EnumSet.noneOf(ShipmentStatus.class) : EnumSet.copyOf(to)));
+        return compile(targets);
+    }
+    
+    public boolean allows(ShipmentStatus from, ShipmentStatus to) {
+        return (masks[from.ordinal()] & 1 << to.ordinal()) != 0;
+    }
+    
+    /**
+     * @return the allowed target with the lowest ordinal, which for the built-in workflow is the
+     *         next step towards delivery, or null if the status is final
+     */
+    public ShipmentStatus firstTargetOf(ShipmentStatus from) {
+        int mask = masks[from.ordinal()];
+        return mask != 0 ? STATUSES[Integer.numberOfTrailingZeros(mask)] : null;
+    }
+    
+    public Set<ShipmentStatus> targetsOf(ShipmentStatus from) {
+        Set<ShipmentStatus> targets = EnumSet.noneOf(ShipmentStatus.class);
+        int mask = masks[from.ordinal()];
+        while (mask != 0) {
+            targets.add(STATUSES[Integer.numberOfTrailingZeros(mask)]);
+            mask &= mask - 1;
+        }
+        return targets;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,13 @@
+package com.logistics.shipment.persistence;
+
+import com.logistics.shipment.model.Shipment;
+
+/**
+ * Latest unwritten state of one order ID: a shipment snapshot, or a deletion when shipment is null
+ */
+record PendingWrite(String orderId, Shipment shipment) {
+    
+    boolean isDelete() {
+        return shipment == null;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,56 @@
+package com.logistics.shipment.persistence;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Embedded database persistence settings (prefix: shipment.persistence)
+ */
+@ConfigurationProperties(prefix = "shipment.persistence")
+public class PersistenceProperties {
+    
+    private boolean enabled = false;
+    
+    private String url = "jdbc:h2:file:./data/shipments;DB_CLOSE_ON_EXIT=FALSE";
+    
+    private String username = "sa";
+    
+    private String password = "";
+    
+    // Distinct order IDs waiting to be written before writers are pushed back
+    private int maxPending = 100_000;
+    
+    // Rows per multi-row statement and per transaction
+    private int batchSize = 500;
+    
+    // Longest time a mutation waits in memory before it is written
+    private Duration flushInterval = Duration.ofMillis(200);
+    
+    // How long a writer waits for queue space before the request fails with 503
+    private Duration backpressureTimeout = Duration.ofSeconds(2);
+    
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    
+    public String getUrl() { return url; }
+    public void setUrl(String url) { this.url = url; }
+    
+    public String getUsername() { return username; }
+    public void setUsername(String username) { this.username = username; }
+    
+    public String getPassword() { return password; }
+    public void setPassword(String password) { this.password = password; }
+    
+    public int getMaxPending() { return maxPending; }
+    public void setMaxPending(int maxPending) { this.maxPending = maxPending; }
+    
+    public int getBatchSize() { return batchSize; }
+    public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+    
+    public Duration getFlushInterval() { return flushInterval; }
+    public void setFlushInterval(Duration flushInterval) { this.flushInterval = flushInterval; }
+    
+    public Duration getBackpressureTimeout() { return backpressureTimeout; }
+    public void setBackpressureTimeout(Duration backpressureTimeout) { this.backpressureTimeout = backpressureTimeout; }
+}
\ No newline at end of file
@@ -0,0 +1,158 @@
+package com.logistics.shipment.persistence;
+
+import com.logistics.shipment.model.Shipment;
+import com.logistics.shipment.model.ShipmentStatus;
+
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC access to the shipments table. Owned by a single thread; not thread-safe.
+ */
+class ShipmentTable implements AutoCloseable {
+    
+    private static final String COLUMNS = "order_id, origin, destination, status, created_at, updated_at, history";
+    private static final int UPSERT_PARAMETERS = 7;
+    
+    private final Connection connection;
+    private final int batchSize;
+    // Multi-row statements keyed by row count, so each shape is parsed once
+    private final Map<Integer, PreparedStatement> upsertStatements = new HashMap<>();
+    private final Map<Integer, PreparedStatement> deleteStatements = new HashMap<>();
+    
+    ShipmentTable(String url, String username, String password, int batchSize) throws SQLException {
+        this.connection = DriverManager.getConnection(url, username, password);
+        this.batchSize = batchSize;
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS shipments ("
+                    + "order_id VARCHAR(255) PRIMARY KEY, "
+                    + "origin VARCHAR(255) NOT NULL, "
+                    + "destination VARCHAR(255) NOT NULL, "
+                    + "status VARCHAR(32) NOT NULL, "
+                    + "created_at TIMESTAMP, "
+                    + "updated_at TIMESTAMP)");
+            // Packed status history (see Shipment#getPackedHistory), added after the first release
+            statement.execute("ALTER TABLE shipments ADD COLUMN IF NOT EXISTS history VARBINARY");
+            statement.execute("CREATE INDEX IF NOT EXISTS shipments_status ON shipments (status)");
+        }
+        connection.setAutoCommit(false);
+    }
+    
+    List<Shipment> loadAll() throws SQLException {
+        List<Shipment> shipments = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("SELECT " + COLUMNS + " FROM shipments")) {
+            while (rows.next()) {
+                Shipment shipment = new Shipment(rows.getString(1), rows.getString(2), rows.getString(3),
+                        ShipmentStatus.valueOf(rows.getString(4)));
+                shipment.setCreatedAt(rows.getObject(5, LocalDateTime.class));
+                shipment.setUpdatedAt(rows.getObject(6, LocalDateTime.class));
+                shipment.setPackedHistory(unpack(rows.getBytes(7)));
+                shipments.add(shipment);
+            }
+        }
+        connection.commit();
+        return shipments;
+    }
+    
+    /**
+     * Writes one coalesced batch in a single transaction
+     */
+    void write(List<PendingWrite> batch) throws SQLException {
+        List<Shipment> upserts = new ArrayList<>(batch.size());
+        List<String> deletes = new ArrayList<>();
+        for (PendingWrite write : batch) {
+            if (write.isDelete()) {
+                deletes.add(write.orderId());
+            } else {
+                upserts.add(write.shipment());
+            }
+        }
+        try {
+            for (int from = 0; from < upserts.size(); from += batchSize) {
+                upsert(upserts.subList(from, Math.min(upserts.size(), from + batchSize)));
+            }
+            for (int from = 0; from < deletes.size(); from += batchSize) {
+                delete(deletes.subList(from, Math.min(deletes.size(), from + batchSize)));
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        }
+    }
+    
+    private void upsert(List<Shipment> shipments) throws SQLException {
+        PreparedStatement statement = upsertStatements.computeIfAbsent(shipments.size(), this::prepareUpsert);
+        int index = 1;
+        for (Shipment shipment : shipments) {
+            statement.setString(index++, shipment.getOrderId());
+            statement.setString(index++, shipment.getOrigin());
+            statement.setString(index++, shipment.getDestination());
+            statement.setString(index++, shipment.getStatus().name());
+            statement.setObject(index++, shipment.getCreatedAt());
+            statement.setObject(index++, shipment.getUpdatedAt());
+            statement.setBytes(index++, pack(shipment.getPackedHistory()));
+        }
+        statement.executeUpdate();
+    }
+    
+    private void delete(List<String> orderIds) throws SQLException {
+        PreparedStatement statement = deleteStatements.computeIfAbsent(orderIds.size(), this::prepareDelete);
+        for (int i = 0; i < orderIds.size(); i++) {
+            statement.setString(i + 1, orderIds.get(i));
+        }
+        statement.executeUpdate();
+    }
+    
+    private static byte[] pack(long[] history) {
+        ByteBuffer buffer = ByteBuffer.allocate(history.length * Long.BYTES);
+        buffer.asLongBuffer().put(history);
+        return buffer.array();
+    }
+    
+    private static long[] unpack(byte[] bytes) {
+        if (bytes == null) {
+            return null;
+        }
+        long[] history = new long[bytes.length / Long.BYTES];
+        ByteBuffer.wrap(bytes).asLongBuffer().get(history);
+        return history;
+    }
+    
+    private PreparedStatement prepareUpsert(int rows) {
+        String row = "(" + "?, ".repeat(UPSERT_PARAMETERS - 1) + "?)";
+        StringBuilder sql = new StringBuilder("MERGE INTO shipments (" + COLUMNS + ") KEY (order_id) VALUES ");
+        for (int i = 0; i < rows; i++) {
+            sql.append(i == 0 ? "" : ", ").append(row);
+        }
+        return prepare(sql.toString());
+    }
+    
+    private PreparedStatement prepareDelete(int rows) {
+        return prepare("DELETE FROM shipments WHERE order_id IN (" + "?, ".repeat(rows - 1) + "?)");
+    }
+    
+    private PreparedStatement prepare(String sql) {
+        try {
+            return connection.prepareStatement(sql);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot prepare statement: " + sql, e);
+        }
+    }
+    
+    @Override
+    public void close() throws SQLException {
+        connection.close();
+    }
+}
\ No newline at end of file
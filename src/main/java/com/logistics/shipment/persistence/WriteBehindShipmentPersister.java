@@ -0,0 +1,265 @@
+package com.logistics.shipment.persistence;
+
+import com.logistics.shipment.exception.WriteBackpressureException;
+import com.logistics.shipment.model.Shipment;
+import com.logistics.shipment.model.ShipmentStatus;
+import com.logistics.shipment.service.ShipmentMutationListener;
+import com.logistics.shipment.store.ShipmentStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Persists shipments to an embedded database without putting the database on the request path.
+ * Mutations are coalesced per order ID in a bounded pending map and written by a background
+ * thread in batched multi-row statements. Reads are always served from the in-memory store;
+ * the table is loaded into the store on startup.
+ */
+public class WriteBehindShipmentPersister implements ShipmentMutationListener, SmartLifecycle {
+    
+    private static final Logger log = LoggerFactory.getLogger(WriteBehindShipmentPersister.class);
+    
+    private final PersistenceProperties properties;
+    private final ShipmentStore store;
+    
+    // Insertion-ordered so the oldest pending order IDs are written first
+    private final Map<String, PendingWrite> pending = new LinkedHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    private final Condition batchReady = lock.newCondition();
+    private final AtomicLong writtenRows = new AtomicLong();
+    private final AtomicLong deadLetteredRows = new AtomicLong();
+    
+    private volatile boolean running;
+    private ShipmentTable table;
+    private Thread flusher;
+    
+    public WriteBehindShipmentPersister(PersistenceProperties properties, ShipmentStore store) {
+        this.properties = properties;
+        this.store = store;
+    }
+    
+    @Override
+    public void beforeMutation() {
+        lock.lock();
+        try {
+            long remaining = properties.getBackpressureTimeout().toNanos();
+            while (pending.size() >= properties.getMaxPending()) {
+                if (remaining <= 0) {
+                    throw new WriteBackpressureException("Persistence is falling behind, please retry later");
+                }
+                remaining = notFull.awaitNanos(remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new WriteBackpressureException("Interrupted while waiting for persistence");
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    @Override
+    public void onCreated(Shipment shipment) {
+        enqueue(new PendingWrite(shipment.getOrderId(), shipment.copy()));
+    }
+    
+    @Override
+    public void onStatusChanged(Shipment shipment, ShipmentStatus previousStatus) {
+        enqueue(new PendingWrite(shipment.getOrderId(), shipment.copy()));
+    }
+    
+    @Override
+    public void onDeleted(Shipment shipment) {
+        enqueue(new PendingWrite(shipment.getOrderId(), null));
+    }
+    
+    // Replaces any unwritten state for the same order ID, so only the latest version is written
+    private void enqueue(PendingWrite write) {
+        lock.lock();
+        try {
+            pending.put(write.orderId(), write);
+            if (pending.size() >= properties.getBatchSize()) {
+                batchReady.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    @Override
+    public void start() {
+        try {
+            table = new ShipmentTable(properties.getUrl(), properties.getUsername(), properties.getPassword(),
+                    properties.getBatchSize());
+            List<Shipment> shipments = table.loadAll();
+            shipments.forEach(store::put);
+            log.info("Loaded {} shipments from {}", shipments.size(), properties.getUrl());
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot open shipment database " + properties.getUrl(), e);
+        }
+        running = true;
+        flusher = new Thread(this::flushLoop, "shipment-write-behind");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+    
+    @Override
+    public void stop() {
+        running = false;
+        lock.lock();
+        try {
+            batchReady.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            table.close();
+        } catch (SQLException e) {
+            log.warn("Failed to close shipment database", e);
+        }
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+    
+    // Load persisted shipments before the web server and replication start serving them
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+    
+    public int getPendingCount() {
+        lock.lock();
+        try {
+            return pending.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Rows written to the database so far; lower than the number of mutations when writes coalesce
+     */
+    public long getWrittenRows() {
+        return writtenRows.get();
+    }
+    
+    /**
+     * Rows the database rejected as invalid data; they are logged and dropped instead of retried
+     */
+    public long getDeadLetteredRows() {
+        return deadLetteredRows.get();
+    }
+    
+    private void flushLoop() {
+        while (true) {
+            List<PendingWrite> batch = takeBatch();
+            if (batch.isEmpty()) {
+                if (!running) {
+                    return;
+                }
+                continue;
+            }
+            try {
+                table.write(batch);
+                writtenRows.addAndGet(batch.size());
+            } catch (SQLException e) {
+                if (!running) {
+                    log.error("Dropping {} unwritten shipments on shutdown", batch.size() + getPendingCount(), e);
+                    return;
+                }
+                log.warn("Failed to write {} shipments, retrying one by one", batch.size(), e);
+                writeEach(batch);
+            }
+        }
+    }
+    
+    // Retries a failed batch row by row, so one bad row cannot hold back the rest. A row the
+    // database rejects as invalid data is dead-lettered; any other failure requeues what is left.
+    private void writeEach(List<PendingWrite> batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            PendingWrite write = batch.get(i);
+            try {
+                table.write(List.of(write));
+                writtenRows.incrementAndGet();
+            } catch (SQLException e) {
+                if (isRejectedRow(e)) {
+                    deadLetteredRows.incrementAndGet();
+                    log.error("Dead-lettering shipment {}, the database rejects it", write.orderId(), e);
+                    continue;
+                }
+                log.warn("Failed to write {} shipments, retrying", batch.size() - i, e);
+                requeue(batch.subList(i, batch.size()));
+                pause();
+                return;
+            }
+        }
+    }
+    
+    // SQLSTATE class 22 (data exception, e.g. a value too long) or 23 (integrity constraint):
+    // the row itself is bad and will fail the same way on every retry
+    private static boolean isRejectedRow(SQLException e) {
+        String state = e.getSQLState();
+        return state != null && (state.startsWith("22") || state.startsWith("23"));
+    }
+    
+    private List<PendingWrite> takeBatch() {
+        lock.lock();
+        try {
+            if (running && pending.size() < properties.getBatchSize()) {
+                batchReady.awaitNanos(properties.getFlushInterval().toNanos());
+            }
+            List<PendingWrite> batch = new ArrayList<>(Math.min(pending.size(), properties.getBatchSize()));
+            Iterator<PendingWrite> iterator = pending.values().iterator();
+            while (iterator.hasNext() && batch.size() < properties.getBatchSize()) {
+                batch.add(iterator.next());
+                iterator.remove();
+            }
+            notFull.signalAll();
+            return batch;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return List.of();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    // A newer mutation queued while the batch was in flight supersedes the failed one
+    private void requeue(List<PendingWrite> batch) {
+        lock.lock();
+        try {
+            for (PendingWrite write : batch) {
+                pending.putIfAbsent(write.orderId(), write);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private void pause() {
+        try {
+            Thread.sleep(properties.getFlushInterval().toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
\ No newline at end of file
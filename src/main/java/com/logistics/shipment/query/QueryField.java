@@ -0,0 +1,64 @@
+package com.logistics.shipment.query;
+
+import com.logistics.shipment.store.IndexedAttribute;
+
+/**
+ * Shipment fields that can be used in a search query
+ */
+public enum QueryField {
+    ORDER_ID("orderId", Kind.TEXT, null),
+    ORIGIN("origin", Kind.LOCATION, IndexedAttribute.ORIGIN),
+    DESTINATION("destination", Kind.LOCATION, IndexedAttribute.DESTINATION),
+    STATUS("status", Kind.STATUS, IndexedAttribute.STATUS),
+    CREATED_AT("createdAt", Kind.TIMESTAMP, null),
+    UPDATED_AT("updatedAt", Kind.TIMESTAMP, null);
+    
+    /**
+     * How values of the field are parsed and compared
+     */
+    enum Kind {
+        // Compared exactly
+        TEXT,
+        // Compared ignoring case
+        LOCATION,
+        STATUS,
+        TIMESTAMP
+    }
+    
+    private final String fieldName;
+    private final Kind kind;
+    private final IndexedAttribute indexedAttribute;
+    
+    QueryField(String fieldName, Kind kind, IndexedAttribute indexedAttribute) {
+        this.fieldName = fieldName;
+        this.kind = kind;
+        this.indexedAttribute = indexedAttribute;
+    }
+    
+    public String getFieldName() {
+        return fieldName;
+    }
+    
+    Kind getKind() {
+        return kind;
+    }
+    
+    /**
+     * @return the attribute a secondary index could be kept on, or null if the field is never indexed
+     */
+    IndexedAttribute getIndexedAttribute() {
+        return indexedAttribute;
+    }
+    
+    /**
+     * @return the field with the given name (case-insensitive), or null if there is none
+     */
+    static QueryField fromName(String name) {
+        for (QueryField field : values()) {
+            if (field.fieldName.equalsIgnoreCase(name)) {
+                return field;
+            }
+        }
+        return null;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,43 @@
+package com.logistics.shipment.query;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Syntax tree of a parsed search query. Comparison values are already converted to the
+ * field's type: strings, {@link com.logistics.shipment.model.ShipmentStatus} or
+ * {@link java.time.LocalDateTime}.
+ */
+public sealed interface QueryNode {
+    
+    record And(List<QueryNode> operands) implements QueryNode {
+        @Override
+        public String toString() {
+            return operands.stream().map(QueryNode::toString).collect(Collectors.joining(" AND ", "(", ")"));
+        }
+    }
+    
+    record Or(List<QueryNode> operands) implements QueryNode {
+        @Override
+        public String toString() {
+            return operands.stream().map(QueryNode::toString).collect(Collectors.joining(" OR ", "(", ")"));
+        }
+    }
+    
+    record Not(QueryNode operand) implements QueryNode {
+        @Override
+        public String toString() {
+            return "NOT " + operand;
+        }
+    }
+    
+    record Comparison(QueryField field, QueryOperator operator, List<Object> values) implements QueryNode {
+        @Override
+        public String toString() {
+            String operand = values.size() == 1 && operator != QueryOperator.IN && operator != QueryOperator.NOT_IN
+                    ? "'" + values.get(0) + "'"
+                    : values.stream().map(value -> "'" + value + "'").collect(Collectors.joining(", ", "(", ")"));
+            return field.getFieldName() + " " + operator.getSymbol() + " " + operand;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,29 @@
+package com.logistics.shipment.query;
+
+/**
+ * Comparison operators of the search query language
+ */
+public enum QueryOperator {
+    EQ("="),
+    NE("!="),
+    LT("<"),
+    LE("<="),
+    GT(">"),
+    GE(">="),
+    IN("IN"),
+    NOT_IN("NOT IN");
+    
+    private final String symbol;
+    
+    QueryOperator(String symbol) {
+        this.symbol = symbol;
+    }
+    
+    public String getSymbol() {
+        return symbol;
+    }
+    
+    boolean isOrdering() {
+        return this == LT || this == LE || this == GT || this == GE;
+    }
+}
\ No newline at end of file
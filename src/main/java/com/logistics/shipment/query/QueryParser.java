@@ -0,0 +1,277 @@
+package com.logistics.shipment.query;
+
+import com.logistics.shipment.exception.InvalidQueryException;
+import com.logistics.shipment.model.ShipmentStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Recursive-descent parser for the search query language, e.g.
+ * {@code status IN (pending, dispatched) AND NOT (origin = 'New York' OR createdAt < 2024-01-01)}.
+ * NOT binds tighter than AND, which binds tighter than OR; keywords and field names are case-insensitive.
+ */
+public final class QueryParser {
+    
+    // Deep enough for any hand-written query, shallow enough that nesting cannot overflow the stack
+    static final int MAX_DEPTH = 64;
+    
+    static final int MAX_LENGTH = 4096;
+    
+    private final String input;
+    private int pos;
+    private int depth;
+    
+    private QueryParser(String input) {
+        this.input = input;
+    }
+    
+    /**
+     * Parses a query into its syntax tree
+     * @throws InvalidQueryException if the query is malformed
+     */
+    public static QueryNode parse(String query) {
+        if (query == null || query.isBlank()) {
+            throw new InvalidQueryException("Query must not be empty");
+        }
+        if (query.length() > MAX_LENGTH) {
+            throw new InvalidQueryException("Query must be at most " + MAX_LENGTH + " characters");
+        }
+        QueryParser parser = new QueryParser(query);
+        QueryNode node = parser.parseOr();
+        parser.skipWhitespace();
+        if (parser.pos < query.length()) {
+            throw parser.error("Unexpected '" + parser.peekToken() + "'");
+        }
+        return node;
+    }
+    
+    private QueryNode parseOr() {
+        List<QueryNode> operands = new ArrayList<>();
+        operands.add(parseAnd());
+        while (acceptKeyword("OR")) {
+            operands.add(parseAnd());
+        }
+        return operands.size() == 1 ? operands.get(0) : new QueryNode.Or(List.copyOf(operands));
+    }
+    
+    private QueryNode parseAnd() {
+        List<QueryNode> operands = new ArrayList<>();
+        operands.add(parseUnary());
+        while (acceptKeyword("AND")) {
+            operands.add(parseUnary());
+        }
+        return operands.size() == 1 ? operands.get(0) : new QueryNode.And(List.copyOf(operands));
+    }
+    
+    private QueryNode parseUnary() {
+        if (++depth > MAX_DEPTH) {
+            throw error("Query is nested more than " + MAX_DEPTH + " levels deep");
+        }
+        try {
+            if (acceptKeyword("NOT")) {
+                return new QueryNode.Not(parseUnary());
+            }
+            if (accept('(')) {
+                QueryNode node = parseOr();
+                expect(')');
+                return node;
+            }
+            return parseComparison();
+        } finally {
+            depth--;
+        }
+    }
+    
+    private QueryNode parseComparison() {
+        int fieldPos = skipWhitespace();
+        String name = readWord();
+        if (name == null) {
+            throw error("Expected a field name");
+        }
+        QueryField field = QueryField.fromName(name);
+        if (field == null) {
+            throw new InvalidQueryException("Unknown field '" + name + "' at position " + fieldPos);
+        }
+        
+        int operatorPos = skipWhitespace();
+        QueryOperator operator = readOperator();
+        if (operator == null) {
+            throw error("Expected an operator after '" + name + "'");
+        }
+        if (operator.isOrdering() && field.getKind() != QueryField.Kind.TIMESTAMP) {
+            throw new InvalidQueryException("Operator " + operator.getSymbol() + " is not supported for '"
+                    + field.getFieldName() + "' at position " + operatorPos);
+        }
+        
+        List<Object> values = new ArrayList<>();
+        if (operator == QueryOperator.IN || operator == QueryOperator.NOT_IN) {
+            if (field.getKind() == QueryField.Kind.TIMESTAMP) {
+                throw new InvalidQueryException("Operator " + operator.getSymbol() + " is not supported for '"
+                        + field.getFieldName() + "' at position " + operatorPos);
+            }
+            expect('(');
+            do {
+                values.add(readValue(field));
+            } while (accept(','));
+            expect(')');
+        } else {
+            values.add(readValue(field));
+        }
+        return new QueryNode.Comparison(field, operator, List.copyOf(values));
+    }
+    
+    private QueryOperator readOperator() {
+        if (acceptKeyword("IN")) {
+            return QueryOperator.IN;
+        }
+        if (acceptKeyword("NOT")) {
+            if (!acceptKeyword("IN")) {
+                throw error("Expected IN after NOT");
+            }
+            return QueryOperator.NOT_IN;
+        }
+        if (pos >= input.length()) {
+            return null;
+        }
+        char c = input.charAt(pos);
+        char next = pos + 1 < input.length() ? input.charAt(pos + 1) : 0;
+        switch (c) {
+            case '=':
+                pos += next == '=' ? 2 : 1;
+                return QueryOperator.EQ;
+            case '!':
+                if (next != '=') {
+                    return null;
+                }
+                pos += 2;
+                return QueryOperator.NE;
+            case '<':
+                if (next == '>') {
+                    pos += 2;
+                    return QueryOperator.NE;
+                }
+                pos += next == '=' ? 2 : 1;
+                return next == '=' ? QueryOperator.LE : QueryOperator.LT;
+            case '>':
+                pos += next == '=' ? 2 : 1;
+                return next == '=' ? QueryOperator.GE : QueryOperator.GT;
+            default:
+                return null;
+        }
+    }
+    
+    private Object readValue(QueryField field) {
+        int valuePos = skipWhitespace();
+        String raw = pos < input.length() && (input.charAt(pos) == '\'' || input.charAt(pos) == '"')
+                ? readQuoted()
+                : readWord();
+        if (raw == null) {
+            throw error("Expected a value for '" + field.getFieldName() + "'");
+        }
+        return switch (field.getKind()) {
+            case TEXT, LOCATION -> raw;
+            case STATUS -> parseStatus(raw, valuePos);
+            case TIMESTAMP -> parseTimestamp(raw, valuePos);
+        };
+    }
+    
+    private static ShipmentStatus parseStatus(String raw, int valuePos) {
+        ShipmentStatus status = ShipmentStatus.fromValueOrName(raw);
+        if (status != null) {
+            return status;
+        }
+        throw new InvalidQueryException("Invalid shipment status '" + raw + "' at position " + valuePos);
+    }
+    
+    private static LocalDateTime parseTimestamp(String raw, int valuePos) {
+        try {
+            return raw.length() == 10 ? LocalDate.parse(raw).atStartOfDay() : LocalDateTime.parse(raw);
+        } catch (DateTimeParseException e) {
+            throw new InvalidQueryException("Invalid timestamp '" + raw + "' at position " + valuePos
+                    + ", expected yyyy-MM-dd or yyyy-MM-ddTHH:mm:ss");
+        }
+    }
+    
+    // Quotes are escaped by doubling them, as in SQL
+    private String readQuoted() {
+        int start = pos;
+        char quote = input.charAt(pos++);
+        StringBuilder value = new StringBuilder();
+        while (pos < input.length()) {
+            char c = input.charAt(pos++);
+            if (c != quote) {
+                value.append(c);
+            } else if (pos < input.length() && input.charAt(pos) == quote) {
+                value.append(quote);
+                pos++;
+            } else {
+                return value.toString();
+            }
+        }
+        throw new InvalidQueryException("Unterminated string starting at position " + start);
+    }
+    
+    private String readWord() {
+        int start = pos;
+        while (pos < input.length() && isWordChar(input.charAt(pos))) {
+            pos++;
+        }
+        return pos > start ? input.substring(start, pos) : null;
+    }
+    
+    private boolean acceptKeyword(String keyword) {
+        skipWhitespace();
+        int end = pos + keyword.length();
+        if (end <= input.length()
+                && input.regionMatches(true, pos, keyword, 0, keyword.length())
+                && (end == input.length() || !isWordChar(input.charAt(end)))) {
+            pos = end;
+            return true;
+        }
+        return false;
+    }
+    
+    private boolean accept(char c) {
+        skipWhitespace();
+        if (pos < input.length() && input.charAt(pos) == c) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+    
+    private void expect(char c) {
+        if (!accept(c)) {
+            throw error("Expected '" + c + "'");
+        }
+    }
+    
+    private int skipWhitespace() {
+        while (pos < input.length() && Character.isWhitespace(input.charAt(pos))) {
+            pos++;
+        }
+        return pos;
+    }
+    
+    private String peekToken() {
+        int start = pos;
+        String word = readWord();
+        pos = start;
+        return word != null ? word : String.valueOf(input.charAt(pos));
+    }
+    
+    private InvalidQueryException error(String message) {
+        skipWhitespace();
+        return pos < input.length()
+                ? new InvalidQueryException(message + " at position " + pos)
+                : new InvalidQueryException(message + " at end of query");
+    }
+    
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '-' || c == ':' || c == '.' || c == '+';
+    }
+}
\ No newline at end of file
@@ -0,0 +1,82 @@
+package com.logistics.shipment.query;
+
+import com.logistics.shipment.model.Shipment;
+import com.logistics.shipment.store.ShipmentSnapshot;
+import com.logistics.shipment.store.ShipmentStore;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * How a query is answered: either by fetching the order IDs from one access path
+ * and re-checking each shipment against the full predicate, or by scanning the store
+ */
+public final class QueryPlan {
+    
+    private final ShipmentStore store;
+    private final ShipmentQuery query;
+    private final String accessPath;
+    // Order IDs that may match, each once, as of the given snapshot; null for a full scan
+    private final Function<ShipmentSnapshot, Stream<String>> candidates;
+    private final long estimatedRows;
+    
+    QueryPlan(ShipmentStore store, ShipmentQuery query, String accessPath,
+              Function<ShipmentSnapshot, Stream<String>> candidates, long estimatedRows) {
+        this.store = store;
+        this.query = query;
+        this.accessPath = accessPath;
+        this.candidates = candidates;
+        this.estimatedRows = estimatedRows;
+    }
+    
+    public boolean isFullScan() {
+        return candidates == null;
+    }
+    
+    public String getAccessPath() {
+        return accessPath;
+    }
+    
+    public long getEstimatedRows() {
+        return estimatedRows;
+    }
+    
+    /**
+     * Runs the plan against a snapshot taken for this call. The order of the results is unspecified.
+     */
+    public List<Shipment> execute() {
+        try (ShipmentSnapshot snapshot = store.snapshot()) {
+            return execute(snapshot);
+        }
+    }
+    
+    /**
+     * Runs the plan against the given snapshot of the planned store. Every returned shipment is
+     * its version in the snapshot, and index lookups are read as of the snapshot too, so the
+     * results are the same as a full scan of the snapshot would give.
+     */
+    public List<Shipment> execute(ShipmentSnapshot snapshot) {
+        return stream(snapshot).collect(Collectors.toCollection(ArrayList::new));
+    }
+    
+    /**
+     * Lazy form of {@link #execute(ShipmentSnapshot)}: shipments are looked up and matched as the
+     * stream is consumed, so the snapshot must stay open until it is
+     */
+    public Stream<Shipment> stream(ShipmentSnapshot snapshot) {
+        if (candidates == null) {
+            return snapshot.stream().filter(query.asPredicate());
+        }
+        return candidates.apply(snapshot)
+                .map(snapshot::get)
+                .filter(shipment -> shipment != null && query.matches(shipment));
+    }
+    
+    @Override
+    public String toString() {
+        return accessPath + " (estimated rows: " + estimatedRows + ") filter " + query;
+    }
+}
\ No newline at end of file
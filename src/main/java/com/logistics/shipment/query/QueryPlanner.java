@@ -0,0 +1,83 @@
+package com.logistics.shipment.query;
+
+import com.logistics.shipment.model.ShipmentStatus;
+import com.logistics.shipment.store.IndexedAttribute;
+import com.logistics.shipment.store.IndexedShipmentStore;
+import com.logistics.shipment.store.ShipmentSnapshot;
+import com.logistics.shipment.store.ShipmentStore;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Chooses the cheapest access path for a query. Only top-level AND terms can narrow the
+ * candidates: an equality or IN on the order ID is answered by key lookups, and one on an
+ * indexed attribute by the index. The term with the fewest candidates wins, but an index
+ * is only used while it is selective enough to beat a sequential scan.
+ */
+public final class QueryPlanner {
+    
+    // Random lookups cost several times a sequential read, so broad terms are cheaper to scan
+    static final int SCAN_COST_FACTOR = 4;
+    
+    private QueryPlanner() {
+    }
+    
+    public static QueryPlan plan(ShipmentStore store, ShipmentQuery query) {
+        int size = store.size();
+        QueryPlan best = null;
+        for (QueryNode term : conjuncts(query.getRoot())) {
+            if (!(term instanceof QueryNode.Comparison comparison)
+                    || (comparison.operator() != QueryOperator.EQ && comparison.operator() != QueryOperator.IN)) {
+                continue;
+            }
+            QueryPlan candidate = accessPath(store, query, comparison);
+            if (candidate != null && (best == null || candidate.getEstimatedRows() < best.getEstimatedRows())) {
+                best = candidate;
+            }
+        }
+        if (best != null && best.getEstimatedRows() * SCAN_COST_FACTOR < size) {
+            return best;
+        }
+        return new QueryPlan(store, query, "full scan", null, size);
+    }
+    
+    private static List<QueryNode> conjuncts(QueryNode root) {
+        return root instanceof QueryNode.And and ? and.operands() : List.of(root);
+    }
+    
+    private static QueryPlan accessPath(ShipmentStore store, ShipmentQuery query, QueryNode.Comparison comparison) {
+        QueryField field = comparison.field();
+        if (field == QueryField.ORDER_ID) {
+            Set<String> orderIds = new LinkedHashSet<>();
+            for (Object value : comparison.values()) {
+                orderIds.add((String) value);
+            }
+            return new QueryPlan(store, query, "order ID lookup on " + field.getFieldName(),
+                    snapshot -> orderIds.stream(), orderIds.size());
+        }
+        
+        IndexedAttribute attribute = field.getIndexedAttribute();
+        if (attribute == null || !(store instanceof IndexedShipmentStore indexed) || !indexed.isIndexed(attribute)) {
+            return null;
+        }
+        // IN values that differ only in case share one index key
+        Set<Object> keys = new LinkedHashSet<>();
+        for (Object value : comparison.values()) {
+            keys.add(value instanceof ShipmentStatus ? value : IndexedAttribute.fold((String) value));
+        }
+        long estimate = 0;
+        for (Object key : keys) {
+            estimate += indexed.lookup(attribute, key).size();
+        }
+        // Keys are read at the snapshot when the plan runs; an order ID that changed key since can
+        // be found under both, once as of the snapshot and once now
+        Function<ShipmentSnapshot, Stream<String>> orderIds = keys.size() == 1
+                ? snapshot -> indexed.lookup(attribute, keys.iterator().next(), snapshot)
+                : snapshot -> keys.stream().flatMap(key -> indexed.lookup(attribute, key, snapshot)).distinct();
+        return new QueryPlan(store, query, "index lookup on " + field.getFieldName(), orderIds, estimate);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,150 @@
+package com.logistics.shipment.query;
+
+import com.logistics.shipment.model.Shipment;
+import com.logistics.shipment.model.ShipmentStatus;
+import com.logistics.shipment.store.IndexedAttribute;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * A parsed search query compiled into a predicate over shipments. The syntax tree is walked
+ * once at compile time, so evaluating the predicate does no parsing or value conversion.
+ */
+public final class ShipmentQuery {
+    
+    private final QueryNode root;
+    private final Predicate<Shipment> predicate;
+    
+    private ShipmentQuery(QueryNode root) {
+        this.root = root;
+        this.predicate = compile(root);
+    }
+    
+    /**
+     * Parses and compiles a query
+     * @throws com.logistics.shipment.exception.InvalidQueryException if the query is malformed
+     */
+    public static ShipmentQuery parse(String query) {
+        return new ShipmentQuery(QueryParser.parse(query));
+    }
+    
+    public static ShipmentQuery of(QueryNode root) {
+        return new ShipmentQuery(root);
+    }
+    
+    public QueryNode getRoot() {
+        return root;
+    }
+    
+    public boolean matches(Shipment shipment) {
+        return predicate.test(shipment);
+    }
+    
+    public Predicate<Shipment> asPredicate() {
+        return predicate;
+    }
+    
+    @Override
+    public String toString() {
+        return root.toString();
+    }
+    
+    private static Predicate<Shipment> compile(QueryNode node) {
+        if (node instanceof QueryNode.And and) {
+            return and.operands().stream().map(ShipmentQuery::compile).reduce(Predicate::and).orElseThrow();
+        }
+        if (node instanceof QueryNode.Or or) {
+            return or.operands().stream().map(ShipmentQuery::compile).reduce(Predicate::or).orElseThrow();
+        }
+        if (node instanceof QueryNode.Not not) {
+            return compile(not.operand()).negate();
+        }
+        return compileComparison((QueryNode.Comparison) node);
+    }
+    
+    // A shipment without a value for the field never matches a comparison, not even !=
+    private static Predicate<Shipment> compileComparison(QueryNode.Comparison comparison) {
+        QueryField field = comparison.field();
+        return switch (field.getKind()) {
+            case TEXT -> compileText(comparison, textValue(field), false);
+            case LOCATION -> compileText(comparison, textValue(field), true);
+            case STATUS -> compileStatus(comparison);
+            case TIMESTAMP -> compileTimestamp(comparison, field == QueryField.CREATED_AT
+                    ? Shipment::getCreatedAt
+                    : Shipment::getUpdatedAt);
+        };
+    }
+    
+    private static Predicate<Shipment> compileText(QueryNode.Comparison comparison,
+                                                   Function<Shipment, String> accessor, boolean ignoreCase) {
+        List<Object> values = comparison.values();
+        if (comparison.operator() == QueryOperator.EQ || comparison.operator() == QueryOperator.NE) {
+            String expected = (String) values.get(0);
+            boolean negate = comparison.operator() == QueryOperator.NE;
+            return shipment -> {
+                String actual = accessor.apply(shipment);
+                return actual != null
+                        && (ignoreCase ? actual.equalsIgnoreCase(expected) : actual.equals(expected)) != negate;
+            };
+        }
+        Set<String> expected = new HashSet<>();
+        for (Object value : values) {
+            expected.add(ignoreCase ? IndexedAttribute.fold((String) value) : (String) value);
+        }
+        boolean negate = comparison.operator() == QueryOperator.NOT_IN;
+        return shipment -> {
+            String actual = accessor.apply(shipment);
+            return actual != null
+                    && expected.contains(ignoreCase ? IndexedAttribute.fold(actual) : actual) != negate;
+        };
+    }
+    
+    private static Predicate<Shipment> compileStatus(QueryNode.Comparison comparison) {
+        EnumSet<ShipmentStatus> expected = EnumSet.noneOf(ShipmentStatus.class);
+        for (Object value : comparison.values()) {
+            expected.add((ShipmentStatus) value);
+        }
+        boolean negate = comparison.operator() == QueryOperator.NE || comparison.operator() == QueryOperator.NOT_IN;
+        return shipment -> {
+            ShipmentStatus actual = shipment.getStatus();
+            return actual != null && expected.contains(actual) != negate;
+        };
+    }
+    
+    private static Predicate<Shipment> compileTimestamp(QueryNode.Comparison comparison,
+                                                        Function<Shipment, LocalDateTime> accessor) {
+        LocalDateTime expected = (LocalDateTime) comparison.values().get(0);
+        QueryOperator operator = comparison.operator();
+        return shipment -> {
+            LocalDateTime actual = accessor.apply(shipment);
+            if (actual == null) {
+                return false;
+            }
+            int cmp = actual.compareTo(expected);
+            return switch (operator) {
+                case EQ -> cmp == 0;
+                case NE -> cmp != 0;
+                case LT -> cmp < 0;
+                case LE -> cmp <= 0;
+                case GT -> cmp > 0;
+                case GE -> cmp >= 0;
+                default -> throw new IllegalStateException("Unsupported timestamp operator " + operator);
+            };
+        };
+    }
+    
+    private static Function<Shipment, String> textValue(QueryField field) {
+        return switch (field) {
+            case ORDER_ID -> Shipment::getOrderId;
+            case ORIGIN -> Shipment::getOrigin;
+            case DESTINATION -> Shipment::getDestination;
+            default -> throw new IllegalStateException("Not a text field: " + field);
+        };
+    }
+}
\ No newline at end of file
@@ -0,0 +1,103 @@
+package com.logistics.shipment.reactive;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logistics.shipment.exception.DuplicateShipmentException;
+import com.logistics.shipment.exception.GlobalExceptionHandler;
+import com.logistics.shipment.exception.GlobalExceptionHandler.ErrorResponse;
+import com.logistics.shipment.exception.GlobalExceptionHandler.ValidationErrorResponse;
+import com.logistics.shipment.exception.InvalidQueryException;
+import com.logistics.shipment.exception.InvalidStatusTransitionException;
+import com.logistics.shipment.exception.ShipmentNotFoundException;
+import com.logistics.shipment.exception.WriteBackpressureException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebExceptionHandler;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * Turns errors on the non-blocking server into the same status codes, headers and bodies as
+ * {@link GlobalExceptionHandler} gives the servlet API, by delegating to it
+ */
+public class ReactiveErrorHandler implements WebExceptionHandler {
+    
+    private final GlobalExceptionHandler exceptionHandler = new GlobalExceptionHandler();
+    private final ObjectMapper objectMapper;
+    
+    public ReactiveErrorHandler(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+    
+    @Override
+    public Mono<Void> handle(ServerWebExchange exchange, Throwable ex) {
+        ServerHttpResponse response = exchange.getResponse();
+        if (response.isCommitted()) {
+            // Part of a streamed body is out already; all that is left is to drop the connection
+            return Mono.error(ex);
+        }
+        ResponseEntity<? extends ErrorResponse> error = toResponse(Exceptions.unwrap(ex), exchange);
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(error.getBody());
+        } catch (JsonProcessingException e) {
+            return Mono.error(e);
+        }
+        response.setStatusCode(error.getStatusCode());
+        response.getHeaders().addAll(error.getHeaders());
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        DataBuffer buffer = response.bufferFactory().wrap(body);
+        return response.writeWith(Mono.just(buffer));
+    }
+    
+    private ResponseEntity<? extends ErrorResponse> toResponse(Throwable ex, ServerWebExchange exchange) {
+        if (ex instanceof ShipmentNotFoundException notFound) {
+            return exceptionHandler.handleShipmentNotFound(notFound);
+        }
+        if (ex instanceof DuplicateShipmentException duplicate) {
+            return exceptionHandler.handleDuplicateShipment(duplicate);
+        }
+        if (ex instanceof InvalidStatusTransitionException invalidTransition) {
+            return exceptionHandler.handleInvalidStatusTransition(invalidTransition);
+        }
+        if (ex instanceof WriteBackpressureException backpressure) {
+            return exceptionHandler.handleWriteBackpressure(backpressure);
+        }
+        if (ex instanceof InvalidQueryException invalidQuery) {
+            return exceptionHandler.handleInvalidQuery(invalidQuery);
+        }
+        if (ex instanceof IllegalArgumentException illegalArgument) {
+            return exceptionHandler.handleIllegalArgument(illegalArgument);
+        }
+        if (ex instanceof RequestValidationException invalid) {
+            return ResponseEntity.badRequest().body(new ValidationErrorResponse(
+                HttpStatus.BAD_REQUEST.value(),
+                "Validation Failed",
+                invalid.getMessage(),
+                LocalDateTime.now(),
+                invalid.getFieldErrors()
+            ));
+        }
+        if (ex instanceof ResponseStatusException statusException) {
+            // Unmatched routes, unsupported methods and unreadable bodies
+            HttpStatusCode status = statusException.getStatusCode();
+            HttpStatus resolved = HttpStatus.resolve(status.value());
+            return ResponseEntity.status(status).body(new ErrorResponse(
+                status.value(),
+                resolved != null ? resolved.getReasonPhrase() : status.toString(),
+                statusException.getReason() != null ? statusException.getReason()
+                        : "No handler for " + exchange.getRequest().getMethod() + " " + exchange.getRequest().getPath(),
+                LocalDateTime.now()
+            ));
+        }
+        return exceptionHandler.handleGeneral(ex instanceof Exception exception ? exception : new RuntimeException(ex));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,38 @@
+package com.logistics.shipment.reactive;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Non-blocking API server settings (prefix: shipment.reactive)
+ */
+@ConfigurationProperties(prefix = "shipment.reactive")
+public class ReactiveProperties {
+    
+    private boolean enabled = false;
+    
+    private int port = 8090;
+    
+    // Shipments encoded into one chunk of a streamed list; a slow reader holds at most a few chunks
+    private int listBatchSize = 64;
+    
+    private int maxRequestBodySize = 64 * 1024;
+    
+    private Duration shutdownTimeout = Duration.ofSeconds(5);
+    
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    
+    public int getPort() { return port; }
+    public void setPort(int port) { this.port = port; }
+    
+    public int getListBatchSize() { return listBatchSize; }
+    public void setListBatchSize(int listBatchSize) { this.listBatchSize = listBatchSize; }
+    
+    public int getMaxRequestBodySize() { return maxRequestBodySize; }
+    public void setMaxRequestBodySize(int maxRequestBodySize) { this.maxRequestBodySize = maxRequestBodySize; }
+    
+    public Duration getShutdownTimeout() { return shutdownTimeout; }
+    public void setShutdownTimeout(Duration shutdownTimeout) { this.shutdownTimeout = shutdownTimeout; }
+}
\ No newline at end of file
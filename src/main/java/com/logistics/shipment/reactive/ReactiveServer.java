@@ -0,0 +1,75 @@
+package com.logistics.shipment.reactive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+/**
+ * Runs the non-blocking API on Reactor Netty next to the servlet container. Connections are
+ * served by the shared Netty event loops, one per core, so an open connection costs a channel
+ * rather than a thread. JSON goes through the application's ObjectMapper, and errors through
+ * {@link ReactiveErrorHandler}, so responses match the servlet API.
+ */
+public class ReactiveServer implements SmartLifecycle {
+    
+    private static final Logger log = LoggerFactory.getLogger(ReactiveServer.class);
+    
+    private final ReactiveProperties properties;
+    private final HttpHandler httpHandler;
+    
+    private DisposableServer server;
+    
+    public ReactiveServer(ReactiveProperties properties, RouterFunction<ServerResponse> routes,
+                          ObjectMapper objectMapper) {
+        this.properties = properties;
+        // Not withDefaults(): its status-only handler would answer unmatched routes before ours
+        HandlerStrategies strategies = HandlerStrategies.empty()
+                .codecs(codecs -> {
+                    codecs.registerDefaults(true);
+                    codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+                    codecs.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+                    codecs.defaultCodecs().maxInMemorySize(properties.getMaxRequestBodySize());
+                })
+                .exceptionHandler(new ReactiveErrorHandler(objectMapper))
+                .build();
+        this.httpHandler = RouterFunctions.toHttpHandler(routes, strategies);
+    }
+    
+    @Override
+    public void start() {
+        server = HttpServer.create()
+                .port(properties.getPort())
+                .handle(new ReactorHttpHandlerAdapter(httpHandler))
+                .bindNow();
+        log.info("Reactive API listening on port {}", server.port());
+    }
+    
+    @Override
+    public void stop() {
+        server.disposeNow(properties.getShutdownTimeout());
+        server = null;
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+    
+    /**
+     * Port the server is bound to, which differs from the configured one when that is 0
+     */
+    public int getPort() {
+        return server.port();
+    }
+}
\ No newline at end of file
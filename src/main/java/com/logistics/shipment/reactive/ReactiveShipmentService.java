@@ -0,0 +1,79 @@
+package com.logistics.shipment.reactive;
+
+import com.logistics.shipment.events.StatusEvent;
+import com.logistics.shipment.events.StatusEventReconciler;
+import com.logistics.shipment.events.StatusEventResult;
+import com.logistics.shipment.model.Shipment;
+import com.logistics.shipment.model.ShipmentStatus;
+import com.logistics.shipment.service.ShipmentService;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Mono/Flux view of {@link ShipmentService} for the event loop. Point reads only touch memory and
+ * run inline. Writes can wait on persistence backpressure, replication or the status event
+ * reconciler, and full scans take time in proportion to the store, so both are moved off the
+ * event loop.
+ */
+public class ReactiveShipmentService {
+    
+    private final ShipmentService shipmentService;
+    private final StatusEventReconciler reconciler;
+    private final Scheduler writeScheduler;
+    private final Scheduler scanScheduler;
+    
+    public ReactiveShipmentService(ShipmentService shipmentService, StatusEventReconciler reconciler) {
+        this(shipmentService, reconciler, Schedulers.boundedElastic(), Schedulers.parallel());
+    }
+    
+    public ReactiveShipmentService(ShipmentService shipmentService, StatusEventReconciler reconciler,
+                                   Scheduler writeScheduler, Scheduler scanScheduler) {
+        this.shipmentService = shipmentService;
+        this.reconciler = reconciler;
+        this.writeScheduler = writeScheduler;
+        this.scanScheduler = scanScheduler;
+    }
+    
+    public Mono<Shipment> createShipment(Shipment shipment) {
+        return Mono.fromCallable(() -> shipmentService.createShipment(shipment)).subscribeOn(writeScheduler);
+    }
+    
+    public Mono<Shipment> getShipmentByOrderId(String orderId) {
+        return Mono.fromCallable(() -> shipmentService.getShipmentByOrderId(orderId));
+    }
+    
+    public Mono<Shipment> updateShipmentStatus(String orderId, String status) {
+        return Mono.fromCallable(() -> shipmentService.updateShipmentStatus(orderId, status))
+                .subscribeOn(writeScheduler);
+    }
+    
+    public Mono<StatusEventResult> applyStatusEvent(StatusEvent event) {
+        return Mono.fromCallable(() -> reconciler.apply(event)).subscribeOn(writeScheduler);
+    }
+    
+    /**
+     * Shipments matching the filters, read from one snapshot as they are requested, off the event
+     * loop. The snapshot is opened per subscription, so an unsubscribed Flux holds nothing and a
+     * second subscription reads the store afresh. Nothing is collected up front: a subscriber that
+     * stops requesting stops the scan, and cancelling or completing releases the snapshot.
+     * @throws com.logistics.shipment.exception.InvalidQueryException if the query is malformed;
+     *         thrown here rather than signalled, so callers can answer before a response starts
+     */
+    public Flux<Shipment> getShipments(String status, String origin, String query) {
+        Supplier<Stream<Shipment>> shipments = shipmentService.shipmentStream(status, origin, query);
+        // Each subscription reads its own snapshot, opened on subscribe and closed on completion,
+        // error or cancellation. Reading and encoding a large list would otherwise starve other
+        // connections on the same event loop
+        return Flux.using(shipments::get, Flux::fromStream, Stream::close).subscribeOn(scanScheduler);
+    }
+    
+    public Mono<Map<ShipmentStatus, Long>> getShipmentCountByStatus() {
+        return Mono.fromCallable(shipmentService::getShipmentCountByStatus).subscribeOn(scanScheduler);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.logistics.shipment.reactive;
+
+import java.util.Map;
+
+/**
+ * Bean validation failures of a request body, reported with the same field details as the servlet API
+ */
+public class RequestValidationException extends RuntimeException {
+    
+    private final Map<String, String> fieldErrors;
+    
+    public RequestValidationException(Map<String, String> fieldErrors) {
+        super("Request validation failed");
+        this.fieldErrors = fieldErrors;
+    }
+    
+    public Map<String, String> getFieldErrors() {
+        return fieldErrors;
+    }
+}
\ No newline at end of file
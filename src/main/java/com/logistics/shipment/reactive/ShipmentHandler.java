@@ -0,0 +1,191 @@
+package com.logistics.shipment.reactive;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.logistics.shipment.controller.ShipmentController;
+import com.logistics.shipment.controller.ShipmentController.ShipmentHistory;
+import com.logistics.shipment.controller.ShipmentController.ShipmentStats;
+import com.logistics.shipment.controller.ShipmentController.StatusUpdateRequest;
+import com.logistics.shipment.events.StatusEvent;
+import com.logistics.shipment.exception.InvalidStatusTransitionException;
+import com.logistics.shipment.json.ProjectedShipment;
+import com.logistics.shipment.json.ShipmentFields;
+import com.logistics.shipment.model.Shipment;
+import com.logistics.shipment.model.ShipmentStatus;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Non-blocking handlers for the /api/v1/shipments contract of {@link ShipmentController}: same
+ * paths, parameters, bodies and errors. List responses are streamed from a snapshot in chunks of
+ * a few dozen shipments, pulled only as fast as the client reads, instead of being built in memory.
+ * Send {@code Accept: application/x-ndjson} for one shipment per line.
+ */
+public class ShipmentHandler {
+    
+    private static final String BASE_PATH = "/api/v1/shipments";
+    private static final int ESTIMATED_SHIPMENT_BYTES = 192;
+    
+    private final ReactiveShipmentService shipmentService;
+    private final Validator validator;
+    // Leaves the chunk's stream open so several shipments can be written into one buffer
+    private final ObjectWriter writer;
+    private final int listBatchSize;
+    private final DataBufferFactory bufferFactory = DefaultDataBufferFactory.sharedInstance;
+    
+    public ShipmentHandler(ReactiveShipmentService shipmentService, Validator validator, ObjectMapper objectMapper,
+                           int listBatchSize) {
+        this.shipmentService = shipmentService;
+        this.validator = validator;
+        this.writer = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.listBatchSize = listBatchSize;
+    }
+    
+    public RouterFunction<ServerResponse> routes() {
+        return RouterFunctions.route()
+                .POST(BASE_PATH, this::createShipment)
+                .GET(BASE_PATH, this::getShipments)
+                .GET(BASE_PATH + "/stats", this::getShipmentStats)
+                .GET(BASE_PATH + "/{orderId}/history", this::getShipmentHistory)
+                .GET(BASE_PATH + "/{orderId}", this::getShipmentByOrderId)
+                .PATCH(BASE_PATH + "/{orderId}", this::updateShipmentStatus)
+                .build();
+    }
+    
+    Mono<ServerResponse> createShipment(ServerRequest request) {
+        return request.bodyToMono(Shipment.class)
+                .switchIfEmpty(Mono.error(() -> new ServerWebInputException("Request body is missing")))
+                .doOnNext(this::validate)
+                .flatMap(shipmentService::createShipment)
+                .flatMap(created -> ServerResponse.status(HttpStatus.CREATED)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(created));
+    }
+    
+    Mono<ServerResponse> getShipmentByOrderId(ServerRequest request) {
+        ShipmentFields projection = ShipmentFields.parse(request.queryParam("fields").orElse(null));
+        return shipmentService.getShipmentByOrderId(request.pathVariable("orderId"))
+                .flatMap(shipment -> ServerResponse.ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(projection.isAll() ? shipment : new ProjectedShipment(shipment, projection)));
+    }
+    
+    Mono<ServerResponse> getShipmentHistory(ServerRequest request) {
+        return shipmentService.getShipmentByOrderId(request.pathVariable("orderId"))
+                .flatMap(shipment -> ServerResponse.ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(new ShipmentHistory(shipment.getOrderId(), shipment.getStatus(),
+                                shipment.getStatusHistory())));
+    }
+    
+    Mono<ServerResponse> updateShipmentStatus(ServerRequest request) {
+        String orderId = request.pathVariable("orderId");
+        return request.bodyToMono(StatusUpdateRequest.class)
+                .switchIfEmpty(Mono.error(() -> new ServerWebInputException("Request body is missing")))
+                .flatMap(update -> {
+                    if (update.getEventId() == null && update.getEventTimestamp() == null) {
+                        return shipmentService.updateShipmentStatus(orderId, update.getStatus())
+                                .flatMap(updated -> ServerResponse.ok()
+                                        .contentType(MediaType.APPLICATION_JSON)
+                                        .bodyValue(updated));
+                    }
+                    ShipmentStatus status;
+                    try {
+                        status = ShipmentStatus.fromValue(update.getStatus());
+                    } catch (IllegalArgumentException e) {
+                        return Mono.error(new InvalidStatusTransitionException("Invalid status value: " + update.getStatus()));
+                    }
+                    return shipmentService.applyStatusEvent(StatusEvent.of(orderId, status, update.getEventId(),
+                                    update.getEventTimestamp()))
+                            .flatMap(result -> ServerResponse.ok()
+                                    .header(ShipmentController.EVENT_OUTCOME_HEADER, result.getOutcome().name())
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .bodyValue(result.getShipment()));
+                });
+    }
+    
+    Mono<ServerResponse> getShipments(ServerRequest request) {
+        ShipmentFields projection = ShipmentFields.parse(request.queryParam("fields").orElse(null));
+        boolean lines = request.headers().accept().stream()
+                .anyMatch(type -> type.equalsTypeAndSubtype(MediaType.APPLICATION_NDJSON));
+        // Filters are checked here, so a bad query is still answered with a 400
+        Flux<Shipment> shipments = shipmentService.getShipments(request.queryParam("status").orElse(null),
+                request.queryParam("origin").orElse(null), request.queryParam("q").orElse(null));
+        
+        Flux<DataBuffer> chunks = shipments.buffer(listBatchSize).index()
+                .map(batch -> encode(batch.getT2(), projection, batch.getT1() == 0, lines));
+        if (!lines) {
+            chunks = Flux.concat(Mono.fromSupplier(() -> bufferFactory.wrap(new byte[] {'['})), chunks,
+                    Mono.fromSupplier(() -> bufferFactory.wrap(new byte[] {']'})));
+        }
+        return ServerResponse.ok()
+                .contentType(lines ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON)
+                .body(BodyInserters.fromDataBuffers(chunks));
+    }
+    
+    Mono<ServerResponse> getShipmentStats(ServerRequest request) {
+        // Both figures come from one snapshot, so the total always matches the per-status counts
+        return shipmentService.getShipmentCountByStatus()
+                .flatMap(countByStatus -> {
+                    int totalCount = (int) countByStatus.values().stream().mapToLong(Long::longValue).sum();
+                    return ServerResponse.ok()
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .bodyValue(new ShipmentStats(totalCount, countByStatus));
+                });
+    }
+    
+    // One chunk of a list: array elements with their separators, or one line per shipment
+    private DataBuffer encode(List<Shipment> batch, ShipmentFields projection, boolean firstBatch, boolean lines) {
+        DataBuffer buffer = bufferFactory.allocateBuffer(batch.size() * ESTIMATED_SHIPMENT_BYTES);
+        try (OutputStream out = buffer.asOutputStream()) {
+            for (int i = 0; i < batch.size(); i++) {
+                if (!lines && (i > 0 || !firstBatch)) {
+                    out.write(',');
+                }
+                Shipment shipment = batch.get(i);
+                writer.writeValue(out, projection.isAll() ? shipment : new ProjectedShipment(shipment, projection));
+                if (lines) {
+                    out.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            DataBufferUtils.release(buffer);
+            throw new UncheckedIOException(e);
+        }
+        return buffer;
+    }
+    
+    private void validate(Shipment shipment) {
+        Set<ConstraintViolation<Shipment>> violations = validator.validate(shipment);
+        if (!violations.isEmpty()) {
+            Map<String, String> fieldErrors = new HashMap<>();
+            for (ConstraintViolation<Shipment> violation : violations) {
+                fieldErrors.put(violation.getPropertyPath().toString(), violation.getMessage());
+            }
+            throw new RequestValidationException(fieldErrors);
+        }
+    }
+}
\ No newline at end of file
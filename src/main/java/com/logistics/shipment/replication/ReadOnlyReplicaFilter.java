@@ -0,0 +1,47 @@
+package com.logistics.shipment.replication;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logistics.shipment.web.FilterErrorResponses;
+import com.logistics.shipment.web.ShipmentPaths;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Makes a follower read-only: writes are rejected and every read carries the replication lag,
+ * so clients can decide whether the data is fresh enough for them
+ */
+public class ReadOnlyReplicaFilter extends OncePerRequestFilter {
+    
+    public static final String LAG_HEADER = "X-Replication-Lag-Ms";
+    
+    private final ReplicationFollower follower;
+    private final ObjectMapper objectMapper;
+    
+    public ReadOnlyReplicaFilter(ReplicationFollower follower, ObjectMapper objectMapper) {
+        this.follower = follower;
+        this.objectMapper = objectMapper;
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return ShipmentPaths.subPath(request.getRequestURI()) == null;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!"GET".equalsIgnoreCase(request.getMethod()) && !"HEAD".equalsIgnoreCase(request.getMethod())) {
+            FilterErrorResponses.write(response, objectMapper, HttpStatus.METHOD_NOT_ALLOWED,
+                    "This instance is a read-only replica, send writes to the primary");
+            return;
+        }
+        response.setHeader(LAG_HEADER, Long.toString(follower.getLagMillis()));
+        chain.doFilter(request, response);
+    }
+}
\ No newline at end of file
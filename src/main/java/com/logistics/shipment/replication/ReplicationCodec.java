@@ -0,0 +1,88 @@
+package com.logistics.shipment.replication;
+
+import com.logistics.shipment.model.Shipment;
+import com.logistics.shipment.model.ShipmentStatus;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Binary framing of replication records:
+ * type(byte) sequence(long) timestamp(long) [orderId origin destination status createdAt updatedAt historyLength history...]
+ */
+final class ReplicationCodec {
+    
+    private static final ReplicationRecord.Type[] TYPES = ReplicationRecord.Type.values();
+    private static final ShipmentStatus[] STATUSES = ShipmentStatus.values();
+    // The history length is written as an unsigned short
+    private static final int MAX_HISTORY_LENGTH = 0xFFFF;
+    
+    private ReplicationCodec() {
+    }
+    
+    static void write(DataOutputStream out, ReplicationRecord record) throws IOException {
+        out.writeByte(record.getType().ordinal());
+        out.writeLong(record.getSequence());
+        out.writeLong(record.getTimestampMillis());
+        switch (record.getType()) {
+            case UPSERT -> {
+                Shipment shipment = record.getShipment();
+                out.writeUTF(shipment.getOrderId());
+                out.writeUTF(shipment.getOrigin());
+                out.writeUTF(shipment.getDestination());
+                out.writeByte(shipment.getStatus().ordinal());
+                writeDateTime(out, shipment.getCreatedAt());
+                writeDateTime(out, shipment.getUpdatedAt());
+                long[] history = shipment.getPackedHistory();
+                // Shipment compacts far below this; a longer history would misalign the stream
+                if (history.length > MAX_HISTORY_LENGTH) {
+                    throw new IllegalArgumentException("Status history of " + shipment.getOrderId()
+                            + " has " + history.length + " entries, more than " + MAX_HISTORY_LENGTH);
+                }
+                out.writeShort(history.length);
+                for (long entry : history) {
+                    out.writeLong(entry);
+                }
+            }
+            case DELETE -> out.writeUTF(record.getOrderId());
+            default -> {
+            }
+        }
+    }
+    
+    static ReplicationRecord read(DataInputStream in) throws IOException {
+        ReplicationRecord.Type type = TYPES[in.readUnsignedByte()];
+        long sequence = in.readLong();
+        long timestamp = in.readLong();
+        return switch (type) {
+            case UPSERT -> {
+                Shipment shipment = new Shipment(in.readUTF(), in.readUTF(), in.readUTF(),
+                        STATUSES[in.readUnsignedByte()]);
+                shipment.setCreatedAt(readDateTime(in));
+                shipment.setUpdatedAt(readDateTime(in));
+                long[] history = new long[in.readUnsignedShort()];
+                for (int i = 0; i < history.length; i++) {
+                    history[i] = in.readLong();
+                }
+                shipment.setPackedHistory(history);
+                yield new ReplicationRecord(type, sequence, timestamp, shipment.getOrderId(), shipment);
+            }
+            case DELETE -> new ReplicationRecord(type, sequence, timestamp, in.readUTF(), null);
+            default -> ReplicationRecord.control(type, sequence, timestamp);
+        };
+    }
+    
+    private static void writeDateTime(DataOutputStream out, LocalDateTime dateTime) throws IOException {
+        out.writeLong(dateTime.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(dateTime.getNano());
+    }
+    
+    private static LocalDateTime readDateTime(DataInputStream in) throws IOException {
+        long epochSecond = in.readLong();
+        int nano = in.readInt();
+        return LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,152 @@
+package com.logistics.shipment.replication;
+
+import com.logistics.shipment.model.Shipment;
+import com.logistics.shipment.service.ShipmentService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.Socket;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Follower side of log-shipping replication. Connects to the primary, applies its snapshot and
+ * then the ordered mutation stream to the local store, and tracks how far behind it is.
+ */
+public class ReplicationFollower implements SmartLifecycle, ReplicationStatusSource {
+    
+    private static final Logger log = LoggerFactory.getLogger(ReplicationFollower.class);
+    
+    private final ReplicationProperties properties;
+    private final ShipmentService shipmentService;
+    
+    private volatile boolean running;
+    private volatile boolean connected;
+    private volatile Socket socket;
+    private volatile long appliedSequence;
+    private volatile long primarySequence;
+    // Delay between the primary applying the last record and this follower applying it
+    private volatile long lastApplyDelayMillis;
+    private volatile long lastContactMillis;
+    private Thread thread;
+    
+    public ReplicationFollower(ReplicationProperties properties, ShipmentService shipmentService) {
+        this.properties = properties;
+        this.shipmentService = shipmentService;
+    }
+    
+    @Override
+    public void start() {
+        running = true;
+        thread = new Thread(this::run, "replication-follower");
+        thread.setDaemon(true);
+        thread.start();
+    }
+    
+    @Override
+    public void stop() {
+        running = false;
+        Socket current = socket;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (IOException e) {
+                // Closing anyway
+            }
+        }
+        thread.interrupt();
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+    
+    /**
+     * Estimated staleness of this follower's data in milliseconds
+     */
+    public long getLagMillis() {
+        long now = System.currentTimeMillis();
+        long sinceContact = now - lastContactMillis;
+        long heartbeat = properties.getHeartbeatInterval().toMillis();
+        if (!connected || sinceContact > 2 * heartbeat) {
+            // Without recent contact nothing newer than the last frame is known to be applied
+            return Math.max(lastApplyDelayMillis, sinceContact);
+        }
+        return appliedSequence >= primarySequence ? 0 : lastApplyDelayMillis;
+    }
+    
+    @Override
+    public ReplicationStatus getStatus() {
+        return new ReplicationStatus("follower", connected, appliedSequence, primarySequence, getLagMillis(), 0);
+    }
+    
+    private void run() {
+        while (running) {
+            try (Socket connection = new Socket(properties.getPrimaryHost(), properties.getPrimaryPort())) {
+                socket = connection;
+                connected = true;
+                log.info("Connected to replication primary {}:{}", properties.getPrimaryHost(), properties.getPrimaryPort());
+                consume(new DataInputStream(new BufferedInputStream(connection.getInputStream())));
+            } catch (IOException e) {
+                if (running) {
+                    log.debug("Replication connection failed: {}", e.getMessage());
+                }
+            } finally {
+                connected = false;
+                socket = null;
+            }
+            try {
+                Thread.sleep(properties.getReconnectDelay().toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+    
+    private void consume(DataInputStream in) throws IOException {
+        Set<String> snapshotKeys = null;
+        while (running) {
+            ReplicationRecord record;
+            try {
+                record = ReplicationCodec.read(in);
+            } catch (EOFException e) {
+                return;
+            }
+            long now = System.currentTimeMillis();
+            lastContactMillis = now;
+            switch (record.getType()) {
+                case RESET -> snapshotKeys = new HashSet<>();
+                case UPSERT -> {
+                    shipmentService.applyReplicatedShipment(record.getShipment());
+                    if (snapshotKeys != null) {
+                        snapshotKeys.add(record.getOrderId());
+                    }
+                }
+                case DELETE -> shipmentService.applyReplicatedDeletion(record.getOrderId());
+                case SNAPSHOT_END -> {
+                    // Keep serving old data during the resync, then drop what the primary no longer has
+                    Set<String> keep = snapshotKeys;
+                    shipmentService.getAllShipments().stream()
+                            .map(Shipment::getOrderId)
+                            .filter(orderId -> keep == null || !keep.contains(orderId))
+                            .forEach(shipmentService::applyReplicatedDeletion);
+                    snapshotKeys = null;
+                }
+                case HEARTBEAT -> {
+                }
+            }
+            primarySequence = Math.max(primarySequence, record.getSequence());
+            if (record.getType() != ReplicationRecord.Type.HEARTBEAT) {
+                appliedSequence = record.getSequence();
+                lastApplyDelayMillis = Math.max(0, now - record.getTimestampMillis());
+            }
+        }
+    }
+}
\ No newline at end of file
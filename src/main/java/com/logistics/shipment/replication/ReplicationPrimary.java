@@ -0,0 +1,228 @@
+package com.logistics.shipment.replication;
+
+import com.logistics.shipment.model.Shipment;
+import com.logistics.shipment.model.ShipmentStatus;
+import com.logistics.shipment.service.ShipmentMutationListener;
+import com.logistics.shipment.store.ShipmentStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Primary side of log-shipping replication. The write path only appends a record to a bounded
+ * queue; a dispatcher thread assigns sequence numbers and fans records out to one sender thread
+ * per follower. A follower that falls too far behind is disconnected and resyncs from a snapshot.
+ */
+public class ReplicationPrimary implements ShipmentMutationListener, SmartLifecycle, ReplicationStatusSource {
+    
+    private static final Logger log = LoggerFactory.getLogger(ReplicationPrimary.class);
+    
+    private final ReplicationProperties properties;
+    private final ShipmentStore store;
+    private final BlockingQueue<ReplicationRecord> pending;
+    private final List<FollowerSession> sessions = new CopyOnWriteArrayList<>();
+    // Guards sequence assignment against follower registration so snapshots start at a known sequence
+    private final Object sequenceLock = new Object();
+    
+    private volatile long lastSequence;
+    private volatile boolean overflowed;
+    private volatile boolean running;
+    private ServerSocket serverSocket;
+    
+    public ReplicationPrimary(ReplicationProperties properties, ShipmentStore store) {
+        this.properties = properties;
+        this.store = store;
+        this.pending = new ArrayBlockingQueue<>(properties.getFollowerBufferSize());
+    }
+    
+    @Override
+    public void onCreated(Shipment shipment) {
+        append(ReplicationRecord.upsert(shipment, System.currentTimeMillis()));
+    }
+    
+    @Override
+    public void onStatusChanged(Shipment shipment, ShipmentStatus previousStatus) {
+        append(ReplicationRecord.upsert(shipment, System.currentTimeMillis()));
+    }
+    
+    @Override
+    public void onDeleted(Shipment shipment) {
+        append(ReplicationRecord.delete(shipment.getOrderId(), System.currentTimeMillis()));
+    }
+    
+    // Never blocks the writer: on overflow every follower is forced to resync instead
+    private void append(ReplicationRecord record) {
+        if (!pending.offer(record)) {
+            overflowed = true;
+        }
+    }
+    
+    @Override
+    public void start() {
+        try {
+            serverSocket = new ServerSocket();
+            serverSocket.bind(new InetSocketAddress(properties.getPort()));
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot listen for followers on port " + properties.getPort(), e);
+        }
+        running = true;
+        startThread("replication-acceptor", this::acceptFollowers);
+        startThread("replication-dispatcher", this::dispatch);
+        log.info("Replication primary listening on port {}", serverSocket.getLocalPort());
+    }
+    
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            // Closing anyway
+        }
+        sessions.forEach(FollowerSession::close);
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+    
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+    
+    @Override
+    public ReplicationStatus getStatus() {
+        long sequence = lastSequence;
+        return new ReplicationStatus("primary", true, sequence, sequence, 0, sessions.size());
+    }
+    
+    private void acceptFollowers() {
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                FollowerSession session = new FollowerSession(socket);
+                long snapshotSequence;
+                synchronized (sequenceLock) {
+                    snapshotSequence = lastSequence;
+                    sessions.add(session);
+                }
+                log.info("Follower connected from {}", socket.getRemoteSocketAddress());
+                startThread("replication-sender-" + socket.getPort(), () -> session.run(snapshotSequence));
+            } catch (IOException e) {
+                if (running) {
+                    log.warn("Failed to accept follower connection", e);
+                }
+            }
+        }
+    }
+    
+    private void dispatch() {
+        long heartbeatMillis = properties.getHeartbeatInterval().toMillis();
+        while (running) {
+            try {
+                ReplicationRecord record = pending.poll(heartbeatMillis, TimeUnit.MILLISECONDS);
+                if (overflowed) {
+                    overflowed = false;
+                    log.warn("Replication buffer overflowed, forcing followers to resync");
+                    sessions.forEach(FollowerSession::close);
+                }
+                if (record == null) {
+                    ReplicationRecord heartbeat = ReplicationRecord.control(
+                            ReplicationRecord.Type.HEARTBEAT, lastSequence, System.currentTimeMillis());
+                    sessions.forEach(session -> session.offer(heartbeat));
+                    continue;
+                }
+                synchronized (sequenceLock) {
+                    ReplicationRecord sequenced = record.withSequence(lastSequence + 1);
+                    lastSequence = sequenced.getSequence();
+                    for (FollowerSession session : sessions) {
+                        if (!session.offer(sequenced)) {
+                            log.warn("Follower fell behind, disconnecting it to force a resync");
+                            session.close();
+                        }
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+    
+    private static void startThread(String name, Runnable task) {
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+    
+    private final class FollowerSession {
+        private final Socket socket;
+        private final BlockingQueue<ReplicationRecord> queue;
+        
+        FollowerSession(Socket socket) {
+            this.socket = socket;
+            this.queue = new ArrayBlockingQueue<>(properties.getFollowerBufferSize());
+        }
+        
+        boolean offer(ReplicationRecord record) {
+            return queue.offer(record);
+        }
+        
+        void run(long snapshotSequence) {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+                long now = System.currentTimeMillis();
+                ReplicationCodec.write(out, ReplicationRecord.control(ReplicationRecord.Type.RESET, snapshotSequence, now));
+                Iterator<Shipment> snapshot = store.stream().iterator();
+                while (snapshot.hasNext()) {
+                    ReplicationCodec.write(out, ReplicationRecord.upsert(snapshot.next(), now).withSequence(snapshotSequence));
+                }
+                ReplicationCodec.write(out,
+                        ReplicationRecord.control(ReplicationRecord.Type.SNAPSHOT_END, snapshotSequence, now));
+                out.flush();
+                
+                while (running && !socket.isClosed()) {
+                    ReplicationRecord record = queue.poll(1, TimeUnit.SECONDS);
+                    if (record == null) {
+                        continue;
+                    }
+                    ReplicationCodec.write(out, record);
+                    // Batch whatever else is queued into the same flush
+                    while ((record = queue.poll()) != null) {
+                        ReplicationCodec.write(out, record);
+                    }
+                    out.flush();
+                }
+            } catch (IOException e) {
+                log.info("Follower {} disconnected: {}", socket.getRemoteSocketAddress(), e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                close();
+            }
+        }
+        
+        void close() {
+            sessions.remove(this);
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // Already closed
+            }
+        }
+    }
+}
\ No newline at end of file
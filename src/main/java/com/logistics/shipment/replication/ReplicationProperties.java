@@ -0,0 +1,58 @@
+package com.logistics.shipment.replication;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Leader-follower replication settings (prefix: shipment.replication)
+ */
+@ConfigurationProperties(prefix = "shipment.replication")
+public class ReplicationProperties {
+    
+    /**
+     * Replication role of this instance
+     */
+    public enum Role {
+        NONE,
+        PRIMARY,
+        FOLLOWER
+    }
+    
+    private Role role = Role.NONE;
+    
+    // Primary: port followers connect to
+    private int port = 9400;
+    
+    // Follower: where to find the primary
+    private String primaryHost = "localhost";
+    private int primaryPort = 9400;
+    
+    private Duration heartbeatInterval = Duration.ofSeconds(1);
+    
+    private Duration reconnectDelay = Duration.ofSeconds(1);
+    
+    // Mutations buffered per follower before it is disconnected and forced to resync
+    private int followerBufferSize = 65_536;
+    
+    public Role getRole() { return role; }
+    public void setRole(Role role) { this.role = role; }
+    
+    public int getPort() { return port; }
+    public void setPort(int port) { this.port = port; }
+    
+    public String getPrimaryHost() { return primaryHost; }
+    public void setPrimaryHost(String primaryHost) { this.primaryHost = primaryHost; }
+    
+    public int getPrimaryPort() { return primaryPort; }
+    public void setPrimaryPort(int primaryPort) { this.primaryPort = primaryPort; }
+    
+    public Duration getHeartbeatInterval() { return heartbeatInterval; }
+    public void setHeartbeatInterval(Duration heartbeatInterval) { this.heartbeatInterval = heartbeatInterval; }
+    
+    public Duration getReconnectDelay() { return reconnectDelay; }
+    public void setReconnectDelay(Duration reconnectDelay) { this.reconnectDelay = reconnectDelay; }
+    
+    public int getFollowerBufferSize() { return followerBufferSize; }
+    public void setFollowerBufferSize(int followerBufferSize) { this.followerBufferSize = followerBufferSize; }
+}
\ No newline at end of file
@@ -0,0 +1,58 @@
+package com.logistics.shipment.replication;
+
+import com.logistics.shipment.model.Shipment;
+
+/**
+ * One entry of the replicated mutation stream. Upserts carry the full shipment state, so
+ * applying the stream in order converges regardless of what the follower held before.
+ */
+public final class ReplicationRecord {
+    
+    /**
+     * Frame types on the wire
+     */
+    public enum Type {
+        UPSERT,
+        DELETE,
+        HEARTBEAT,
+        // Start of a full resync: the follower discards its state
+        RESET,
+        SNAPSHOT_END
+    }
+    
+    private final Type type;
+    private final long sequence;
+    private final long timestampMillis;
+    private final String orderId;
+    private final Shipment shipment;
+    
+    ReplicationRecord(Type type, long sequence, long timestampMillis, String orderId, Shipment shipment) {
+        this.type = type;
+        this.sequence = sequence;
+        this.timestampMillis = timestampMillis;
+        this.orderId = orderId;
+        this.shipment = shipment;
+    }
+    
+    static ReplicationRecord upsert(Shipment shipment, long timestampMillis) {
+        return new ReplicationRecord(Type.UPSERT, 0, timestampMillis, shipment.getOrderId(), shipment.copy());
+    }
+    
+    static ReplicationRecord delete(String orderId, long timestampMillis) {
+        return new ReplicationRecord(Type.DELETE, 0, timestampMillis, orderId, null);
+    }
+    
+    static ReplicationRecord control(Type type, long sequence, long timestampMillis) {
+        return new ReplicationRecord(type, sequence, timestampMillis, null, null);
+    }
+    
+    ReplicationRecord withSequence(long sequence) {
+        return new ReplicationRecord(type, sequence, timestampMillis, orderId, shipment);
+    }
+    
+    public Type getType() { return type; }
+    public long getSequence() { return sequence; }
+    public long getTimestampMillis() { return timestampMillis; }
+    public String getOrderId() { return orderId; }
+    public Shipment getShipment() { return shipment; }
+}
\ No newline at end of file
@@ -0,0 +1,30 @@
+package com.logistics.shipment.replication;
+
+/**
+ * Replication state reported by primaries and followers
+ */
+public class ReplicationStatus {
+    private final String role;
+    private final boolean connected;
+    private final long appliedSequence;
+    private final long primarySequence;
+    private final long lagMillis;
+    private final int followers;
+    
+    public ReplicationStatus(String role, boolean connected, long appliedSequence, long primarySequence,
+                             long lagMillis, int followers) {
+        this.role = role;
+        this.connected = connected;
+        this.appliedSequence = appliedSequence;
+        this.primarySequence = primarySequence;
+        this.lagMillis = lagMillis;
+        this.followers = followers;
+    }
+    
+    public String getRole() { return role; }
+    public boolean isConnected() { return connected; }
+    public long getAppliedSequence() { return appliedSequence; }
+    public long getPrimarySequence() { return primarySequence; }
+    public long getLagMillis() { return lagMillis; }
+    public int getFollowers() { return followers; }
+}
\ No newline at end of file
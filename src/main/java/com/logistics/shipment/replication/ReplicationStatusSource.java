@@ -0,0 +1,9 @@
+package com.logistics.shipment.replication;
+
+/**
+ * Implemented by the active replication role to report its state
+ */
+public interface ReplicationStatusSource {
+    
+    ReplicationStatus getStatus();
+}
\ No newline at end of file
@@ -0,0 +1,29 @@
+package com.logistics.shipment.service;
+
+import com.logistics.shipment.model.Shipment;
+import com.logistics.shipment.model.ShipmentStatus;
+
+/**
+ * Callback for successful mutations made through {@link ShipmentService}.
+ * Listeners are invoked inside the store's per-order-ID critical section, so events for one
+ * shipment are observed in the order they were applied. Implementations must be cheap and
+ * must not block or call back into the service; hand work off to another thread instead.
+ */
+public interface ShipmentMutationListener {
+    
+    /**
+     * Called before a mutation is attempted, outside any critical section. Unlike the other
+     * callbacks this may block or throw to push back on writers.
+     */
+    default void beforeMutation() {
+    }
+    
+    default void onCreated(Shipment shipment) {
+    }
+    
+    default void onStatusChanged(Shipment shipment, ShipmentStatus previousStatus) {
+    }
+    
+    default void onDeleted(Shipment shipment) {
+    }
+}
\ No newline at end of file
@@ -1,15 +1,30 @@
 package com.logistics.shipment.service;
 
+import com.logistics.shipment.aggregation.AggregationQuery;
+import com.logistics.shipment.aggregation.AggregationResult;
+import com.logistics.shipment.aggregation.ShipmentAggregator;
 import com.logistics.shipment.exception.DuplicateShipmentException;
 import com.logistics.shipment.exception.InvalidStatusTransitionException;
 import com.logistics.shipment.exception.ShipmentNotFoundException;
 import com.logistics.shipment.model.Shipment;
 import com.logistics.shipment.model.ShipmentStatus;
+import com.logistics.shipment.model.StatusTransitions;
+import com.logistics.shipment.query.QueryField;
+import com.logistics.shipment.query.QueryNode;
+import com.logistics.shipment.query.QueryOperator;
+import com.logistics.shipment.query.QueryPlan;
+import com.logistics.shipment.query.QueryPlanner;
+import com.logistics.shipment.query.ShipmentQuery;
+import com.logistics.shipment.store.ConcurrentMapShipmentStore;
+import com.logistics.shipment.store.ShipmentSnapshot;
+import com.logistics.shipment.store.ShipmentStore;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service class for managing shipments with in-memory storage
@@ -17,8 +32,36 @@ import java.util.stream.Collectors;
 @Service
 public class ShipmentService {
     
-    // Thread-safe in-memory storage
-    private final Map<String, Shipment> shipments = new ConcurrentHashMap<>();
+    private final ShipmentStore store;
+    private final List<ShipmentMutationListener> listeners;
+    private final StatusTransitions transitions;
+    
+    public ShipmentService() {
+        this(new ConcurrentMapShipmentStore());
+    }
+    
+    public ShipmentService(ShipmentStore store) {
+        this(store, List.of());
+    }
+    
+    public ShipmentService(ShipmentStore store, List<ShipmentMutationListener> listeners) {
+        this(store, listeners, StatusTransitions.defaults());
+    }
+    
+    @Autowired
+    public ShipmentService(ShipmentStore store, List<ShipmentMutationListener> listeners,
+                           StatusTransitions transitions) {
+        this.store = store;
+        this.listeners = List.copyOf(listeners);
+        this.transitions = transitions;
+    }
+    
+    /**
+     * The workflow status changes are checked against
+     */
+    public StatusTransitions getStatusTransitions() {
+        return transitions;
+    }
     
     /**
      * Creates a new shipment
@@ -27,19 +70,35 @@ public class ShipmentService {
      * @throws DuplicateShipmentException if a shipment with the same order ID already exists
      */
     public Shipment createShipment(Shipment shipment) {
-        if (shipments.containsKey(shipment.getOrderId())) {
-            throw new DuplicateShipmentException(shipment.getOrderId());
-        }
-        
         // Ensure default status is set if not provided
         if (shipment.getStatus() == null) {
             shipment.setStatus(ShipmentStatus.PENDING);
         }
+        shipment.initHistory();
         
-        shipments.put(shipment.getOrderId(), shipment);
+        notifyBeforeMutation();
+        if (!store.putIfAbsent(shipment, this::notifyCreated)) {
+            throw new DuplicateShipmentException(shipment.getOrderId());
+        }
         return shipment;
     }
     
+    /**
+     * Inserts a batch of validated shipments through the store's bulk path
+     * @param shipments The shipments to insert
+     * @return the shipments skipped because their order ID already exists
+     */
+    public List<Shipment> importShipments(List<Shipment> shipments) {
+        for (Shipment shipment : shipments) {
+            if (shipment.getStatus() == null) {
+                shipment.setStatus(ShipmentStatus.PENDING);
+            }
+            shipment.initHistory();
+        }
+        notifyBeforeMutation();
+        return store.putAllIfAbsent(shipments, this::notifyCreated);
+    }
+    
     /**
      * Retrieves a shipment by order ID
      * @param orderId The order ID to search for
@@ -47,7 +106,7 @@ public class ShipmentService {
      * @throws ShipmentNotFoundException if no shipment is found
      */
     public Shipment getShipmentByOrderId(String orderId) {
-        Shipment shipment = shipments.get(orderId);
+        Shipment shipment = store.get(orderId);
         if (shipment == null) {
             throw new ShipmentNotFoundException(orderId);
         }
@@ -63,14 +122,53 @@ public class ShipmentService {
      * @throws InvalidStatusTransitionException if the status transition is invalid
      */
     public Shipment updateShipmentStatus(String orderId, ShipmentStatus newStatus) {
-        Shipment shipment = getShipmentByOrderId(orderId);
+        notifyBeforeMutation();
+        Shipment updated = store.update(orderId, shipment -> {
+            checkTransition(shipment.getStatus(), newStatus);
+            
+            ShipmentStatus previousStatus = shipment.getStatus();
+            shipment.setStatus(newStatus);
+            notifyStatusChanged(shipment, previousStatus);
+            return shipment;
+        });
         
-        if (!shipment.getStatus().canTransitionTo(newStatus)) {
-            throw new InvalidStatusTransitionException(shipment.getStatus(), newStatus);
+        if (updated == null) {
+            throw new ShipmentNotFoundException(orderId);
         }
+        return updated;
+    }
+    
+    /**
+     * Applies several status changes to one shipment in a single store update, in list order.
+     * Each change must be a valid transition from the status reached by the changes before it;
+     * if one is not, none of them are applied.
+     * @param orderId The order ID of the shipment to update
+     * @param statuses The statuses to move through, in order
+     * @return The updated shipment
+     * @throws ShipmentNotFoundException if no shipment is found
+     * @throws InvalidStatusTransitionException if any of the transitions is invalid
+     */
+    public Shipment updateShipmentStatuses(String orderId, List<ShipmentStatus> statuses) {
+        notifyBeforeMutation();
+        Shipment updated = store.update(orderId, shipment -> {
+            // Validate the whole path first, so listeners never hear about a change that is rolled back
+            ShipmentStatus reached = shipment.getStatus();
+            for (ShipmentStatus newStatus : statuses) {
+                checkTransition(reached, newStatus);
+                reached = newStatus;
+            }
+            for (ShipmentStatus newStatus : statuses) {
+                ShipmentStatus previousStatus = shipment.getStatus();
+                shipment.setStatus(newStatus);
+                notifyStatusChanged(shipment, previousStatus);
+            }
+            return shipment;
+        });
         
-        shipment.setStatus(newStatus);
-        return shipment;
+        if (updated == null) {
+            throw new ShipmentNotFoundException(orderId);
+        }
+        return updated;
     }
     
     /**
@@ -91,11 +189,30 @@ public class ShipmentService {
     }
     
     /**
-     * Retrieves all shipments
+     * Stores a shipment exactly as given, bypassing validation and listeners.
+     * Used to apply state received from a replication primary.
+     * @param shipment The shipment state to store
+     */
+    public void applyReplicatedShipment(Shipment shipment) {
+        store.put(shipment);
+    }
+    
+    /**
+     * Removes a shipment without notifying listeners (replication counterpart of {@link #deleteShipment})
+     * @param orderId The order ID of the shipment to remove
+     */
+    public void applyReplicatedDeletion(String orderId) {
+        store.remove(orderId, shipment -> { });
+    }
+    
+    /**
+     * Retrieves all shipments as of one point in time
      * @return List of all shipments
      */
     public List<Shipment> getAllShipments() {
-        return new ArrayList<>(shipments.values());
+        try (ShipmentSnapshot snapshot = store.snapshot()) {
+            return snapshot.stream().collect(Collectors.toCollection(ArrayList::new));
+        }
     }
     
     /**
@@ -105,10 +222,84 @@ public class ShipmentService {
      * @return Filtered list of shipments
      */
     public List<Shipment> getShipments(String status, String origin) {
-        return shipments.values().stream()
-                .filter(shipment -> status == null || shipment.getStatus().getValue().equalsIgnoreCase(status))
-                .filter(shipment -> origin == null || shipment.getOrigin().equalsIgnoreCase(origin))
-                .collect(Collectors.toList());
+        return getShipments(status, origin, null);
+    }
+    
+    /**
+     * Retrieves shipments matching the optional filters and search query, all of which must match.
+     * Selective equality terms are answered from the store's secondary indexes instead of a full scan.
+     * @param status Optional status filter
+     * @param origin Optional origin filter
+     * @param query Optional search query, see {@link com.logistics.shipment.query.QueryParser}
+     * @return Matching shipments in unspecified order
+     * @throws com.logistics.shipment.exception.InvalidQueryException if the query is malformed
+     */
+    public List<Shipment> getShipments(String status, String origin, String query) {
+        List<QueryNode> terms = filterTerms(status, origin, query);
+        if (terms == null) {
+            return new ArrayList<>(); // An unknown status filter matches nothing
+        }
+        if (terms.isEmpty()) {
+            return getAllShipments();
+        }
+        return QueryPlanner.plan(store, conjunction(terms)).execute();
+    }
+    
+    /**
+     * Lazy form of {@link #getShipments(String, String, String)} for streaming responses. The filters
+     * are checked before this returns; each call of the supplier then opens its own snapshot and
+     * reads the matches from it as the stream is consumed, so a slow reader only pins old versions,
+     * never blocks writers. The caller must close each stream to release its snapshot.
+     * @throws com.logistics.shipment.exception.InvalidQueryException if the query is malformed
+     */
+    public Supplier<Stream<Shipment>> shipmentStream(String status, String origin, String query) {
+        List<QueryNode> terms = filterTerms(status, origin, query);
+        if (terms == null) {
+            return Stream::empty;
+        }
+        return () -> {
+            QueryPlan plan = terms.isEmpty() ? null : QueryPlanner.plan(store, conjunction(terms));
+            ShipmentSnapshot snapshot = store.snapshot();
+            try {
+                Stream<Shipment> shipments = plan == null ? snapshot.stream() : plan.stream(snapshot);
+                return shipments.onClose(snapshot::close);
+            } catch (RuntimeException e) {
+                snapshot.close();
+                throw e;
+            }
+        };
+    }
+    
+    private void checkTransition(ShipmentStatus from, ShipmentStatus to) {
+        if (!transitions.allows(from, to)) {
+            throw new InvalidStatusTransitionException(from, to, transitions.targetsOf(from));
+        }
+    }
+    
+    // Top-level AND terms of the filters, or null if an unknown status means nothing can match
+    private static List<QueryNode> filterTerms(String status, String origin, String query) {
+        List<QueryNode> terms = new ArrayList<>();
+        if (status != null) {
+            ShipmentStatus shipmentStatus;
+            try {
+                shipmentStatus = ShipmentStatus.fromValue(status);
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+            terms.add(new QueryNode.Comparison(QueryField.STATUS, QueryOperator.EQ, List.of(shipmentStatus)));
+        }
+        if (origin != null) {
+            terms.add(new QueryNode.Comparison(QueryField.ORIGIN, QueryOperator.EQ, List.of(origin)));
+        }
+        if (query != null) {
+            QueryNode root = ShipmentQuery.parse(query).getRoot();
+            terms.addAll(root instanceof QueryNode.And and ? and.operands() : List.of(root));
+        }
+        return terms;
+    }
+    
+    private static ShipmentQuery conjunction(List<QueryNode> terms) {
+        return ShipmentQuery.of(terms.size() == 1 ? terms.get(0) : new QueryNode.And(List.copyOf(terms)));
     }
     
     /**
@@ -117,19 +308,32 @@ public class ShipmentService {
      * @return true if shipment exists, false otherwise
      */
     public boolean existsByOrderId(String orderId) {
-        return shipments.containsKey(orderId);
+        return store.containsKey(orderId);
     }
     
     /**
-     * Gets the count of shipments by status
+     * Gets the count of shipments by status, all counted at the same point in time
      * @return Map of status to count
      */
     public Map<ShipmentStatus, Long> getShipmentCountByStatus() {
-        return shipments.values().stream()
-                .collect(Collectors.groupingBy(
-                    Shipment::getStatus,
-                    Collectors.counting()
-                ));
+        try (ShipmentSnapshot snapshot = store.snapshot()) {
+            return snapshot.stream()
+                    .collect(Collectors.groupingBy(
+                        Shipment::getStatus,
+                        Collectors.counting()
+                    ));
+        }
+    }
+    
+    /**
+     * Counts shipments per combination of the query's group-by values in one parallel pass over a snapshot
+     * @param query Group-by dimensions and filters
+     * @return Groups with their counts, largest first
+     */
+    public AggregationResult aggregate(AggregationQuery query) {
+        try (ShipmentSnapshot snapshot = store.snapshot()) {
+            return ShipmentAggregator.aggregate(snapshot.stream().parallel(), query);
+        }
     }
     
     /**
@@ -138,7 +342,8 @@ public class ShipmentService {
      * @return true if deleted, false if not found
      */
     public boolean deleteShipment(String orderId) {
-        return shipments.remove(orderId) != null;
+        notifyBeforeMutation();
+        return store.remove(orderId, this::notifyDeleted);
     }
     
     /**
@@ -146,6 +351,30 @@ public class ShipmentService {
      * @return Total count of shipments
      */
     public int getTotalShipmentCount() {
-        return shipments.size();
+        return store.size();
+    }
+    
+    private void notifyBeforeMutation() {
+        for (ShipmentMutationListener listener : listeners) {
+            listener.beforeMutation();
+        }
+    }
+    
+    private void notifyCreated(Shipment shipment) {
+        for (ShipmentMutationListener listener : listeners) {
+            listener.onCreated(shipment);
+        }
+    }
+    
+    private void notifyStatusChanged(Shipment shipment, ShipmentStatus previousStatus) {
+        for (ShipmentMutationListener listener : listeners) {
+            listener.onStatusChanged(shipment, previousStatus);
+        }
+    }
+    
+    private void notifyDeleted(Shipment shipment) {
+        for (ShipmentMutationListener listener : listeners) {
+            listener.onDeleted(shipment);
+        }
     }
 }
\ No newline at end of file
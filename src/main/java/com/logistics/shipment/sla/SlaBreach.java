@@ -0,0 +1,55 @@
+package com.logistics.shipment.sla;
+
+import com.logistics.shipment.model.ShipmentStatus;
+
+import java.time.Instant;
+
+/**
+ * A shipment that has stayed in a monitored status past its lane's limit and has not moved on since
+ */
+public class SlaBreach {
+    
+    private final String orderId;
+    private final String origin;
+    private final String destination;
+    private final ShipmentStatus status;
+    private final Instant since;
+    private final Instant deadline;
+    
+    public SlaBreach(String orderId, String origin, String destination, ShipmentStatus status,
+                     Instant since, Instant deadline) {
+        this.orderId = orderId;
+        this.origin = origin;
+        this.destination = destination;
+        this.status = status;
+        this.since = since;
+        this.deadline = deadline;
+    }
+    
+    public String getOrderId() {
+        return orderId;
+    }
+    
+    public String getOrigin() {
+        return origin;
+    }
+    
+    public String getDestination() {
+        return destination;
+    }
+    
+    public ShipmentStatus getStatus() {
+        return status;
+    }
+    
+    /**
+     * When the shipment entered the status
+     */
+    public Instant getSince() {
+        return since;
+    }
+    
+    public Instant getDeadline() {
+        return deadline;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,219 @@
+package com.logistics.shipment.sla;
+
+import com.logistics.shipment.memory.ObjectSizes;
+import com.logistics.shipment.model.Shipment;
+import com.logistics.shipment.model.ShipmentStatus;
+import com.logistics.shipment.service.ShipmentMutationListener;
+import com.logistics.shipment.store.IndexedAttribute;
+import com.logistics.shipment.store.ShipmentStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Flags shipments that stay dispatched or in transit longer than their lane allows.
+ * Every status change cancels the shipment's pending deadline and schedules the next one on a
+ * hierarchical timing wheel, so the cost per transition is constant and nothing ever scans the
+ * store except once at startup, to pick up shipments restored from persistence.
+ */
+public class SlaMonitor implements ShipmentMutationListener, SmartLifecycle {
+    
+    private static final Logger log = LoggerFactory.getLogger(SlaMonitor.class);
+    
+    // Map entry, timing wheel node and payload; strings are shared with the stored shipment
+    private static final long DEADLINE_BYTES = ObjectSizes.HASH_ENTRY + ObjectSizes.object(3, 16)
+            + ObjectSizes.object(4, 16);
+    
+    // Map entry, breach and its two instants
+    private static final long BREACH_BYTES = ObjectSizes.HASH_ENTRY + ObjectSizes.object(6, 0)
+            + 2 * ObjectSizes.object(0, 12);
+    
+    private final SlaProperties properties;
+    private final ShipmentStore store;
+    private final LongSupplier clock;
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final TimingWheel<Deadline> wheel;
+    private final Map<Lane, SlaProperties.Lane> lanes = new HashMap<>();
+    
+    // Pending deadline per order ID; compute() on this map serializes a shipment's transitions with its expiry
+    private final Map<String, TimingWheel.Timeout<Deadline>> deadlines = new ConcurrentHashMap<>();
+    private final Map<String, SlaBreach> breaches = new ConcurrentHashMap<>();
+    
+    private final AtomicLong scheduled = new AtomicLong();
+    private final AtomicLong cancelled = new AtomicLong();
+    private final AtomicLong breached = new AtomicLong();
+    private final AtomicLong resolved = new AtomicLong();
+    
+    private volatile boolean running;
+    private ScheduledExecutorService ticker;
+    
+    public SlaMonitor(SlaProperties properties, ShipmentStore store) {
+        this(properties, store, System::currentTimeMillis);
+    }
+    
+    SlaMonitor(SlaProperties properties, ShipmentStore store, LongSupplier clock) {
+        this.properties = properties;
+        this.store = store;
+        this.clock = clock;
+        this.wheel = new TimingWheel<>(properties.getTick().toMillis(), properties.getLevels(), clock.getAsLong());
+        for (SlaProperties.Lane lane : properties.getLanes()) {
+            lanes.put(new Lane(IndexedAttribute.fold(lane.getOrigin()), IndexedAttribute.fold(lane.getDestination())),
+                    lane);
+        }
+    }
+    
+    @Override
+    public void onCreated(Shipment shipment) {
+        track(shipment.getOrderId(), deadlineFor(shipment, clock.getAsLong()));
+    }
+    
+    @Override
+    public void onStatusChanged(Shipment shipment, ShipmentStatus previousStatus) {
+        track(shipment.getOrderId(), deadlineFor(shipment, clock.getAsLong()));
+    }
+    
+    @Override
+    public void onDeleted(Shipment shipment) {
+        track(shipment.getOrderId(), null);
+    }
+    
+    /**
+     * Counters and open breaches
+     * @param limit Maximum number of breaches to list
+     */
+    public SlaReport getReport(int limit) {
+        List<SlaBreach> open = breaches.values().stream()
+                .sorted(Comparator.comparing(SlaBreach::getDeadline).thenComparing(SlaBreach::getOrderId))
+                .limit(limit)
+                .collect(Collectors.toList());
+        return new SlaReport(scheduled.get(), cancelled.get(), breached.get(), resolved.get(),
+                wheel.size(), breaches.size(), open);
+    }
+    
+    /**
+     * Estimated heap bytes retained by pending deadlines and open breaches
+     */
+    public long getRetainedBytes() {
+        return deadlines.size() * DEADLINE_BYTES + breaches.size() * BREACH_BYTES;
+    }
+    
+    @Override
+    public void start() {
+        // Restored shipments entered their status when they were last updated
+        store.stream().forEach(shipment -> track(shipment.getOrderId(), deadlineFor(shipment,
+                shipment.getUpdatedAt() != null
+                        ? shipment.getUpdatedAt().atZone(zone).toInstant().toEpochMilli()
+                        : clock.getAsLong())));
+        log.info("SLA monitor started with {} deadlines pending", wheel.size());
+        long tickMillis = wheel.getTickMillis();
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sla-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+        running = true;
+    }
+    
+    @Override
+    public void stop() {
+        running = false;
+        ticker.shutdownNow();
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+    
+    // After the persister has restored the store, before the web server accepts writes
+    @Override
+    public int getPhase() {
+        return 1;
+    }
+    
+    /**
+     * Advances the wheel to the current time and records expired deadlines as breaches
+     */
+    void tick() {
+        try {
+            for (Deadline deadline : wheel.advance(clock.getAsLong())) {
+                expire(deadline);
+            }
+        } catch (RuntimeException e) {
+            // An exception would cancel the periodic task
+            log.error("SLA monitor tick failed", e);
+        }
+    }
+    
+    private void track(String orderId, Deadline next) {
+        deadlines.compute(orderId, (id, current) -> {
+            if (current != null) {
+                wheel.cancel(current);
+                cancelled.incrementAndGet();
+            }
+            if (breaches.remove(id) != null) {
+                resolved.incrementAndGet();
+            }
+            if (next == null) {
+                return null;
+            }
+            scheduled.incrementAndGet();
+            return wheel.schedule(next.deadlineMillis(), next);
+        });
+    }
+    
+    private void expire(Deadline deadline) {
+        deadlines.computeIfPresent(deadline.orderId(), (id, current) -> {
+            if (current.getPayload() != deadline) {
+                return current; // The shipment moved on while this deadline was expiring
+            }
+            breaches.put(id, new SlaBreach(id, deadline.origin(), deadline.destination(), deadline.status(),
+                    Instant.ofEpochMilli(deadline.sinceMillis()), Instant.ofEpochMilli(deadline.deadlineMillis())));
+            breached.incrementAndGet();
+            return null;
+        });
+    }
+    
+    private Deadline deadlineFor(Shipment shipment, long since) {
+        ShipmentStatus status = shipment.getStatus();
+        Duration limit = status != null ? properties.limitFor(status) : null;
+        if (limit == null) {
+            return null;
+        }
+        if (!lanes.isEmpty()) {
+            SlaProperties.Lane lane = lanes.get(new Lane(IndexedAttribute.fold(shipment.getOrigin()),
+                    IndexedAttribute.fold(shipment.getDestination())));
+            Duration laneLimit = lane == null ? null
+                    : status == ShipmentStatus.DISPATCHED ? lane.getDispatched() : lane.getInTransit();
+            if (laneLimit != null) {
+                limit = laneLimit;
+            }
+        }
+        return new Deadline(shipment.getOrderId(), shipment.getOrigin(), shipment.getDestination(), status,
+                since, since + limit.toMillis());
+    }
+    
+    private record Lane(String origin, String destination) {
+    }
+    
+    // Payload identity tells a current deadline from a replaced one
+    private record Deadline(String orderId, String origin, String destination, ShipmentStatus status,
+                            long sinceMillis, long deadlineMillis) {
+    }
+}
\ No newline at end of file
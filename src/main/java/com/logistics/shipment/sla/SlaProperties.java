@@ -0,0 +1,90 @@
+package com.logistics.shipment.sla;
+
+import com.logistics.shipment.model.ShipmentStatus;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Limits on how long a shipment may stay dispatched or in transit (prefix: shipment.sla)
+ */
+@ConfigurationProperties(prefix = "shipment.sla")
+public class SlaProperties {
+    
+    private boolean enabled = true;
+    
+    // Resolution of the timing wheel; breaches are reported at most one tick late
+    private Duration tick = Duration.ofSeconds(1);
+    
+    // Wheel levels of 64 slots each; 4 levels of 1 s ticks cover about 194 days
+    private int levels = 4;
+    
+    private Duration dispatched = Duration.ofHours(24);
+    
+    private Duration inTransit = Duration.ofHours(72);
+    
+    // Per-lane overrides, matched on origin and destination ignoring case
+    private List<Lane> lanes = new ArrayList<>();
+    
+    /**
+     * @return the default limit for the status, or null if the status is not monitored
+     */
+    public Duration limitFor(ShipmentStatus status) {
+        return switch (status) {
+            case DISPATCHED -> dispatched;
+            case IN_TRANSIT -> inTransit;
+            default -> null;
+        };
+    }
+    
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    
+    public Duration getTick() { return tick; }
+    public void setTick(Duration tick) { this.tick = tick; }
+    
+    public int getLevels() { return levels; }
+    public void setLevels(int levels) { this.levels = levels; }
+    
+    public Duration getDispatched() { return dispatched; }
+    public void setDispatched(Duration dispatched) { this.dispatched = dispatched; }
+    
+    public Duration getInTransit() { return inTransit; }
+    public void setInTransit(Duration inTransit) { this.inTransit = inTransit; }
+    
+    public List<Lane> getLanes() { return lanes; }
+    public void setLanes(List<Lane> lanes) { this.lanes = lanes; }
+    
+    /**
+     * Limits for one origin-destination pair; unset limits fall back to the defaults
+     */
+    public static class Lane {
+        private String origin;
+        private String destination;
+        private Duration dispatched;
+        private Duration inTransit;
+        
+        public Lane() {}
+        
+        public Lane(String origin, String destination, Duration dispatched, Duration inTransit) {
+            this.origin = origin;
+            this.destination = destination;
+            this.dispatched = dispatched;
+            this.inTransit = inTransit;
+        }
+        
+        public String getOrigin() { return origin; }
+        public void setOrigin(String origin) { this.origin = origin; }
+        
+        public String getDestination() { return destination; }
+        public void setDestination(String destination) { this.destination = destination; }
+        
+        public Duration getDispatched() { return dispatched; }
+        public void setDispatched(Duration dispatched) { this.dispatched = dispatched; }
+        
+        public Duration getInTransit() { return inTransit; }
+        public void setInTransit(Duration inTransit) { this.inTransit = inTransit; }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,77 @@
+package com.logistics.shipment.sla;
+
+import java.util.List;
+
+/**
+ * Snapshot of the SLA monitor: counters since startup and the currently open breaches
+ */
+public class SlaReport {
+    
+    private final long scheduled;
+    private final long cancelled;
+    private final long breached;
+    private final long resolved;
+    private final int pending;
+    private final int open;
+    private final List<SlaBreach> breaches;
+    
+    public SlaReport(long scheduled, long cancelled, long breached, long resolved, int pending, int open,
+                     List<SlaBreach> breaches) {
+        this.scheduled = scheduled;
+        this.cancelled = cancelled;
+        this.breached = breached;
+        this.resolved = resolved;
+        this.pending = pending;
+        this.open = open;
+        this.breaches = breaches;
+    }
+    
+    /**
+     * Deadlines scheduled so far
+     */
+    public long getScheduled() {
+        return scheduled;
+    }
+    
+    /**
+     * Deadlines cancelled because the shipment moved on or was deleted in time
+     */
+    public long getCancelled() {
+        return cancelled;
+    }
+    
+    /**
+     * Deadlines that expired
+     */
+    public long getBreached() {
+        return breached;
+    }
+    
+    /**
+     * Breaches closed because the shipment moved on or was deleted late
+     */
+    public long getResolved() {
+        return resolved;
+    }
+    
+    /**
+     * Deadlines waiting in the timing wheel
+     */
+    public int getPending() {
+        return pending;
+    }
+    
+    /**
+     * Open breaches, which may be more than are listed
+     */
+    public int getOpen() {
+        return open;
+    }
+    
+    /**
+     * Open breaches, earliest deadline first
+     */
+    public List<SlaBreach> getBreaches() {
+        return breaches;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,187 @@
+package com.logistics.shipment.sla;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel. Each level has 64 slots; a slot on level {@code n} spans 64^n ticks.
+ * A timeout is placed on the lowest level whose range still covers its deadline and moves down one
+ * level each time its slot comes around, so scheduling and cancelling are O(1) and each timeout is
+ * touched at most once per level before it fires. Deadlines beyond the top level are parked in its
+ * farthest slot and re-placed when that slot comes around.
+ * Thread-safe; all methods synchronize on the wheel, and expired payloads are returned to the caller
+ * instead of being run under the lock.
+ */
+public class TimingWheel<T> {
+    
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    
+    private final long tickMillis;
+    private final int levels;
+    private final Timeout<T>[][] slots;
+    
+    // Ticks since the epoch up to which every slot has been processed
+    private long currentTick;
+    private int size;
+    
+    public TimingWheel(long tickMillis, int levels, long startMillis) {
+        if (tickMillis <= 0 || levels <= 0 || levels * SLOT_BITS >= Long.SIZE - 1) {
+            throw new IllegalArgumentException("Invalid timing wheel: tick " + tickMillis + " ms, " + levels + " levels");
+        }
+        this.tickMillis = tickMillis;
+        this.levels = levels;
+        @SuppressWarnings("unchecked")
+        Timeout<T>[][] slots = (Timeout<T>[][]) new Timeout<?>[levels][SLOTS];
+        this.slots = slots;
+        for (Timeout<T>[] level : slots) {
+            for (int i = 0; i < SLOTS; i++) {
+                level[i] = Timeout.sentinel();
+            }
+        }
+        this.currentTick = startMillis / tickMillis;
+    }
+    
+    /**
+     * Schedules a payload to expire at the given time
+     * @return a handle for {@link #cancel}; if the deadline has already passed the payload expires on the next advance
+     */
+    public synchronized Timeout<T> schedule(long deadlineMillis, T payload) {
+        // Round up so a timeout never fires before its deadline
+        long deadlineTick = Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis);
+        Timeout<T> timeout = new Timeout<>(payload, deadlineMillis, Math.max(deadlineTick, currentTick + 1));
+        place(timeout);
+        size++;
+        return timeout;
+    }
+    
+    /**
+     * Removes a timeout that has not expired yet
+     * @return true if the timeout was pending, false if it already expired or was cancelled
+     */
+    public synchronized boolean cancel(Timeout<T> timeout) {
+        if (timeout.prev == null) {
+            return false;
+        }
+        unlink(timeout);
+        size--;
+        return true;
+    }
+    
+    /**
+     * Advances the wheel to the given time
+     * @return payloads whose deadline is at or before the current tick, in deadline order per tick
+     */
+    public synchronized List<T> advance(long nowMillis) {
+        long targetTick = nowMillis / tickMillis;
+        List<T> expired = new ArrayList<>();
+        if (size == 0 && targetTick > currentTick) {
+            // Nothing to cascade or expire, so skip the empty ticks
+            currentTick = targetTick;
+            return expired;
+        }
+        while (currentTick < targetTick) {
+            currentTick++;
+            // Move due timeouts down from the highest level whose slot boundary was crossed first,
+            // so anything that lands in a lower slot being processed this tick is handled below
+            for (int level = levels - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                    cascade(slots[level][slotIndex(currentTick, level)]);
+                }
+            }
+            Timeout<T> head = slots[0][slotIndex(currentTick, 0)];
+            while (head.next != head) {
+                Timeout<T> timeout = head.next;
+                unlink(timeout);
+                size--;
+                expired.add(timeout.payload);
+            }
+        }
+        return expired;
+    }
+    
+    public synchronized int size() {
+        return size;
+    }
+    
+    public long getTickMillis() {
+        return tickMillis;
+    }
+    
+    private void cascade(Timeout<T> head) {
+        while (head.next != head) {
+            Timeout<T> timeout = head.next;
+            unlink(timeout);
+            place(timeout);
+        }
+    }
+    
+    private void place(Timeout<T> timeout) {
+        long deadlineTick = timeout.deadlineTick;
+        if (deadlineTick <= currentTick) {
+            // Cascaded into the tick being processed; the level 0 pass of this tick fires it
+            link(slots[0][slotIndex(currentTick, 0)], timeout);
+            return;
+        }
+        // The highest bit in which deadline and current tick differ selects the level
+        int level = (Long.SIZE - 1 - Long.numberOfLeadingZeros(deadlineTick ^ currentTick)) / SLOT_BITS;
+        if (level >= levels) {
+            // Park in the top-level slot just behind the current one. It comes around last but one,
+            // and a re-parked timeout never lands in the slot that is being cascaded
+            level = levels - 1;
+            deadlineTick = currentTick - (1L << (SLOT_BITS * level));
+        }
+        link(slots[level][slotIndex(deadlineTick, level)], timeout);
+    }
+    
+    private static int slotIndex(long tick, int level) {
+        return (int) (tick >>> (SLOT_BITS * level)) & SLOT_MASK;
+    }
+    
+    private static <T> void link(Timeout<T> head, Timeout<T> timeout) {
+        timeout.prev = head.prev;
+        timeout.next = head;
+        head.prev.next = timeout;
+        head.prev = timeout;
+    }
+    
+    private static <T> void unlink(Timeout<T> timeout) {
+        timeout.prev.next = timeout.next;
+        timeout.next.prev = timeout.prev;
+        timeout.prev = null;
+        timeout.next = null;
+    }
+    
+    /**
+     * A scheduled payload; also a node in its slot's circular doubly-linked list
+     */
+    public static final class Timeout<T> {
+        private final T payload;
+        private final long deadlineMillis;
+        private final long deadlineTick;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+        
+        private Timeout(T payload, long deadlineMillis, long deadlineTick) {
+            this.payload = payload;
+            this.deadlineMillis = deadlineMillis;
+            this.deadlineTick = deadlineTick;
+        }
+        
+        private static <T> Timeout<T> sentinel() {
+            Timeout<T> head = new Timeout<>(null, 0, 0);
+            head.prev = head;
+            head.next = head;
+            return head;
+        }
+        
+        public T getPayload() {
+            return payload;
+        }
+        
+        public long getDeadlineMillis() {
+            return deadlineMillis;
+        }
+    }
+}
\ No newline at end of file
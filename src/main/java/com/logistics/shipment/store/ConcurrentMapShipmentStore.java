@@ -0,0 +1,99 @@
+package com.logistics.shipment.store;
+
+import com.logistics.shipment.model.Shipment;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+/**
+ * Default store: a single concurrent map shared by all request threads. Updates replace the
+ * stored {@link Shipment} with a modified copy and keep the replaced version while a snapshot
+ * can still see it.
+ */
+public class ConcurrentMapShipmentStore implements ShipmentStore {
+    
+    private final VersionClock clock = new VersionClock();
+    
+    // Thread-safe in-memory storage
+    private final VersionedShipmentMap shipments = new VersionedShipmentMap(clock);
+    
+    @Override
+    public Shipment get(String orderId) {
+        return shipments.get(orderId);
+    }
+    
+    @Override
+    public boolean containsKey(String orderId) {
+        return shipments.containsKey(orderId);
+    }
+    
+    @Override
+    public boolean putIfAbsent(Shipment shipment, Consumer<Shipment> onInserted) {
+        boolean[] inserted = new boolean[1];
+        shipments.compute(shipment.getOrderId(), current -> {
+            if (current != null) {
+                return current;
+            }
+            onInserted.accept(shipment);
+            inserted[0] = true;
+            return shipment;
+        });
+        return inserted[0];
+    }
+    
+    @Override
+    public void put(Shipment shipment, BiConsumer<Shipment, Shipment> onStored) {
+        shipments.compute(shipment.getOrderId(), previous -> {
+            onStored.accept(previous, shipment);
+            return shipment;
+        });
+    }
+    
+    @Override
+    public Shipment update(String orderId, UnaryOperator<Shipment> mutation) {
+        return shipments.compute(orderId, current -> current != null ? mutation.apply(current.copy()) : null);
+    }
+    
+    @Override
+    public boolean remove(String orderId, Consumer<Shipment> onRemoved) {
+        boolean[] removed = new boolean[1];
+        shipments.compute(orderId, current -> {
+            if (current != null) {
+                onRemoved.accept(current);
+                removed[0] = true;
+            }
+            return null;
+        });
+        return removed[0];
+    }
+    
+    @Override
+    public int size() {
+        return shipments.size();
+    }
+    
+    @Override
+    public long getRetainedBytes() {
+        return shipments.retainedBytes();
+    }
+    
+    @Override
+    public Stream<Shipment> stream() {
+        return shipments.stream();
+    }
+    
+    @Override
+    public ShipmentSnapshot snapshot() {
+        return clock.snapshot(List.of(shipments), orderId -> shipments);
+    }
+    
+    /**
+     * The clock this engine's versions are stamped by, so indexes can be versioned alongside
+     */
+    VersionClock clock() {
+        return clock;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,43 @@
+package com.logistics.shipment.store;
+
+import com.logistics.shipment.model.Shipment;
+
+import java.util.function.Function;
+
+/**
+ * Shipment attributes that can have a secondary index. Origin and destination keys are
+ * case-folded, so an index lookup finds every value that {@link String#equalsIgnoreCase} would match.
+ */
+public enum IndexedAttribute {
+    STATUS(Shipment::getStatus),
+    ORIGIN(shipment -> fold(shipment.getOrigin())),
+    DESTINATION(shipment -> fold(shipment.getDestination()));
+    
+    private final Function<Shipment, Object> key;
+    
+    IndexedAttribute(Function<Shipment, Object> key) {
+        this.key = key;
+    }
+    
+    /**
+     * @return the index key of the shipment, or null if the attribute is not set
+     */
+    public Object keyOf(Shipment shipment) {
+        return key.apply(shipment);
+    }
+    
+    /**
+     * Case-folds a location the way {@link String#equalsIgnoreCase} compares characters,
+     * so two values fold equal exactly when they are equal ignoring case
+     */
+    public static String fold(String value) {
+        if (value == null) {
+            return null;
+        }
+        char[] chars = value.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(Character.toUpperCase(chars[i]));
+        }
+        return new String(chars);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,343 @@
+package com.logistics.shipment.store;
+
+import com.logistics.shipment.memory.ObjectSizes;
+import com.logistics.shipment.model.Shipment;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+/**
+ * Adds secondary indexes from attribute value to order IDs on top of any storage engine.
+ * Index entries are changed in the engine's per-order-ID critical section, right after the write
+ * succeeds, so every write path is covered, including replication and restore.
+ * Readers may briefly see an index entry for a write that is still in progress, so callers
+ * must check the stored shipments they look up against their own predicate.
+ * <p>
+ * On the multi-version engines the postings are versioned too. An order ID that leaves a key
+ * stays in its posting set as a removal, stamped with a version no older than the write's commit,
+ * until no open snapshot reads below that stamp. A lookup at a snapshot therefore finds every
+ * order ID that had the key as of the snapshot.
+ */
+public class IndexedShipmentStore implements ShipmentStore {
+    
+    // Key set node for one order ID in a posting set; the order ID string is shared with the shipment
+    private static final long POSTING_BYTES = ObjectSizes.HASH_ENTRY;
+    
+    // Index map entry, posting set with its counter and view, and its backing map, before any postings
+    private static final long POSTING_SET_BYTES = ObjectSizes.HASH_ENTRY + ObjectSizes.object(3, 0)
+            + ObjectSizes.object(0, 4) + ObjectSizes.object(1, 0) + ObjectSizes.object(6, 16)
+            + ObjectSizes.referenceArray(16);
+    
+    private final ShipmentStore delegate;
+    // Null if the engine is not versioned; removals are then dropped at once
+    private final VersionClock clock;
+    private final Map<IndexedAttribute, Map<Object, PostingSet>> indexes = new EnumMap<>(IndexedAttribute.class);
+    private final LongAdder indexBytes = new LongAdder();
+    // Removals in the order they were made, dropped from their posting sets once no snapshot needs them
+    private final Queue<Posting> removals = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean purging = new AtomicBoolean();
+    
+    public IndexedShipmentStore(ShipmentStore delegate, Set<IndexedAttribute> attributes) {
+        this.delegate = delegate;
+        this.clock = delegate instanceof ConcurrentMapShipmentStore engine ? engine.clock()
+                : delegate instanceof PartitionedShipmentStore engine ? engine.clock() : null;
+        for (IndexedAttribute attribute : attributes) {
+            indexes.put(attribute, new ConcurrentHashMap<>());
+        }
+        delegate.stream().forEach(shipment -> reindex(null, shipment, null));
+        if (clock != null) {
+            clock.onRelease(this::purgeRemovals);
+        }
+    }
+    
+    /**
+     * @return true if lookups on the attribute are served from an index that can be read at a
+     *         snapshot, which needs a multi-version engine
+     */
+    public boolean isIndexed(IndexedAttribute attribute) {
+        return clock != null && indexes.containsKey(attribute);
+    }
+    
+    /**
+     * Order IDs whose attribute currently has the given key, as a live read-only view
+     * @param key A status, or a location folded with {@link IndexedAttribute#fold}
+     */
+    public Set<String> lookup(IndexedAttribute attribute, Object key) {
+        PostingSet postings = postingSet(attribute, key);
+        return postings != null ? postings.current : Set.of();
+    }
+    
+    /**
+     * Order IDs whose attribute had the given key as of the snapshot, along with some that only
+     * have it now. Read lazily as the stream is consumed, so the snapshot must stay open until it is.
+     * @param key A status, or a location folded with {@link IndexedAttribute#fold}
+     */
+    public Stream<String> lookup(IndexedAttribute attribute, Object key, ShipmentSnapshot snapshot) {
+        PostingSet postings = postingSet(attribute, key);
+        if (postings == null) {
+            return Stream.empty();
+        }
+        long version = snapshot.getVersion();
+        return postings.entries.entrySet().stream()
+                .filter(entry -> entry.getValue().removedAt > version)
+                .map(Map.Entry::getKey);
+    }
+    
+    private PostingSet postingSet(IndexedAttribute attribute, Object key) {
+        Map<Object, PostingSet> index = indexes.get(attribute);
+        if (index == null) {
+            throw new IllegalStateException("No index on " + attribute);
+        }
+        return key != null ? index.get(key) : null;
+    }
+    
+    @Override
+    public Shipment get(String orderId) {
+        return delegate.get(orderId);
+    }
+    
+    @Override
+    public boolean containsKey(String orderId) {
+        return delegate.containsKey(orderId);
+    }
+    
+    @Override
+    public boolean putIfAbsent(Shipment shipment, Consumer<Shipment> onInserted) {
+        return delegate.putIfAbsent(shipment, stored -> {
+            onInserted.accept(stored);
+            reindex(null, stored, null);
+        });
+    }
+    
+    @Override
+    public List<Shipment> putAllIfAbsent(List<Shipment> shipments, Consumer<Shipment> onInserted) {
+        return delegate.putAllIfAbsent(shipments, stored -> {
+            onInserted.accept(stored);
+            reindex(null, stored, null);
+        });
+    }
+    
+    @Override
+    public void put(Shipment shipment, BiConsumer<Shipment, Shipment> onStored) {
+        List<Posting> removed = new ArrayList<>(0);
+        try {
+            delegate.put(shipment, (previous, stored) -> {
+                onStored.accept(previous, stored);
+                reindex(previous, stored, removed);
+            });
+        } finally {
+            stamp(removed);
+        }
+    }
+    
+    @Override
+    public Shipment update(String orderId, UnaryOperator<Shipment> mutation) {
+        List<Posting> removed = new ArrayList<>(0);
+        try {
+            return delegate.update(orderId, current -> {
+                // The mutation may change the instance in place, so take the old keys first
+                Object[] before = keysOf(current);
+                Shipment updated = mutation.apply(current);
+                reindex(orderId, before, updated, removed);
+                return updated;
+            });
+        } finally {
+            stamp(removed);
+        }
+    }
+    
+    @Override
+    public boolean remove(String orderId, Consumer<Shipment> onRemoved) {
+        List<Posting> removed = new ArrayList<>(0);
+        try {
+            return delegate.remove(orderId, shipment -> {
+                onRemoved.accept(shipment);
+                reindex(shipment, null, removed);
+            });
+        } finally {
+            stamp(removed);
+        }
+    }
+    
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+    
+    /**
+     * Estimated bytes retained by the engine and the indexes together
+     */
+    @Override
+    public long getRetainedBytes() {
+        return delegate.getRetainedBytes() + getIndexRetainedBytes();
+    }
+    
+    /**
+     * Estimated bytes retained by the indexes alone, maintained as postings are added and removed
+     */
+    public long getIndexRetainedBytes() {
+        return indexBytes.sum();
+    }
+    
+    @Override
+    public Stream<Shipment> stream() {
+        return delegate.stream();
+    }
+    
+    /**
+     * Snapshots come from the engine; see the class comment for reading the indexes at one
+     */
+    @Override
+    public ShipmentSnapshot snapshot() {
+        return delegate.snapshot();
+    }
+    
+    @Override
+    public void close() {
+        delegate.close();
+    }
+    
+    private PostingSet newPostingSet(Object key) {
+        indexBytes.add(POSTING_SET_BYTES + (key instanceof String folded ? ObjectSizes.string(folded) : 0));
+        return new PostingSet();
+    }
+    
+    private Object[] keysOf(Shipment shipment) {
+        Object[] keys = new Object[IndexedAttribute.values().length];
+        for (IndexedAttribute attribute : indexes.keySet()) {
+            keys[attribute.ordinal()] = attribute.keyOf(shipment);
+        }
+        return keys;
+    }
+    
+    private void reindex(Shipment previous, Shipment stored, List<Posting> removed) {
+        String orderId = stored != null ? stored.getOrderId() : previous.getOrderId();
+        reindex(orderId, previous != null ? keysOf(previous) : null, stored, removed);
+    }
+    
+    private void reindex(String orderId, Object[] before, Shipment stored, List<Posting> removed) {
+        for (Map.Entry<IndexedAttribute, Map<Object, PostingSet>> entry : indexes.entrySet()) {
+            IndexedAttribute attribute = entry.getKey();
+            Map<Object, PostingSet> index = entry.getValue();
+            Object oldKey = before != null ? before[attribute.ordinal()] : null;
+            Object newKey = stored != null ? attribute.keyOf(stored) : null;
+            if (oldKey != null && oldKey.equals(newKey)) {
+                continue;
+            }
+            // Posting sets are never removed, so an add cannot race with the removal of its set
+            if (oldKey != null) {
+                PostingSet postings = index.get(oldKey);
+                boolean left;
+                if (clock == null) {
+                    left = postings.entries.remove(orderId, Posting.CURRENT);
+                } else {
+                    Posting removal = new Posting(postings, orderId);
+                    left = postings.entries.replace(orderId, Posting.CURRENT, removal);
+                    if (left) {
+                        removed.add(removal);
+                    }
+                }
+                if (left) {
+                    postings.size.decrementAndGet();
+                    indexBytes.add(-POSTING_BYTES);
+                }
+            }
+            if (newKey != null) {
+                PostingSet postings = index.computeIfAbsent(newKey, this::newPostingSet);
+                if (postings.entries.put(orderId, Posting.CURRENT) != Posting.CURRENT) {
+                    postings.size.incrementAndGet();
+                    indexBytes.add(POSTING_BYTES);
+                }
+            }
+        }
+    }
+    
+    // Called once the engine has committed the write, so the clock has passed its version
+    private void stamp(List<Posting> removed) {
+        if (removed.isEmpty()) {
+            return;
+        }
+        long version = clock.current();
+        for (Posting removal : removed) {
+            removal.removedAt = version;
+            removals.add(removal);
+        }
+        purgeRemovals();
+    }
+    
+    private void purgeRemovals() {
+        if (!purging.compareAndSet(false, true)) {
+            return; // Whoever holds it drains; a removal it leaves behind goes with the next write or release
+        }
+        try {
+            long oldest = clock.oldestPinned();
+            for (Posting removal = removals.peek(); removal != null && removal.removedAt <= oldest;
+                 removal = removals.peek()) {
+                removals.poll();
+                removal.postings.entries.remove(removal.orderId, removal);
+            }
+        } finally {
+            purging.set(false);
+        }
+    }
+    
+    /**
+     * Order IDs that have one key, and those that had it while a snapshot may still read them
+     */
+    private static final class PostingSet {
+        final Map<String, Posting> entries = new ConcurrentHashMap<>();
+        // Order IDs that have the key now
+        final AtomicInteger size = new AtomicInteger();
+        // Read-only view of the order IDs that have the key now
+        final Set<String> current = new AbstractSet<>() {
+            @Override
+            public boolean contains(Object orderId) {
+                return entries.get(orderId) == Posting.CURRENT;
+            }
+            
+            @Override
+            public Iterator<String> iterator() {
+                return entries.entrySet().stream()
+                        .filter(entry -> entry.getValue() == Posting.CURRENT)
+                        .map(Map.Entry::getKey)
+                        .iterator();
+            }
+            
+            @Override
+            public int size() {
+                return size.get();
+            }
+        };
+    }
+    
+    private static final class Posting {
+        // Shared by every order ID that currently has its key
+        static final Posting CURRENT = new Posting(null, null);
+        
+        final PostingSet postings;
+        final String orderId;
+        // Version at or after the commit that removed the order ID from the key; MAX_VALUE until
+        // that commit is known, and for CURRENT, so both are visible to every snapshot
+        volatile long removedAt = Long.MAX_VALUE;
+        
+        Posting(PostingSet postings, String orderId) {
+            this.postings = postings;
+            this.orderId = orderId;
+        }
+    }
+}
\ No newline at end of file
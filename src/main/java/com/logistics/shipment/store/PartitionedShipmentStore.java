@@ -0,0 +1,314 @@
+package com.logistics.shipment.store;
+
+import com.logistics.shipment.model.Shipment;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+/**
+ * Store split into N shards by order ID hash. Each shard is written by exactly one thread that
+ * drains a bounded mailbox, so writers never contend with each other on a shard's map. Readers
+ * access each shard's published map without locks; updates replace the stored {@link Shipment}
+ * with a modified copy, so a published instance is never mutated underneath a reader. All shards
+ * share one {@link VersionClock}, so a snapshot is consistent across shards; committing through it
+ * is an atomic increment, so the shard writers still do not wait for each other.
+ */
+public class PartitionedShipmentStore implements ShipmentStore {
+    
+    // Yields before a waiting caller or an idle shard writer parks. On a busy shard the other side
+    // usually finishes within a few, so most writes cost no park/unpark pair at all
+    private static final int YIELDS_BEFORE_PARK = 64;
+    
+    private final Shard[] shards;
+    private final List<VersionedShipmentMap> maps;
+    private final VersionClock clock = new VersionClock();
+    
+    public PartitionedShipmentStore(int partitions, int mailboxCapacity) {
+        if (partitions < 1) {
+            throw new IllegalArgumentException("Partition count must be positive: " + partitions);
+        }
+        this.shards = new Shard[partitions];
+        for (int i = 0; i < partitions; i++) {
+            shards[i] = new Shard(i, mailboxCapacity, clock);
+            shards[i].writer.start();
+        }
+        this.maps = Arrays.stream(shards).map(shard -> shard.data).toList();
+    }
+    
+    @Override
+    public Shipment get(String orderId) {
+        return shardFor(orderId).data.get(orderId);
+    }
+    
+    @Override
+    public boolean containsKey(String orderId) {
+        return shardFor(orderId).data.containsKey(orderId);
+    }
+    
+    @Override
+    public boolean putIfAbsent(Shipment shipment, Consumer<Shipment> onInserted) {
+        Shipment published = shipment.copy();
+        return execute(shardFor(shipment.getOrderId()), data -> {
+            if (data.containsKey(published.getOrderId())) {
+                return false;
+            }
+            onInserted.accept(published);
+            data.compute(published.getOrderId(), absent -> published);
+            return true;
+        });
+    }
+    
+    /**
+     * Sends one task per shard for the whole batch instead of one per shipment
+     */
+    @Override
+    public List<Shipment> putAllIfAbsent(List<Shipment> shipments, Consumer<Shipment> onInserted) {
+        List<List<Shipment>> byShard = new ArrayList<>(shards.length);
+        for (int i = 0; i < shards.length; i++) {
+            byShard.add(new ArrayList<>());
+        }
+        for (Shipment shipment : shipments) {
+            byShard.get(shardFor(shipment.getOrderId()).index).add(shipment);
+        }
+        
+        List<CompletableFuture<List<Shipment>>> pending = new ArrayList<>(shards.length);
+        for (int i = 0; i < shards.length; i++) {
+            List<Shipment> batch = byShard.get(i);
+            if (!batch.isEmpty()) {
+                List<Shipment> copies = batch.stream().map(Shipment::copy).toList();
+                pending.add(submit(shards[i], data -> {
+                    // Duplicates are reported as the caller's instances, not the copies
+                    List<Shipment> duplicates = new ArrayList<>();
+                    for (int j = 0; j < copies.size(); j++) {
+                        Shipment published = copies.get(j);
+                        if (data.containsKey(published.getOrderId())) {
+                            duplicates.add(batch.get(j));
+                        } else {
+                            onInserted.accept(published);
+                            data.compute(published.getOrderId(), absent -> published);
+                        }
+                    }
+                    return duplicates;
+                }));
+            }
+        }
+        
+        List<Shipment> duplicates = new ArrayList<>();
+        for (CompletableFuture<List<Shipment>> task : pending) {
+            duplicates.addAll(join(task));
+        }
+        return duplicates;
+    }
+    
+    @Override
+    public void put(Shipment shipment, BiConsumer<Shipment, Shipment> onStored) {
+        Shipment published = shipment.copy();
+        execute(shardFor(shipment.getOrderId()), data -> data.compute(published.getOrderId(), previous -> {
+            onStored.accept(previous, published);
+            return published;
+        }));
+    }
+    
+    @Override
+    public Shipment update(String orderId, UnaryOperator<Shipment> mutation) {
+        return execute(shardFor(orderId),
+                data -> data.compute(orderId, current -> current != null ? mutation.apply(current.copy()) : null));
+    }
+    
+    @Override
+    public boolean remove(String orderId, Consumer<Shipment> onRemoved) {
+        return execute(shardFor(orderId), data -> {
+            Shipment removed = data.get(orderId);
+            if (removed == null) {
+                return false;
+            }
+            onRemoved.accept(removed);
+            data.compute(orderId, current -> null);
+            return true;
+        });
+    }
+    
+    @Override
+    public int size() {
+        int size = 0;
+        for (Shard shard : shards) {
+            size += shard.data.size();
+        }
+        return size;
+    }
+    
+    @Override
+    public long getRetainedBytes() {
+        long bytes = 0;
+        for (Shard shard : shards) {
+            bytes += shard.data.retainedBytes();
+        }
+        return bytes;
+    }
+    
+    /**
+     * Fans out over every shard's published state
+     */
+    @Override
+    public Stream<Shipment> stream() {
+        return maps.stream().flatMap(VersionedShipmentMap::stream);
+    }
+    
+    @Override
+    public ShipmentSnapshot snapshot() {
+        return clock.snapshot(maps, orderId -> shardFor(orderId).data);
+    }
+    
+    /**
+     * The clock this engine's versions are stamped by, so indexes can be versioned alongside
+     */
+    VersionClock clock() {
+        return clock;
+    }
+    
+    public int getPartitionCount() {
+        return shards.length;
+    }
+    
+    @Override
+    public void close() {
+        for (Shard shard : shards) {
+            shard.writer.interrupt();
+        }
+    }
+    
+    private Shard shardFor(String orderId) {
+        int h = orderId.hashCode();
+        h ^= (h >>> 16);
+        return shards[Math.floorMod(h, shards.length)];
+    }
+    
+    private static <T> T execute(Shard shard, Function<VersionedShipmentMap, T> operation) {
+        return join(submit(shard, operation));
+    }
+    
+    private static <T> CompletableFuture<T> submit(Shard shard, Function<VersionedShipmentMap, T> operation) {
+        // Re-entrant calls from the shard's own writer must not wait on its mailbox
+        if (Thread.currentThread() == shard.writer) {
+            try {
+                return CompletableFuture.completedFuture(operation.apply(shard.data));
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        WriteTask<T> task = new WriteTask<>(shard.data, operation);
+        shard.send(task);
+        return task;
+    }
+    
+    private static <T> T join(CompletableFuture<T> task) {
+        for (int i = 0; i < YIELDS_BEFORE_PARK && !task.isDone(); i++) {
+            Thread.yield();
+        }
+        try {
+            return task.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw e;
+        }
+    }
+    
+    private static final class Shard {
+        private final int index;
+        private final VersionedShipmentMap data;
+        // Lock-free, so senders do not contend with the writer or each other; bounded by slots
+        private final Queue<WriteTask<?>> mailbox = new ConcurrentLinkedQueue<>();
+        private final Semaphore slots;
+        private final Thread writer;
+        // Set by the writer just before it parks, so senders only unpark it when needed
+        private volatile boolean parked;
+        private volatile boolean closed;
+        
+        Shard(int index, int mailboxCapacity, VersionClock clock) {
+            this.index = index;
+            this.data = new VersionedShipmentMap(clock);
+            this.slots = new Semaphore(mailboxCapacity);
+            this.writer = new Thread(this::runWriter, "shipment-shard-" + index);
+            this.writer.setDaemon(true);
+        }
+        
+        void send(WriteTask<?> task) {
+            try {
+                slots.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for shard " + index, e);
+            }
+            mailbox.add(task);
+            if (closed) {
+                task.completeExceptionally(new IllegalStateException("Shard " + index + " is closed"));
+            } else if (parked) {
+                LockSupport.unpark(writer);
+            }
+        }
+        
+        private void runWriter() {
+            try {
+                int idle = 0;
+                while (!Thread.currentThread().isInterrupted()) {
+                    WriteTask<?> task = mailbox.poll();
+                    if (task != null) {
+                        slots.release();
+                        task.run();
+                        idle = 0;
+                    } else if (idle++ < YIELDS_BEFORE_PARK) {
+                        Thread.yield();
+                    } else {
+                        // A sender either sees parked or its task is seen here before parking
+                        parked = true;
+                        if (mailbox.isEmpty()) {
+                            LockSupport.park(this);
+                        }
+                        parked = false;
+                        idle = 0;
+                    }
+                }
+            } finally {
+                closed = true;
+                IllegalStateException closedError = new IllegalStateException("Shard " + index + " is closed");
+                mailbox.forEach(task -> task.completeExceptionally(closedError));
+            }
+        }
+    }
+    
+    private static final class WriteTask<T> extends CompletableFuture<T> implements Runnable {
+        private final VersionedShipmentMap data;
+        private final Function<VersionedShipmentMap, T> operation;
+        
+        WriteTask(VersionedShipmentMap data, Function<VersionedShipmentMap, T> operation) {
+            this.data = data;
+            this.operation = operation;
+        }
+        
+        @Override
+        public void run() {
+            if (isDone()) {
+                return;
+            }
+            try {
+                complete(operation.apply(data));
+            } catch (RuntimeException e) {
+                completeExceptionally(e);
+            }
+        }
+    }
+}
\ No newline at end of file
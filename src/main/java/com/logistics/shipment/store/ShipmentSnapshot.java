@@ -0,0 +1,40 @@
+package com.logistics.shipment.store;
+
+import com.logistics.shipment.model.Shipment;
+
+import java.util.stream.Stream;
+
+/**
+ * Read-only view of a store as of one committed version. Writes made after the snapshot was taken
+ * are invisible to it, and taking or holding a snapshot never blocks writers. Old versions are
+ * kept only while a snapshot that can see them is open, so snapshots must be closed, and must not
+ * be used after closing.
+ */
+public interface ShipmentSnapshot extends AutoCloseable {
+    
+    /**
+     * @return the commit version the snapshot reads at
+     */
+    long getVersion();
+    
+    /**
+     * @return the shipment as of the snapshot, or null if it did not exist then
+     */
+    Shipment get(String orderId);
+    
+    /**
+     * Every shipment as of the snapshot. Unlike {@link ShipmentStore#stream()}, repeated or
+     * concurrent traversals see exactly the same shipments.
+     */
+    Stream<Shipment> stream();
+    
+    /**
+     * Counts the shipments in the snapshot; this is a traversal, not a lookup
+     */
+    default long count() {
+        return stream().count();
+    }
+    
+    @Override
+    void close();
+}
\ No newline at end of file
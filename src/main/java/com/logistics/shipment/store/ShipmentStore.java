@@ -0,0 +1,94 @@
+package com.logistics.shipment.store;
+
+import com.logistics.shipment.model.Shipment;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+/**
+ * Storage engine behind {@link com.logistics.shipment.service.ShipmentService}.
+ * Implementations must apply {@link #update} atomically per order ID.
+ */
+public interface ShipmentStore extends AutoCloseable {
+    
+    /**
+     * @return the shipment with the given order ID, or null if absent
+     */
+    Shipment get(String orderId);
+    
+    boolean containsKey(String orderId);
+    
+    /**
+     * Inserts the shipment unless one with the same order ID exists
+     * @param onInserted called with the stored shipment while the insert is still atomic
+     * @return true if inserted, false if the order ID is already taken
+     */
+    boolean putIfAbsent(Shipment shipment, Consumer<Shipment> onInserted);
+    
+    /**
+     * Bulk variant of {@link #putIfAbsent} for imports; engines may insert the batch in fewer steps
+     * @param onInserted called with each stored shipment while its insert is still atomic
+     * @return the shipments that were not inserted because their order ID is already taken
+     */
+    default List<Shipment> putAllIfAbsent(List<Shipment> shipments, Consumer<Shipment> onInserted) {
+        List<Shipment> duplicates = new ArrayList<>();
+        for (Shipment shipment : shipments) {
+            if (!putIfAbsent(shipment, onInserted)) {
+                duplicates.add(shipment);
+            }
+        }
+        return duplicates;
+    }
+    
+    /**
+     * Inserts or replaces the shipment without any validation (replication and restore)
+     */
+    default void put(Shipment shipment) {
+        put(shipment, (previous, stored) -> { });
+    }
+    
+    /**
+     * Variant of {@link #put(Shipment)} that reports the shipment it replaced
+     * @param onStored called with the previous shipment (null if none) and the stored one while the write is still atomic
+     */
+    void put(Shipment shipment, BiConsumer<Shipment, Shipment> onStored);
+    
+    /**
+     * Atomically applies a mutation to the shipment with the given order ID.
+     * Exceptions thrown by the mutation propagate to the caller and leave the shipment unchanged.
+     * @return the shipment after the mutation, or null if absent
+     */
+    Shipment update(String orderId, UnaryOperator<Shipment> mutation);
+    
+    /**
+     * @param onRemoved called with the removed shipment while the removal is still atomic
+     * @return true if a shipment was removed
+     */
+    boolean remove(String orderId, Consumer<Shipment> onRemoved);
+    
+    int size();
+    
+    /**
+     * Estimated heap bytes retained by the stored shipments, maintained as they are written
+     */
+    long getRetainedBytes();
+    
+    /**
+     * Weakly consistent stream over all stored shipments
+     */
+    Stream<Shipment> stream();
+    
+    /**
+     * Opens a consistent point-in-time view of the whole store without copying it.
+     * The caller must close the snapshot.
+     */
+    ShipmentSnapshot snapshot();
+    
+    @Override
+    default void close() {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,48 @@
+package com.logistics.shipment.store;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Configuration for the shipment storage engine (prefix: shipment.store)
+ */
+@ConfigurationProperties(prefix = "shipment.store")
+public class StoreProperties {
+    
+    /**
+     * Available storage engines
+     */
+    public enum Engine {
+        CONCURRENT_MAP,
+        PARTITIONED
+    }
+    
+    private Engine engine = Engine.CONCURRENT_MAP;
+    
+    // Number of shards for the partitioned engine; 0 means one per available core
+    private int partitions = 0;
+    
+    // Pending writes per shard before writers block
+    private int mailboxCapacity = 1024;
+    
+    // Secondary indexes used by the search planner; empty disables indexing
+    private Set<IndexedAttribute> indexes = EnumSet.allOf(IndexedAttribute.class);
+    
+    public int resolvePartitions() {
+        return partitions > 0 ? partitions : Runtime.getRuntime().availableProcessors();
+    }
+    
+    public Engine getEngine() { return engine; }
+    public void setEngine(Engine engine) { this.engine = engine; }
+    
+    public int getPartitions() { return partitions; }
+    public void setPartitions(int partitions) { this.partitions = partitions; }
+    
+    public int getMailboxCapacity() { return mailboxCapacity; }
+    public void setMailboxCapacity(int mailboxCapacity) { this.mailboxCapacity = mailboxCapacity; }
+    
+    public Set<IndexedAttribute> getIndexes() { return indexes; }
+    public void setIndexes(Set<IndexedAttribute> indexes) { this.indexes = indexes; }
+}
\ No newline at end of file
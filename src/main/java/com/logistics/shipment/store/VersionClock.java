@@ -0,0 +1,117 @@
+package com.logistics.shipment.store;
+
+import com.logistics.shipment.model.Shipment;
+
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Commit order for the multi-version maps of one store. Writes take no shared lock: a write
+ * publishes its version as the head of the order ID's chain still unstamped, then takes the next
+ * number from an atomic counter and stamps it. A snapshot reads at the counter's value and waits
+ * on an unstamped head it meets, which only exists while its writer is between those two steps,
+ * so a snapshot at version V sees exactly the writes stamped V or lower.
+ *
+ * <p>Opening and closing snapshots share a lock with each other only. A snapshot first registers
+ * a floor, the counter's value before it reads its own version, and a writer reads the oldest
+ * floor after stamping to decide which older versions it may unlink. A writer that stamped after
+ * the snapshot read its version therefore sees the floor, and one that stamped before is visible
+ * to the snapshot anyway.
+ */
+final class VersionClock {
+    
+    // Stamp of a version whose writer has not taken its number yet
+    static final long UNSTAMPED = Long.MAX_VALUE;
+    
+    private final AtomicLong version = new AtomicLong();
+    private final List<Runnable> releaseListeners = new CopyOnWriteArrayList<>();
+    
+    private final Object pinLock = new Object();
+    // Floors of open snapshots with their open counts, guarded by pinLock
+    private final TreeMap<Long, Integer> pinned = new TreeMap<>();
+    // Oldest floor, or MAX_VALUE without open snapshots; written under pinLock
+    private volatile long oldestPinned = Long.MAX_VALUE;
+    
+    /**
+     * Makes the value the newest version of the entry. Must be called under the entry's own write
+     * lock. Versions no open snapshot can reach are unlinked from the chain on the way.
+     * @param value the new value, or null to record a deletion
+     * @return true if no open snapshot can see an older version of the entry
+     */
+    boolean commit(VersionedShipmentMap.Entry entry, Shipment value) {
+        VersionedShipmentMap.Version created = new VersionedShipmentMap.Version(value, entry.head);
+        entry.head = created;
+        created.stamp(version.incrementAndGet());
+        
+        long oldest = oldestPinned;
+        if (oldest == Long.MAX_VALUE) {
+            created.previous = null;
+            return true;
+        }
+        // The oldest snapshot reads the newest version at or below its floor; nothing older is needed
+        for (VersionedShipmentMap.Version older = created; older != null; older = older.previous) {
+            if (older.version <= oldest) {
+                older.previous = null;
+                break;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * @return the newest version a write has taken, whether or not it is stamped yet
+     */
+    long current() {
+        return version.get();
+    }
+    
+    /**
+     * Registers a snapshot floor at the current version
+     */
+    long pin() {
+        synchronized (pinLock) {
+            long floor = version.get();
+            pinned.merge(floor, 1, Integer::sum);
+            oldestPinned = pinned.firstKey();
+            return floor;
+        }
+    }
+    
+    void release(long floor) {
+        synchronized (pinLock) {
+            pinned.computeIfPresent(floor, (v, count) -> count > 1 ? count - 1 : null);
+            oldestPinned = pinned.isEmpty() ? Long.MAX_VALUE : pinned.firstKey();
+        }
+        for (Runnable listener : releaseListeners) {
+            listener.run();
+        }
+    }
+    
+    /**
+     * @return the oldest floor of an open snapshot, at or below the version it reads at, or
+     *         Long.MAX_VALUE if none is open
+     */
+    long oldestPinned() {
+        return oldestPinned;
+    }
+    
+    /**
+     * Runs the listener after each snapshot is released, e.g. to drop deletions no snapshot can see anymore
+     */
+    void onRelease(Runnable listener) {
+        releaseListeners.add(listener);
+    }
+    
+    /**
+     * Opens a snapshot over the maps stamped by this clock
+     * @param mapFor the map that holds a given order ID
+     */
+    ShipmentSnapshot snapshot(List<VersionedShipmentMap> maps, Function<String, VersionedShipmentMap> mapFor) {
+        long floor = pin();
+        // Read after the floor is visible to writers; see the class comment
+        return new VersionedSnapshot(this, floor, version.get(), maps, mapFor);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,197 @@
+package com.logistics.shipment.store;
+
+import com.logistics.shipment.memory.ObjectSizes;
+import com.logistics.shipment.model.Shipment;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+/**
+ * Order ID to shipment map that keeps, per order ID, a newest-first chain of committed versions.
+ * Stored shipments are never modified, so a version is an immutable value; readers without a
+ * snapshot read the chain head, snapshot readers walk back to the newest version they can see.
+ * A deletion is recorded as a version without a value and the order ID is dropped from the map
+ * once no open snapshot can see what it deleted.
+ */
+final class VersionedShipmentMap {
+    
+    // Map entry, version chain holder and one version per stored order ID
+    static final long ENTRY_BYTES = ObjectSizes.HASH_ENTRY + ObjectSizes.object(1, 0) + ObjectSizes.object(2, 8);
+    
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final VersionClock clock;
+    // Present shipments, changed in the per-order-ID critical section
+    private final AtomicInteger size = new AtomicInteger();
+    // Estimated bytes retained by the newest versions, adjusted on every write
+    private final LongAdder retainedBytes = new LongAdder();
+    // Order IDs whose deletion is still visible to an open snapshot
+    private final Queue<String> tombstones = new ConcurrentLinkedQueue<>();
+    
+    VersionedShipmentMap(VersionClock clock) {
+        this.clock = clock;
+        clock.onRelease(this::purgeTombstones);
+    }
+    
+    Shipment get(String orderId) {
+        Entry entry = entries.get(orderId);
+        return entry != null ? entry.latest() : null;
+    }
+    
+    Shipment get(String orderId, long version) {
+        Entry entry = entries.get(orderId);
+        return entry != null ? entry.at(version) : null;
+    }
+    
+    boolean containsKey(String orderId) {
+        return get(orderId) != null;
+    }
+    
+    /**
+     * Atomically replaces the newest version of the order ID. The function gets the current
+     * shipment (null if absent) and returns the new one, null to delete, or the current instance
+     * to leave it unchanged; it must not modify the current instance.
+     * Exceptions from the function propagate and leave the map unchanged.
+     * @return the shipment after the call, or null if absent
+     */
+    Shipment compute(String orderId, UnaryOperator<Shipment> function) {
+        Shipment[] result = new Shipment[1];
+        entries.compute(orderId, (id, entry) -> {
+            Shipment current = entry != null ? entry.latest() : null;
+            Shipment updated = function.apply(current);
+            result[0] = updated;
+            if (updated == current) {
+                return entry;
+            }
+            if (entry == null) {
+                entry = new Entry();
+            }
+            boolean unseen = clock.commit(entry, updated);
+            retainedBytes.add(retainedSize(updated) - retainedSize(current));
+            if (current == null) {
+                size.incrementAndGet();
+            } else if (updated == null) {
+                size.decrementAndGet();
+                if (unseen) {
+                    return null;
+                }
+                tombstones.add(id);
+            }
+            return entry;
+        });
+        return result[0];
+    }
+    
+    int size() {
+        return size.get();
+    }
+    
+    /**
+     * Estimated bytes retained by the present shipments and their map entries.
+     * Older versions kept for open snapshots are short-lived and not counted.
+     */
+    long retainedBytes() {
+        return retainedBytes.sum();
+    }
+    
+    private static long retainedSize(Shipment shipment) {
+        return shipment != null ? ENTRY_BYTES + ObjectSizes.shipment(shipment) : 0;
+    }
+    
+    /**
+     * Newest version of every shipment, weakly consistent like the underlying map
+     */
+    Stream<Shipment> stream() {
+        return entries.values().stream().map(Entry::latest).filter(Objects::nonNull);
+    }
+    
+    /**
+     * Every shipment as of the given version
+     */
+    Stream<Shipment> stream(long version) {
+        return entries.values().stream().map(entry -> entry.at(version)).filter(Objects::nonNull);
+    }
+    
+    private void purgeTombstones() {
+        for (int pending = tombstones.size(); pending > 0; pending--) {
+            String orderId = tombstones.poll();
+            if (orderId == null) {
+                return;
+            }
+            boolean[] kept = new boolean[1];
+            entries.computeIfPresent(orderId, (id, entry) -> {
+                Version head = entry.head;
+                if (head.value != null) {
+                    return entry; // Re-created since; the chain is trimmed by its next write
+                }
+                if (head.version > clock.oldestPinned()) {
+                    kept[0] = true;
+                    return entry;
+                }
+                return null;
+            });
+            if (kept[0]) {
+                tombstones.add(orderId);
+            }
+        }
+    }
+    
+    static final class Entry {
+        // Set by VersionClock#commit; never null once the entry is in the map
+        volatile Version head;
+        
+        Shipment latest() {
+            Version version = head;
+            return version != null ? version.value : null;
+        }
+        
+        Shipment at(long snapshotVersion) {
+            for (Version version = head; version != null; version = version.previous) {
+                if (version.awaitStamp() <= snapshotVersion) {
+                    return version.value;
+                }
+            }
+            return null;
+        }
+    }
+    
+    static final class Version {
+        // VersionClock.UNSTAMPED until the writer has taken its number; only ever so for a head
+        volatile long version = VersionClock.UNSTAMPED;
+        // Null for a deletion
+        final Shipment value;
+        // Unlinked by VersionClock#commit once no open snapshot can reach it
+        Version previous;
+        
+        Version(Shipment value, Version previous) {
+            this.value = value;
+            this.previous = previous;
+        }
+        
+        void stamp(long version) {
+            this.version = version;
+        }
+        
+        /**
+         * The stamp, waiting for it if the writer is between publishing and stamping this version.
+         * That is a few instructions, so the wait only lasts long if the writer is descheduled.
+         */
+        long awaitStamp() {
+            long stamp = version;
+            for (int spins = 0; stamp == VersionClock.UNSTAMPED; spins++) {
+                if (spins < 100) {
+                    Thread.onSpinWait();
+                } else {
+                    Thread.yield();
+                }
+                stamp = version;
+            }
+            return stamp;
+        }
+    }
+}
\ No newline at end of file
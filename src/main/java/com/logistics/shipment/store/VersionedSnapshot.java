@@ -0,0 +1,55 @@
+package com.logistics.shipment.store;
+
+import com.logistics.shipment.model.Shipment;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Snapshot over one or more multi-version maps that share a {@link VersionClock}
+ */
+final class VersionedSnapshot implements ShipmentSnapshot {
+    
+    private final VersionClock clock;
+    // Registered with the clock; versions above it may be needed by this snapshot
+    private final long floor;
+    private final long version;
+    private final List<VersionedShipmentMap> maps;
+    private final Function<String, VersionedShipmentMap> mapFor;
+    private final AtomicBoolean closed = new AtomicBoolean();
+    
+    VersionedSnapshot(VersionClock clock, long floor, long version, List<VersionedShipmentMap> maps,
+                      Function<String, VersionedShipmentMap> mapFor) {
+        this.clock = clock;
+        this.floor = floor;
+        this.version = version;
+        this.maps = maps;
+        this.mapFor = mapFor;
+    }
+    
+    @Override
+    public long getVersion() {
+        return version;
+    }
+    
+    @Override
+    public Shipment get(String orderId) {
+        return mapFor.apply(orderId).get(orderId, version);
+    }
+    
+    @Override
+    public Stream<Shipment> stream() {
+        return maps.size() == 1
+                ? maps.get(0).stream(version)
+                : maps.stream().flatMap(map -> map.stream(version));
+    }
+    
+    @Override
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            clock.release(floor);
+        }
+    }
+}
\ No newline at end of file
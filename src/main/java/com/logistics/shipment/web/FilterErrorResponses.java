@@ -0,0 +1,33 @@
+package com.logistics.shipment.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logistics.shipment.exception.GlobalExceptionHandler.ErrorResponse;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Writes the standard error body from servlet filters, which run outside {@link
+ * com.logistics.shipment.exception.GlobalExceptionHandler}
+ */
+public final class FilterErrorResponses {
+    
+    private FilterErrorResponses() {
+    }
+    
+    public static void write(HttpServletResponse response, ObjectMapper objectMapper,
+                             HttpStatus status, String message) throws IOException {
+        ErrorResponse error = new ErrorResponse(
+            status.value(),
+            status.getReasonPhrase(),
+            message,
+            LocalDateTime.now()
+        );
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+}
\ No newline at end of file
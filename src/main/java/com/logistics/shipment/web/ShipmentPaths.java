@@ -0,0 +1,73 @@
+package com.logistics.shipment.web;
+
+import org.springframework.web.util.UriUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+/**
+ * Path helpers shared by the servlet filters that sit in front of the shipment API
+ */
+public final class ShipmentPaths {
+    
+    public static final String BASE = "/api/v1/shipments";
+    
+    // Sub-resources of /shipments that address the whole collection rather than one order ID
+    private static final Set<String> COLLECTION_RESOURCES = Set.of("stats", "export", "import", "aggregate");
+    
+    private ShipmentPaths() {
+    }
+    
+    /**
+     * @return the part of the path after {@link #BASE} ("" for the collection itself),
+     *         or null if the path is outside the shipment API
+     */
+    public static String subPath(String path) {
+        if (path == null || !path.startsWith(BASE)) {
+            return null;
+        }
+        String rest = path.substring(BASE.length());
+        if (rest.isEmpty() || rest.equals("/")) {
+            return "";
+        }
+        return rest.charAt(0) == '/' ? rest : null;
+    }
+    
+    /**
+     * @return the first path segment below {@link #BASE}, or null for the collection itself
+     */
+    public static String firstSegment(String subPath) {
+        if (subPath == null || subPath.isEmpty()) {
+            return null;
+        }
+        int end = subPath.indexOf('/', 1);
+        return end < 0 ? subPath.substring(1) : subPath.substring(1, end);
+    }
+    
+    /**
+     * @return true if the sub path addresses a collection-wide resource such as stats
+     */
+    public static boolean isCollectionResource(String subPath) {
+        String segment = firstSegment(subPath);
+        return segment != null && COLLECTION_RESOURCES.contains(segment);
+    }
+    
+    /**
+     * @param path the raw request URI, as returned by getRequestURI()
+     * @return the decoded order ID addressed by the path, the same value the controller binds, or null
+     *         if the path does not address a single shipment
+     */
+    public static String orderIdOf(String path) {
+        String subPath = subPath(path);
+        String segment = firstSegment(subPath);
+        if (segment == null || COLLECTION_RESOURCES.contains(segment)) {
+            return null;
+        }
+        try {
+            return UriUtils.decode(segment, StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            // Malformed escape; the request is rejected further down the chain anyway
+            return segment;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,60 @@
+package com.logistics.shipment.webhook;
+
+/**
+ * Per-endpoint circuit breaker. After a run of failures the circuit opens and deliveries wait
+ * until it is due for a single trial request, whose outcome closes or reopens it.
+ */
+public class CircuitBreaker {
+    
+    /**
+     * Breaker states
+     */
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+    
+    private final int failureThreshold;
+    private final long openMillis;
+    
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openUntil;
+    
+    public CircuitBreaker(int failureThreshold, long openMillis) {
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+    }
+    
+    /**
+     * Asks to send a request
+     * @return 0 if the request may be sent now, otherwise milliseconds until the circuit allows a trial
+     */
+    public synchronized long acquire(long now) {
+        if (state == State.OPEN) {
+            if (now < openUntil) {
+                return openUntil - now;
+            }
+            state = State.HALF_OPEN;
+        }
+        return 0;
+    }
+    
+    public synchronized void onSuccess() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+    }
+    
+    public synchronized void onFailure(long now) {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openUntil = now + openMillis;
+        }
+    }
+    
+    public synchronized State getState() {
+        return state;
+    }
+}
\ No newline at end of file
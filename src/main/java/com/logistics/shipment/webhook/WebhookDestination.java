@@ -0,0 +1,203 @@
+package com.logistics.shipment.webhook;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logistics.shipment.model.ShipmentStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * One registered receiver with its own bounded queue, retry state and circuit breaker, so a slow
+ * or failing receiver only ever delays and drops its own events. At most one batch per receiver
+ * is in flight, which keeps events for a shipment in order; the HTTP call is asynchronous, so
+ * waiting on a receiver does not hold a delivery thread.
+ */
+class WebhookDestination {
+    
+    private static final Logger log = LoggerFactory.getLogger(WebhookDestination.class);
+    
+    private final String id;
+    private final String url;
+    private final Set<ShipmentStatus> statuses;
+    private final WebhookProperties properties;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final ScheduledExecutorService scheduler;
+    private final LongSupplier clock;
+    
+    private final BlockingQueue<WebhookEvent> queue;
+    private final CircuitBreaker circuitBreaker;
+    // Set while a delivery is scheduled or in flight
+    private final AtomicBoolean active = new AtomicBoolean();
+    private volatile boolean closed;
+    
+    // Only touched by the delivery chain, which runs one step at a time
+    private List<WebhookEvent> batch;
+    private int attempt;
+    
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+    
+    WebhookDestination(String id, String url, Set<ShipmentStatus> statuses, WebhookProperties properties,
+                       HttpClient httpClient, ObjectMapper objectMapper, ScheduledExecutorService scheduler,
+                       LongSupplier clock) {
+        this.id = id;
+        this.url = url;
+        this.statuses = statuses;
+        this.properties = properties;
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.scheduler = scheduler;
+        this.clock = clock;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.circuitBreaker = new CircuitBreaker(properties.getFailureThreshold(),
+                properties.getOpenDuration().toMillis());
+    }
+    
+    boolean accepts(ShipmentStatus status) {
+        return statuses.isEmpty() || statuses.contains(status);
+    }
+    
+    /**
+     * Queues an event without blocking; the event is dropped if the queue is full
+     */
+    void offer(WebhookEvent event) {
+        if (closed) {
+            return;
+        }
+        if (!queue.offer(event)) {
+            dropped.incrementAndGet();
+            return;
+        }
+        if (active.compareAndSet(false, true)) {
+            schedule(properties.getLinger().toMillis());
+        }
+    }
+    
+    void close() {
+        closed = true;
+    }
+    
+    WebhookEndpointStatus getStatus() {
+        return new WebhookEndpointStatus(id, url, statuses, queue.size(), delivered.get(), dropped.get(),
+                failed.get(), retried.get(), circuitBreaker.getState());
+    }
+    
+    String getId() {
+        return id;
+    }
+    
+    private void deliver() {
+        if (closed) {
+            return;
+        }
+        if (batch == null) {
+            List<WebhookEvent> next = new ArrayList<>(Math.min(queue.size(), properties.getMaxBatchSize()));
+            queue.drainTo(next, properties.getMaxBatchSize());
+            if (next.isEmpty()) {
+                active.set(false);
+                // An event offered after the drain but before the flag was cleared would be stranded
+                if (!queue.isEmpty() && active.compareAndSet(false, true)) {
+                    schedule(0);
+                }
+                return;
+            }
+            batch = next;
+            attempt = 0;
+        }
+        
+        long wait = circuitBreaker.acquire(clock.getAsLong());
+        if (wait > 0) {
+            schedule(wait);
+            return;
+        }
+        
+        HttpRequest request;
+        try {
+            request = HttpRequest.newBuilder(URI.create(url))
+                    .timeout(properties.getRequestTimeout())
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(Map.of("events", batch))))
+                    .build();
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            log.error("Cannot build webhook request for {}, dropping {} events", url, batch.size(), e);
+            failed.addAndGet(batch.size());
+            batch = null;
+            schedule(0);
+            return;
+        }
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> onResponse(response != null ? response.statusCode() : -1, error));
+    }
+    
+    private void onResponse(int statusCode, Throwable error) {
+        if (statusCode >= 200 && statusCode < 300) {
+            circuitBreaker.onSuccess();
+            delivered.addAndGet(batch.size());
+            batch = null;
+            schedule(0);
+            return;
+        }
+        if (statusCode >= 400 && statusCode < 500 && statusCode != 408 && statusCode != 429) {
+            // The receiver is up but rejects the payload; resending it will not help
+            circuitBreaker.onSuccess();
+            log.warn("Webhook {} rejected {} events with status {}", url, batch.size(), statusCode);
+            failed.addAndGet(batch.size());
+            batch = null;
+            schedule(0);
+            return;
+        }
+        
+        circuitBreaker.onFailure(clock.getAsLong());
+        if (++attempt >= properties.getMaxAttempts()) {
+            log.warn("Giving up on {} events for webhook {} after {} attempts (last status {})",
+                    batch.size(), url, attempt, statusCode, error);
+            failed.addAndGet(batch.size());
+            batch = null;
+            schedule(0);
+            return;
+        }
+        retried.incrementAndGet();
+        schedule(backoffMillis(attempt, properties.getInitialBackoff().toMillis(), properties.getMaxBackoff().toMillis()));
+    }
+    
+    /**
+     * Exponential backoff with full jitter: a random delay up to initial * 2^(attempt - 1), capped at max
+     */
+    static long backoffMillis(int attempt, long initialMillis, long maxMillis) {
+        long ceiling = initialMillis << Math.min(attempt - 1, 30);
+        if (ceiling <= 0 || ceiling > maxMillis) {
+            ceiling = maxMillis;
+        }
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+    
+    private void schedule(long delayMillis) {
+        try {
+            scheduler.schedule(this::deliver, delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+            active.set(false);
+        }
+    }
+}
\ No newline at end of file
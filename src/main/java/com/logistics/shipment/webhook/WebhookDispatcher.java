@@ -0,0 +1,197 @@
+package com.logistics.shipment.webhook;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logistics.shipment.model.Shipment;
+import com.logistics.shipment.model.ShipmentStatus;
+import com.logistics.shipment.service.ShipmentMutationListener;
+
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.net.http.HttpClient;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Pushes successful status changes to registered webhook endpoints. The listener only copies the
+ * event into each interested endpoint's bounded queue; batching, HTTP delivery and retries happen
+ * off the request path, so a PATCH never waits for a receiver.
+ */
+public class WebhookDispatcher implements ShipmentMutationListener, AutoCloseable {
+    
+    private final WebhookProperties properties;
+    private final ObjectMapper objectMapper;
+    private final LongSupplier clock;
+    private final HttpClient httpClient;
+    private final ScheduledExecutorService scheduler;
+    private final AtomicInteger nextId = new AtomicInteger();
+    
+    // Copy-on-write so the listener iterates without locking
+    private volatile List<WebhookDestination> destinations = List.of();
+    
+    public WebhookDispatcher(WebhookProperties properties, ObjectMapper objectMapper) {
+        this(properties, objectMapper, System::currentTimeMillis);
+    }
+    
+    WebhookDispatcher(WebhookProperties properties, ObjectMapper objectMapper, LongSupplier clock) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(properties.getRequestTimeout())
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.scheduler = Executors.newScheduledThreadPool(properties.getDeliveryThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "webhook-delivery-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Configured by the operator, so not subject to the address checks of API registrations
+        for (WebhookProperties.Endpoint endpoint : properties.getEndpoints()) {
+            add(parse(endpoint.getUrl()), endpoint.getStatuses());
+        }
+    }
+    
+    @Override
+    public void onStatusChanged(Shipment shipment, ShipmentStatus previousStatus) {
+        List<WebhookDestination> current = destinations;
+        if (current.isEmpty()) {
+            return;
+        }
+        WebhookEvent event = null;
+        for (WebhookDestination destination : current) {
+            if (destination.accepts(shipment.getStatus())) {
+                if (event == null) {
+                    event = new WebhookEvent(randomEventId(), shipment.getOrderId(), shipment.getOrigin(),
+                            shipment.getDestination(), previousStatus, shipment.getStatus(), shipment.getUpdatedAt());
+                }
+                destination.offer(event);
+            }
+        }
+    }
+    
+    /**
+     * Registers a receiver on behalf of an API caller. Unless the host is in allowed-hosts or
+     * allow-private-addresses is set, every address the host resolves to must be public, so
+     * callers cannot make the server send requests to itself or to internal hosts.
+     * @param statuses Statuses to notify about; null or empty for all
+     * @throws IllegalArgumentException if the URL is not an absolute http or https URL, or its host
+     *         does not resolve to public addresses only
+     */
+    public WebhookEndpointStatus register(String url, Set<ShipmentStatus> statuses) {
+        URI uri = parse(url);
+        checkAddress(uri);
+        return add(uri, statuses);
+    }
+    
+    private static URI parse(String url) {
+        URI uri;
+        try {
+            uri = url != null ? URI.create(url) : null;
+        } catch (IllegalArgumentException e) {
+            uri = null;
+        }
+        if (uri == null || uri.getHost() == null
+                || !("http".equalsIgnoreCase(uri.getScheme()) || "https".equalsIgnoreCase(uri.getScheme()))) {
+            throw new IllegalArgumentException("Webhook URL must be an absolute http or https URL: " + url);
+        }
+        return uri;
+    }
+    
+    private void checkAddress(URI uri) {
+        String host = uri.getHost();
+        if (properties.isAllowPrivateAddresses()
+                || properties.getAllowedHosts().stream().anyMatch(host::equalsIgnoreCase)) {
+            return;
+        }
+        InetAddress[] addresses;
+        try {
+            addresses = InetAddress.getAllByName(host);
+        } catch (UnknownHostException e) {
+            throw new IllegalArgumentException("Webhook host cannot be resolved: " + host);
+        }
+        for (InetAddress address : addresses) {
+            if (!isPublic(address)) {
+                throw new IllegalArgumentException("Webhook host " + host + " resolves to non-public address "
+                        + address.getHostAddress() + "; list it under shipment.webhooks.allowed-hosts to allow it");
+            }
+        }
+    }
+    
+    // Loopback, wildcard, link-local (which includes cloud metadata at 169.254.169.254), RFC 1918,
+    // multicast, carrier-grade NAT, reserved and IPv6 unique local addresses are not public
+    static boolean isPublic(InetAddress address) {
+        if (address.isAnyLocalAddress() || address.isLoopbackAddress() || address.isLinkLocalAddress()
+                || address.isSiteLocalAddress() || address.isMulticastAddress()) {
+            return false;
+        }
+        byte[] bytes = address.getAddress();
+        int first = bytes[0] & 0xFF;
+        int second = bytes[1] & 0xFF;
+        if (bytes.length == 4) {
+            return first != 0 && first < 240
+                    && !(first == 100 && (second & 0xC0) == 64)
+                    && !(first == 192 && second == 0 && bytes[2] == 0)
+                    && !(first == 198 && (second & 0xFE) == 18);
+        }
+        return (first & 0xFE) != 0xFC;
+    }
+    
+    private synchronized WebhookEndpointStatus add(URI uri, Set<ShipmentStatus> statuses) {
+        String url = uri.toString();
+        Set<ShipmentStatus> filter = statuses == null || statuses.isEmpty()
+                ? EnumSet.noneOf(ShipmentStatus.class)
+                : EnumSet.copyOf(statuses);
+        WebhookDestination destination = new WebhookDestination("wh-" + nextId.incrementAndGet(), url, filter,
+                properties, httpClient, objectMapper, scheduler, clock);
+        List<WebhookDestination> updated = new ArrayList<>(destinations);
+        updated.add(destination);
+        destinations = List.copyOf(updated);
+        return destination.getStatus();
+    }
+    
+    /**
+     * Removes a receiver and discards its undelivered events
+     * @return true if the endpoint existed
+     */
+    public synchronized boolean unregister(String id) {
+        List<WebhookDestination> updated = new ArrayList<>(destinations);
+        for (WebhookDestination destination : updated) {
+            if (destination.getId().equals(id)) {
+                updated.remove(destination);
+                destinations = List.copyOf(updated);
+                destination.close();
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    public List<WebhookEndpointStatus> getEndpoints() {
+        return destinations.stream().map(WebhookDestination::getStatus).collect(Collectors.toList());
+    }
+    
+    @Override
+    public void close() {
+        destinations.forEach(WebhookDestination::close);
+        scheduler.shutdownNow();
+    }
+    
+    // Version 4 UUID from the thread-local generator, which unlike UUID.randomUUID() does not contend
+    private static String randomEventId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long msb = (random.nextLong() & ~0xF000L) | 0x4000L;
+        long lsb = (random.nextLong() & ~(0xC000L << 48)) | (0x8000L << 48);
+        return new UUID(msb, lsb).toString();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,85 @@
+package com.logistics.shipment.webhook;
+
+import com.logistics.shipment.model.ShipmentStatus;
+
+import java.util.Set;
+
+/**
+ * A registered webhook endpoint and its delivery counters
+ */
+public class WebhookEndpointStatus {
+    
+    private final String id;
+    private final String url;
+    private final Set<ShipmentStatus> statuses;
+    private final int queued;
+    private final long delivered;
+    private final long dropped;
+    private final long failed;
+    private final long retried;
+    private final CircuitBreaker.State circuit;
+    
+    public WebhookEndpointStatus(String id, String url, Set<ShipmentStatus> statuses, int queued, long delivered,
+                                 long dropped, long failed, long retried, CircuitBreaker.State circuit) {
+        this.id = id;
+        this.url = url;
+        this.statuses = statuses;
+        this.queued = queued;
+        this.delivered = delivered;
+        this.dropped = dropped;
+        this.failed = failed;
+        this.retried = retried;
+        this.circuit = circuit;
+    }
+    
+    public String getId() {
+        return id;
+    }
+    
+    public String getUrl() {
+        return url;
+    }
+    
+    /**
+     * Statuses the endpoint is notified about; empty means all
+     */
+    public Set<ShipmentStatus> getStatuses() {
+        return statuses;
+    }
+    
+    /**
+     * Events waiting for delivery, not counting the batch in flight
+     */
+    public int getQueued() {
+        return queued;
+    }
+    
+    public long getDelivered() {
+        return delivered;
+    }
+    
+    /**
+     * Events dropped because the queue was full
+     */
+    public long getDropped() {
+        return dropped;
+    }
+    
+    /**
+     * Events given up on after the last attempt or rejected by the receiver
+     */
+    public long getFailed() {
+        return failed;
+    }
+    
+    /**
+     * Batches sent again after a failed attempt
+     */
+    public long getRetried() {
+        return retried;
+    }
+    
+    public CircuitBreaker.State getCircuit() {
+        return circuit;
+    }
+}
\ No newline at end of file
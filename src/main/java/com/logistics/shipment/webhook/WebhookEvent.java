@@ -0,0 +1,59 @@
+package com.logistics.shipment.webhook;
+
+import com.logistics.shipment.model.ShipmentStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * A status change as delivered to webhook receivers. Delivery is at least once,
+ * so receivers should ignore event IDs they have already processed.
+ */
+public class WebhookEvent {
+    
+    private final String eventId;
+    private final String orderId;
+    private final String origin;
+    private final String destination;
+    private final ShipmentStatus previousStatus;
+    private final ShipmentStatus status;
+    private final LocalDateTime occurredAt;
+    
+    public WebhookEvent(String eventId, String orderId, String origin, String destination,
+                        ShipmentStatus previousStatus, ShipmentStatus status, LocalDateTime occurredAt) {
+        this.eventId = eventId;
+        this.orderId = orderId;
+        this.origin = origin;
+        this.destination = destination;
+        this.previousStatus = previousStatus;
+        this.status = status;
+        this.occurredAt = occurredAt;
+    }
+    
+    public String getEventId() {
+        return eventId;
+    }
+    
+    public String getOrderId() {
+        return orderId;
+    }
+    
+    public String getOrigin() {
+        return origin;
+    }
+    
+    public String getDestination() {
+        return destination;
+    }
+    
+    public ShipmentStatus getPreviousStatus() {
+        return previousStatus;
+    }
+    
+    public ShipmentStatus getStatus() {
+        return status;
+    }
+    
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+}
\ No newline at end of file
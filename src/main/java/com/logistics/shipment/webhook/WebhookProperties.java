@@ -0,0 +1,117 @@
+package com.logistics.shipment.webhook;
+
+import com.logistics.shipment.model.ShipmentStatus;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Webhook delivery of status changes (prefix: shipment.webhooks)
+ */
+@ConfigurationProperties(prefix = "shipment.webhooks")
+public class WebhookProperties {
+    
+    private boolean enabled = true;
+    
+    // Endpoints registered at startup; more can be added through the API
+    private List<Endpoint> endpoints = new ArrayList<>();
+    
+    // Hosts that API registrations may target whatever they resolve to, e.g. partners on a private network
+    private List<String> allowedHosts = new ArrayList<>();
+    
+    // Lets API registrations target any host, including loopback, private and link-local addresses
+    private boolean allowPrivateAddresses = false;
+    
+    // Undelivered events per endpoint before new events are dropped
+    private int queueCapacity = 10_000;
+    
+    private int maxBatchSize = 100;
+    
+    // How long the first event of a batch waits for more to arrive
+    private Duration linger = Duration.ofMillis(50);
+    
+    private Duration requestTimeout = Duration.ofSeconds(5);
+    
+    // Attempts per batch before it is dropped
+    private int maxAttempts = 8;
+    
+    private Duration initialBackoff = Duration.ofMillis(200);
+    
+    private Duration maxBackoff = Duration.ofSeconds(30);
+    
+    // Consecutive failed attempts that open an endpoint's circuit
+    private int failureThreshold = 5;
+    
+    // How long an open circuit rejects deliveries before one trial request
+    private Duration openDuration = Duration.ofSeconds(30);
+    
+    // Threads that batch and hand off deliveries; the HTTP calls themselves are asynchronous
+    private int deliveryThreads = 2;
+    
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    
+    public List<Endpoint> getEndpoints() { return endpoints; }
+    public void setEndpoints(List<Endpoint> endpoints) { this.endpoints = endpoints; }
+    
+    public List<String> getAllowedHosts() { return allowedHosts; }
+    public void setAllowedHosts(List<String> allowedHosts) { this.allowedHosts = allowedHosts; }
+    
+    public boolean isAllowPrivateAddresses() { return allowPrivateAddresses; }
+    public void setAllowPrivateAddresses(boolean allowPrivateAddresses) { this.allowPrivateAddresses = allowPrivateAddresses; }
+    
+    public int getQueueCapacity() { return queueCapacity; }
+    public void setQueueCapacity(int queueCapacity) { this.queueCapacity = queueCapacity; }
+    
+    public int getMaxBatchSize() { return maxBatchSize; }
+    public void setMaxBatchSize(int maxBatchSize) { this.maxBatchSize = maxBatchSize; }
+    
+    public Duration getLinger() { return linger; }
+    public void setLinger(Duration linger) { this.linger = linger; }
+    
+    public Duration getRequestTimeout() { return requestTimeout; }
+    public void setRequestTimeout(Duration requestTimeout) { this.requestTimeout = requestTimeout; }
+    
+    public int getMaxAttempts() { return maxAttempts; }
+    public void setMaxAttempts(int maxAttempts) { this.maxAttempts = maxAttempts; }
+    
+    public Duration getInitialBackoff() { return initialBackoff; }
+    public void setInitialBackoff(Duration initialBackoff) { this.initialBackoff = initialBackoff; }
+    
+    public Duration getMaxBackoff() { return maxBackoff; }
+    public void setMaxBackoff(Duration maxBackoff) { this.maxBackoff = maxBackoff; }
+    
+    public int getFailureThreshold() { return failureThreshold; }
+    public void setFailureThreshold(int failureThreshold) { this.failureThreshold = failureThreshold; }
+    
+    public Duration getOpenDuration() { return openDuration; }
+    public void setOpenDuration(Duration openDuration) { this.openDuration = openDuration; }
+    
+    public int getDeliveryThreads() { return deliveryThreads; }
+    public void setDeliveryThreads(int deliveryThreads) { this.deliveryThreads = deliveryThreads; }
+    
+    /**
+     * A receiver URL and the statuses it wants to hear about; no statuses means all of them
+     */
+    public static class Endpoint {
+        private String url;
+        private Set<ShipmentStatus> statuses = EnumSet.noneOf(ShipmentStatus.class);
+        
+        public Endpoint() {}
+        
+        public Endpoint(String url, Set<ShipmentStatus> statuses) {
+            this.url = url;
+            this.statuses = statuses;
+        }
+        
+        public String getUrl() { return url; }
+        public void setUrl(String url) { this.url = url; }
+        
+        public Set<ShipmentStatus> getStatuses() { return statuses; }
+        public void setStatuses(Set<ShipmentStatus> statuses) { this.statuses = statuses; }
+    }
+}
\ No newline at end of file
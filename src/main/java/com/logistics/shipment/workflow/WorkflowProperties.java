@@ -0,0 +1,22 @@
+package com.logistics.shipment.workflow;
+
+import com.logistics.shipment.model.ShipmentStatus;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Status workflow settings (prefix: shipment.workflow)
+ */
+@ConfigurationProperties(prefix = "shipment.workflow")
+public class WorkflowProperties {
+    
+    // Allowed targets per status, replacing the built-in ones for each listed status; an empty
+    // list makes the status final. Unlisted statuses keep the built-in targets.
+    private Map<ShipmentStatus, List<ShipmentStatus>> transitions = new LinkedHashMap<>();
+    
+    public Map<ShipmentStatus, List<ShipmentStatus>> getTransitions() { return transitions; }
+    public void setTransitions(Map<ShipmentStatus, List<ShipmentStatus>> transitions) { this.transitions = transitions; }
+}
\ No newline at end of file
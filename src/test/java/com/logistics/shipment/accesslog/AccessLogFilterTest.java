@@ -0,0 +1,137 @@
+package com.logistics.shipment.accesslog;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the sampled asynchronous access log
+ */
+class AccessLogFilterTest {
+    
+    @Test
+    void testErrorsAndSlowRequestsAreAlwaysLogged() {
+        AccessLogProperties properties = new AccessLogProperties();
+        properties.setSuccessSampleRate(0);
+        properties.setSlowThreshold(Duration.ofMillis(100));
+        AccessLogFilter filter = new AccessLogFilter(properties, null);
+        
+        long fast = TimeUnit.MILLISECONDS.toNanos(1);
+        long slow = TimeUnit.MILLISECONDS.toNanos(150);
+        assertNull(filter.reasonFor(200, fast));
+        assertEquals(AccessLogRecord.Reason.SLOW, filter.reasonFor(201, slow));
+        assertEquals(AccessLogRecord.Reason.ERROR, filter.reasonFor(404, fast));
+        assertEquals(AccessLogRecord.Reason.ERROR, filter.reasonFor(503, slow));
+        
+        properties.setSuccessSampleRate(1.0);
+        assertEquals(AccessLogRecord.Reason.SAMPLED, filter.reasonFor(200, fast));
+    }
+    
+    @Test
+    void testRecordsEndpointOrderIdAndBytes() throws Exception {
+        AccessLogProperties properties = new AccessLogProperties();
+        properties.setSuccessSampleRate(1.0);
+        properties.setIdleWait(Duration.ofMillis(1));
+        List<String> lines = new CopyOnWriteArrayList<>();
+        
+        try (AsyncAccessLog accessLog = new AsyncAccessLog(properties, lines::add)) {
+            AccessLogFilter filter = new AccessLogFilter(properties, accessLog);
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/shipments/ORDER-001");
+            FilterChain chain = (req, res) -> {
+                req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/v1/shipments/{orderId}");
+                res.getOutputStream().write("{\"orderId\":\"ORDER-001\"}".getBytes(StandardCharsets.UTF_8));
+            };
+            filter.doFilter(request, new MockHttpServletResponse(), chain);
+            
+            MockHttpServletResponse notFound = new MockHttpServletResponse();
+            filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/shipments/MISSING"), notFound,
+                    (req, res) -> ((HttpServletResponse) res).setStatus(404));
+        }
+        
+        assertEquals(2, lines.size());
+        String found = lines.get(0);
+        assertTrue(found.contains("\"endpoint\":\"/api/v1/shipments/{orderId}\""), found);
+        assertTrue(found.contains("\"orderId\":\"ORDER-001\""), found);
+        assertTrue(found.contains("\"status\":200"), found);
+        assertTrue(found.contains("\"outcome\":\"SUCCESS\""), found);
+        assertTrue(found.contains("\"bytes\":23"), found);
+        assertTrue(found.contains("\"reason\":\"SAMPLED\""), found);
+        
+        String missing = lines.get(1);
+        assertTrue(missing.contains("\"endpoint\":\"/api/v1/shipments/MISSING\""), missing);
+        assertTrue(missing.contains("\"outcome\":\"CLIENT_ERROR\""), missing);
+        assertTrue(missing.contains("\"reason\":\"ERROR\""), missing);
+    }
+    
+    @Test
+    void testFullBufferDropsInsteadOfBlocking() throws Exception {
+        AccessLogProperties properties = new AccessLogProperties();
+        properties.setBufferSize(4);
+        properties.setIdleWait(Duration.ofMillis(1));
+        CountDownLatch writerBlocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> lines = new CopyOnWriteArrayList<>();
+        
+        try (AsyncAccessLog accessLog = new AsyncAccessLog(properties, line -> {
+            writerBlocked.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            lines.add(line);
+        })) {
+            // The writer takes the first record and then hangs in the appender
+            assertTrue(accessLog.submit(record(0)));
+            assertTrue(writerBlocked.await(5, TimeUnit.SECONDS));
+            
+            int accepted = 0;
+            for (int i = 1; i <= 10; i++) {
+                if (accessLog.submit(record(i))) {
+                    accepted++;
+                }
+            }
+            assertEquals(accessLog.getBufferSize(), accepted);
+            assertEquals(10 - accepted, accessLog.getDropped());
+            release.countDown();
+        }
+        
+        assertEquals(5, lines.size());
+        assertTrue(lines.get(4).contains("\"orderId\":\"ORDER-4\""), lines.get(4));
+    }
+    
+    @Test
+    void testRingPreservesOrderAcrossLaps() {
+        AccessLogRing<Integer> ring = new AccessLogRing<>(3);
+        assertEquals(4, ring.capacity());
+        
+        int next = 0;
+        for (int lap = 0; lap < 3; lap++) {
+            for (int i = 0; i < 4; i++) {
+                assertTrue(ring.offer(lap * 4 + i));
+            }
+            assertFalse(ring.offer(-1));
+            for (int i = 0; i < 4; i++) {
+                assertEquals(next++, ring.poll());
+            }
+            assertNull(ring.poll());
+        }
+    }
+    
+    private static AccessLogRecord record(int i) {
+        return new AccessLogRecord(0, "GET", "/api/v1/shipments/{orderId}", "ORDER-" + i, 200, 10, 0,
+                AccessLogRecord.Reason.SAMPLED);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,200 @@
+package com.logistics.shipment.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for admission control and load shedding
+ */
+class AdmissionControlFilterTest {
+    
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    
+    @Test
+    void testClassify() {
+        assertEquals(EndpointClass.CHEAP_READ, EndpointClass.classify("GET", "/api/v1/shipments/ORDER-001"));
+        assertEquals(EndpointClass.EXPENSIVE, EndpointClass.classify("GET", "/api/v1/shipments"));
+        assertEquals(EndpointClass.EXPENSIVE, EndpointClass.classify("GET", "/api/v1/shipments/stats"));
+        assertEquals(EndpointClass.WRITE, EndpointClass.classify("POST", "/api/v1/shipments"));
+        assertEquals(EndpointClass.WRITE, EndpointClass.classify("PATCH", "/api/v1/shipments/ORDER-001"));
+        assertEquals(EndpointClass.EXPENSIVE, EndpointClass.classify("POST", "/api/v1/shipments/import"));
+        assertNull(EndpointClass.classify("GET", "/swagger-ui.html"));
+        assertNull(EndpointClass.classify("GET", "/api/v1/shipmentsfoo"));
+    }
+    
+    @Test
+    void testExpensiveRequestsShedBeforeCheapReads() throws Exception {
+        AdmissionControlProperties properties = new AdmissionControlProperties();
+        properties.setMaxConcurrency(4);
+        properties.getRateLimit().setEnabled(false);
+        AdmissionControlFilter filter = new AdmissionControlFilter(properties, objectMapper);
+        
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch entered = new CountDownLatch(2);
+        FilterChain blocking = (req, res) -> {
+            entered.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            // Expensive share is 0.5 of 4 -> two in-flight list calls fill it
+            Future<?> first = executor.submit(() -> run(filter, "GET", "/api/v1/shipments", blocking));
+            Future<?> second = executor.submit(() -> run(filter, "GET", "/api/v1/shipments", blocking));
+            assertTrue(entered.await(5, TimeUnit.SECONDS));
+            
+            MockHttpServletResponse shedList = run(filter, "GET", "/api/v1/shipments/stats", new MockFilterChain());
+            assertEquals(503, shedList.getStatus());
+            assertEquals("1", shedList.getHeader("Retry-After"));
+            assertTrue(shedList.getContentAsString().contains("shedding load"));
+            
+            MockHttpServletResponse cheapRead = run(filter, "GET", "/api/v1/shipments/ORDER-001", new MockFilterChain());
+            assertEquals(200, cheapRead.getStatus());
+            
+            release.countDown();
+            first.get(5, TimeUnit.SECONDS);
+            second.get(5, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+        
+        assertEquals(200, run(filter, "GET", "/api/v1/shipments", new MockFilterChain()).getStatus());
+    }
+    
+    @Test
+    void testNoisyClientIsRateLimited() throws Exception {
+        AdmissionControlProperties properties = new AdmissionControlProperties();
+        properties.getRateLimit().setCapacity(2);
+        properties.getRateLimit().setRefillPerSecond(0.5);
+        AdmissionControlFilter filter = new AdmissionControlFilter(properties, objectMapper);
+        
+        assertEquals(200, runAs(filter, "10.0.0.1").getStatus());
+        assertEquals(200, runAs(filter, "10.0.0.1").getStatus());
+        MockHttpServletResponse limited = runAs(filter, "10.0.0.1");
+        assertEquals(429, limited.getStatus());
+        assertEquals("2", limited.getHeader("Retry-After"));
+        
+        assertEquals(200, runAs(filter, "10.0.0.2").getStatus());
+    }
+    
+    @Test
+    void testClientIdHeaderIsOnlyTrustedWhenConfigured() throws Exception {
+        AdmissionControlProperties properties = new AdmissionControlProperties();
+        properties.getRateLimit().setCapacity(1);
+        properties.getRateLimit().setRefillPerSecond(0.5);
+        AdmissionControlFilter filter = new AdmissionControlFilter(properties, objectMapper);
+        
+        // A fresh header value per request does not buy a fresh bucket
+        assertEquals(200, runAs(filter, "10.0.0.1", "client-1").getStatus());
+        assertEquals(429, runAs(filter, "10.0.0.1", "client-2").getStatus());
+        
+        properties.setClientIdHeader("X-Client-Id");
+        AdmissionControlFilter behindGateway = new AdmissionControlFilter(properties, objectMapper);
+        assertEquals(200, runAs(behindGateway, "10.0.0.1", "client-1").getStatus());
+        assertEquals(200, runAs(behindGateway, "10.0.0.1", "client-2").getStatus());
+        assertEquals(429, runAs(behindGateway, "10.0.0.1", "client-2").getStatus());
+    }
+    
+    @Test
+    void testLimitBacksOffWhenLatencyExceedsTarget() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 2, 40,
+                Duration.ofMillis(10).toNanos());
+        
+        assertTrue(limiter.tryAcquire());
+        limiter.release(Duration.ofMillis(50).toNanos());
+        assertEquals(18, limiter.getLimit());
+        
+        // Fully used limit with fast responses grows again
+        for (int i = 0; i < 18; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+        assertFalse(limiter.tryAcquire());
+        for (int i = 0; i < 18; i++) {
+            limiter.release(Duration.ofMillis(1).toNanos());
+        }
+        assertTrue(limiter.getLimit() >= 18);
+        assertEquals(0, limiter.getInFlight());
+    }
+    
+    @Test
+    void testTokenBucketRefills() {
+        AtomicLong clock = new AtomicLong();
+        ClientRateLimiter rateLimiter = new ClientRateLimiter(1, 10, 100, clock::get);
+        
+        assertEquals(0, rateLimiter.tryConsume("client"));
+        long wait = rateLimiter.tryConsume("client");
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(100), wait, 10);
+        
+        clock.addAndGet(wait + 10);
+        assertEquals(0, rateLimiter.tryConsume("client"));
+    }
+    
+    @Test
+    void testNewClientsAtTheLimitShareOneBucket() {
+        AtomicLong clock = new AtomicLong();
+        ClientRateLimiter rateLimiter = new ClientRateLimiter(1, 10, 100, clock::get);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(0, rateLimiter.tryConsume("busy-" + i));
+        }
+        
+        // No bucket is idle, so new clients are limited together and the map stays at the limit
+        assertEquals(0, rateLimiter.tryConsume("new-1"));
+        assertTrue(rateLimiter.tryConsume("new-2") > 0);
+        assertEquals(100, rateLimiter.getTrackedClients());
+        
+        // Once the buckets have refilled, a new client takes the place of an idle one
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(0, rateLimiter.tryConsume("idle-" + i));
+            clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        }
+        assertEquals(100, rateLimiter.getTrackedClients());
+    }
+    
+    private MockHttpServletResponse runAs(AdmissionControlFilter filter, String remoteAddr) throws Exception {
+        return runAs(filter, remoteAddr, null);
+    }
+    
+    private MockHttpServletResponse runAs(AdmissionControlFilter filter, String remoteAddr, String clientIdHeader)
+            throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/shipments/ORDER-001");
+        request.setRemoteAddr(remoteAddr);
+        if (clientIdHeader != null) {
+            request.addHeader("X-Client-Id", clientIdHeader);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+    
+    private MockHttpServletResponse run(AdmissionControlFilter filter, String method, String path, FilterChain chain) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(request, response, chain);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return response;
+    }
+}
\ No newline at end of file
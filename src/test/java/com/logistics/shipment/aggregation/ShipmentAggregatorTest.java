@@ -0,0 +1,146 @@
+package com.logistics.shipment.aggregation;
+
+import com.logistics.shipment.model.Shipment;
+import com.logistics.shipment.model.ShipmentStatus;
+import com.logistics.shipment.service.ShipmentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for parallel shipment aggregation
+ */
+class ShipmentAggregatorTest {
+    
+    private ShipmentService shipmentService;
+    
+    @BeforeEach
+    void setUp() {
+        shipmentService = new ShipmentService();
+        add("ORDER-001", "New York", "Boston", ShipmentStatus.PENDING, LocalDateTime.of(2024, 1, 15, 9, 30));
+        add("ORDER-002", "New York", "Miami", ShipmentStatus.PENDING, LocalDateTime.of(2024, 1, 15, 10, 5));
+        add("ORDER-003", "new york", "Boston", ShipmentStatus.DISPATCHED, LocalDateTime.of(2024, 1, 21, 23, 59));
+        add("ORDER-004", "Chicago", "Boston", ShipmentStatus.DELIVERED, LocalDateTime.of(2024, 2, 1, 0, 0));
+    }
+    
+    @Test
+    void testGroupByStatusAndOrigin() {
+        AggregationResult result = shipmentService.aggregate(
+                AggregationQuery.of("status,origin", null, null, null, null, null, null));
+        
+        assertEquals(List.of("status", "origin"), result.getGroupBy());
+        assertNull(result.getBucket());
+        assertEquals(4, result.getMatched());
+        assertEquals(3, result.getGroups().size());
+        assertEquals(Map.of("status", "PENDING", "origin", "New York"), result.getGroups().get(0).getKey());
+        assertEquals(2, result.getGroups().get(0).getCount());
+    }
+    
+    @Test
+    void testFiltersApplyBeforeGrouping() {
+        AggregationResult byOrigin = shipmentService.aggregate(
+                AggregationQuery.of("origin", null, null, "NEW YORK", "boston", null, null));
+        assertEquals(2, byOrigin.getMatched());
+        assertEquals(2, byOrigin.getGroups().size());
+        
+        AggregationResult window = shipmentService.aggregate(AggregationQuery.of(null, null, "pending", null, null,
+                LocalDateTime.of(2024, 1, 15, 10, 0), LocalDateTime.of(2024, 2, 1, 0, 0)));
+        assertEquals(1, window.getMatched());
+        assertEquals(1, window.getGroups().size());
+        assertEquals(Map.of(), window.getGroups().get(0).getKey());
+    }
+    
+    @Test
+    void testCreatedDateBuckets() {
+        assertEquals(Map.of("2024-01-15", 2L, "2024-01-21", 1L, "2024-02-01", 1L), countsBy("day"));
+        // 2024-01-15 was a Monday, so the 21st still belongs to its week
+        assertEquals(Map.of("2024-01-15", 3L, "2024-01-29", 1L), countsBy("week"));
+        assertEquals(Map.of("2024-01", 3L, "2024-02", 1L), countsBy("month"));
+        assertEquals(4, countsBy("hour").size());
+        assertTrue(countsBy("hour").containsKey("2024-01-15T09:00"));
+    }
+    
+    @Test
+    void testShipmentsWithoutCreatedAt() {
+        // POST accepts "createdAt": null and stores it as given
+        add("ORDER-005", "Chicago", "Denver", ShipmentStatus.PENDING, null);
+        
+        Map<String, Long> byDay = countsBy("day");
+        assertEquals(4, byDay.size());
+        assertEquals(1L, byDay.get(null));
+        
+        // Undated shipments are outside every created window
+        AggregationResult from = shipmentService.aggregate(AggregationQuery.of(null, null, null, "Chicago", null,
+                LocalDateTime.of(2024, 1, 1, 0, 0), null));
+        assertEquals(1, from.getMatched());
+        AggregationResult to = shipmentService.aggregate(AggregationQuery.of(null, null, null, "Chicago", null,
+                null, LocalDateTime.of(2030, 1, 1, 0, 0)));
+        assertEquals(1, to.getMatched());
+    }
+    
+    @Test
+    void testParallelResultMatchesSequentialGrouping() {
+        Random random = new Random(42);
+        String[] cities = {"New York", "Chicago", "Boston", "Miami", "Denver", "Austin"};
+        ShipmentStatus[] statuses = ShipmentStatus.values();
+        List<Shipment> shipments = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            Shipment shipment = new Shipment("BULK-" + i, cities[random.nextInt(cities.length)],
+                    cities[random.nextInt(cities.length)], statuses[random.nextInt(statuses.length)]);
+            shipment.setCreatedAt(LocalDateTime.of(2024, 1, 1, 0, 0).plusHours(random.nextInt(24 * 90)));
+            shipments.add(shipment);
+        }
+        AggregationQuery query = AggregationQuery.of("status,origin,createdDate", "month", null, null, null,
+                null, null);
+        
+        AggregationResult result = ShipmentAggregator.aggregate(shipments.parallelStream(), query);
+        
+        Map<List<String>, Long> expected = shipments.stream().collect(Collectors.groupingBy(
+                shipment -> List.of(shipment.getStatus().name(), shipment.getOrigin(),
+                        shipment.getCreatedAt().toString().substring(0, 7)),
+                Collectors.counting()));
+        Map<List<String>, Long> actual = new HashMap<>();
+        result.getGroups().forEach(group -> actual.put(List.copyOf(group.getKey().values()), group.getCount()));
+        assertEquals(expected, actual);
+        assertEquals(shipments.size(), result.getMatched());
+        for (int i = 1; i < result.getGroups().size(); i++) {
+            assertTrue(result.getGroups().get(i - 1).getCount() >= result.getGroups().get(i).getCount());
+        }
+    }
+    
+    @Test
+    void testInvalidQueryParameters() {
+        assertThrows(IllegalArgumentException.class,
+                () -> AggregationQuery.of("status,weight", null, null, null, null, null, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> AggregationQuery.of("status,STATUS", null, null, null, null, null, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> AggregationQuery.of("createdDate", "year", null, null, null, null, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> AggregationQuery.of("status", null, "lost", null, null, null, null));
+    }
+    
+    private Map<String, Long> countsBy(String bucket) {
+        AggregationResult result = shipmentService.aggregate(
+                AggregationQuery.of("createdDate", bucket, null, null, null, null, null));
+        assertEquals(bucket, result.getBucket());
+        return result.getGroups().stream()
+                .collect(Collectors.toMap(group -> group.getKey().get("createdDate"), AggregationResult.Group::getCount));
+    }
+    
+    private void add(String orderId, String origin, String destination, ShipmentStatus status,
+                     LocalDateTime createdAt) {
+        Shipment shipment = new Shipment(orderId, origin, destination, status);
+        shipment.setCreatedAt(createdAt);
+        shipmentService.applyReplicatedShipment(shipment);
+    }
+}
\ No newline at end of file
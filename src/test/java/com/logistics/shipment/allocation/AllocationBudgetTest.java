@@ -0,0 +1,173 @@
+package com.logistics.shipment.allocation;
+
+import com.logistics.shipment.model.Shipment;
+import com.logistics.shipment.model.ShipmentStatus;
+import com.logistics.shipment.service.ShipmentService;
+import com.logistics.shipment.store.ConcurrentMapShipmentStore;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+
+/**
+ * Fails the build when a hot operation allocates more per call than its budget in
+ * allocation-budgets.properties. GC pressure shows up here long before it shows up in latency.
+ * <p>
+ * Runs with every {@code mvn test}; the budgets leave headroom for JVM and JIT variance. Tagged so
+ * it can also run alone with {@code mvn test -Dgroups=allocation}. Measured figures go to
+ * target/allocation-report.properties; when a change allocates less, lower the budget in the same
+ * commit so the saving cannot quietly be lost again.
+ */
+@SpringBootTest(properties = {
+        "shipment.admission.rate-limit.enabled=false",
+        "shipment.access-log.enabled=false"})
+@AutoConfigureMockMvc
+@Tag("allocation")
+class AllocationBudgetTest {
+    
+    private static final int WARMUP = 20_000;
+    private static final int ITERATIONS = 10_000;
+    private static final int CONTROLLER_WARMUP = 5_000;
+    private static final int CONTROLLER_ITERATIONS = 2_000;
+    private static final Path REPORT = Path.of("target", "allocation-report.properties");
+    
+    private static Properties budgets;
+    // Bytes per call by operation, written to REPORT after the run
+    private static final Map<String, Long> measurements = new TreeMap<>();
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private ShipmentService applicationService;
+    
+    @BeforeAll
+    static void loadBudgets() throws IOException {
+        assumeTrue(AllocationMeter.isSupported(), "Per-thread allocation counters are not available");
+        budgets = new Properties();
+        try (InputStream in = AllocationBudgetTest.class.getResourceAsStream("/allocation-budgets.properties")) {
+            assertNotNull(in, "allocation-budgets.properties is missing");
+            budgets.load(in);
+        }
+    }
+    
+    @AfterAll
+    static void writeReport() throws IOException {
+        if (measurements.isEmpty()) {
+            return;
+        }
+        List<String> lines = new ArrayList<>();
+        lines.add("# Heap bytes per call measured by AllocationBudgetTest; budgets are in allocation-budgets.properties");
+        measurements.forEach((operation, measured) -> lines.add(operation + "=" + measured));
+        Files.createDirectories(REPORT.getParent());
+        Files.write(REPORT, lines);
+    }
+    
+    @Test
+    void testCreateShipment() {
+        ShipmentService service = new ShipmentService(new ConcurrentMapShipmentStore());
+        Shipment[] shipments = shipments("CREATE", WARMUP + ITERATIONS);
+        assertWithinBudget("service.createShipment", WARMUP, ITERATIONS,
+                i -> service.createShipment(shipments[i]));
+    }
+    
+    @Test
+    void testGetShipmentByOrderId() {
+        ShipmentService service = new ShipmentService(new ConcurrentMapShipmentStore());
+        String[] orderIds = stored(service, "GET", 1_000);
+        assertWithinBudget("service.getShipmentByOrderId", WARMUP, ITERATIONS,
+                i -> service.getShipmentByOrderId(orderIds[i % orderIds.length]));
+    }
+    
+    @Test
+    void testUpdateShipmentStatus() {
+        ShipmentService service = new ShipmentService(new ConcurrentMapShipmentStore());
+        // Every shipment moves pending -> dispatched once
+        String[] orderIds = stored(service, "UPDATE", WARMUP + ITERATIONS);
+        assertWithinBudget("service.updateShipmentStatus", WARMUP, ITERATIONS,
+                i -> service.updateShipmentStatus(orderIds[i], ShipmentStatus.DISPATCHED));
+    }
+    
+    @Test
+    void testStatusFromValue() {
+        String[] values = {"pending", "dispatched", "in-transit", "delivered"};
+        assertWithinBudget("status.fromValue", WARMUP, ITERATIONS,
+                i -> ShipmentStatus.fromValue(values[i & 3]));
+    }
+    
+    @Test
+    void testControllerGetShipment() {
+        String[] orderIds = stored(applicationService, "HTTP-GET", 100);
+        assertWithinBudget("controller.getShipmentByOrderId", CONTROLLER_WARMUP, CONTROLLER_ITERATIONS,
+                i -> perform(get("/api/v1/shipments/{orderId}", orderIds[i % orderIds.length])));
+    }
+    
+    @Test
+    void testControllerUpdateStatus() {
+        String[] orderIds = stored(applicationService, "HTTP-PATCH", CONTROLLER_WARMUP + CONTROLLER_ITERATIONS);
+        assertWithinBudget("controller.updateShipmentStatus", CONTROLLER_WARMUP, CONTROLLER_ITERATIONS,
+                i -> perform(patch("/api/v1/shipments/{orderId}", orderIds[i])
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"dispatched\"}")));
+    }
+    
+    private void assertWithinBudget(String operation, int warmup, int iterations, IntConsumer call) {
+        String budget = budgets.getProperty(operation);
+        assertNotNull(budget, "No allocation budget for " + operation);
+        long measured = AllocationMeter.bytesPerOperation(warmup, iterations, call);
+        measurements.put(operation, measured);
+        assertTrue(measured <= Long.parseLong(budget.trim()),
+                operation + " allocates " + measured + " B/op, over its budget of " + budget + " B/op");
+    }
+    
+    private void perform(RequestBuilder request) {
+        try {
+            int status = mockMvc.perform(request).andReturn().getResponse().getStatus();
+            if (status != 200) {
+                throw new IllegalStateException("Unexpected status " + status);
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    private static Shipment[] shipments(String prefix, int count) {
+        Shipment[] shipments = new Shipment[count];
+        for (int i = 0; i < count; i++) {
+            shipments[i] = new Shipment(prefix + "-" + i, "New York", "Los Angeles");
+        }
+        return shipments;
+    }
+    
+    private static String[] stored(ShipmentService service, String prefix, int count) {
+        Shipment[] shipments = shipments(prefix, count);
+        service.importShipments(List.of(shipments));
+        String[] orderIds = new String[count];
+        for (int i = 0; i < count; i++) {
+            orderIds[i] = shipments[i].getOrderId();
+        }
+        return orderIds;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,39 @@
+package com.logistics.shipment.allocation;
+
+import com.sun.management.ThreadMXBean;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.IntConsumer;
+
+/**
+ * Measures heap bytes allocated per operation on the calling thread with the JVM's per-thread
+ * allocation counter. Operations run enough times first for the JIT to compile them, so the
+ * figure reflects steady state, including allocations removed by escape analysis.
+ */
+final class AllocationMeter {
+    
+    private static final ThreadMXBean THREADS = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+    
+    private AllocationMeter() {
+    }
+    
+    static boolean isSupported() {
+        return THREADS.isThreadAllocatedMemorySupported() && THREADS.isThreadAllocatedMemoryEnabled();
+    }
+    
+    /**
+     * @param operation called with 0 .. warmup + iterations - 1; only the last iterations are measured
+     * @return average bytes allocated per measured call
+     */
+    static long bytesPerOperation(int warmup, int iterations, IntConsumer operation) {
+        for (int i = 0; i < warmup; i++) {
+            operation.accept(i);
+        }
+        long before = THREADS.getCurrentThreadAllocatedBytes();
+        for (int i = warmup; i < warmup + iterations; i++) {
+            operation.accept(i);
+        }
+        long allocated = THREADS.getCurrentThreadAllocatedBytes() - before;
+        return allocated / iterations;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,94 @@
+package com.logistics.shipment.benchmark;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.logistics.shipment.controller.ShipmentController.ShipmentStats;
+import com.logistics.shipment.controller.ShipmentController.StatusUpdateRequest;
+import com.logistics.shipment.json.ShipmentJson;
+import com.logistics.shipment.json.ShipmentStatsJson;
+import com.logistics.shipment.json.StatusUpdateRequestJson;
+import com.logistics.shipment.model.Shipment;
+import com.logistics.shipment.model.ShipmentStatus;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request JSON cost of the bean-based mapping versus the streaming serializers.
+ * Add the GC profiler to compare allocations, e.g.
+ * mvn -Pbenchmark test -Djmh.args="ShipmentJsonBenchmark -prof gc"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ShipmentJsonBenchmark {
+    
+    @Param({"reflective", "streaming"})
+    public String mapping;
+    
+    private ObjectMapper objectMapper;
+    private Shipment shipment;
+    private ShipmentStats stats;
+    private byte[] createBody;
+    private byte[] statusBody;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        // Same settings as spring.jackson in application.yml
+        JsonMapper.Builder builder = JsonMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .serializationInclusion(JsonInclude.Include.NON_NULL);
+        if (mapping.equals("streaming")) {
+            builder.addModule(new SimpleModule()
+                    .addSerializer(Shipment.class, new ShipmentJson.Serializer())
+                    .addDeserializer(Shipment.class, new ShipmentJson.Deserializer())
+                    .addDeserializer(StatusUpdateRequest.class, new StatusUpdateRequestJson.Deserializer())
+                    .addSerializer(ShipmentStats.class, new ShipmentStatsJson.Serializer()));
+        }
+        objectMapper = builder.build();
+        
+        shipment = new Shipment("ORDER-123456", "New York", "Los Angeles", ShipmentStatus.IN_TRANSIT);
+        shipment.setCreatedAt(LocalDateTime.of(2024, 1, 15, 10, 30, 12, 345_678_000));
+        shipment.setUpdatedAt(LocalDateTime.of(2024, 1, 16, 8, 5, 0, 120_000_000));
+        Map<ShipmentStatus, Long> counts = new EnumMap<>(ShipmentStatus.class);
+        for (ShipmentStatus status : ShipmentStatus.values()) {
+            counts.put(status, 1000L + status.ordinal());
+        }
+        stats = new ShipmentStats(4006, counts);
+        createBody = "{\"orderId\":\"ORDER-123456\",\"origin\":\"New York\",\"destination\":\"Los Angeles\"}".getBytes();
+        statusBody = "{\"status\":\"in-transit\"}".getBytes();
+    }
+    
+    @Benchmark
+    public byte[] writeShipment() throws Exception {
+        return objectMapper.writeValueAsBytes(shipment);
+    }
+    
+    @Benchmark
+    public Shipment readShipment() throws Exception {
+        return objectMapper.readValue(createBody, Shipment.class);
+    }
+    
+    @Benchmark
+    public StatusUpdateRequest readStatusUpdate() throws Exception {
+        return objectMapper.readValue(statusBody, StatusUpdateRequest.class);
+    }
+    
+    @Benchmark
+    public byte[] writeStats() throws Exception {
+        return objectMapper.writeValueAsBytes(stats);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,71 @@
+package com.logistics.shipment.benchmark;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.logistics.shipment.json.ProjectedShipmentList;
+import com.logistics.shipment.json.ShipmentFields;
+import com.logistics.shipment.json.ShipmentJson;
+import com.logistics.shipment.model.Shipment;
+import com.logistics.shipment.model.ShipmentStatus;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a large GET /shipments response with and without a fields= projection. The response
+ * size is printed at setup, e.g.
+ * mvn -Pbenchmark test -Djmh.args="ShipmentProjectionBenchmark -prof gc"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ShipmentProjectionBenchmark {
+    
+    @Param({"", "orderId,status"})
+    public String fields;
+    
+    @Param({"1000"})
+    public int rows;
+    
+    private ObjectMapper objectMapper;
+    private ProjectedShipmentList response;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        objectMapper = JsonMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .serializationInclusion(JsonInclude.Include.NON_NULL)
+                .addModule(new SimpleModule()
+                        .addSerializer(Shipment.class, new ShipmentJson.Serializer())
+                        .addSerializer(ProjectedShipmentList.class, new ShipmentJson.ProjectedListSerializer()))
+                .build();
+        
+        List<Shipment> shipments = new ArrayList<>(rows);
+        LocalDateTime base = LocalDateTime.of(2024, 1, 15, 10, 30, 12, 345_678_000);
+        for (int i = 0; i < rows; i++) {
+            Shipment shipment = new Shipment("ORDER-" + (100_000 + i), "New York", "Los Angeles",
+                    ShipmentStatus.values()[i % 4]);
+            shipment.setCreatedAt(base.plusMinutes(i));
+            shipment.setUpdatedAt(base.plusMinutes(i).plusSeconds(37));
+            shipments.add(shipment);
+        }
+        response = new ProjectedShipmentList(shipments, ShipmentFields.parse(fields));
+        System.out.printf("fields=%s: %d bytes for %d rows%n", fields, writeList().length, rows);
+    }
+    
+    @Benchmark
+    public byte[] writeList() throws Exception {
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,72 @@
+package com.logistics.shipment.benchmark;
+
+import com.logistics.shipment.model.Shipment;
+import com.logistics.shipment.model.ShipmentStatus;
+import com.logistics.shipment.service.ShipmentService;
+import com.logistics.shipment.store.ConcurrentMapShipmentStore;
+import com.logistics.shipment.store.PartitionedShipmentStore;
+import com.logistics.shipment.store.ShipmentStore;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write throughput of the storage engines. Run with increasing thread counts to see scaling, e.g.
+ * mvn -Pbenchmark test -Djmh.args="ShipmentStoreBenchmark -t 4"
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ShipmentStoreBenchmark {
+    
+    @Param({"concurrent-map", "partitioned"})
+    public String engine;
+    
+    private ShipmentStore store;
+    private ShipmentService shipmentService;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        store = engine.equals("partitioned")
+                ? new PartitionedShipmentStore(Runtime.getRuntime().availableProcessors(), 1024)
+                : new ConcurrentMapShipmentStore();
+        shipmentService = new ShipmentService(store);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        store.close();
+    }
+    
+    @State(Scope.Thread)
+    public static class OrderIds {
+        private static int nextThread;
+        private final String prefix;
+        private long sequence;
+        
+        public OrderIds() {
+            synchronized (OrderIds.class) {
+                prefix = "BENCH-" + (nextThread++) + "-";
+            }
+        }
+        
+        String next() {
+            return prefix + (sequence++);
+        }
+    }
+    
+    /**
+     * Create, dispatch and remove one shipment: three writes per invocation
+     */
+    @Benchmark
+    public Shipment createUpdateRemove(OrderIds orderIds) {
+        String orderId = orderIds.next();
+        shipmentService.createShipment(new Shipment(orderId, "New York", "Los Angeles"));
+        Shipment updated = shipmentService.updateShipmentStatus(orderId, ShipmentStatus.DISPATCHED);
+        shipmentService.deleteShipment(orderId);
+        return updated;
+    }
+}
\ No newline at end of file
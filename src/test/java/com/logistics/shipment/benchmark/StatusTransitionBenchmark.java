@@ -0,0 +1,82 @@
+package com.logistics.shipment.benchmark;
+
+import com.logistics.shipment.model.ShipmentStatus;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-call cost of the status checks on the PATCH path: the transition table against the switch
+ * it replaced, and the hashed fromValue against a loop over values(). The switch only knows the
+ * four original statuses, so all pairs are drawn from those. Run with
+ * mvn -Pbenchmark test -Djmh.args="StatusTransitionBenchmark -prof gc"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class StatusTransitionBenchmark {
+    
+    private static final int PAIRS = 1024;
+    private static final String[] VALUES = {"pending", "Dispatched", "IN-TRANSIT", "delivered"};
+    
+    private final ShipmentStatus[] from = new ShipmentStatus[PAIRS];
+    private final ShipmentStatus[] to = new ShipmentStatus[PAIRS];
+    private final String[] values = new String[PAIRS];
+    private int next;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        ShipmentStatus[] statuses = ShipmentStatus.values();
+        Random random = new Random(42);
+        for (int i = 0; i < PAIRS; i++) {
+            from[i] = statuses[random.nextInt(4)];
+            to[i] = statuses[random.nextInt(4)];
+            values[i] = VALUES[random.nextInt(VALUES.length)];
+        }
+    }
+    
+    @Benchmark
+    public boolean transitionTable() {
+        int i = next++ & PAIRS - 1;
+        return from[i].canTransitionTo(to[i]);
+    }
+    
+    @Benchmark
+    public boolean transitionSwitch() {
+        int i = next++ & PAIRS - 1;
+        return switchCanTransition(from[i], to[i]);
+    }
+    
+    @Benchmark
+    public ShipmentStatus fromValueHashed() {
+        return ShipmentStatus.fromValue(values[next++ & PAIRS - 1]);
+    }
+    
+    @Benchmark
+    public ShipmentStatus fromValueLoop() {
+        return loopFromValue(values[next++ & PAIRS - 1]);
+    }
+    
+    // The implementations before the transition table, for comparison
+    private static boolean switchCanTransition(ShipmentStatus status, ShipmentStatus targetStatus) {
+        return switch (status) {
+            case PENDING -> targetStatus == ShipmentStatus.DISPATCHED;
+            case DISPATCHED -> targetStatus == ShipmentStatus.IN_TRANSIT;
+            case IN_TRANSIT -> targetStatus == ShipmentStatus.DELIVERED;
+            default -> false;
+        };
+    }
+    
+    private static ShipmentStatus loopFromValue(String value) {
+        for (ShipmentStatus status : ShipmentStatus.values()) {
+            if (status.getValue().equalsIgnoreCase(value)) {
+                return status;
+            }
+        }
+        throw new IllegalArgumentException("Invalid shipment status: " + value);
+    }
+}
\ No newline at end of file
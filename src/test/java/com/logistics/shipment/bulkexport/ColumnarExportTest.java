@@ -0,0 +1,229 @@
+package com.logistics.shipment.bulkexport;
+
+import com.logistics.shipment.model.Shipment;
+import com.logistics.shipment.model.ShipmentStatus;
+import com.logistics.shipment.service.ShipmentService;
+import com.logistics.shipment.store.ConcurrentMapShipmentStore;
+import com.logistics.shipment.store.ShipmentSnapshot;
+import com.logistics.shipment.store.ShipmentStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Round trip of the columnar export through the memory-mapped reader
+ */
+class ColumnarExportTest {
+    
+    @TempDir
+    Path directory;
+    
+    private ShipmentStore store;
+    private ShipmentService shipmentService;
+    private ShipmentExporter exporter;
+    
+    @BeforeEach
+    void setUp() {
+        store = new ConcurrentMapShipmentStore();
+        shipmentService = new ShipmentService(store);
+        ExportProperties properties = new ExportProperties();
+        properties.setRowGroupSize(100);
+        exporter = new ShipmentExporter(store, properties);
+    }
+    
+    @Test
+    void testColumnsReadBackAcrossRowGroups() throws IOException {
+        LocalDateTime base = LocalDateTime.of(2024, 3, 1, 8, 30);
+        for (int i = 0; i < 250; i++) {
+            Shipment shipment = new Shipment("ORDER-" + i, "City-" + (i % 7), "Destination-" + (i % 11));
+            // Out of creation order, with nanosecond precision
+            shipment.setCreatedAt(base.plusSeconds((i * 37) % 250).plusNanos(i));
+            shipment.setUpdatedAt(shipment.getCreatedAt());
+            shipmentService.createShipment(shipment);
+            if (i % 3 == 0) {
+                shipmentService.updateShipmentStatus(shipment.getOrderId(), ShipmentStatus.DISPATCHED);
+            }
+        }
+        Shipment undated = new Shipment("ORDER-UNDATED", "City-0", "Destination-0");
+        undated.setCreatedAt(null);
+        shipmentService.createShipment(undated);
+        
+        Path file = export();
+        try (ColumnarShipmentReader reader = ColumnarShipmentReader.open(file)) {
+            assertEquals(251, reader.getRowCount());
+            assertEquals(3, reader.getRowGroupCount());
+            assertEquals(7 + 11, reader.getLocations().size());
+            
+            List<String> orderIds = new ArrayList<>();
+            List<Integer> origins = new ArrayList<>();
+            List<Integer> destinations = new ArrayList<>();
+            List<Integer> statuses = new ArrayList<>();
+            List<Long> createdAt = new ArrayList<>();
+            List<Long> updatedAt = new ArrayList<>();
+            reader.scanOrderIds(orderIds::add);
+            reader.scanOrigins(origins::add);
+            reader.scanDestinations(destinations::add);
+            reader.scanStatuses(statuses::add);
+            reader.scanCreatedAt(createdAt::add);
+            reader.scanUpdatedAt(updatedAt::add);
+            
+            assertEquals(251, orderIds.size());
+            for (int row = 0; row < orderIds.size(); row++) {
+                Shipment stored = shipmentService.getShipmentByOrderId(orderIds.get(row));
+                assertEquals(stored.getOrigin(), reader.getLocations().get(origins.get(row)));
+                assertEquals(stored.getDestination(), reader.getLocations().get(destinations.get(row)));
+                assertEquals(stored.getStatus().name(), reader.getStatuses().get(statuses.get(row)));
+                assertEquals(stored.getCreatedAt(), ColumnarFormat.toLocalDateTime(createdAt.get(row)));
+                assertEquals(stored.getUpdatedAt(), ColumnarFormat.toLocalDateTime(updatedAt.get(row)));
+            }
+            // Sorted by creation time within each row group, so timestamps are stored as small steps
+            for (int row = 1; row < 100; row++) {
+                assertTrue(createdAt.get(row) >= createdAt.get(row - 1));
+            }
+        }
+    }
+    
+    @Test
+    void testExportReadsSnapshotWithoutBlockingWriters() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            shipmentService.createShipment(new Shipment("ORDER-" + i, "New York", "Boston"));
+        }
+        CountDownLatch exportStarted = new CountDownLatch(1);
+        CountDownLatch releaseExport = new CountDownLatch(1);
+        Path file = directory.resolve("snapshot.shpc");
+        
+        CompletableFuture<ExportSummary> export;
+        try (OutputStream out = Files.newOutputStream(file)) {
+            // Stalls like a slow download once the snapshot has been taken
+            OutputStream stalling = new FilterOutputStream(out) {
+                @Override
+                public void write(byte[] bytes, int offset, int length) throws IOException {
+                    exportStarted.countDown();
+                    try {
+                        releaseExport.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    out.write(bytes, offset, length);
+                }
+            };
+            export = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return exporter.export(stalling);
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            assertTrue(exportStarted.await(5, TimeUnit.SECONDS));
+            
+            CompletableFuture.runAsync(() -> {
+                shipmentService.createShipment(new Shipment("ORDER-NEW", "Chicago", "Miami"));
+                shipmentService.updateShipmentStatus("ORDER-0", ShipmentStatus.DISPATCHED);
+            }).get(2, TimeUnit.SECONDS);
+            releaseExport.countDown();
+            assertEquals(10, export.get(5, TimeUnit.SECONDS).getRows());
+        }
+        
+        try (ColumnarShipmentReader reader = ColumnarShipmentReader.open(file)) {
+            assertEquals(10, reader.getRowCount());
+            Map<String, Integer> statusByOrderId = new HashMap<>();
+            List<String> orderIds = new ArrayList<>();
+            reader.scanOrderIds(orderIds::add);
+            int[] row = {0};
+            reader.scanStatuses(status -> statusByOrderId.put(orderIds.get(row[0]++), status));
+            assertFalse(statusByOrderId.containsKey("ORDER-NEW"));
+            assertEquals("PENDING", reader.getStatuses().get(statusByOrderId.get("ORDER-0")));
+        }
+    }
+    
+    @Test
+    void testSpooledExportClosesSnapshotBeforeTheDownload() throws Exception {
+        AtomicInteger openSnapshots = new AtomicInteger();
+        ShipmentStore counting = new ConcurrentMapShipmentStore() {
+            @Override
+            public ShipmentSnapshot snapshot() {
+                ShipmentSnapshot snapshot = super.snapshot();
+                openSnapshots.incrementAndGet();
+                return new ShipmentSnapshot() {
+                    @Override
+                    public long getVersion() { return snapshot.getVersion(); }
+                    @Override
+                    public Shipment get(String orderId) { return snapshot.get(orderId); }
+                    @Override
+                    public Stream<Shipment> stream() { return snapshot.stream(); }
+                    @Override
+                    public void close() {
+                        openSnapshots.decrementAndGet();
+                        snapshot.close();
+                    }
+                };
+            }
+        };
+        ExportProperties properties = new ExportProperties();
+        properties.setSpoolDir(directory.resolve("spool").toString());
+        ShipmentExporter spooling = new ShipmentExporter(counting, properties);
+        for (int i = 0; i < 10; i++) {
+            counting.put(new Shipment("ORDER-" + i, "New York", "Boston"));
+        }
+        
+        Path file = directory.resolve("download.shpc");
+        long[] announcedLength = {-1};
+        try (OutputStream out = Files.newOutputStream(file)) {
+            // Checks at the first byte of the download, as a stalled client would be
+            OutputStream downloading = new FilterOutputStream(out) {
+                @Override
+                public void write(byte[] bytes, int offset, int length) throws IOException {
+                    assertEquals(0, openSnapshots.get());
+                    out.write(bytes, offset, length);
+                }
+            };
+            assertEquals(10, spooling.exportSpooled(downloading, length -> announcedLength[0] = length).getRows());
+        }
+        assertEquals(Files.size(file), announcedLength[0]);
+        try (Stream<Path> spooled = Files.list(directory.resolve("spool"))) {
+            assertEquals(0, spooled.count());
+        }
+        try (ColumnarShipmentReader reader = ColumnarShipmentReader.open(file)) {
+            assertEquals(10, reader.getRowCount());
+        }
+    }
+    
+    @Test
+    void testEmptyStoreAndForeignFiles() throws IOException {
+        try (ColumnarShipmentReader reader = ColumnarShipmentReader.open(export())) {
+            assertEquals(0, reader.getRowCount());
+            assertEquals(0, reader.getRowGroupCount());
+            reader.scanStatuses(status -> fail("No rows expected"));
+        }
+        
+        Path json = directory.resolve("shipments.json");
+        Files.writeString(json, "[{\"orderId\":\"ORDER-1\",\"origin\":\"New York\",\"destination\":\"Boston\"}]");
+        assertThrows(IOException.class, () -> ColumnarShipmentReader.open(json));
+    }
+    
+    private Path export() throws IOException {
+        Path file = Files.createTempFile(directory, "shipments", ".shpc");
+        try (OutputStream out = Files.newOutputStream(file)) {
+            exporter.export(out);
+        }
+        return file;
+    }
+}
\ No newline at end of file
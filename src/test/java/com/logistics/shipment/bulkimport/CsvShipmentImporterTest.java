@@ -0,0 +1,188 @@
+package com.logistics.shipment.bulkimport;
+
+import com.logistics.shipment.model.Shipment;
+import com.logistics.shipment.model.ShipmentStatus;
+import com.logistics.shipment.service.ShipmentService;
+import com.logistics.shipment.store.PartitionedShipmentStore;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CSV bulk import
+ */
+class CsvShipmentImporterTest {
+    
+    @TempDir
+    Path rejectDir;
+    
+    private final ValidatorFactory validatorFactory = Validation.buildDefaultValidatorFactory();
+    private PartitionedShipmentStore store;
+    private ShipmentService shipmentService;
+    private CsvShipmentImporter importer;
+    
+    @BeforeEach
+    void setUp() {
+        store = new PartitionedShipmentStore(4, 64);
+        shipmentService = new ShipmentService(store, List.of());
+        ImportProperties properties = new ImportProperties();
+        properties.setParallelism(3);
+        properties.setChunkSize(7);
+        properties.setRejectDir(rejectDir.toString());
+        importer = new CsvShipmentImporter(shipmentService, validatorFactory.getValidator(), properties);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        store.close();
+        validatorFactory.close();
+    }
+    
+    @Test
+    void testImportsQuotedFieldsAndDefaultsStatus() throws Exception {
+        String csv = "Status,orderId,origin,destination\n"
+                + "In-Transit,ORDER-001,\"New York, NY\",Boston\n"
+                + ",ORDER-002,\"Depot \"\"A\"\"\",\"Line one\nLine two\"\n";
+        
+        ImportSummary summary = importer.importCsv(new StringReader(csv));
+        
+        assertEquals(2, summary.getTotalRows());
+        assertEquals(2, summary.getImported());
+        assertEquals(0, summary.getRejected());
+        assertNull(summary.getRejectFile());
+        
+        Shipment first = shipmentService.getShipmentByOrderId("ORDER-001");
+        assertEquals("New York, NY", first.getOrigin());
+        assertEquals(ShipmentStatus.IN_TRANSIT, first.getStatus());
+        assertEquals(1, first.getStatusHistory().size());
+        
+        Shipment second = shipmentService.getShipmentByOrderId("ORDER-002");
+        assertEquals("Depot \"A\"", second.getOrigin());
+        assertEquals("Line one\nLine two", second.getDestination());
+        assertEquals(ShipmentStatus.PENDING, second.getStatus());
+    }
+    
+    @Test
+    void testInvalidAndDuplicateRowsGoToRejectFile() throws Exception {
+        shipmentService.createShipment(new Shipment("ORDER-EXISTING", "Chicago", "Miami"));
+        String csv = "orderId,origin,destination,status\n"
+                + "ORDER-001,Chicago,Miami,pending\n"
+                + "ORDER-002, ,Miami,pending\n"
+                + "\n"
+                + "ORDER-003,Chicago,Miami,lost\n"
+                + "ORDER-004,Chicago\n"
+                + "ORDER-EXISTING,Chicago,Miami,pending\n"
+                + "ORDER-001,Denver,Austin,pending\n";
+        
+        ImportSummary summary = importer.importCsv(new StringReader(csv));
+        
+        assertEquals(6, summary.getTotalRows());
+        assertEquals(1, summary.getImported());
+        assertEquals(5, summary.getRejected());
+        assertEquals(2, shipmentService.getTotalShipmentCount());
+        assertEquals("Chicago", shipmentService.getShipmentByOrderId("ORDER-001").getOrigin());
+        
+        List<String> rejects = Files.readAllLines(Path.of(summary.getRejectFile()), StandardCharsets.UTF_8);
+        assertEquals("line,reason,record", rejects.get(0));
+        assertEquals(6, rejects.size());
+        assertTrue(rejects.contains("3,Origin is required,\"ORDER-002, ,Miami,pending\""));
+        assertTrue(rejects.contains("5,Invalid shipment status: lost,\"ORDER-003,Chicago,Miami,lost\""));
+        assertTrue(rejects.contains("6,Expected 4 fields but found 2,\"ORDER-004,Chicago\""));
+        assertTrue(rejects.contains("7,Shipment with order ID already exists: ORDER-EXISTING,"
+                + "\"ORDER-EXISTING,Chicago,Miami,pending\""));
+        assertTrue(rejects.contains("8,Shipment with order ID already exists: ORDER-001,"
+                + "\"ORDER-001,Denver,Austin,pending\""));
+    }
+    
+    @Test
+    void testStrayQuoteRejectsOnlyItsOwnLine() throws Exception {
+        StringBuilder csv = new StringBuilder("orderId,origin,destination\n")
+                .append("ORDER-000,\"Chicago,Miami\n");
+        for (int i = 1; i <= 100; i++) {
+            csv.append("ORDER-").append(i).append(",Chicago,Miami\r\n");
+        }
+        // Closes within the limit, so it spans two lines as before
+        csv.append("ORDER-101,\"Depot\r\nA\",Miami\n");
+        
+        ImportProperties properties = new ImportProperties();
+        properties.setMaxRecordLength(512);
+        properties.setRejectDir(rejectDir.toString());
+        ImportSummary summary = new CsvShipmentImporter(shipmentService, validatorFactory.getValidator(), properties)
+                .importCsv(new StringReader(csv.toString()));
+        
+        assertEquals(102, summary.getTotalRows());
+        assertEquals(101, summary.getImported());
+        assertEquals("Depot\nA", shipmentService.getShipmentByOrderId("ORDER-101").getOrigin());
+        List<String> rejects = Files.readAllLines(Path.of(summary.getRejectFile()), StandardCharsets.UTF_8);
+        assertEquals(List.of("line,reason,record", "2,Unterminated quoted field,\"ORDER-000,\"\"Chicago,Miami\""),
+                rejects);
+    }
+    
+    @Test
+    void testMissingRequiredColumnIsRejected() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> importer.importCsv(new StringReader("orderId,origin\nORDER-001,Chicago\n")));
+        assertEquals("CSV header is missing the destination column", e.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> importer.importCsv(new StringReader("")));
+    }
+    
+    @Test
+    void testStreamsLargeInputThroughBoundedChunks() throws Exception {
+        int rows = 20_000;
+        Reader generated = new GeneratedCsv(rows);
+        
+        ImportSummary summary = importer.importCsv(generated);
+        
+        assertEquals(rows, summary.getTotalRows());
+        assertEquals(rows, summary.getImported());
+        assertEquals(rows, shipmentService.getTotalShipmentCount());
+        assertEquals("Hub 19999", shipmentService.getShipmentByOrderId("ORDER-19999").getOrigin());
+    }
+    
+    /**
+     * Produces CSV rows on demand, so the test input never exists in memory as a whole
+     */
+    private static final class GeneratedCsv extends Reader {
+        private final int rows;
+        private int next = -1;
+        private String current = "";
+        private int position;
+        
+        GeneratedCsv(int rows) {
+            this.rows = rows;
+        }
+        
+        @Override
+        public int read(char[] buffer, int offset, int length) {
+            if (position == current.length()) {
+                if (next == rows) {
+                    return -1;
+                }
+                current = next < 0 ? "orderId,origin,destination\n"
+                        : "ORDER-" + next + ",Hub " + next + ",Store " + next + "\n";
+                position = 0;
+                next++;
+            }
+            int count = Math.min(length, current.length() - position);
+            current.getChars(position, position + count, buffer, offset);
+            position += count;
+            return count;
+        }
+        
+        @Override
+        public void close() {
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,228 @@
+package com.logistics.shipment.cluster;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logistics.shipment.ShipmentTrackingApplication;
+import com.logistics.shipment.service.ShipmentService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs two cluster nodes on local ports and exercises forwarding and scatter-gather
+ */
+class ClusterRoutingIntegrationTest {
+    
+    private static final HttpClient http = HttpClient.newHttpClient();
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    
+    private static int[] ports;
+    private static ConfigurableApplicationContext[] nodes;
+    
+    @BeforeAll
+    static void startCluster() throws IOException {
+        ports = new int[] {freePort(), freePort()};
+        nodes = new ConfigurableApplicationContext[2];
+        nodes[0] = start(0);
+        nodes[1] = start(1);
+    }
+    
+    @AfterAll
+    static void stopCluster() {
+        for (ConfigurableApplicationContext node : nodes) {
+            if (node != null) {
+                node.close();
+            }
+        }
+    }
+    
+    // Tests share the two nodes; each starts from empty stores
+    @AfterEach
+    void clearNodes() {
+        for (ConfigurableApplicationContext node : nodes) {
+            ShipmentService service = node.getBean(ShipmentService.class);
+            service.getAllShipments().forEach(shipment -> service.deleteShipment(shipment.getOrderId()));
+        }
+    }
+    
+    @Test
+    void testRequestsAreRoutedToOwningNode() throws Exception {
+        ConsistentHashRing ring = nodes[0].getBean(ConsistentHashRing.class);
+        int count = 20;
+        for (int i = 0; i < count; i++) {
+            String body = "{\"orderId\":\"CL-" + i + "\",\"origin\":\"New York\",\"destination\":\"Los Angeles\"}";
+            assertEquals(201, send(i % 2, "POST", "/api/v1/shipments", body).statusCode());
+        }
+        
+        // Each shipment lives only on its owner
+        for (int i = 0; i < count; i++) {
+            String orderId = "CL-" + i;
+            int owner = ring.ownerOf(orderId).equals("node-1") ? 0 : 1;
+            assertTrue(nodes[owner].getBean(ShipmentService.class).existsByOrderId(orderId));
+            assertFalse(nodes[1 - owner].getBean(ShipmentService.class).existsByOrderId(orderId));
+        }
+        
+        // Reads and updates work from either node
+        for (int i = 0; i < count; i++) {
+            HttpResponse<String> fetched = send((i + 1) % 2, "GET", "/api/v1/shipments/CL-" + i, null);
+            assertEquals(200, fetched.statusCode());
+            assertEquals("CL-" + i, objectMapper.readTree(fetched.body()).get("orderId").asText());
+        }
+        HttpResponse<String> patched = send(1, "PATCH", "/api/v1/shipments/CL-0", "{\"status\":\"dispatched\"}");
+        assertEquals(200, patched.statusCode());
+        assertEquals(404, send(0, "GET", "/api/v1/shipments/MISSING", null).statusCode());
+        
+        // Duplicate detection happens on the owner regardless of entry node
+        String duplicate = "{\"orderId\":\"CL-1\",\"origin\":\"Boston\",\"destination\":\"Seattle\"}";
+        assertEquals(409, send(0, "POST", "/api/v1/shipments", duplicate).statusCode());
+        
+        JsonNode list = objectMapper.readTree(send(0, "GET", "/api/v1/shipments", null).body());
+        assertEquals(count, list.size());
+        JsonNode dispatched = objectMapper.readTree(send(1, "GET", "/api/v1/shipments?status=dispatched", null).body());
+        assertEquals(1, dispatched.size());
+        
+        JsonNode stats = objectMapper.readTree(send(1, "GET", "/api/v1/shipments/stats", null).body());
+        assertEquals(count, stats.get("totalShipments").asInt());
+        assertEquals(count - 1, stats.get("countByStatus").get("PENDING").asInt());
+        assertEquals(1, stats.get("countByStatus").get("DISPATCHED").asInt());
+        
+        JsonNode aggregate = objectMapper.readTree(
+                send(0, "GET", "/api/v1/shipments/aggregate?groupBy=status,origin", null).body());
+        assertEquals(count, aggregate.get("matched").asInt());
+        assertEquals(2, aggregate.get("groups").size());
+        assertEquals("PENDING", aggregate.get("groups").get(0).get("key").get("status").asText());
+        assertEquals(count - 1, aggregate.get("groups").get(0).get("count").asInt());
+    }
+    
+    @Test
+    void testOrderIdsThatNeedEncodingAreRoutedByDecodedValue() throws Exception {
+        ConsistentHashRing ring = nodes[0].getBean(ConsistentHashRing.class);
+        // An ID whose raw and percent-encoded forms hash to different nodes
+        String orderId = null;
+        for (int i = 0; orderId == null; i++) {
+            String candidate = "ENC " + i;
+            if (!ring.ownerOf(candidate).equals(ring.ownerOf("ENC%20" + i))) {
+                orderId = candidate;
+            }
+        }
+        String path = "/api/v1/shipments/" + orderId.replace(" ", "%20");
+        
+        String body = "{\"orderId\":\"" + orderId + "\",\"origin\":\"New York\",\"destination\":\"Boston\"}";
+        assertEquals(201, send(0, "POST", "/api/v1/shipments", body).statusCode());
+        for (int node = 0; node < 2; node++) {
+            HttpResponse<String> fetched = send(node, "GET", path, null);
+            assertEquals(200, fetched.statusCode());
+            assertEquals(orderId, objectMapper.readTree(fetched.body()).get("orderId").asText());
+            assertEquals(200, send(node, "GET", path + "/history", null).statusCode());
+        }
+        assertEquals(200, send(1, "PATCH", path, "{\"status\":\"dispatched\"}").statusCode());
+    }
+    
+    @Test
+    void testForwardedResponsesKeepTheirHeaders() throws Exception {
+        ConsistentHashRing ring = nodes[0].getBean(ConsistentHashRing.class);
+        String orderId = "HDR-0";
+        for (int i = 1; !ring.ownerOf(orderId).equals("node-1"); i++) {
+            orderId = "HDR-" + i;
+        }
+        String body = "{\"orderId\":\"" + orderId + "\",\"origin\":\"New York\",\"destination\":\"Boston\"}";
+        assertEquals(201, send(0, "POST", "/api/v1/shipments", body).statusCode());
+        
+        // Entered on node-2 and forwarded to the owner, which stores and replays the response
+        String patch = "{\"status\":\"dispatched\"}";
+        HttpResponse<String> first = send(1, "PATCH", "/api/v1/shipments/" + orderId, patch, "Idempotency-Key", "k-1");
+        HttpResponse<String> retry = send(1, "PATCH", "/api/v1/shipments/" + orderId, patch, "Idempotency-Key", "k-1");
+        assertEquals(200, first.statusCode());
+        assertTrue(first.headers().firstValue("Idempotent-Replayed").isEmpty());
+        assertEquals(200, retry.statusCode());
+        assertEquals("true", retry.headers().firstValue("Idempotent-Replayed").orElse(null));
+        assertEquals(first.body(), retry.body());
+    }
+    
+    @Test
+    void testEventOutcomeSurvivesForwardingAndReplay() throws Exception {
+        ConsistentHashRing ring = nodes[0].getBean(ConsistentHashRing.class);
+        String orderId = "EVT-0";
+        for (int i = 1; !ring.ownerOf(orderId).equals("node-2"); i++) {
+            orderId = "EVT-" + i;
+        }
+        String body = "{\"orderId\":\"" + orderId + "\",\"origin\":\"New York\",\"destination\":\"Boston\"}";
+        assertEquals(201, send(1, "POST", "/api/v1/shipments", body).statusCode());
+        
+        // Entered on node-1, owned by node-2
+        String path = "/api/v1/shipments/" + orderId;
+        String event = "{\"status\":\"dispatched\",\"eventId\":\"scan-1\"}";
+        HttpResponse<String> applied = send(0, "PATCH", path, event, "Idempotency-Key", "evt-1");
+        assertEquals("APPLIED", applied.headers().firstValue("Event-Outcome").orElse(null));
+        HttpResponse<String> replayed = send(0, "PATCH", path, event, "Idempotency-Key", "evt-1");
+        assertEquals("true", replayed.headers().firstValue("Idempotent-Replayed").orElse(null));
+        assertEquals("APPLIED", replayed.headers().firstValue("Event-Outcome").orElse(null));
+        HttpResponse<String> resent = send(0, "PATCH", path, event);
+        assertEquals("DUPLICATE", resent.headers().firstValue("Event-Outcome").orElse(null));
+    }
+    
+    @Test
+    void testForwardedHeaderFromClientsIsNotTrusted() throws Exception {
+        ConsistentHashRing ring = nodes[0].getBean(ConsistentHashRing.class);
+        String orderId = "FWD-0";
+        for (int i = 1; !ring.ownerOf(orderId).equals("node-2"); i++) {
+            orderId = "FWD-" + i;
+        }
+        String body = "{\"orderId\":\"" + orderId + "\",\"origin\":\"New York\",\"destination\":\"Boston\"}";
+        
+        // Claims to come from a peer, with and without a guessed secret; still routed to the owner
+        assertEquals(201, send(0, "POST", "/api/v1/shipments", body,
+                ClusterClient.FORWARDED_HEADER, "node-2").statusCode());
+        assertEquals(409, send(0, "POST", "/api/v1/shipments", body,
+                ClusterClient.FORWARDED_HEADER, "node-2", ClusterClient.SECRET_HEADER, "guess").statusCode());
+        assertFalse(nodes[0].getBean(ShipmentService.class).existsByOrderId(orderId));
+        assertTrue(nodes[1].getBean(ShipmentService.class).existsByOrderId(orderId));
+    }
+    
+    private static ConfigurableApplicationContext start(int index) {
+        return new SpringApplicationBuilder(ShipmentTrackingApplication.class).run(
+                "--server.port=" + ports[index],
+                "--logging.level.org.springframework.web=INFO",
+                "--shipment.cluster.enabled=true",
+                "--shipment.cluster.node-id=node-" + (index + 1),
+                "--shipment.cluster.shared-secret=test-secret",
+                "--shipment.cluster.nodes[0].id=node-1",
+                "--shipment.cluster.nodes[0].url=http://localhost:" + ports[0],
+                "--shipment.cluster.nodes[1].id=node-2",
+                "--shipment.cluster.nodes[1].url=http://localhost:" + ports[1]);
+    }
+    
+    private static HttpResponse<String> send(int node, String method, String path, String body,
+                                             String... headers) throws Exception {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://localhost:" + ports[node] + path))
+                .method(method, body == null
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(body));
+        if (headers.length > 0) {
+            builder.headers(headers);
+        }
+        if (body != null) {
+            builder.header("Content-Type", "application/json");
+        }
+        return http.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+    }
+    
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,55 @@
+package com.logistics.shipment.cluster;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ConsistentHashRing
+ */
+class ConsistentHashRingTest {
+    
+    @Test
+    void testOwnershipIsDeterministic() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("node-1", "node-2", "node-3"), 128);
+        ConsistentHashRing sameConfig = new ConsistentHashRing(List.of("node-3", "node-1", "node-2"), 128);
+        
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(ring.ownerOf("ORDER-" + i), sameConfig.ownerOf("ORDER-" + i));
+        }
+    }
+    
+    @Test
+    void testKeysSpreadAcrossNodes() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("node-1", "node-2", "node-3"), 128);
+        Map<String, Integer> counts = new HashMap<>();
+        int keys = 30_000;
+        for (int i = 0; i < keys; i++) {
+            counts.merge(ring.ownerOf("ORDER-" + i), 1, Integer::sum);
+        }
+        
+        assertEquals(3, counts.size());
+        counts.values().forEach(count -> assertTrue(count > keys / 5 && count < keys / 2, "Uneven spread: " + counts));
+    }
+    
+    @Test
+    void testAddingNodeMovesOnlyItsShare() {
+        ConsistentHashRing before = new ConsistentHashRing(List.of("node-1", "node-2", "node-3"), 128);
+        ConsistentHashRing after = new ConsistentHashRing(List.of("node-1", "node-2", "node-3", "node-4"), 128);
+        int keys = 20_000;
+        int moved = 0;
+        for (int i = 0; i < keys; i++) {
+            String orderId = "ORDER-" + i;
+            String newOwner = after.ownerOf(orderId);
+            if (!newOwner.equals(before.ownerOf(orderId))) {
+                assertEquals("node-4", newOwner);
+                moved++;
+            }
+        }
+        assertTrue(moved > keys / 8 && moved < keys * 2 / 5, "Moved " + moved + " of " + keys);
+    }
+}
\ No newline at end of file
@@ -1,6 +1,10 @@
 package com.logistics.shipment.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logistics.shipment.events.EventOutcome;
+import com.logistics.shipment.events.StatusEvent;
+import com.logistics.shipment.events.StatusEventReconciler;
+import com.logistics.shipment.events.StatusEventResult;
 import com.logistics.shipment.exception.DuplicateShipmentException;
 import com.logistics.shipment.exception.InvalidStatusTransitionException;
 import com.logistics.shipment.exception.ShipmentNotFoundException;
@@ -19,6 +23,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.when;
@@ -37,6 +42,9 @@ class ShipmentControllerTest {
     @MockBean
     private ShipmentService shipmentService;
     
+    @MockBean
+    private StatusEventReconciler statusEventReconciler;
+    
     @Autowired
     private ObjectMapper objectMapper;
     
@@ -80,6 +88,17 @@ class ShipmentControllerTest {
                 .andExpect(jsonPath("$.error").value("Validation Failed"));
     }
     
+    @Test
+    void testCreateShipmentRejectsValuesLongerThanTheColumn() throws Exception {
+        Shipment invalidShipment = new Shipment("X".repeat(256), "New York", "Los Angeles");
+        
+        mockMvc.perform(post("/api/v1/shipments")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(invalidShipment)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Validation Failed"));
+    }
+    
     @Test
     void testGetShipmentByOrderId() throws Exception {
         Shipment shipment = new Shipment("ORDER-001", "New York", "Los Angeles");
@@ -92,6 +111,23 @@ class ShipmentControllerTest {
                 .andExpect(jsonPath("$.destination").value("Los Angeles"));
     }
     
+    @Test
+    void testGetShipmentHistory() throws Exception {
+        Shipment shipment = new Shipment("ORDER-001", "New York", "Los Angeles");
+        shipment.initHistory();
+        shipment.setStatus(ShipmentStatus.DISPATCHED);
+        when(shipmentService.getShipmentByOrderId("ORDER-001")).thenReturn(shipment);
+        
+        mockMvc.perform(get("/api/v1/shipments/ORDER-001/history"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.orderId").value("ORDER-001"))
+                .andExpect(jsonPath("$.currentStatus").value("DISPATCHED"))
+                .andExpect(jsonPath("$.history.length()").value(2))
+                .andExpect(jsonPath("$.history[0].status").value("PENDING"))
+                .andExpect(jsonPath("$.history[1].status").value("DISPATCHED"))
+                .andExpect(jsonPath("$.history[1].timestamp").exists());
+    }
+    
     @Test
     void testGetShipmentByOrderIdNotFound() throws Exception {
         when(shipmentService.getShipmentByOrderId("NONEXISTENT"))
@@ -118,6 +154,20 @@ class ShipmentControllerTest {
                 .andExpect(jsonPath("$.status").value("DISPATCHED"));
     }
     
+    @Test
+    void testUpdateShipmentStatusWithEventReportsOutcome() throws Exception {
+        Shipment current = new Shipment("ORDER-001", "New York", "Los Angeles", ShipmentStatus.IN_TRANSIT);
+        when(statusEventReconciler.apply(any(StatusEvent.class)))
+                .thenReturn(new StatusEventResult(EventOutcome.STALE, current));
+        
+        mockMvc.perform(patch("/api/v1/shipments/ORDER-001")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"status\":\"dispatched\",\"eventId\":\"scan-7\",\"eventTimestamp\":\"2024-01-15T10:30:00\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(ShipmentController.EVENT_OUTCOME_HEADER, "STALE"))
+                .andExpect(jsonPath("$.status").value("IN_TRANSIT"));
+    }
+    
     @Test
     void testUpdateShipmentStatusInvalidTransition() throws Exception {
         when(shipmentService.updateShipmentStatus("ORDER-001", "delivered"))
@@ -139,7 +189,7 @@ class ShipmentControllerTest {
             new Shipment("ORDER-002", "Chicago", "Miami")
         );
         
-        when(shipmentService.getShipments(null, null)).thenReturn(shipments);
+        when(shipmentService.getShipments(null, null, null)).thenReturn(shipments);
         
         mockMvc.perform(get("/api/v1/shipments"))
                 .andExpect(status().isOk())
@@ -155,7 +205,7 @@ class ShipmentControllerTest {
             new Shipment("ORDER-001", "New York", "Los Angeles", ShipmentStatus.PENDING)
         );
         
-        when(shipmentService.getShipments("pending", "New York")).thenReturn(pendingShipments);
+        when(shipmentService.getShipments("pending", "New York", null)).thenReturn(pendingShipments);
         
         mockMvc.perform(get("/api/v1/shipments")
                 .param("status", "pending")
@@ -167,6 +217,25 @@ class ShipmentControllerTest {
                 .andExpect(jsonPath("$[0].origin").value("New York"));
     }
     
+    @Test
+    void testGetShipmentsWithFieldProjection() throws Exception {
+        Shipment shipment = new Shipment("ORDER-001", "New York", "Los Angeles", ShipmentStatus.PENDING);
+        when(shipmentService.getShipments(null, null, null)).thenReturn(List.of(shipment));
+        when(shipmentService.getShipmentByOrderId("ORDER-001")).thenReturn(shipment);
+        
+        mockMvc.perform(get("/api/v1/shipments").param("fields", "orderId,status"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[{\"orderId\":\"ORDER-001\",\"status\":\"PENDING\"}]", true));
+        
+        mockMvc.perform(get("/api/v1/shipments/ORDER-001").param("fields", "destination"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"destination\":\"Los Angeles\"}", true));
+        
+        mockMvc.perform(get("/api/v1/shipments/ORDER-001").param("fields", "orderId,price"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("price")));
+    }
+    
     @Test
     void testGetShipmentStats() throws Exception {
         Map<ShipmentStatus, Long> countByStatus = new HashMap<>();
@@ -175,7 +244,6 @@ class ShipmentControllerTest {
         countByStatus.put(ShipmentStatus.IN_TRANSIT, 1L);
         
         when(shipmentService.getShipmentCountByStatus()).thenReturn(countByStatus);
-        when(shipmentService.getTotalShipmentCount()).thenReturn(6);
         
         mockMvc.perform(get("/api/v1/shipments/stats"))
                 .andExpect(status().isOk())
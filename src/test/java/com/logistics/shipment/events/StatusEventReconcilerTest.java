@@ -0,0 +1,211 @@
+package com.logistics.shipment.events;
+
+import com.logistics.shipment.exception.InvalidStatusTransitionException;
+import com.logistics.shipment.model.Shipment;
+import com.logistics.shipment.model.ShipmentStatus;
+import com.logistics.shipment.model.StatusChange;
+import com.logistics.shipment.model.StatusTransitions;
+import com.logistics.shipment.service.ShipmentMutationListener;
+import com.logistics.shipment.service.ShipmentService;
+import com.logistics.shipment.store.ConcurrentMapShipmentStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for duplicate, out-of-order and burst handling of scanner status events
+ */
+class StatusEventReconcilerTest {
+    
+    private final AtomicInteger statusChanges = new AtomicInteger();
+    private final AtomicBoolean holdWrites = new AtomicBoolean();
+    private final CountDownLatch writeHeld = new CountDownLatch(1);
+    private final CountDownLatch releaseWrite = new CountDownLatch(1);
+    
+    private ShipmentService shipmentService;
+    private StatusEventReconciler reconciler;
+    
+    @BeforeEach
+    void setUp() {
+        ShipmentMutationListener listener = new ShipmentMutationListener() {
+            @Override
+            public void beforeMutation() {
+                if (holdWrites.compareAndSet(true, false)) {
+                    writeHeld.countDown();
+                    try {
+                        releaseWrite.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+            
+            @Override
+            public void onStatusChanged(Shipment shipment, ShipmentStatus previousStatus) {
+                statusChanges.incrementAndGet();
+            }
+        };
+        shipmentService = new ShipmentService(new ConcurrentMapShipmentStore(), List.of(listener));
+        reconciler = new StatusEventReconciler(shipmentService, new StatusEventProperties());
+        shipmentService.createShipment(new Shipment("ORDER-001", "New York", "Boston"));
+    }
+    
+    @Test
+    void testDuplicateEventIsAcknowledgedOnce() {
+        StatusEventResult first = reconciler.apply(event("scan-1", ShipmentStatus.DISPATCHED, 1_000));
+        StatusEventResult resent = reconciler.apply(event("scan-1", ShipmentStatus.DISPATCHED, 1_000));
+        
+        assertEquals(EventOutcome.APPLIED, first.getOutcome());
+        assertEquals(EventOutcome.DUPLICATE, resent.getOutcome());
+        assertEquals(ShipmentStatus.DISPATCHED, resent.getShipment().getStatus());
+        assertEquals(1, statusChanges.get());
+        assertEquals(1, reconciler.getStoreUpdates());
+    }
+    
+    @Test
+    void testLateEventIsIgnoredInsteadOfRejected() {
+        reconciler.apply(event("scan-1", ShipmentStatus.DISPATCHED, 1_000));
+        reconciler.apply(event("scan-2", ShipmentStatus.IN_TRANSIT, 2_000));
+        
+        // Older than the newest applied event
+        assertEquals(EventOutcome.STALE,
+                reconciler.apply(event("scan-3", ShipmentStatus.DELIVERED, 1_500)).getOutcome());
+        // A status the shipment has already been through, with no timestamp to go by
+        assertEquals(EventOutcome.STALE,
+                reconciler.apply(event("scan-4", ShipmentStatus.DISPATCHED, StatusEvent.NO_TIMESTAMP)).getOutcome());
+        
+        assertEquals(ShipmentStatus.IN_TRANSIT, shipmentService.getShipmentByOrderId("ORDER-001").getStatus());
+        assertEquals(2, statusChanges.get());
+        assertEquals(2, reconciler.getStale());
+    }
+    
+    @Test
+    void testRejectedEventDoesNotEnterWindow() {
+        assertThrows(InvalidStatusTransitionException.class,
+                () -> reconciler.apply(event("scan-1", ShipmentStatus.DELIVERED, 5_000)));
+        
+        // Neither the ID nor the time of the rejected event holds back later ones
+        assertEquals(EventOutcome.APPLIED,
+                reconciler.apply(event("scan-1", ShipmentStatus.DISPATCHED, 1_000)).getOutcome());
+    }
+    
+    @Test
+    void testBurstIsAppliedInEventTimeOrderAsOneUpdate() throws Exception {
+        holdWrites.set(true);
+        CompletableFuture<StatusEventResult> leader =
+                CompletableFuture.supplyAsync(() -> reconciler.apply(event("scan-1", ShipmentStatus.DISPATCHED, 1_000)));
+        assertTrue(writeHeld.await(5, TimeUnit.SECONDS));
+        
+        // Queued behind the held write, arriving in the wrong order and with a resend
+        List<Thread> followers = new ArrayList<>();
+        List<CompletableFuture<StatusEventResult>> results = new ArrayList<>();
+        for (StatusEvent event : List.of(
+                event("scan-3", ShipmentStatus.DELIVERED, 3_000),
+                event("scan-2", ShipmentStatus.IN_TRANSIT, 2_000),
+                event("scan-3", ShipmentStatus.DELIVERED, 3_000))) {
+            CompletableFuture<StatusEventResult> result = new CompletableFuture<>();
+            Thread thread = new Thread(() -> result.complete(reconciler.apply(event)));
+            thread.start();
+            awaitWaiting(thread);
+            followers.add(thread);
+            results.add(result);
+        }
+        releaseWrite.countDown();
+        
+        assertEquals(EventOutcome.APPLIED, leader.get(5, TimeUnit.SECONDS).getOutcome());
+        assertEquals(EventOutcome.APPLIED, results.get(0).get(5, TimeUnit.SECONDS).getOutcome());
+        assertEquals(EventOutcome.APPLIED, results.get(1).get(5, TimeUnit.SECONDS).getOutcome());
+        assertEquals(EventOutcome.DUPLICATE, results.get(2).get(5, TimeUnit.SECONDS).getOutcome());
+        for (Thread thread : followers) {
+            thread.join(5_000);
+        }
+        
+        Shipment shipment = shipmentService.getShipmentByOrderId("ORDER-001");
+        assertEquals(List.of(ShipmentStatus.PENDING, ShipmentStatus.DISPATCHED, ShipmentStatus.IN_TRANSIT,
+                        ShipmentStatus.DELIVERED),
+                shipment.getStatusHistory().stream().map(StatusChange::getStatus).collect(Collectors.toList()));
+        assertEquals(3, reconciler.getApplied());
+        assertEquals(2, reconciler.getStoreUpdates());
+    }
+    
+    @Test
+    void testEventsWithoutTimestampKeepTheirArrivalPosition() {
+        List<StatusEventReconciler.Pending> batch = new ArrayList<>(List.of(
+                new StatusEventReconciler.Pending(event("scan-3", ShipmentStatus.DELIVERED, 3_000)),
+                new StatusEventReconciler.Pending(event("scan-x", ShipmentStatus.IN_TRANSIT, StatusEvent.NO_TIMESTAMP)),
+                new StatusEventReconciler.Pending(event("scan-1", ShipmentStatus.DISPATCHED, 1_000)),
+                new StatusEventReconciler.Pending(event("scan-2", ShipmentStatus.DISPATCHED, 1_000))));
+        
+        StatusEventReconciler.orderByEventTime(batch);
+        
+        assertEquals(List.of("scan-1", "scan-x", "scan-2", "scan-3"),
+                batch.stream().map(pending -> pending.event.getEventId()).collect(Collectors.toList()));
+    }
+    
+    @Test
+    void testEvictionAtLimitKeepsRecentlyUsedWindows() {
+        StatusEventProperties properties = new StatusEventProperties();
+        properties.setMaxTracked(100);
+        StatusEventReconciler bounded = new StatusEventReconciler(shipmentService, properties);
+        assertEquals(EventOutcome.APPLIED, bounded.apply(event("hot-1", ShipmentStatus.DISPATCHED, 1_000)).getOutcome());
+        
+        for (int i = 0; i < 1_000; i++) {
+            String orderId = "ORDER-BULK-" + i;
+            shipmentService.createShipment(new Shipment(orderId, "New York", "Boston"));
+            bounded.apply(new StatusEvent(orderId, ShipmentStatus.DISPATCHED, "bulk-" + i, 1_000));
+            // Still remembered, so still a duplicate rather than falling through to the history check
+            assertEquals(EventOutcome.DUPLICATE,
+                    bounded.apply(event("hot-1", ShipmentStatus.DISPATCHED, 1_000)).getOutcome());
+            assertTrue(bounded.getTrackedShipments() <= 100, "tracked: " + bounded.getTrackedShipments());
+        }
+        assertEquals(1_000, bounded.getDuplicates());
+    }
+    
+    @Test
+    void testWorkflowLoopsAreAppliedAndLateCopiesStayStale() {
+        StatusTransitions transitions = StatusTransitions.withOverrides(Map.of(
+                ShipmentStatus.EXCEPTION, List.of(ShipmentStatus.IN_TRANSIT, ShipmentStatus.DELIVERED)));
+        ShipmentService looping = new ShipmentService(new ConcurrentMapShipmentStore(), List.of(), transitions);
+        StatusEventReconciler loopingReconciler = new StatusEventReconciler(looping, new StatusEventProperties());
+        looping.createShipment(new Shipment("ORDER-001", "New York", "Boston"));
+        
+        for (ShipmentStatus status : List.of(ShipmentStatus.DISPATCHED, ShipmentStatus.IN_TRANSIT,
+                ShipmentStatus.EXCEPTION, ShipmentStatus.IN_TRANSIT)) {
+            assertEquals(EventOutcome.APPLIED,
+                    loopingReconciler.apply(new StatusEvent("ORDER-001", status, null, StatusEvent.NO_TIMESTAMP)).getOutcome());
+        }
+        // Passed through before and not a step from in-transit
+        StatusEventResult late = loopingReconciler.apply(
+                new StatusEvent("ORDER-001", ShipmentStatus.DISPATCHED, null, StatusEvent.NO_TIMESTAMP));
+        assertEquals(EventOutcome.STALE, late.getOutcome());
+        assertEquals(ShipmentStatus.IN_TRANSIT, late.getShipment().getStatus());
+        assertEquals(5, late.getShipment().getStatusHistory().size());
+        
+        // The default workflow of another service is unaffected
+        assertThrows(InvalidStatusTransitionException.class,
+                () -> shipmentService.updateShipmentStatuses("ORDER-001", List.of(ShipmentStatus.DISPATCHED,
+                        ShipmentStatus.IN_TRANSIT, ShipmentStatus.EXCEPTION, ShipmentStatus.IN_TRANSIT)));
+    }
+    
+    private static StatusEvent event(String eventId, ShipmentStatus status, long eventTimeMillis) {
+        return new StatusEvent("ORDER-001", status, eventId, eventTimeMillis);
+    }
+    
+    private static void awaitWaiting(Thread thread) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (thread.getState() != Thread.State.WAITING && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,218 @@
+package com.logistics.shipment.grpc;
+
+import com.logistics.shipment.events.StatusEventProperties;
+import com.logistics.shipment.events.StatusEventReconciler;
+import com.logistics.shipment.grpc.v1.CreateShipment;
+import com.logistics.shipment.grpc.v1.IngestSummary;
+import com.logistics.shipment.grpc.v1.ResultCode;
+import com.logistics.shipment.grpc.v1.ScanEvent;
+import com.logistics.shipment.grpc.v1.ScanResult;
+import com.logistics.shipment.grpc.v1.ShipmentIngestGrpc;
+import com.logistics.shipment.grpc.v1.ShipmentStatus;
+import com.logistics.shipment.grpc.v1.StatusUpdate;
+import com.logistics.shipment.service.ShipmentMutationListener;
+import com.logistics.shipment.service.ShipmentService;
+import com.logistics.shipment.store.ConcurrentMapShipmentStore;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
+import io.grpc.stub.StreamObserver;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the gRPC ingestion service over an in-process channel
+ */
+class ShipmentIngestServiceTest {
+    
+    private final ValidatorFactory validatorFactory = Validation.buildDefaultValidatorFactory();
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+    private final List<ShipmentMutationListener> listeners = new ArrayList<>();
+    private ShipmentService shipmentService;
+    private Server server;
+    private ManagedChannel channel;
+    
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        channel.shutdownNow();
+        server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        executor.shutdownNow();
+        validatorFactory.close();
+    }
+    
+    @Test
+    void testRecordScansReturnsSummary() throws Exception {
+        start(32);
+        CompletableFuture<IngestSummary> summary = new CompletableFuture<>();
+        StreamObserver<ScanEvent> requests = ShipmentIngestGrpc.newStub(channel).recordScans(observer(summary));
+        requests.onNext(create(1, "ORDER-1", ShipmentStatus.SHIPMENT_STATUS_UNSPECIFIED));
+        requests.onNext(update(2, "ORDER-1", ShipmentStatus.DISPATCHED));
+        requests.onNext(update(3, "ORDER-1", ShipmentStatus.PENDING));
+        requests.onNext(update(4, "ORDER-404", ShipmentStatus.DISPATCHED));
+        requests.onNext(create(5, "ORDER-1", ShipmentStatus.PENDING));
+        requests.onNext(create(6, "", ShipmentStatus.PENDING));
+        requests.onNext(ScanEvent.newBuilder().setSequence(7).build());
+        requests.onCompleted();
+        
+        IngestSummary result = summary.get(5, TimeUnit.SECONDS);
+        assertEquals(7, result.getReceived());
+        assertEquals(2, result.getAccepted());
+        assertEquals(5, result.getRejected());
+        assertEquals(List.of(ResultCode.INVALID_TRANSITION, ResultCode.NOT_FOUND, ResultCode.ALREADY_EXISTS,
+                ResultCode.INVALID_ARGUMENT, ResultCode.INVALID_ARGUMENT),
+                result.getFailuresList().stream().map(ScanResult::getCode).collect(Collectors.toList()));
+        assertEquals(3, result.getFailures(0).getSequence());
+        assertEquals(com.logistics.shipment.model.ShipmentStatus.DISPATCHED,
+                shipmentService.getShipmentByOrderId("ORDER-1").getStatus());
+    }
+    
+    @Test
+    void testStreamScansReturnsOneResultPerEventInOrder() throws Exception {
+        start(32);
+        List<ScanResult> results = new ArrayList<>();
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        StreamObserver<ScanEvent> requests = ShipmentIngestGrpc.newStub(channel).streamScans(new StreamObserver<>() {
+            @Override
+            public void onNext(ScanResult result) {
+                results.add(result);
+            }
+            
+            @Override
+            public void onError(Throwable t) {
+                done.completeExceptionally(t);
+            }
+            
+            @Override
+            public void onCompleted() {
+                done.complete(null);
+            }
+        });
+        requests.onNext(create(1, "ORDER-1", ShipmentStatus.PENDING));
+        for (int i = 0; i < 3; i++) {
+            requests.onNext(update(2 + i, "ORDER-1", ShipmentStatus.forNumber(2 + i)));
+        }
+        requests.onNext(update(5, "ORDER-1", ShipmentStatus.DELIVERED));
+        requests.onCompleted();
+        done.get(5, TimeUnit.SECONDS);
+        
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L),
+                results.stream().map(ScanResult::getSequence).collect(Collectors.toList()));
+        assertEquals(ShipmentStatus.DELIVERED, results.get(3).getStatus());
+        assertEquals(ResultCode.INVALID_TRANSITION, results.get(4).getCode());
+        assertTrue(results.get(4).getMessage().contains("delivered"));
+    }
+    
+    @Test
+    void testBlockedStoreStopsReadingFromScanner() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger attempted = new AtomicInteger();
+        listeners.add(new ShipmentMutationListener() {
+            @Override
+            public void beforeMutation() {
+                attempted.incrementAndGet();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        start(4);
+        
+        // The scanner sends whenever the stream is ready, as a well-behaved gRPC client does
+        AtomicInteger sent = new AtomicInteger();
+        CompletableFuture<IngestSummary> summary = new CompletableFuture<>();
+        ShipmentIngestGrpc.newStub(channel).recordScans(new ClientResponseObserver<ScanEvent, IngestSummary>() {
+            @Override
+            public void beforeStart(ClientCallStreamObserver<ScanEvent> requests) {
+                requests.setOnReadyHandler(() -> {
+                    while (requests.isReady() && sent.get() < 1000) {
+                        requests.onNext(create(sent.get(), "ORDER-" + sent.getAndIncrement(), ShipmentStatus.PENDING));
+                    }
+                    if (sent.get() == 1000) {
+                        sent.incrementAndGet();
+                        requests.onCompleted();
+                    }
+                });
+            }
+            
+            @Override
+            public void onNext(IngestSummary value) {
+                summary.complete(value);
+            }
+            
+            @Override
+            public void onError(Throwable t) {
+                summary.completeExceptionally(t);
+            }
+            
+            @Override
+            public void onCompleted() {
+            }
+        });
+        
+        Thread.sleep(300);
+        assertEquals(1, attempted.get());
+        assertTrue(sent.get() < 100, "scanner was not held back: sent " + sent.get());
+        
+        release.countDown();
+        IngestSummary result = summary.get(10, TimeUnit.SECONDS);
+        assertEquals(1000, result.getAccepted());
+        assertEquals(1000, shipmentService.getTotalShipmentCount());
+    }
+    
+    private void start(int window) throws Exception {
+        shipmentService = new ShipmentService(new ConcurrentMapShipmentStore(), listeners);
+        ShipmentIngestService service = new ShipmentIngestService(
+                new ScanEventHandler(shipmentService, validatorFactory.getValidator(),
+                        new StatusEventReconciler(shipmentService, new StatusEventProperties())), window, 100);
+        String name = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(name).addService(service).executor(executor).build().start();
+        channel = InProcessChannelBuilder.forName(name).build();
+    }
+    
+    private static ScanEvent create(long sequence, String orderId, ShipmentStatus status) {
+        return ScanEvent.newBuilder().setSequence(sequence).setCreate(CreateShipment.newBuilder()
+                .setOrderId(orderId).setOrigin("Chicago").setDestination("Miami").setStatus(status)).build();
+    }
+    
+    private static ScanEvent update(long sequence, String orderId, ShipmentStatus status) {
+        return ScanEvent.newBuilder().setSequence(sequence).setStatusUpdate(StatusUpdate.newBuilder()
+                .setOrderId(orderId).setStatus(status)).build();
+    }
+    
+    private static <T> StreamObserver<T> observer(CompletableFuture<T> future) {
+        return new StreamObserver<>() {
+            @Override
+            public void onNext(T value) {
+                future.complete(value);
+            }
+            
+            @Override
+            public void onError(Throwable t) {
+                future.completeExceptionally(t);
+            }
+            
+            @Override
+            public void onCompleted() {
+            }
+        };
+    }
+}
\ No newline at end of file
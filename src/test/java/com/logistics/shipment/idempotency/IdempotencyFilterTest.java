@@ -0,0 +1,179 @@
+package com.logistics.shipment.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for idempotency keys and the bounded response cache
+ */
+class IdempotencyFilterTest {
+    
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final AtomicInteger executions = new AtomicInteger();
+    
+    // Behaves like createShipment: the first execution succeeds, later ones are duplicates
+    private final FilterChain createChain = (req, res) -> {
+        HttpServletResponse response = (HttpServletResponse) res;
+        response.setContentType("application/json");
+        if (executions.incrementAndGet() == 1) {
+            response.setStatus(201);
+            response.getWriter().write("{\"orderId\":\"ORDER-001\"}");
+        } else {
+            response.setStatus(409);
+            response.getWriter().write("{\"error\":\"Duplicate Shipment\"}");
+        }
+    };
+    
+    @Test
+    void testRetriedPostReplaysOriginalResponse() throws Exception {
+        IdempotencyFilter filter = new IdempotencyFilter(new IdempotencyProperties(), objectMapper);
+        
+        MockHttpServletResponse first = post(filter, "key-1", "{\"orderId\":\"ORDER-001\"}", createChain);
+        MockHttpServletResponse retry = post(filter, "key-1", "{\"orderId\":\"ORDER-001\"}", createChain);
+        
+        assertEquals(201, first.getStatus());
+        assertNull(first.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals(201, retry.getStatus());
+        assertEquals("true", retry.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals(first.getContentAsString(), retry.getContentAsString());
+        assertEquals("application/json", retry.getContentType());
+        assertEquals(1, executions.get());
+    }
+    
+    @Test
+    void testRequestsWithoutKeyOrWithNewKeyExecute() throws Exception {
+        IdempotencyFilter filter = new IdempotencyFilter(new IdempotencyProperties(), objectMapper);
+        
+        post(filter, "key-1", "{\"orderId\":\"ORDER-001\"}", createChain);
+        assertEquals(409, post(filter, null, "{\"orderId\":\"ORDER-001\"}", createChain).getStatus());
+        assertEquals(409, post(filter, "key-2", "{\"orderId\":\"ORDER-001\"}", createChain).getStatus());
+        assertEquals(3, executions.get());
+    }
+    
+    @Test
+    void testKeyReusedForDifferentRequestIsRejected() throws Exception {
+        IdempotencyFilter filter = new IdempotencyFilter(new IdempotencyProperties(), objectMapper);
+        
+        post(filter, "key-1", "{\"orderId\":\"ORDER-001\"}", createChain);
+        MockHttpServletResponse reused = post(filter, "key-1", "{\"orderId\":\"ORDER-002\"}", createChain);
+        
+        assertEquals(422, reused.getStatus());
+        assertEquals(1, executions.get());
+    }
+    
+    @Test
+    void testServerErrorsAreNotStored() throws Exception {
+        IdempotencyFilter filter = new IdempotencyFilter(new IdempotencyProperties(), objectMapper);
+        FilterChain failing = (req, res) -> {
+            executions.incrementAndGet();
+            ((HttpServletResponse) res).setStatus(503);
+        };
+        
+        assertEquals(503, post(filter, "key-1", "{}", failing).getStatus());
+        assertEquals(503, post(filter, "key-1", "{}", failing).getStatus());
+        assertEquals(2, executions.get());
+        assertEquals(0, filter.getCachedKeys());
+    }
+    
+    @Test
+    void testCacheEvictsOldestBeyondSizeAndAfterTtl() {
+        AtomicLong clock = new AtomicLong();
+        IdempotencyCache cache = new IdempotencyCache(2, 100, clock::get);
+        byte[] fingerprint = new byte[] {1};
+        
+        assertTrue(cache.claim("a", fingerprint).owned());
+        assertTrue(cache.claim("b", fingerprint).owned());
+        assertTrue(cache.claim("c", fingerprint).owned());
+        assertEquals(2, cache.size());
+        assertTrue(cache.claim("a", fingerprint).owned(), "oldest key should have been evicted");
+        assertFalse(cache.claim("c", fingerprint).owned());
+        
+        clock.addAndGet(100);
+        assertTrue(cache.claim("c", fingerprint).owned(), "expired key should be claimable again");
+        assertEquals(1, cache.size());
+    }
+    
+    @Test
+    void testEvictedClaimCannotTouchALaterClaimOfTheSameKey() {
+        AtomicLong clock = new AtomicLong();
+        IdempotencyCache cache = new IdempotencyCache(1, 100, clock::get);
+        IdempotencyCache.Claim first = cache.claim("a", new byte[] {1});
+        // Size pressure evicts the first request's claim while it is still running
+        assertTrue(cache.claim("b", new byte[] {1}).owned());
+        IdempotencyCache.Claim second = cache.claim("a", new byte[] {2});
+        assertTrue(second.owned());
+        long retained = cache.getRetainedBytes();
+        
+        cache.complete("a", first.entry(), new IdempotencyCache.StoredResponse(201, null, null, new byte[10]));
+        cache.release("a", first.entry());
+        
+        IdempotencyCache.Claim replay = cache.claim("a", new byte[] {2});
+        assertFalse(replay.owned());
+        assertSame(second.entry(), replay.entry());
+        assertNull(replay.entry().getResponse());
+        assertEquals(retained, cache.getRetainedBytes());
+    }
+    
+    @Test
+    void testReleasedKeysDoNotAccumulateInInsertionQueue() {
+        AtomicLong clock = new AtomicLong();
+        IdempotencyCache cache = new IdempotencyCache(100, 1_000_000, clock::get);
+        assertTrue(cache.claim("kept", new byte[] {1}).owned());
+        
+        // A storm of failing requests with unique keys, all behind one live head
+        for (int i = 0; i < 10_000; i++) {
+            IdempotencyCache.Claim claim = cache.claim("failed-" + i, new byte[] {2});
+            assertTrue(claim.owned());
+            cache.release("failed-" + i, claim.entry());
+        }
+        assertEquals(1, cache.size());
+        assertTrue(cache.queuedInsertions() <= 2 * 100 + 1, "queued: " + cache.queuedInsertions());
+        assertFalse(cache.claim("kept", new byte[] {1}).owned());
+    }
+    
+    @Test
+    void testReplayKeepsHeadersSetByTheRequest() throws Exception {
+        IdempotencyFilter filter = new IdempotencyFilter(new IdempotencyProperties(), objectMapper);
+        FilterChain patchChain = (req, res) -> {
+            HttpServletResponse response = (HttpServletResponse) res;
+            executions.incrementAndGet();
+            response.setContentType("application/json");
+            response.setHeader("Event-Outcome", "APPLIED");
+            response.getWriter().write("{\"status\":\"DISPATCHED\"}");
+        };
+        
+        MockHttpServletResponse first = post(filter, "key-1", "{\"status\":\"dispatched\"}", patchChain);
+        MockHttpServletResponse retry = post(filter, "key-1", "{\"status\":\"dispatched\"}", patchChain);
+        
+        assertEquals("APPLIED", first.getHeader("Event-Outcome"));
+        assertEquals("APPLIED", retry.getHeader("Event-Outcome"));
+        assertEquals("true", retry.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals(1, retry.getHeaders(HttpHeaders.CONTENT_TYPE).size());
+        assertEquals(1, executions.get());
+    }
+    
+    private MockHttpServletResponse post(IdempotencyFilter filter, String key, String body, FilterChain chain)
+            throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/shipments");
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        if (key != null) {
+            request.addHeader("Idempotency-Key", key);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,192 @@
+package com.logistics.shipment.json;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.logistics.shipment.controller.ShipmentController.ShipmentStats;
+import com.logistics.shipment.controller.ShipmentController.StatusUpdateRequest;
+import com.logistics.shipment.model.Shipment;
+import com.logistics.shipment.model.ShipmentStatus;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the streaming serializers against Jackson's bean-based mapping
+ */
+class ShipmentJsonTest {
+    
+    private final ObjectMapper reflective = mapper(JsonInclude.Include.NON_NULL, false);
+    private final ObjectMapper streaming = mapper(JsonInclude.Include.NON_NULL, true);
+    
+    @Test
+    void testShipmentOutputIsByteIdentical() throws Exception {
+        Random random = new Random(7);
+        String[] names = {"New York", "Zürich \"Hub\"", "line\nbreak\t\u0001", "", "🚚 depot"};
+        for (int i = 0; i < 2000; i++) {
+            Shipment shipment = new Shipment("ORDER-" + i, names[random.nextInt(names.length)],
+                    names[random.nextInt(names.length)], ShipmentStatus.values()[random.nextInt(4)]);
+            shipment.setCreatedAt(randomTimestamp(random));
+            shipment.setUpdatedAt(randomTimestamp(random));
+            assertSameJson(reflective, streaming, shipment);
+        }
+        
+        Shipment sparse = new Shipment(null, "Chicago", null, null);
+        sparse.setStatus(null);
+        sparse.setCreatedAt(null);
+        assertSameJson(reflective, streaming, sparse);
+        assertSameJson(mapper(JsonInclude.Include.ALWAYS, false), mapper(JsonInclude.Include.ALWAYS, true), sparse);
+    }
+    
+    @Test
+    void testTimestampEdgeCases() throws Exception {
+        List<LocalDateTime> timestamps = List.of(
+                LocalDateTime.of(2024, 1, 15, 10, 0),
+                LocalDateTime.of(2024, 1, 15, 10, 0, 5),
+                LocalDateTime.of(2024, 1, 15, 10, 0, 0, 100_000_000),
+                LocalDateTime.of(2024, 1, 15, 10, 0, 0, 120),
+                LocalDateTime.of(0, 1, 1, 0, 0),
+                LocalDateTime.of(-5, 12, 31, 23, 59, 59, 999_999_999),
+                LocalDateTime.of(10_000, 6, 1, 0, 0),
+                LocalDateTime.MIN,
+                LocalDateTime.MAX);
+        char[] buffer = new char[IsoTimestamps.MAX_LENGTH];
+        for (LocalDateTime timestamp : timestamps) {
+            String expected = timestamp.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+            assertEquals(expected, new String(buffer, 0, IsoTimestamps.format(timestamp, buffer)));
+        }
+        
+        assertEquals(LocalDateTime.of(2024, 1, 15, 10, 30), parse("2024-01-15T10:30"));
+        assertEquals(LocalDateTime.of(2024, 1, 15, 10, 30, 1, 500_000_000), parse("2024-01-15T10:30:01.5"));
+        assertEquals(LocalDateTime.of(2024, 1, 15, 10, 30, 1, 123_456_789), parse("2024-01-15T10:30:01.123456789"));
+        assertNull(parse("2024-01-15T10:30:01Z"));
+        assertNull(parse("2024-13-15T10:30:01"));
+        assertNull(parse("+10000-01-15T10:30"));
+        assertNull(parse("2024-01-15 10:30"));
+    }
+    
+    @Test
+    void testShipmentInputMatchesBeanMapping() throws Exception {
+        List<String> bodies = List.of(
+                "{\"orderId\":\"ORDER-1\",\"origin\":\"New York\",\"destination\":\"Boston\"}",
+                "{\"destination\":\"Boston\",\"status\":\"DISPATCHED\",\"orderId\":\"ORDER-2\",\"unknown\":{\"a\":[1]}}",
+                "{\"orderId\":42,\"origin\":true,\"destination\":\"x\",\"createdAt\":\"2024-01-15T10:30:00Z\"}",
+                "{\"orderId\":\"ORDER-3\",\"createdAt\":\"2024-01-15T10:30:00.25\",\"updatedAt\":null}",
+                "{\"orderId\":\"ORDER-4\",\"status\":null,\"statusHistory\":[],\"packedHistory\":[1]}",
+                "{}");
+        for (String body : bodies) {
+            Shipment expected = reflective.readValue(body, Shipment.class);
+            Shipment actual = streaming.readValue(body, Shipment.class);
+            assertEquals(expected.getOrderId(), actual.getOrderId(), body);
+            assertEquals(expected.getOrigin(), actual.getOrigin(), body);
+            assertEquals(expected.getDestination(), actual.getDestination(), body);
+            assertEquals(expected.getStatus(), actual.getStatus(), body);
+            assertEquals(expected.getPackedHistory().length, actual.getPackedHistory().length, body);
+            if (body.contains("createdAt")) {
+                assertEquals(expected.getCreatedAt(), actual.getCreatedAt(), body);
+            }
+            if (body.contains("updatedAt")) {
+                assertEquals(expected.getUpdatedAt(), actual.getUpdatedAt(), body);
+            }
+        }
+        
+        for (String invalid : List.of("{\"status\":\"pending\"}", "{\"createdAt\":\"yesterday\"}", "[1]",
+                "{\"origin\":{\"city\":\"x\"}}")) {
+            Exception expected = assertThrows(Exception.class, () -> reflective.readValue(invalid, Shipment.class));
+            Exception actual = assertThrows(Exception.class, () -> streaming.readValue(invalid, Shipment.class));
+            assertEquals(expected.getClass(), actual.getClass(), invalid);
+        }
+    }
+    
+    @Test
+    void testStatusUpdateAndStats() throws Exception {
+        String body = "{\"status\":\"in-transit\",\"note\":\"ignored\"}";
+        assertEquals(reflective.readValue(body, StatusUpdateRequest.class).getStatus(),
+                streaming.readValue(body, StatusUpdateRequest.class).getStatus());
+        
+        Map<ShipmentStatus, Long> counts = new HashMap<>(Map.of(ShipmentStatus.PENDING, 3L, ShipmentStatus.DELIVERED, 1L));
+        assertSameJson(reflective, streaming, new ShipmentStats(4, counts));
+        assertSameJson(reflective, streaming, new ShipmentStats(4, new EnumMap<>(counts)));
+        assertSameJson(reflective, streaming, new ShipmentStats(0, null));
+    }
+    
+    private static LocalDateTime parse(String text) {
+        return IsoTimestamps.parse(text.toCharArray(), 0, text.length());
+    }
+    
+    private static LocalDateTime randomTimestamp(Random random) {
+        int nano = switch (random.nextInt(4)) {
+            case 0 -> 0;
+            case 1 -> random.nextInt(1000) * 1_000_000;
+            case 2 -> random.nextInt(1_000_000) * 1000;
+            default -> random.nextInt(1_000_000_000);
+        };
+        return LocalDateTime.of(1900 + random.nextInt(300), 1 + random.nextInt(12), 1 + random.nextInt(28),
+                random.nextInt(24), random.nextInt(60), random.nextInt(4) == 0 ? 0 : random.nextInt(60), nano);
+    }
+    
+    @Test
+    void testProjectionWritesOnlyRequestedFields() throws Exception {
+        Shipment shipment = new Shipment("ORDER-1", "New York", "Boston", ShipmentStatus.DISPATCHED);
+        shipment.setCreatedAt(LocalDateTime.of(2024, 1, 15, 10, 30));
+        shipment.setUpdatedAt(LocalDateTime.of(2024, 1, 16, 8, 0));
+        ObjectMapper projecting = JsonMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .serializationInclusion(JsonInclude.Include.NON_NULL)
+                .addModule(new SimpleModule()
+                        .addSerializer(ProjectedShipment.class, new ShipmentJson.ProjectedSerializer())
+                        .addSerializer(ProjectedShipmentList.class, new ShipmentJson.ProjectedListSerializer()))
+                .build();
+        
+        // Properties come out in declaration order whatever order they were requested in
+        ShipmentFields fields = ShipmentFields.parse(" status, orderId ");
+        assertEquals("orderId,status", fields.toString());
+        assertEquals("{\"orderId\":\"ORDER-1\",\"status\":\"DISPATCHED\"}",
+                projecting.writeValueAsString(new ProjectedShipment(shipment, fields)));
+        assertEquals("[{\"updatedAt\":\"2024-01-16T08:00:00\"},{\"updatedAt\":\"2024-01-16T08:00:00\"}]",
+                projecting.writeValueAsString(new ProjectedShipmentList(List.of(shipment, shipment),
+                        ShipmentFields.parse("updatedAt"))));
+        assertEquals(streaming.writeValueAsString(shipment), projecting.writeValueAsString(
+                new ProjectedShipment(shipment, ShipmentFields.parse("orderId,origin,destination,status,createdAt,updatedAt"))));
+        
+        assertSame(ShipmentFields.ALL, ShipmentFields.parse(null));
+        assertSame(ShipmentFields.ALL, ShipmentFields.parse("updatedAt,createdAt,status,destination,origin,orderId"));
+        assertThrows(IllegalArgumentException.class, () -> ShipmentFields.parse("orderId,statusHistory"));
+        assertThrows(IllegalArgumentException.class, () -> ShipmentFields.parse(" , "));
+    }
+    
+    private static void assertSameJson(ObjectMapper expected, ObjectMapper actual, Object value) throws Exception {
+        byte[] bytes = expected.writeValueAsBytes(value);
+        assertArrayEquals(bytes, actual.writeValueAsBytes(value), () -> new String(bytes, StandardCharsets.UTF_8));
+    }
+    
+    private static ObjectMapper mapper(JsonInclude.Include inclusion, boolean withStreamingJson) {
+        JsonMapper.Builder builder = JsonMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .serializationInclusion(inclusion);
+        if (withStreamingJson) {
+            builder.addModule(new SimpleModule()
+                    .addSerializer(Shipment.class, new ShipmentJson.Serializer())
+                    .addDeserializer(Shipment.class, new ShipmentJson.Deserializer())
+                    .addDeserializer(StatusUpdateRequest.class, new StatusUpdateRequestJson.Deserializer())
+                    .addSerializer(ShipmentStats.class, new ShipmentStatsJson.Serializer()));
+        }
+        return builder.build();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,209 @@
+package com.logistics.shipment.loadtest;
+
+import com.logistics.shipment.ShipmentTrackingApplication;
+import com.logistics.shipment.model.Shipment;
+import com.logistics.shipment.reactive.ReactiveServer;
+import com.logistics.shipment.service.ShipmentService;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Servlet API against the non-blocking API as open connections grow. For each server and
+ * connection count it opens that many connections that ask for the full shipment list and then
+ * stop reading, like clients on a stalled mobile network, and meanwhile probes
+ * GET /shipments/{orderId} on a fixed schedule. A stalled servlet response holds a worker thread
+ * until the client reads; a stalled reactive one holds a channel and a paused snapshot stream.
+ * Probe latency is measured from the scheduled start, as in {@link LoadGenerator}.
+ *
+ * mvn -Pload-test test -Dload-test.main=com.logistics.shipment.loadtest.ConnectionScalingBenchmark
+ *     -Dload-test.args="--connections=100,500,1000 --seed-shipments=20000"
+ */
+public final class ConnectionScalingBenchmark {
+    
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+    
+    private ConnectionScalingBenchmark() {
+    }
+    
+    public static void main(String[] args) throws Exception {
+        List<Integer> connectionCounts = List.of(100, 500, 1000);
+        int seedShipments = 20_000;
+        double rate = 100;
+        Duration duration = Duration.ofSeconds(10);
+        Duration probeTimeout = Duration.ofSeconds(5);
+        List<String> applicationArgs = new ArrayList<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            String name = separator > 0 ? arg.substring(0, separator) : arg;
+            String value = separator > 0 ? arg.substring(separator + 1) : "true";
+            switch (name) {
+                case "--connections" -> connectionCounts = parseCounts(value);
+                case "--seed-shipments" -> seedShipments = Integer.parseInt(value);
+                case "--rate" -> rate = Double.parseDouble(value);
+                case "--duration" -> duration = LoadTestOptions.parseDuration(value);
+                case "--probe-timeout" -> probeTimeout = LoadTestOptions.parseDuration(value);
+                default -> applicationArgs.add(arg);
+            }
+        }
+        
+        try (ConfigurableApplicationContext application = startApplication(applicationArgs)) {
+            String[] orderIds = seed(application.getBean(ShipmentService.class), seedShipments);
+            int servletPort = Integer.parseInt(application.getEnvironment().getProperty("local.server.port"));
+            int reactivePort = application.getBean(ReactiveServer.class).getPort();
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(probeTimeout)
+                    .build();
+            
+            System.out.printf("%d shipments, probing GET /shipments/{orderId} at %.0f req/s for %ds per round%n",
+                    seedShipments, rate, duration.toSeconds());
+            System.out.printf("%n%-9s %11s %7s %7s %9s %9s %9s %8s%n", "server", "connections", "probes", "errors",
+                    "p50 ms", "p99 ms", "max ms", "threads");
+            for (String server : List.of("servlet", "reactive")) {
+                int port = server.equals("servlet") ? servletPort : reactivePort;
+                for (int connections : connectionCounts) {
+                    round(client, server, port, connections, orderIds, rate, duration, probeTimeout);
+                }
+            }
+        }
+        System.exit(0);
+    }
+    
+    private static void round(HttpClient client, String server, int port, int connectionCount, String[] orderIds,
+                              double rate, Duration duration, Duration probeTimeout) throws Exception {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+        List<Socket> stalled = new ArrayList<>(connectionCount);
+        try {
+            for (int i = 0; i < connectionCount; i++) {
+                stalled.add(openStalledList(port));
+            }
+            // Let the responses fill the socket buffers
+            Thread.sleep(1_000);
+            
+            Histogram latencies = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+            LongAdder errors = new LongAdder();
+            probe(client, "http://localhost:" + port + "/api/v1/shipments/", orderIds, rate, duration, probeTimeout,
+                    latencies, errors);
+            System.out.printf("%-9s %11d %7d %7d %9.3f %9.3f %9.3f %8d%n", server, connectionCount,
+                    latencies.getTotalCount(), errors.sum(), latencies.getValueAtPercentile(50) / 1000.0,
+                    latencies.getValueAtPercentile(99) / 1000.0, latencies.getMaxValue() / 1000.0,
+                    threads.getPeakThreadCount());
+        } finally {
+            for (Socket socket : stalled) {
+                socket.close();
+            }
+        }
+        // Give blocked workers time to notice the closed connections before the next round
+        Thread.sleep(2_000);
+    }
+    
+    // Sends a list request and never reads the response
+    private static Socket openStalledList(int port) throws IOException {
+        Socket socket = new Socket();
+        socket.setReceiveBufferSize(4 * 1024);
+        socket.connect(new InetSocketAddress("localhost", port));
+        OutputStream out = socket.getOutputStream();
+        out.write(("GET /api/v1/shipments HTTP/1.1\r\nHost: localhost\r\nAccept: application/json\r\n\r\n")
+                .getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+        return socket;
+    }
+    
+    private static void probe(HttpClient client, String baseUrl, String[] orderIds, double rate, Duration duration,
+                              Duration probeTimeout, Histogram latencies, LongAdder errors)
+            throws InterruptedException {
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        AtomicInteger inFlight = new AtomicInteger();
+        for (long i = 0; ; i++) {
+            long scheduled = start + i * intervalNanos;
+            if (scheduled >= end) {
+                break;
+            }
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            String orderId = orderIds[ThreadLocalRandom.current().nextInt(orderIds.length)];
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + orderId))
+                    .timeout(probeTimeout)
+                    .GET()
+                    .build();
+            inFlight.incrementAndGet();
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+                long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - scheduled);
+                latencies.recordValue(Math.min(HIGHEST_TRACKABLE_MICROS, micros));
+                if (error != null || response.statusCode() != 200) {
+                    errors.increment();
+                }
+                inFlight.decrementAndGet();
+            });
+        }
+        long deadline = System.nanoTime() + probeTimeout.toNanos() * 2;
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+    
+    private static ConfigurableApplicationContext startApplication(List<String> applicationArgs) {
+        List<String> args = new ArrayList<>(applicationArgs);
+        args.add("--server.port=0");
+        args.add("--shipment.reactive.enabled=true");
+        args.add("--shipment.reactive.port=0");
+        // Admission control would shed the stalled lists on the servlet side; pass
+        // --shipment.admission.enabled=true to see that instead of the bare threading model
+        if (args.stream().noneMatch(arg -> arg.startsWith("--shipment.admission.enabled="))) {
+            args.add("--shipment.admission.enabled=false");
+        }
+        if (args.stream().noneMatch(arg -> arg.startsWith("--shipment.access-log.enabled="))) {
+            args.add("--shipment.access-log.enabled=false");
+        }
+        if (args.stream().noneMatch(arg -> arg.startsWith("--logging.level.org.springframework.web="))) {
+            args.add("--logging.level.org.springframework.web=INFO");
+        }
+        return new SpringApplicationBuilder(ShipmentTrackingApplication.class).run(args.toArray(String[]::new));
+    }
+    
+    private static String[] seed(ShipmentService shipmentService, int count) {
+        List<Shipment> shipments = new ArrayList<>(count);
+        String[] orderIds = new String[count];
+        for (int i = 0; i < count; i++) {
+            orderIds[i] = "SCALE-" + i;
+            shipments.add(new Shipment(orderIds[i], "City-" + (i % 50), "Destination-" + (i % 500)));
+        }
+        shipmentService.importShipments(shipments);
+        return orderIds;
+    }
+    
+    private static List<Integer> parseCounts(String value) {
+        List<Integer> counts = new ArrayList<>();
+        for (String count : value.split(",")) {
+            counts.add(Integer.parseInt(count.trim()));
+        }
+        return counts;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,141 @@
+package com.logistics.shipment.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-operation latency histograms and error counts, with baseline save and compare
+ */
+final class LatencyReport {
+    
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+    
+    private final Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> dropped = new EnumMap<>(Operation.class);
+    
+    LatencyReport() {
+        for (Operation operation : Operation.values()) {
+            histograms.put(operation, new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3));
+            errors.put(operation, new LongAdder());
+            dropped.put(operation, new LongAdder());
+        }
+    }
+    
+    /**
+     * @param latencyNanos time from the request's scheduled start, not its actual send, to completion
+     */
+    void record(Operation operation, long latencyNanos, boolean success) {
+        long micros = Math.min(HIGHEST_TRACKABLE_MICROS, TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+        histograms.get(operation).recordValue(micros);
+        if (!success) {
+            errors.get(operation).increment();
+        }
+    }
+    
+    void recordDropped(Operation operation) {
+        dropped.get(operation).increment();
+    }
+    
+    /**
+     * Flattens the results into operation.metric keys; latencies are in milliseconds
+     */
+    Properties toProperties(double rate, long durationSeconds) {
+        Properties properties = new Properties();
+        properties.setProperty("run.rate", Double.toString(rate));
+        properties.setProperty("run.duration-seconds", Long.toString(durationSeconds));
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = histograms.get(operation);
+            if (histogram.getTotalCount() == 0 && dropped.get(operation).sum() == 0) {
+                continue;
+            }
+            String prefix = operation.key() + ".";
+            properties.setProperty(prefix + "count", Long.toString(histogram.getTotalCount()));
+            properties.setProperty(prefix + "errors", Long.toString(errors.get(operation).sum()));
+            properties.setProperty(prefix + "dropped", Long.toString(dropped.get(operation).sum()));
+            for (double percentile : PERCENTILES) {
+                properties.setProperty(prefix + percentileKey(percentile),
+                        format(histogram.getValueAtPercentile(percentile)));
+            }
+            properties.setProperty(prefix + "max", format(histogram.getMaxValue()));
+        }
+        return properties;
+    }
+    
+    /**
+     * Prints the results table, with the p99 change against the baseline when one is given
+     * @return the largest p99 regression in percent, or 0 without a baseline
+     */
+    static double print(Properties results, Properties baseline) {
+        System.out.printf("%n%-10s %8s %7s %8s %9s %9s %9s %9s %9s%s%n", "operation", "count", "errors", "dropped",
+                "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", baseline != null ? "   p99 vs baseline" : "");
+        double worstRegression = 0;
+        for (Operation operation : Operation.values()) {
+            String prefix = operation.key() + ".";
+            if (results.getProperty(prefix + "count") == null) {
+                continue;
+            }
+            String comparison = "";
+            if (baseline != null && baseline.getProperty(prefix + "p99") != null) {
+                double before = Double.parseDouble(baseline.getProperty(prefix + "p99"));
+                double after = Double.parseDouble(results.getProperty(prefix + "p99"));
+                double change = before > 0 ? (after - before) * 100 / before : 0;
+                worstRegression = Math.max(worstRegression, change);
+                comparison = String.format("   %+.1f%% (%s ms)", change, baseline.getProperty(prefix + "p99"));
+            }
+            System.out.printf("%-10s %8s %7s %8s %9s %9s %9s %9s %9s%s%n", operation.key(),
+                    results.getProperty(prefix + "count"), results.getProperty(prefix + "errors"),
+                    results.getProperty(prefix + "dropped"), results.getProperty(prefix + "p50"),
+                    results.getProperty(prefix + "p90"), results.getProperty(prefix + "p99"),
+                    results.getProperty(prefix + "p99_9"), results.getProperty(prefix + "max"), comparison);
+        }
+        return worstRegression;
+    }
+    
+    static void save(Properties properties, Path file, String comment) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        // Sorted keys keep saved baselines diff-friendly
+        try (Writer writer = Files.newBufferedWriter(file)) {
+            writer.write("# " + comment + System.lineSeparator());
+            for (Map.Entry<Object, Object> entry : new TreeMap<>(properties).entrySet()) {
+                writer.write(entry.getKey() + "=" + entry.getValue() + System.lineSeparator());
+            }
+        }
+    }
+    
+    static Properties load(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file)) {
+            properties.load(reader);
+        }
+        return properties;
+    }
+    
+    private static String percentileKey(double percentile) {
+        return percentile == Math.rint(percentile)
+                ? "p" + (int) percentile
+                : "p" + Double.toString(percentile).replace('.', '_');
+    }
+    
+    private static String format(long micros) {
+        return String.format("%.3f", micros / 1000.0);
+    }
+}
\ No newline at end of file
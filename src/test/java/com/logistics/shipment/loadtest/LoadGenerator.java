@@ -0,0 +1,178 @@
+package com.logistics.shipment.loadtest;
+
+import com.logistics.shipment.ShipmentTrackingApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+/**
+ * Open-model load generator. Requests are started on a fixed schedule derived from the target
+ * rate, independent of how quickly earlier responses arrive, and each latency is measured from
+ * the request's scheduled start time. A slow server therefore shows up as higher latency instead
+ * of silently lowering the offered load (coordinated omission).
+ *
+ * mvn -Pload-test test -Dload-test.args="--rate=500 --duration=60s --save-baseline"
+ */
+public final class LoadGenerator {
+    
+    private LoadGenerator() {
+    }
+    
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        ConfigurableApplicationContext application = null;
+        String baseUrl = options.target;
+        if (baseUrl == null) {
+            application = startApplication(options.applicationArgs);
+            baseUrl = "http://localhost:" + application.getEnvironment().getProperty("local.server.port");
+        }
+        
+        int exitCode;
+        try {
+            exitCode = run(options, baseUrl);
+        } finally {
+            if (application != null) {
+                application.close();
+            }
+        }
+        System.exit(exitCode);
+    }
+    
+    private static int run(LoadTestOptions options, String baseUrl) throws Exception {
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        Workload workload = new Workload(baseUrl, options.clients, options.mix);
+        
+        System.out.printf("Target %s, %.0f req/s, warmup %ds, measure %ds, mix %s%n", baseUrl, options.rate,
+                options.warmup.toSeconds(), options.duration.toSeconds(), describe(options.mix));
+        seed(client, workload, options.seedShipments);
+        
+        LatencyReport report = new LatencyReport();
+        drive(client, workload, options, report);
+        
+        Properties results = report.toProperties(options.rate, options.duration.toSeconds());
+        Properties baseline = LatencyReport.load(options.baseline);
+        double worstRegression = LatencyReport.print(results, baseline);
+        
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        Path resultsFile = options.resultsDir.resolve("results-" + timestamp + ".properties");
+        LatencyReport.save(results, resultsFile, "Load test results " + timestamp);
+        System.out.println("\nResults written to " + resultsFile);
+        if (options.saveBaseline) {
+            LatencyReport.save(results, options.baseline, "Load test baseline " + timestamp);
+            System.out.println("Baseline saved to " + options.baseline);
+        }
+        
+        if (baseline != null && options.maxRegressionPercent >= 0 && worstRegression > options.maxRegressionPercent) {
+            System.out.printf("p99 regressed by %.1f%%, more than the allowed %.1f%%%n",
+                    worstRegression, options.maxRegressionPercent);
+            return 1;
+        }
+        return 0;
+    }
+    
+    private static String describe(Map<Operation, Integer> mix) {
+        return mix.entrySet().stream()
+                .filter(entry -> entry.getValue() > 0)
+                .map(entry -> entry.getKey().key() + ":" + entry.getValue())
+                .collect(Collectors.joining(","));
+    }
+    
+    private static ConfigurableApplicationContext startApplication(List<String> applicationArgs) {
+        List<String> args = new ArrayList<>(applicationArgs);
+        if (args.stream().noneMatch(arg -> arg.startsWith("--server.port="))) {
+            args.add("--server.port=0");
+        }
+        // Per-request DEBUG logging would dominate the measurement
+        if (args.stream().noneMatch(arg -> arg.startsWith("--logging.level.org.springframework.web="))) {
+            args.add("--logging.level.org.springframework.web=INFO");
+        }
+        // Every simulated client connects from this host, so they are told apart by their header
+        if (args.stream().noneMatch(arg -> arg.startsWith("--shipment.admission.client-id-header="))) {
+            args.add("--shipment.admission.client-id-header=X-Client-Id");
+        }
+        return new SpringApplicationBuilder(ShipmentTrackingApplication.class).run(args.toArray(String[]::new));
+    }
+    
+    // Creates the initial shipments outside the measurement, a bounded number at a time
+    private static void seed(HttpClient client, Workload workload, int count) {
+        List<CompletableFuture<?>> batch = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            List<Runnable> onSuccess = new ArrayList<>(1);
+            HttpRequest request = workload.request(Operation.CREATE, onSuccess::add);
+            batch.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .thenAccept(response -> {
+                        if (Operation.CREATE.isExpected(response.statusCode())) {
+                            onSuccess.forEach(Runnable::run);
+                        }
+                    }));
+            if (batch.size() == 50 || i == count - 1) {
+                CompletableFuture.allOf(batch.toArray(CompletableFuture[]::new)).join();
+                batch.clear();
+            }
+        }
+    }
+    
+    private static void drive(HttpClient client, Workload workload, LoadTestOptions options, LatencyReport report)
+            throws InterruptedException {
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / options.rate);
+        long start = System.nanoTime();
+        long measureFrom = start + options.warmup.toNanos();
+        long end = measureFrom + options.duration.toNanos();
+        AtomicInteger inFlight = new AtomicInteger();
+        
+        for (long i = 0; ; i++) {
+            long scheduled = start + i * intervalNanos;
+            if (scheduled >= end) {
+                break;
+            }
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            boolean measured = scheduled >= measureFrom;
+            Operation operation = workload.nextOperation();
+            if (inFlight.get() >= options.maxInFlight) {
+                if (measured) {
+                    report.recordDropped(operation);
+                }
+                continue;
+            }
+            
+            List<Runnable> onSuccess = new ArrayList<>(1);
+            HttpRequest request = workload.request(operation, onSuccess::add);
+            inFlight.incrementAndGet();
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+                long latency = System.nanoTime() - scheduled;
+                inFlight.decrementAndGet();
+                boolean success = error == null && operation.isExpected(response.statusCode());
+                if (success) {
+                    onSuccess.forEach(Runnable::run);
+                }
+                if (measured) {
+                    report.record(operation, latency, success);
+                }
+            });
+        }
+        
+        // Let outstanding requests finish so their latencies are recorded
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
\ No newline at end of file
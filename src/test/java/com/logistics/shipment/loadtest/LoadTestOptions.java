@@ -0,0 +1,101 @@
+package com.logistics.shipment.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command-line options of the load generator. Arguments it does not recognise are passed to the
+ * application when it is started in-process, e.g. --shipment.store.engine=partitioned.
+ */
+final class LoadTestOptions {
+    
+    // Requests per second, started on a fixed schedule regardless of how fast responses arrive
+    double rate = 200;
+    Duration duration = Duration.ofSeconds(30);
+    // Traffic before measurement starts, to warm up the JIT and fill the store
+    Duration warmup = Duration.ofSeconds(10);
+    // Distinct X-Client-Id values, so per-client rate limits see realistic callers
+    int clients = 100;
+    int seedShipments = 1000;
+    // Requests beyond this many outstanding are counted as dropped rather than queued
+    int maxInFlight = 5000;
+    // Base URL of an already running instance; null starts the application in-process
+    String target;
+    Path resultsDir = Path.of("target", "load-test");
+    Path baseline = Path.of("load-test", "baseline.properties");
+    boolean saveBaseline;
+    // Fail the run when any p99 is this many percent above the baseline; negative disables
+    double maxRegressionPercent = -1;
+    Map<Operation, Integer> mix = defaultMix();
+    List<String> applicationArgs = new ArrayList<>();
+    
+    static LoadTestOptions parse(String[] args) {
+        LoadTestOptions options = new LoadTestOptions();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            String name = separator > 0 ? arg.substring(0, separator) : arg;
+            String value = separator > 0 ? arg.substring(separator + 1) : "true";
+            switch (name) {
+                case "--rate" -> options.rate = Double.parseDouble(value);
+                case "--duration" -> options.duration = parseDuration(value);
+                case "--warmup" -> options.warmup = parseDuration(value);
+                case "--clients" -> options.clients = Integer.parseInt(value);
+                case "--seed-shipments" -> options.seedShipments = Integer.parseInt(value);
+                case "--max-in-flight" -> options.maxInFlight = Integer.parseInt(value);
+                case "--target" -> options.target = value.endsWith("/") ? value.substring(0, value.length() - 1) : value;
+                case "--results-dir" -> options.resultsDir = Path.of(value);
+                case "--baseline" -> options.baseline = Path.of(value);
+                case "--save-baseline" -> options.saveBaseline = Boolean.parseBoolean(value);
+                case "--max-regression" -> options.maxRegressionPercent = Double.parseDouble(value);
+                case "--mix" -> options.mix = parseMix(value);
+                default -> options.applicationArgs.add(arg);
+            }
+        }
+        if (options.rate <= 0 || options.clients <= 0) {
+            throw new IllegalArgumentException("--rate and --clients must be positive");
+        }
+        return options;
+    }
+    
+    // Accepts 30s, 2m, 500ms or a plain number of seconds
+    static Duration parseDuration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        if (value.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        if (value.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(value));
+    }
+    
+    // create:10,get-hit:50,... ; operations not listed get weight 0
+    static Map<Operation, Integer> parseMix(String value) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            mix.put(operation, 0);
+        }
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid mix entry '" + entry + "', expected operation:weight");
+            }
+            mix.put(Operation.fromKey(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+        }
+        return mix;
+    }
+    
+    private static Map<Operation, Integer> defaultMix() {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            mix.put(operation, operation.defaultWeight());
+        }
+        return mix;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,49 @@
+package com.logistics.shipment.loadtest;
+
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * Request types in the load mix, with their default weights and the statuses that count as success
+ */
+enum Operation {
+    CREATE("create", 10, Set.of(201)),
+    GET_HIT("get-hit", 45, Set.of(200)),
+    GET_MISS("get-miss", 5, Set.of(404)),
+    // Concurrent transitions of the same shipment may legitimately lose the race with a 400
+    PATCH("patch", 20, Set.of(200, 400)),
+    LIST("list", 15, Set.of(200)),
+    STATS("stats", 5, Set.of(200));
+    
+    private final String key;
+    private final int defaultWeight;
+    private final Set<Integer> expectedStatuses;
+    
+    Operation(String key, int defaultWeight, Set<Integer> expectedStatuses) {
+        this.key = key;
+        this.defaultWeight = defaultWeight;
+        this.expectedStatuses = expectedStatuses;
+    }
+    
+    String key() {
+        return key;
+    }
+    
+    int defaultWeight() {
+        return defaultWeight;
+    }
+    
+    boolean isExpected(int status) {
+        return expectedStatuses.contains(status);
+    }
+    
+    static Operation fromKey(String key) {
+        for (Operation operation : values()) {
+            if (operation.key.equals(key)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation '" + key + "', expected one of "
+                + Arrays.stream(values()).map(Operation::key).toList());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,118 @@
+package com.logistics.shipment.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Builds requests for each operation and keeps track of the shipments the run has created,
+ * so hits, misses and status transitions target realistic order IDs
+ */
+final class Workload {
+    
+    private static final String[] TRANSITIONS = {"dispatched", "in-transit", "delivered"};
+    private static final String[] CITIES = {"New York", "Los Angeles", "Chicago", "Houston", "Phoenix", "Seattle"};
+    private static final String[] LIST_FILTERS = {"status=pending", "status=in-transit", "origin=Chicago"};
+    
+    private final String baseUrl;
+    private final int clients;
+    private final Operation[] schedule;
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    
+    private final Map<Integer, TrackedShipment> created = new ConcurrentHashMap<>();
+    private final AtomicInteger nextShipment = new AtomicInteger();
+    private final AtomicInteger nextClient = new AtomicInteger();
+    
+    Workload(String baseUrl, int clients, Map<Operation, Integer> mix) {
+        this.baseUrl = baseUrl + "/api/v1/shipments";
+        this.clients = clients;
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        if (total <= 0) {
+            throw new IllegalArgumentException("The operation mix needs at least one positive weight");
+        }
+        // One slot per unit of weight, so picking an operation is a single array lookup
+        this.schedule = new Operation[total];
+        int slot = 0;
+        for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+            for (int i = 0; i < entry.getValue(); i++) {
+                schedule[slot++] = entry.getKey();
+            }
+        }
+    }
+    
+    Operation nextOperation() {
+        // Nothing to read or transition yet: create first
+        if (nextShipment.get() == 0 || !created.get(0).confirmed) {
+            return Operation.CREATE;
+        }
+        return schedule[ThreadLocalRandom.current().nextInt(schedule.length)];
+    }
+    
+    /**
+     * Builds the next request of the given type
+     * @param onSuccess receives an action to run once the response is known to be successful
+     */
+    HttpRequest request(Operation operation, Consumer<Runnable> onSuccess) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return switch (operation) {
+            case CREATE -> {
+                int index = nextShipment.getAndIncrement();
+                TrackedShipment shipment = new TrackedShipment("LT-" + runId + "-" + index);
+                created.put(index, shipment);
+                // Reads only target the shipment once the create has been acknowledged
+                onSuccess.accept(() -> shipment.confirmed = true);
+                String body = "{\"orderId\":\"" + shipment.orderId + "\",\"origin\":\"" + CITIES[random.nextInt(CITIES.length)]
+                        + "\",\"destination\":\"" + CITIES[random.nextInt(CITIES.length)] + "\"}";
+                yield builder("").POST(HttpRequest.BodyPublishers.ofString(body)).build();
+            }
+            case GET_HIT -> builder("/" + randomShipment().orderId).GET().build();
+            case GET_MISS -> builder("/MISSING-" + random.nextInt(1_000_000)).GET().build();
+            case PATCH -> {
+                TrackedShipment shipment = randomShipment();
+                int stage = shipment.stage.getAndIncrement();
+                if (stage >= TRANSITIONS.length) {
+                    // Already delivered: exercise the rejected-transition path instead
+                    stage = 0;
+                }
+                String body = "{\"status\":\"" + TRANSITIONS[stage] + "\"}";
+                yield builder("/" + shipment.orderId).method("PATCH", HttpRequest.BodyPublishers.ofString(body)).build();
+            }
+            case LIST -> builder("?" + LIST_FILTERS[random.nextInt(LIST_FILTERS.length)]).GET().build();
+            case STATS -> builder("/stats").GET().build();
+        };
+    }
+    
+    private HttpRequest.Builder builder(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .header("X-Client-Id", "load-client-" + Math.floorMod(nextClient.getAndIncrement(), clients));
+    }
+    
+    private TrackedShipment randomShipment() {
+        int count = nextShipment.get();
+        for (int attempt = 0; attempt < 8; attempt++) {
+            TrackedShipment shipment = created.get(ThreadLocalRandom.current().nextInt(count));
+            if (shipment != null && shipment.confirmed) {
+                return shipment;
+            }
+        }
+        // Creates still in flight everywhere we looked: fall back to the first seeded shipment
+        return created.get(0);
+    }
+    
+    private static final class TrackedShipment {
+        private final String orderId;
+        private final AtomicInteger stage = new AtomicInteger();
+        private volatile boolean confirmed;
+        
+        TrackedShipment(String orderId) {
+            this.orderId = orderId;
+        }
+    }
+}
\ No newline at end of file
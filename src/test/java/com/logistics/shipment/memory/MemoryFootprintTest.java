@@ -0,0 +1,92 @@
+package com.logistics.shipment.memory;
+
+import com.logistics.shipment.model.Shipment;
+import com.logistics.shipment.model.ShipmentStatus;
+import com.logistics.shipment.store.ConcurrentMapShipmentStore;
+import com.logistics.shipment.store.IndexedAttribute;
+import com.logistics.shipment.store.IndexedShipmentStore;
+import com.logistics.shipment.store.PartitionedShipmentStore;
+import com.logistics.shipment.store.ShipmentStore;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.EnumSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Retained size accounting of the stores, checked against the heap it actually takes
+ */
+class MemoryFootprintTest {
+    
+    private static final int SHIPMENTS = 100_000;
+    
+    @Test
+    void testEstimateMatchesMeasuredHeap() {
+        long before = usedHeapAfterGc();
+        ShipmentStore store = new IndexedShipmentStore(new ConcurrentMapShipmentStore(),
+                EnumSet.of(IndexedAttribute.STATUS, IndexedAttribute.ORIGIN));
+        for (int i = 0; i < SHIPMENTS; i++) {
+            store.putIfAbsent(new Shipment("ORDER-" + i, "City-" + (i % 100), "Destination-" + i,
+                    ShipmentStatus.PENDING), stored -> { });
+        }
+        long measured = usedHeapAfterGc() - before;
+        long estimated = store.getRetainedBytes();
+        
+        assertEquals(SHIPMENTS, store.size());
+        assertEquals(1.0, (double) estimated / measured, 0.15,
+                "estimated " + estimated + " bytes, measured " + measured);
+    }
+    
+    @Test
+    void testAccountingFollowsUpdatesAndDeletes() {
+        for (ShipmentStore store : new ShipmentStore[] {new ConcurrentMapShipmentStore(),
+                new PartitionedShipmentStore(2, 64)}) {
+            try (store) {
+                Shipment shipment = new Shipment("ORDER-1", "New York", "Boston");
+                store.putIfAbsent(shipment, stored -> { });
+                long created = store.getRetainedBytes();
+                assertTrue(created > ObjectSizes.shipment(shipment));
+                
+                // One more history entry and a timestamp of its own
+                store.update("ORDER-1", current -> {
+                    current.setStatus(ShipmentStatus.DISPATCHED);
+                    return current;
+                });
+                assertEquals(ObjectSizes.shipment(store.get("ORDER-1")) - ObjectSizes.shipment(shipment),
+                        store.getRetainedBytes() - created);
+                
+                store.remove("ORDER-1", removed -> { });
+                assertEquals(0, store.getRetainedBytes());
+            }
+        }
+    }
+    
+    @Test
+    void testProjectionScalesWithHeap() {
+        ShipmentStore store = new ConcurrentMapShipmentStore();
+        MemoryFootprintEndpoint endpoint = new MemoryFootprintEndpoint(store, null, null, null,
+                new MemoryFootprintProperties());
+        assertNull(endpoint.footprint().getProjectedMaxShipments());
+        
+        for (int i = 0; i < 1000; i++) {
+            store.putIfAbsent(new Shipment("ORDER-" + i, "Chicago", "Miami"), stored -> { });
+        }
+        MemoryFootprint footprint = endpoint.footprint();
+        assertEquals(1000, footprint.getShipments());
+        assertEquals(store.getRetainedBytes() / 1000, footprint.getBytesPerShipment());
+        assertEquals(store.getRetainedBytes(), footprint.getTotalBytes());
+        long budget = (long) (footprint.getMaxHeapBytes() * footprint.getTargetHeapOccupancy());
+        assertTrue(footprint.getProjectedMaxShipments() > 1000);
+        assertTrue(footprint.getProjectedMaxShipments() <= budget / footprint.getBytesPerShipment());
+    }
+    
+    private static long usedHeapAfterGc() {
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            used = Math.min(used, ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed());
+        }
+        return used;
+    }
+}
\ No newline at end of file
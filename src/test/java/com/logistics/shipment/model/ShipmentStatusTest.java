@@ -1,6 +1,12 @@
 package com.logistics.shipment.model;
 
 import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -82,4 +88,63 @@ class ShipmentStatusTest {
         assertTrue(ShipmentStatus.PENDING.getDescription().contains("pending"));
         assertTrue(ShipmentStatus.DELIVERED.getDescription().contains("delivered"));
     }
+    
+    @Test
+    void testSideStatusTransitions() {
+        assertTrue(ShipmentStatus.PENDING.canTransitionTo(ShipmentStatus.CANCELLED));
+        assertTrue(ShipmentStatus.DISPATCHED.canTransitionTo(ShipmentStatus.CANCELLED));
+        assertTrue(ShipmentStatus.DISPATCHED.canTransitionTo(ShipmentStatus.EXCEPTION));
+        assertTrue(ShipmentStatus.IN_TRANSIT.canTransitionTo(ShipmentStatus.EXCEPTION));
+        assertFalse(ShipmentStatus.IN_TRANSIT.canTransitionTo(ShipmentStatus.CANCELLED));
+        assertTrue(ShipmentStatus.EXCEPTION.canTransitionTo(ShipmentStatus.DELIVERED));
+        assertTrue(ShipmentStatus.EXCEPTION.canTransitionTo(ShipmentStatus.RETURNED));
+        assertFalse(ShipmentStatus.EXCEPTION.canTransitionTo(ShipmentStatus.IN_TRANSIT));
+        assertFalse(ShipmentStatus.DELIVERED.canTransitionTo(ShipmentStatus.RETURNED));
+        assertFalse(ShipmentStatus.PENDING.canTransitionTo(null));
+        
+        assertEquals(EnumSet.of(ShipmentStatus.IN_TRANSIT, ShipmentStatus.CANCELLED, ShipmentStatus.EXCEPTION),
+                ShipmentStatus.DISPATCHED.getValidNextStatuses());
+        assertTrue(ShipmentStatus.CANCELLED.getValidNextStatuses().isEmpty());
+        assertNull(ShipmentStatus.RETURNED.getNextStatus());
+    }
+    
+    @Test
+    void testFromValueNewStatusesAndNames() {
+        assertEquals(ShipmentStatus.CANCELLED, ShipmentStatus.fromValue("cancelled"));
+        assertEquals(ShipmentStatus.RETURNED, ShipmentStatus.fromValue("Returned"));
+        assertEquals(ShipmentStatus.EXCEPTION, ShipmentStatus.fromValue("EXCEPTION"));
+        assertEquals(ShipmentStatus.IN_TRANSIT, ShipmentStatus.fromValue("In-Transit"));
+        // fromValue keeps accepting only values; names are for the query language
+        assertThrows(IllegalArgumentException.class, () -> ShipmentStatus.fromValue("IN_TRANSIT"));
+        assertThrows(IllegalArgumentException.class, () -> ShipmentStatus.fromValue(""));
+        
+        assertEquals(ShipmentStatus.IN_TRANSIT, ShipmentStatus.fromValueOrName("in_transit"));
+        assertEquals(ShipmentStatus.IN_TRANSIT, ShipmentStatus.fromValueOrName("in-transit"));
+        assertNull(ShipmentStatus.fromValueOrName("in transit"));
+        assertNull(ShipmentStatus.fromValueOrName(null));
+        for (ShipmentStatus status : ShipmentStatus.values()) {
+            assertEquals(status, ShipmentStatus.fromValue(status.getValue().toUpperCase()));
+            assertEquals(status, ShipmentStatus.fromValueOrName(status.name().toLowerCase()));
+        }
+    }
+    
+    @Test
+    void testTransitionOverrides() {
+        StatusTransitions transitions = StatusTransitions.withOverrides(Map.of(
+                ShipmentStatus.DELIVERED, List.of(ShipmentStatus.RETURNED),
+                ShipmentStatus.DISPATCHED, List.of()));
+        assertTrue(transitions.allows(ShipmentStatus.DELIVERED, ShipmentStatus.RETURNED));
+        assertTrue(transitions.targetsOf(ShipmentStatus.DISPATCHED).isEmpty());
+        // Statuses that are not overridden keep the built-in targets
+        assertEquals(StatusTransitions.defaults().targetsOf(ShipmentStatus.PENDING),
+                transitions.targetsOf(ShipmentStatus.PENDING));
+        
+        // Loops are allowed, and leave the built-in workflow alone
+        StatusTransitions looping = StatusTransitions.withOverrides(Map.of(
+                ShipmentStatus.EXCEPTION, List.of(ShipmentStatus.IN_TRANSIT)));
+        assertTrue(looping.allows(ShipmentStatus.EXCEPTION, ShipmentStatus.IN_TRANSIT));
+        assertFalse(ShipmentStatus.EXCEPTION.canTransitionTo(ShipmentStatus.IN_TRANSIT));
+        assertThrows(IllegalArgumentException.class, () -> StatusTransitions.compile(
+                Map.of(ShipmentStatus.PENDING, Set.of(ShipmentStatus.PENDING))));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,148 @@
+package com.logistics.shipment.persistence;
+
+import com.logistics.shipment.exception.WriteBackpressureException;
+import com.logistics.shipment.model.Shipment;
+import com.logistics.shipment.model.ShipmentStatus;
+import com.logistics.shipment.service.ShipmentService;
+import com.logistics.shipment.store.ConcurrentMapShipmentStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for write-behind persistence to the embedded database
+ */
+class WriteBehindShipmentPersisterTest {
+    
+    @TempDir
+    Path dataDir;
+    
+    private WriteBehindShipmentPersister persister;
+    private ShipmentService shipmentService;
+    
+    @AfterEach
+    void tearDown() {
+        if (persister.isRunning()) {
+            persister.stop();
+        }
+    }
+    
+    @Test
+    void testMutationsAreCoalescedAndSurviveRestart() throws SQLException {
+        PersistenceProperties properties = properties();
+        properties.setFlushInterval(Duration.ofSeconds(30));
+        start(properties);
+        
+        shipmentService.createShipment(new Shipment("ORDER-001", "Mumbai", "Delhi"));
+        shipmentService.updateShipmentStatus("ORDER-001", ShipmentStatus.DISPATCHED);
+        shipmentService.updateShipmentStatus("ORDER-001", ShipmentStatus.IN_TRANSIT);
+        shipmentService.createShipment(new Shipment("ORDER-002", "Pune", "Goa"));
+        shipmentService.deleteShipment("ORDER-002");
+        assertEquals(2, persister.getPendingCount());
+        
+        // Stopping flushes everything still pending
+        persister.stop();
+        assertEquals(2, persister.getWrittenRows());
+        assertEquals(1, countRows(properties.getUrl()));
+        
+        start(properties());
+        Shipment restored = shipmentService.getShipmentByOrderId("ORDER-001");
+        assertEquals(ShipmentStatus.IN_TRANSIT, restored.getStatus());
+        assertNotNull(restored.getUpdatedAt());
+        assertEquals(3, restored.getStatusHistory().size());
+        assertFalse(shipmentService.existsByOrderId("ORDER-002"));
+    }
+    
+    @Test
+    void testBatchIsWrittenWithoutWaitingForFlushInterval() throws SQLException {
+        PersistenceProperties properties = properties();
+        properties.setBatchSize(10);
+        properties.setFlushInterval(Duration.ofSeconds(30));
+        start(properties);
+        
+        for (int i = 0; i < 25; i++) {
+            shipmentService.createShipment(new Shipment("ORDER-" + i, "Mumbai", "Delhi"));
+        }
+        
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (persister.getWrittenRows() < 20 && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertTrue(persister.getWrittenRows() >= 20);
+        assertTrue(countRows(properties.getUrl()) >= 20);
+    }
+    
+    @Test
+    void testWritersArePushedBackWhenQueueIsFull() {
+        PersistenceProperties properties = properties();
+        properties.setMaxPending(2);
+        properties.setFlushInterval(Duration.ofSeconds(30));
+        properties.setBackpressureTimeout(Duration.ofMillis(50));
+        start(properties);
+        
+        shipmentService.createShipment(new Shipment("ORDER-001", "Mumbai", "Delhi"));
+        shipmentService.createShipment(new Shipment("ORDER-002", "Pune", "Goa"));
+        
+        assertThrows(WriteBackpressureException.class,
+                () -> shipmentService.createShipment(new Shipment("ORDER-003", "Chennai", "Kochi")));
+        assertFalse(shipmentService.existsByOrderId("ORDER-003"));
+    }
+    
+    @Test
+    void testRowTheDatabaseRejectsIsDeadLetteredWithoutBlockingOthers() throws SQLException {
+        PersistenceProperties properties = properties();
+        properties.setMaxPending(4);
+        properties.setFlushInterval(Duration.ofMillis(20));
+        start(properties);
+        
+        // The service does not validate, so an order ID longer than the column reaches the table
+        shipmentService.createShipment(new Shipment("ORDER-001", "Mumbai", "Delhi"));
+        shipmentService.createShipment(new Shipment("X".repeat(300), "Pune", "Goa"));
+        
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (persister.getDeadLetteredRows() < 1 && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertEquals(1, persister.getDeadLetteredRows());
+        assertEquals(1, persister.getWrittenRows());
+        assertEquals(1, countRows(properties.getUrl()));
+        
+        // The write path keeps flowing instead of filling up with retries
+        for (int i = 2; i < 10; i++) {
+            shipmentService.createShipment(new Shipment("ORDER-00" + i, "Chennai", "Kochi"));
+        }
+        persister.stop();
+        assertEquals(9, countRows(properties.getUrl()));
+    }
+    
+    private PersistenceProperties properties() {
+        PersistenceProperties properties = new PersistenceProperties();
+        properties.setUrl("jdbc:h2:file:" + dataDir.resolve("shipments"));
+        return properties;
+    }
+    
+    private void start(PersistenceProperties properties) {
+        ConcurrentMapShipmentStore store = new ConcurrentMapShipmentStore();
+        persister = new WriteBehindShipmentPersister(properties, store);
+        shipmentService = new ShipmentService(store, List.of(persister));
+        persister.start();
+    }
+    
+    private static int countRows(String url) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             ResultSet rows = connection.createStatement().executeQuery("SELECT COUNT(*) FROM shipments")) {
+            rows.next();
+            return rows.getInt(1);
+        }
+    }
+}
\ No newline at end of file
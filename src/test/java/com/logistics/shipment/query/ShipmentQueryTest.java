@@ -0,0 +1,238 @@
+package com.logistics.shipment.query;
+
+import com.logistics.shipment.exception.InvalidQueryException;
+import com.logistics.shipment.model.Shipment;
+import com.logistics.shipment.model.ShipmentStatus;
+import com.logistics.shipment.service.ShipmentService;
+import com.logistics.shipment.store.ConcurrentMapShipmentStore;
+import com.logistics.shipment.store.IndexedAttribute;
+import com.logistics.shipment.store.IndexedShipmentStore;
+import com.logistics.shipment.store.ShipmentSnapshot;
+import com.logistics.shipment.store.ShipmentStore;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the search query language and index-aware planning
+ */
+class ShipmentQueryTest {
+    
+    private static final String[] CITIES = {"New York", "new york", "Boston", "Chicago", "Miami", "Denver"};
+    
+    @Test
+    void testParsePrecedenceAndValues() {
+        QueryNode root = QueryParser.parse(
+                "status in (Pending, IN_TRANSIT) and not origin = 'O''Hare' or createdAt >= 2024-01-01");
+        
+        QueryNode.Or or = assertInstanceOf(QueryNode.Or.class, root);
+        QueryNode.And and = assertInstanceOf(QueryNode.And.class, or.operands().get(0));
+        assertEquals(List.of(ShipmentStatus.PENDING, ShipmentStatus.IN_TRANSIT),
+                ((QueryNode.Comparison) and.operands().get(0)).values());
+        QueryNode.Not not = assertInstanceOf(QueryNode.Not.class, and.operands().get(1));
+        assertEquals(List.of("O'Hare"), ((QueryNode.Comparison) not.operand()).values());
+        assertEquals(List.of(LocalDateTime.of(2024, 1, 1, 0, 0)),
+                ((QueryNode.Comparison) or.operands().get(1)).values());
+        
+        QueryNode.Comparison notIn = assertInstanceOf(QueryNode.Comparison.class,
+                QueryParser.parse("destination NOT IN (\"Boston\", Miami)"));
+        assertEquals(QueryOperator.NOT_IN, notIn.operator());
+        assertEquals(QueryOperator.NE, ((QueryNode.Comparison) QueryParser.parse("orderId <> X-1")).operator());
+    }
+    
+    @Test
+    void testParseErrors() {
+        assertInvalid("", "must not be empty");
+        assertInvalid("weight = 5", "Unknown field 'weight' at position 0");
+        assertInvalid("status = lost", "Invalid shipment status 'lost' at position 9");
+        assertInvalid("origin < Boston", "not supported for 'origin'");
+        assertInvalid("createdAt IN (2024-01-01)", "not supported for 'createdAt'");
+        assertInvalid("createdAt > yesterday", "Invalid timestamp 'yesterday'");
+        assertInvalid("origin = 'Boston", "Unterminated string starting at position 9");
+        assertInvalid("(status = pending", "Expected ')' at end of query");
+        assertInvalid("status = pending origin = Boston", "Unexpected 'origin' at position 17");
+        assertInvalid("origin", "Expected an operator");
+        assertInvalid("(".repeat(QueryParser.MAX_DEPTH + 1) + "status = pending", "nested more than");
+    }
+    
+    @Test
+    void testPredicateSemantics() {
+        Shipment shipment = new Shipment("ORDER-1", "New York", null, ShipmentStatus.DISPATCHED);
+        shipment.setCreatedAt(LocalDateTime.of(2024, 3, 1, 12, 0));
+        
+        assertTrue(ShipmentQuery.parse("origin = 'NEW YORK'").matches(shipment));
+        assertTrue(ShipmentQuery.parse("origin IN ('new york', Boston)").matches(shipment));
+        assertFalse(ShipmentQuery.parse("orderId = order-1").matches(shipment));
+        assertTrue(ShipmentQuery.parse("status != pending AND createdAt < 2024-03-01T12:00:01").matches(shipment));
+        // A missing value never matches, not even a negated comparison
+        assertFalse(ShipmentQuery.parse("destination != Boston").matches(shipment));
+        assertTrue(ShipmentQuery.parse("NOT destination = Boston").matches(shipment));
+    }
+    
+    @Test
+    void testResultsMatchFullScan() {
+        Random random = new Random(7);
+        List<Shipment> shipments = randomShipments(random, 2000);
+        ShipmentStore plain = new ConcurrentMapShipmentStore();
+        ShipmentStore indexed = new IndexedShipmentStore(new ConcurrentMapShipmentStore(),
+                EnumSet.allOf(IndexedAttribute.class));
+        shipments.forEach(plain::put);
+        shipments.forEach(indexed::put);
+        
+        List<String> queries = List.of(
+                "status = delivered",
+                "origin = 'NEW YORK' AND status IN (pending, dispatched)",
+                "destination = Miami AND createdAt >= 2024-02-01",
+                "origin IN (Boston, boston, Chicago) AND NOT status = pending",
+                "orderId IN (ORDER-00010, ORDER-00011, missing) AND status != delivered",
+                "status = in-transit OR origin = Denver",
+                "origin NOT IN (Boston) AND updatedAt > 2000-01-01");
+        for (String text : queries) {
+            ShipmentQuery query = ShipmentQuery.parse(text);
+            Set<String> expected = orderIds(shipments.stream().filter(naive(text)).collect(Collectors.toList()));
+            assertEquals(expected, orderIds(QueryPlanner.plan(plain, query).execute()), text);
+            assertEquals(expected, orderIds(QueryPlanner.plan(indexed, query).execute()), text);
+        }
+    }
+    
+    @Test
+    void testPlannerUsesSelectiveIndexOnly() {
+        ShipmentStore store = new IndexedShipmentStore(new ConcurrentMapShipmentStore(),
+                EnumSet.allOf(IndexedAttribute.class));
+        for (int i = 0; i < 100; i++) {
+            store.put(new Shipment("ORDER-" + i, i < 5 ? "Boston" : "Chicago", "Miami",
+                    i % 2 == 0 ? ShipmentStatus.PENDING : ShipmentStatus.DELIVERED));
+        }
+        
+        QueryPlan byOrigin = QueryPlanner.plan(store, ShipmentQuery.parse("status = pending AND origin = boston"));
+        assertFalse(byOrigin.isFullScan());
+        assertEquals("index lookup on origin", byOrigin.getAccessPath());
+        assertEquals(5, byOrigin.getEstimatedRows());
+        assertEquals(3, byOrigin.execute().size());
+        
+        assertEquals("order ID lookup on orderId",
+                QueryPlanner.plan(store, ShipmentQuery.parse("orderId = ORDER-7 AND origin = Boston")).getAccessPath());
+        // Half the store matches, so scanning is cheaper than the index
+        assertTrue(QueryPlanner.plan(store, ShipmentQuery.parse("status = pending")).isFullScan());
+        // Terms under OR cannot narrow the candidates
+        assertTrue(QueryPlanner.plan(store, ShipmentQuery.parse("origin = Boston OR status = pending")).isFullScan());
+        assertTrue(QueryPlanner.plan(new ConcurrentMapShipmentStore(), ShipmentQuery.parse("origin = Boston"))
+                .isFullScan());
+    }
+    
+    @Test
+    void testIndexFollowsWrites() {
+        IndexedShipmentStore store = new IndexedShipmentStore(new ConcurrentMapShipmentStore(),
+                EnumSet.allOf(IndexedAttribute.class));
+        ShipmentService shipmentService = new ShipmentService(store);
+        shipmentService.createShipment(new Shipment("ORDER-1", "Boston", "Miami"));
+        shipmentService.createShipment(new Shipment("ORDER-2", "BOSTON", "Denver"));
+        assertEquals(Set.of("ORDER-1", "ORDER-2"), store.lookup(IndexedAttribute.ORIGIN, "boston"));
+        
+        shipmentService.updateShipmentStatus("ORDER-1", ShipmentStatus.DISPATCHED);
+        assertEquals(Set.of("ORDER-2"), store.lookup(IndexedAttribute.STATUS, ShipmentStatus.PENDING));
+        assertEquals(Set.of("ORDER-1"), store.lookup(IndexedAttribute.STATUS, ShipmentStatus.DISPATCHED));
+        
+        shipmentService.applyReplicatedShipment(new Shipment("ORDER-2", "Chicago", "Denver", ShipmentStatus.DELIVERED));
+        assertEquals(Set.of("ORDER-1"), store.lookup(IndexedAttribute.ORIGIN, "boston"));
+        assertEquals(Set.of("ORDER-2"), store.lookup(IndexedAttribute.STATUS, ShipmentStatus.DELIVERED));
+        
+        shipmentService.deleteShipment("ORDER-1");
+        assertTrue(store.lookup(IndexedAttribute.ORIGIN, "boston").isEmpty());
+        assertTrue(store.lookup(IndexedAttribute.STATUS, ShipmentStatus.DISPATCHED).isEmpty());
+        
+        assertEquals(List.of("ORDER-2"), shipmentService.getShipments(null, "chicago", "destination = denver")
+                .stream().map(Shipment::getOrderId).collect(Collectors.toList()));
+        assertTrue(shipmentService.getShipments("lost", null, null).isEmpty());
+    }
+    
+    @Test
+    void testIndexLookupsReadAtTheSnapshot() {
+        IndexedShipmentStore store = new IndexedShipmentStore(new ConcurrentMapShipmentStore(),
+                EnumSet.allOf(IndexedAttribute.class));
+        for (int i = 0; i < 100; i++) {
+            store.put(new Shipment("ORDER-" + i, "Chicago", "Miami",
+                    i < 3 ? ShipmentStatus.PENDING : ShipmentStatus.DELIVERED));
+        }
+        QueryPlan pending = QueryPlanner.plan(store, ShipmentQuery.parse("status = pending"));
+        QueryPlan pendingOrDispatched = QueryPlanner.plan(store, ShipmentQuery.parse("status IN (pending, dispatched)"));
+        assertFalse(pending.isFullScan());
+        assertFalse(pendingOrDispatched.isFullScan());
+        
+        try (ShipmentSnapshot snapshot = store.snapshot()) {
+            // One shipment leaves the key, one comes back to it, one is deleted
+            store.update("ORDER-0", shipment -> withStatus(shipment, ShipmentStatus.DISPATCHED));
+            store.update("ORDER-1", shipment -> withStatus(shipment, ShipmentStatus.DISPATCHED));
+            store.update("ORDER-1", shipment -> withStatus(shipment, ShipmentStatus.PENDING));
+            store.remove("ORDER-2", removed -> { });
+            
+            assertEquals(List.of("ORDER-0", "ORDER-1", "ORDER-2"), sortedOrderIds(pending.execute(snapshot)));
+            assertEquals(List.of("ORDER-0", "ORDER-1", "ORDER-2"),
+                    sortedOrderIds(pendingOrDispatched.execute(snapshot)));
+        }
+        assertEquals(List.of("ORDER-1"), sortedOrderIds(pending.execute()));
+        assertEquals(Set.of("ORDER-1"), store.lookup(IndexedAttribute.STATUS, ShipmentStatus.PENDING));
+    }
+    
+    private static Shipment withStatus(Shipment shipment, ShipmentStatus status) {
+        shipment.setStatus(status);
+        return shipment;
+    }
+    
+    private static List<String> sortedOrderIds(List<Shipment> shipments) {
+        return shipments.stream().map(Shipment::getOrderId).sorted().collect(Collectors.toList());
+    }
+    
+    // Reference implementation for the fixed queries of testResultsMatchFullScan
+    private static Predicate<Shipment> naive(String query) {
+        LocalDateTime feb = LocalDateTime.of(2024, 2, 1, 0, 0);
+        return switch (query) {
+            case "status = delivered" -> s -> s.getStatus() == ShipmentStatus.DELIVERED;
+            case "origin = 'NEW YORK' AND status IN (pending, dispatched)" -> s -> s.getOrigin().equalsIgnoreCase("new york")
+                    && (s.getStatus() == ShipmentStatus.PENDING || s.getStatus() == ShipmentStatus.DISPATCHED);
+            case "destination = Miami AND createdAt >= 2024-02-01" -> s -> s.getDestination().equalsIgnoreCase("miami")
+                    && !s.getCreatedAt().isBefore(feb);
+            case "origin IN (Boston, boston, Chicago) AND NOT status = pending" -> s ->
+                    (s.getOrigin().equalsIgnoreCase("boston") || s.getOrigin().equalsIgnoreCase("chicago"))
+                    && s.getStatus() != ShipmentStatus.PENDING;
+            case "orderId IN (ORDER-00010, ORDER-00011, missing) AND status != delivered" -> s ->
+                    (s.getOrderId().equals("ORDER-00010") || s.getOrderId().equals("ORDER-00011"))
+                    && s.getStatus() != ShipmentStatus.DELIVERED;
+            case "status = in-transit OR origin = Denver" -> s -> s.getStatus() == ShipmentStatus.IN_TRANSIT
+                    || s.getOrigin().equalsIgnoreCase("denver");
+            case "origin NOT IN (Boston) AND updatedAt > 2000-01-01" -> s -> !s.getOrigin().equalsIgnoreCase("boston");
+            default -> throw new IllegalArgumentException(query);
+        };
+    }
+    
+    private static List<Shipment> randomShipments(Random random, int count) {
+        ShipmentStatus[] statuses = ShipmentStatus.values();
+        List<Shipment> shipments = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Shipment shipment = new Shipment(String.format("ORDER-%05d", i),
+                    CITIES[random.nextInt(CITIES.length)], CITIES[random.nextInt(CITIES.length)],
+                    statuses[random.nextInt(statuses.length)]);
+            shipment.setCreatedAt(LocalDateTime.of(2024, 1, 1, 0, 0).plusHours(random.nextInt(24 * 60)));
+            shipments.add(shipment);
+        }
+        return shipments;
+    }
+    
+    private static Set<String> orderIds(List<Shipment> shipments) {
+        return shipments.stream().map(Shipment::getOrderId).collect(Collectors.toSet());
+    }
+    
+    private static void assertInvalid(String query, String message) {
+        InvalidQueryException e = assertThrows(InvalidQueryException.class, () -> QueryParser.parse(query));
+        assertTrue(e.getMessage().contains(message), e.getMessage());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,212 @@
+package com.logistics.shipment.reactive;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logistics.shipment.controller.ShipmentController;
+import com.logistics.shipment.model.Shipment;
+import com.logistics.shipment.service.ShipmentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.SignalType;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The non-blocking server against the same contract as the servlet API, over a real connection
+ */
+@SpringBootTest(properties = {
+        "shipment.reactive.enabled=true",
+        "shipment.reactive.port=0",
+        "shipment.reactive.list-batch-size=16"})
+class ReactiveShipmentApiTest {
+    
+    @Autowired
+    private ReactiveServer reactiveServer;
+    
+    @Autowired
+    private ReactiveShipmentService reactiveShipmentService;
+    
+    @Autowired
+    private ShipmentService shipmentService;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    private WebTestClient client;
+    
+    @BeforeEach
+    void setUp() {
+        shipmentService.getAllShipments().forEach(shipment -> shipmentService.deleteShipment(shipment.getOrderId()));
+        client = WebTestClient.bindToServer().baseUrl("http://localhost:" + reactiveServer.getPort()).build();
+    }
+    
+    @Test
+    void testCreateGetAndErrorsMatchServletApi() {
+        client.post().uri("/api/v1/shipments")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"orderId\":\"ORDER-001\",\"origin\":\"New York\",\"destination\":\"Boston\"}")
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.orderId").isEqualTo("ORDER-001")
+                .jsonPath("$.status").isEqualTo("PENDING");
+        assertEquals("Boston", shipmentService.getShipmentByOrderId("ORDER-001").getDestination());
+        
+        client.post().uri("/api/v1/shipments")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"orderId\":\"ORDER-001\",\"origin\":\"New York\",\"destination\":\"Boston\"}")
+                .exchange()
+                .expectStatus().isEqualTo(409)
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Duplicate Shipment");
+        client.post().uri("/api/v1/shipments")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"orderId\":\"ORDER-002\"}")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Validation Failed")
+                .jsonPath("$.fieldErrors.origin").exists();
+        
+        client.get().uri("/api/v1/shipments/ORDER-001?fields=orderId,status")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().json("{\"orderId\":\"ORDER-001\",\"status\":\"PENDING\"}", true);
+        client.get().uri("/api/v1/shipments/MISSING")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Shipment Not Found");
+        client.patch().uri("/api/v1/shipments/ORDER-001")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"status\":\"delivered\"}")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Invalid Status Transition");
+    }
+    
+    @Test
+    void testStatusEventsReportTheirOutcome() {
+        shipmentService.createShipment(new Shipment("ORDER-001", "New York", "Boston"));
+        String event = "{\"status\":\"dispatched\",\"eventId\":\"scan-1\"}";
+        
+        client.patch().uri("/api/v1/shipments/ORDER-001")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(event)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(ShipmentController.EVENT_OUTCOME_HEADER, "APPLIED")
+                .expectBody()
+                .jsonPath("$.status").isEqualTo("DISPATCHED");
+        client.patch().uri("/api/v1/shipments/ORDER-001")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(event)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(ShipmentController.EVENT_OUTCOME_HEADER, "DUPLICATE");
+    }
+    
+    @Test
+    void testListIsStreamedAcrossChunks() throws Exception {
+        for (int i = 0; i < 50; i++) {
+            shipmentService.createShipment(new Shipment(String.format("ORDER-%03d", i),
+                    i % 2 == 0 ? "New York" : "Chicago", "Boston"));
+        }
+        
+        // 25 matches in chunks of 16: separators within and between chunks
+        byte[] array = client.get().uri("/api/v1/shipments?origin=New York&fields=orderId")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().returnResult().getResponseBody();
+        JsonNode rows = objectMapper.readTree(array);
+        assertEquals(25, rows.size());
+        assertEquals(1, rows.get(0).size());
+        
+        String lines = client.get().uri("/api/v1/shipments")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_NDJSON)
+                .expectBody(String.class).returnResult().getResponseBody();
+        String[] shipments = lines.split("\n");
+        assertEquals(50, shipments.length);
+        assertEquals("Boston", objectMapper.readTree(shipments[49]).get("destination").asText());
+        
+        client.get().uri("/api/v1/shipments?status=unknown")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().json("[]");
+        client.get().uri("/api/v1/shipments?q=weight > 5")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Invalid Query");
+    }
+    
+    @Test
+    void testListIsReadOnDemand() throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            shipmentService.createShipment(new Shipment("ORDER-" + i, "New York", "Boston"));
+        }
+        List<Shipment> received = new ArrayList<>();
+        AtomicInteger pulled = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(1);
+        
+        reactiveShipmentService.getShipments(null, null, null)
+                .doOnNext(shipment -> pulled.incrementAndGet())
+                .subscribe(new BaseSubscriber<Shipment>() {
+                    @Override
+                    protected void hookOnSubscribe(Subscription subscription) {
+                        request(10);
+                    }
+                    
+                    @Override
+                    protected void hookOnNext(Shipment shipment) {
+                        received.add(shipment);
+                        if (received.size() == 10) {
+                            cancel();
+                        }
+                    }
+                    
+                    @Override
+                    protected void hookFinally(SignalType type) {
+                        done.countDown();
+                    }
+                });
+        
+        // The list is read on the scan scheduler
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        // Nothing beyond what the subscriber asked for was read from the snapshot
+        assertEquals(10, received.size());
+        assertEquals(10, pulled.get());
+    }
+    
+    @Test
+    void testEachSubscriptionReadsItsOwnSnapshot() {
+        shipmentService.createShipment(new Shipment("ORDER-001", "New York", "Boston"));
+        Flux<Shipment> shipments = reactiveShipmentService.getShipments(null, null, null);
+        
+        // Nothing is read until subscription, so a write made in between is seen
+        shipmentService.createShipment(new Shipment("ORDER-002", "New York", "Boston"));
+        assertEquals(2, shipments.collectList().block(Duration.ofSeconds(5)).size());
+        
+        // Subscribing again reads a new snapshot instead of failing on a consumed stream
+        shipmentService.createShipment(new Shipment("ORDER-003", "New York", "Boston"));
+        assertEquals(3, shipments.collectList().block(Duration.ofSeconds(5)).size());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,97 @@
+package com.logistics.shipment.replication;
+
+import com.logistics.shipment.model.Shipment;
+import com.logistics.shipment.model.ShipmentStatus;
+import com.logistics.shipment.service.ShipmentService;
+import com.logistics.shipment.store.ConcurrentMapShipmentStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for log-shipping replication between an in-process primary and follower
+ */
+class ReplicationTest {
+    
+    private ReplicationPrimary primary;
+    private ShipmentService primaryService;
+    private ReplicationFollower follower;
+    private ShipmentService followerService;
+    
+    @BeforeEach
+    void setUp() {
+        ReplicationProperties primaryProperties = new ReplicationProperties();
+        primaryProperties.setPort(0);
+        primaryProperties.setHeartbeatInterval(Duration.ofMillis(50));
+        ConcurrentMapShipmentStore primaryStore = new ConcurrentMapShipmentStore();
+        primary = new ReplicationPrimary(primaryProperties, primaryStore);
+        primaryService = new ShipmentService(primaryStore, List.of(primary));
+        primary.start();
+        
+        ReplicationProperties followerProperties = new ReplicationProperties();
+        followerProperties.setPrimaryPort(primary.getPort());
+        followerProperties.setHeartbeatInterval(Duration.ofMillis(50));
+        followerProperties.setReconnectDelay(Duration.ofMillis(50));
+        followerService = new ShipmentService();
+        follower = new ReplicationFollower(followerProperties, followerService);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        follower.stop();
+        primary.stop();
+    }
+    
+    @Test
+    void testFollowerReceivesSnapshotAndLiveMutations() {
+        primaryService.createShipment(new Shipment("ORDER-001", "Mumbai", "Delhi"));
+        primaryService.createShipment(new Shipment("ORDER-002", "Pune", "Goa"));
+        follower.start();
+        awaitCondition(() -> followerService.getTotalShipmentCount() == 2);
+        
+        primaryService.updateShipmentStatus("ORDER-001", ShipmentStatus.DISPATCHED);
+        primaryService.deleteShipment("ORDER-002");
+        primaryService.createShipment(new Shipment("ORDER-003", "Chennai", "Kochi"));
+        awaitCondition(() -> followerService.existsByOrderId("ORDER-003"));
+        
+        Shipment replicated = followerService.getShipmentByOrderId("ORDER-001");
+        assertEquals(ShipmentStatus.DISPATCHED, replicated.getStatus());
+        assertEquals(primaryService.getShipmentByOrderId("ORDER-001").getUpdatedAt(), replicated.getUpdatedAt());
+        assertEquals(2, replicated.getStatusHistory().size());
+        assertFalse(followerService.existsByOrderId("ORDER-002"));
+        
+        awaitCondition(() -> follower.getStatus().getAppliedSequence() == primary.getStatus().getPrimarySequence());
+        awaitCondition(() -> follower.getLagMillis() == 0);
+        assertTrue(follower.getStatus().isConnected());
+    }
+    
+    @Test
+    void testResyncDropsShipmentsDeletedWhileDisconnected() {
+        followerService.createShipment(new Shipment("STALE-001", "Agra", "Jaipur"));
+        primaryService.createShipment(new Shipment("ORDER-001", "Mumbai", "Delhi"));
+        
+        follower.start();
+        awaitCondition(() -> followerService.existsByOrderId("ORDER-001")
+                && !followerService.existsByOrderId("STALE-001"));
+        assertEquals(1, followerService.getTotalShipmentCount());
+    }
+    
+    private static void awaitCondition(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Timed out waiting for replication");
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(e);
+            }
+        }
+    }
+}
\ No newline at end of file
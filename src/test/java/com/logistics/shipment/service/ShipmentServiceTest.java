@@ -5,6 +5,7 @@ import com.logistics.shipment.exception.InvalidStatusTransitionException;
 import com.logistics.shipment.exception.ShipmentNotFoundException;
 import com.logistics.shipment.model.Shipment;
 import com.logistics.shipment.model.ShipmentStatus;
+import com.logistics.shipment.model.StatusChange;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -250,4 +251,52 @@ class ShipmentServiceTest {
         shipmentService.createShipment(shipment2);
         assertEquals(2, shipmentService.getTotalShipmentCount());
     }
+    
+    @Test
+    void testStatusHistoryRecordsEveryTransition() {
+        Shipment shipment = new Shipment("ORDER-001", "New York", "Los Angeles");
+        shipmentService.createShipment(shipment);
+        shipmentService.updateShipmentStatus("ORDER-001", ShipmentStatus.DISPATCHED);
+        shipmentService.updateShipmentStatus("ORDER-001", ShipmentStatus.IN_TRANSIT);
+        
+        // Updates store a modified copy, so read the current version back
+        Shipment stored = shipmentService.getShipmentByOrderId("ORDER-001");
+        List<StatusChange> history = stored.getStatusHistory();
+        
+        assertEquals(List.of(ShipmentStatus.PENDING, ShipmentStatus.DISPATCHED, ShipmentStatus.IN_TRANSIT),
+                history.stream().map(StatusChange::getStatus).toList());
+        assertEquals(3, stored.getPackedHistory().length);
+        assertEquals(1, shipment.getPackedHistory().length);
+        assertFalse(history.get(2).getTimestamp().isBefore(history.get(0).getTimestamp()));
+        assertEquals(stored.getUpdatedAt().withNano(stored.getUpdatedAt().getNano() / 1_000_000 * 1_000_000),
+                history.get(2).getTimestamp());
+    }
+    
+    @Test
+    void testLoopingHistoryIsCompactedButKeepsEveryStatusSeen() {
+        Shipment shipment = new Shipment("ORDER-001", "New York", "Los Angeles");
+        shipment.initHistory();
+        shipment.setStatus(ShipmentStatus.DISPATCHED);
+        for (int i = 0; i < 10 * Shipment.MAX_HISTORY; i++) {
+            shipment.setStatus(i % 2 == 0 ? ShipmentStatus.EXCEPTION : ShipmentStatus.IN_TRANSIT);
+        }
+        
+        List<StatusChange> history = shipment.getStatusHistory();
+        assertTrue(history.size() <= Shipment.MAX_HISTORY);
+        assertEquals(ShipmentStatus.PENDING, history.get(0).getStatus());
+        assertEquals(ShipmentStatus.DISPATCHED, history.get(1).getStatus());
+        assertEquals(ShipmentStatus.IN_TRANSIT, history.get(history.size() - 1).getStatus());
+        assertTrue(shipment.hasHadStatus(ShipmentStatus.PENDING));
+        assertFalse(shipment.hasHadStatus(ShipmentStatus.DELIVERED));
+    }
+    
+    @Test
+    void testFailedTransitionIsNotRecorded() {
+        shipmentService.createShipment(new Shipment("ORDER-001", "New York", "Los Angeles"));
+        
+        assertThrows(InvalidStatusTransitionException.class,
+                () -> shipmentService.updateShipmentStatus("ORDER-001", ShipmentStatus.DELIVERED));
+        
+        assertEquals(1, shipmentService.getShipmentByOrderId("ORDER-001").getStatusHistory().size());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,182 @@
+package com.logistics.shipment.sla;
+
+import com.logistics.shipment.model.Shipment;
+import com.logistics.shipment.model.ShipmentStatus;
+import com.logistics.shipment.service.ShipmentService;
+import com.logistics.shipment.store.ConcurrentMapShipmentStore;
+import com.logistics.shipment.store.ShipmentStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the timing wheel and SLA breach detection
+ */
+class SlaMonitorTest {
+    
+    private final AtomicLong clock = new AtomicLong();
+    private ShipmentStore store;
+    private SlaMonitor monitor;
+    private ShipmentService shipmentService;
+    
+    @BeforeEach
+    void setUp() {
+        clock.set(System.currentTimeMillis());
+        SlaProperties properties = new SlaProperties();
+        properties.setDispatched(Duration.ofHours(2));
+        properties.setInTransit(Duration.ofHours(10));
+        properties.getLanes().add(new SlaProperties.Lane("new york", "BOSTON", null, Duration.ofHours(3)));
+        store = new ConcurrentMapShipmentStore();
+        monitor = new SlaMonitor(properties, store, clock::get);
+        shipmentService = new ShipmentService(store, List.of(monitor));
+    }
+    
+    @Test
+    void testWheelFiresEachTimeoutWithinOneTickOfItsDeadline() {
+        long start = 1_000_000;
+        // Two levels of 64 slots cover 4096 ticks, so far deadlines exercise parking and re-placement
+        TimingWheel<Long> wheel = new TimingWheel<>(10, 2, start);
+        Random random = new Random(42);
+        List<TimingWheel.Timeout<Long>> timeouts = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            long deadline = start + random.nextInt(200_000);
+            timeouts.add(wheel.schedule(deadline, deadline));
+        }
+        Set<Long> cancelled = new HashSet<>();
+        for (int i = 0; i < timeouts.size(); i += 3) {
+            assertTrue(wheel.cancel(timeouts.get(i)));
+            assertFalse(wheel.cancel(timeouts.get(i)));
+            cancelled.add(timeouts.get(i).getPayload());
+        }
+        
+        Map<Long, Integer> expected = new HashMap<>();
+        for (TimingWheel.Timeout<Long> timeout : timeouts) {
+            expected.merge(timeout.getPayload(), 1, Integer::sum);
+        }
+        for (int i = 0; i < timeouts.size(); i += 3) {
+            expected.merge(timeouts.get(i).getPayload(), -1, Integer::sum);
+        }
+        
+        Map<Long, Integer> fired = new HashMap<>();
+        long now = start;
+        while (now < start + 250_000) {
+            now += 1 + random.nextInt(500);
+            for (long deadline : wheel.advance(now)) {
+                assertTrue(deadline <= now, "fired early: " + deadline + " at " + now);
+                fired.merge(deadline, 1, Integer::sum);
+            }
+            assertTrue(wheel.size() >= 0);
+        }
+        expected.values().removeIf(count -> count == 0);
+        assertEquals(expected, fired);
+        assertEquals(0, wheel.size());
+        assertFalse(cancelled.isEmpty());
+    }
+    
+    @Test
+    void testWheelIsNeverMoreThanOneTickLate() {
+        TimingWheel<String> wheel = new TimingWheel<>(100, 4, 0);
+        wheel.schedule(6_450, "a");
+        wheel.schedule(409_650, "b");
+        wheel.schedule(-5, "overdue");
+        
+        assertEquals(List.of("overdue"), wheel.advance(100));
+        assertEquals(List.of(), wheel.advance(6_399));
+        assertEquals(List.of("a"), wheel.advance(6_500));
+        assertEquals(List.of(), wheel.advance(409_599));
+        assertEquals(List.of("b"), wheel.advance(409_700));
+    }
+    
+    @Test
+    void testBreachRecordedWhenShipmentStaysDispatched() {
+        shipmentService.createShipment(new Shipment("ORDER-1", "Chicago", "Miami"));
+        shipmentService.updateShipmentStatus("ORDER-1", ShipmentStatus.DISPATCHED);
+        shipmentService.createShipment(new Shipment("ORDER-2", "Chicago", "Miami"));
+        assertEquals(1, monitor.getReport(10).getPending());
+        
+        advance(Duration.ofHours(2).minusSeconds(5));
+        assertEquals(0, monitor.getReport(10).getOpen());
+        
+        advance(Duration.ofSeconds(10));
+        SlaReport report = monitor.getReport(10);
+        assertEquals(1, report.getBreached());
+        assertEquals(1, report.getOpen());
+        SlaBreach breach = report.getBreaches().get(0);
+        assertEquals("ORDER-1", breach.getOrderId());
+        assertEquals(ShipmentStatus.DISPATCHED, breach.getStatus());
+        assertEquals(Duration.ofHours(2), Duration.between(breach.getSince(), breach.getDeadline()));
+        
+        // Moving on closes the breach and starts the in-transit deadline
+        shipmentService.updateShipmentStatus("ORDER-1", ShipmentStatus.IN_TRANSIT);
+        report = monitor.getReport(10);
+        assertEquals(0, report.getOpen());
+        assertEquals(1, report.getResolved());
+        assertEquals(1, report.getPending());
+    }
+    
+    @Test
+    void testTransitionInTimeCancelsDeadline() {
+        shipmentService.createShipment(new Shipment("ORDER-1", "New York", "Boston", ShipmentStatus.DISPATCHED));
+        advance(Duration.ofHours(1));
+        shipmentService.updateShipmentStatus("ORDER-1", ShipmentStatus.IN_TRANSIT);
+        
+        // The lane limit for in-transit is 3 hours instead of the default 10
+        advance(Duration.ofHours(2).plusMinutes(59));
+        assertEquals(0, monitor.getReport(10).getBreached());
+        advance(Duration.ofMinutes(2));
+        assertEquals(List.of("ORDER-1"), orderIds(monitor.getReport(10)));
+        
+        shipmentService.createShipment(new Shipment("ORDER-2", "Denver", "Boston", ShipmentStatus.DISPATCHED));
+        shipmentService.deleteShipment("ORDER-2");
+        shipmentService.updateShipmentStatus("ORDER-1", ShipmentStatus.DELIVERED);
+        advance(Duration.ofHours(24));
+        SlaReport report = monitor.getReport(10);
+        assertEquals(0, report.getOpen());
+        assertEquals(0, report.getPending());
+        assertEquals(3, report.getScheduled());
+        assertEquals(2, report.getCancelled());
+    }
+    
+    @Test
+    void testRestoredShipmentsAreTrackedOnStart() {
+        LocalDateTime longAgo = LocalDateTime.ofInstant(
+                java.time.Instant.ofEpochMilli(clock.get()).minus(Duration.ofHours(30)), ZoneId.systemDefault());
+        Shipment overdue = new Shipment("ORDER-1", "Chicago", "Miami", ShipmentStatus.IN_TRANSIT);
+        overdue.setUpdatedAt(longAgo);
+        store.put(overdue);
+        store.put(new Shipment("ORDER-2", "Chicago", "Miami", ShipmentStatus.IN_TRANSIT));
+        store.put(new Shipment("ORDER-3", "Chicago", "Miami", ShipmentStatus.DELIVERED));
+        
+        monitor.start();
+        try {
+            assertEquals(2, monitor.getReport(10).getPending());
+            advance(Duration.ofSeconds(1));
+            assertEquals(List.of("ORDER-1"), orderIds(monitor.getReport(10)));
+        } finally {
+            monitor.stop();
+        }
+    }
+    
+    private void advance(Duration duration) {
+        clock.addAndGet(duration.toMillis());
+        monitor.tick();
+    }
+    
+    private static List<String> orderIds(SlaReport report) {
+        return report.getBreaches().stream().map(SlaBreach::getOrderId).collect(Collectors.toList());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,108 @@
+package com.logistics.shipment.store;
+
+import com.logistics.shipment.exception.DuplicateShipmentException;
+import com.logistics.shipment.exception.InvalidStatusTransitionException;
+import com.logistics.shipment.exception.ShipmentNotFoundException;
+import com.logistics.shipment.model.Shipment;
+import com.logistics.shipment.model.ShipmentStatus;
+import com.logistics.shipment.service.ShipmentService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the partitioned single-writer store
+ */
+class PartitionedShipmentStoreTest {
+    
+    private PartitionedShipmentStore store;
+    private ShipmentService shipmentService;
+    
+    @BeforeEach
+    void setUp() {
+        store = new PartitionedShipmentStore(4, 16);
+        shipmentService = new ShipmentService(store);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        store.close();
+    }
+    
+    @Test
+    void testCreateAndTransition() {
+        shipmentService.createShipment(new Shipment("ORDER-001", "New York", "Los Angeles"));
+        
+        Shipment updated = shipmentService.updateShipmentStatus("ORDER-001", ShipmentStatus.DISPATCHED);
+        
+        assertEquals(ShipmentStatus.DISPATCHED, updated.getStatus());
+        assertEquals(ShipmentStatus.DISPATCHED, shipmentService.getShipmentByOrderId("ORDER-001").getStatus());
+    }
+    
+    @Test
+    void testErrorsPropagateFromWriterThread() {
+        shipmentService.createShipment(new Shipment("ORDER-001", "New York", "Los Angeles"));
+        
+        assertThrows(DuplicateShipmentException.class, () ->
+                shipmentService.createShipment(new Shipment("ORDER-001", "Boston", "Seattle")));
+        assertThrows(InvalidStatusTransitionException.class, () ->
+                shipmentService.updateShipmentStatus("ORDER-001", ShipmentStatus.DELIVERED));
+        assertThrows(ShipmentNotFoundException.class, () ->
+                shipmentService.updateShipmentStatus("NONEXISTENT", ShipmentStatus.DISPATCHED));
+        
+        // Failed mutation leaves the published shipment untouched
+        assertEquals(ShipmentStatus.PENDING, shipmentService.getShipmentByOrderId("ORDER-001").getStatus());
+    }
+    
+    @Test
+    void testPublishedShipmentIsNotMutatedByUpdates() {
+        shipmentService.createShipment(new Shipment("ORDER-001", "New York", "Los Angeles"));
+        Shipment before = shipmentService.getShipmentByOrderId("ORDER-001");
+        
+        shipmentService.updateShipmentStatus("ORDER-001", ShipmentStatus.DISPATCHED);
+        
+        assertEquals(ShipmentStatus.PENDING, before.getStatus());
+    }
+    
+    @Test
+    void testConcurrentWritersAcrossShards() throws Exception {
+        int threads = 4;
+        int perThread = 500;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        String orderId = "ORDER-" + thread + "-" + i;
+                        shipmentService.createShipment(new Shipment(orderId, "Origin", "Destination"));
+                        if (i % 2 == 0) {
+                            shipmentService.updateShipmentStatus(orderId, ShipmentStatus.DISPATCHED);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        
+        assertEquals(threads * perThread, shipmentService.getTotalShipmentCount());
+        Map<ShipmentStatus, Long> countByStatus = shipmentService.getShipmentCountByStatus();
+        assertEquals(threads * perThread / 2L, countByStatus.get(ShipmentStatus.PENDING));
+        assertEquals(threads * perThread / 2L, countByStatus.get(ShipmentStatus.DISPATCHED));
+        assertEquals(threads * perThread / 2, shipmentService.getShipments("dispatched", "origin").size());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,182 @@
+package com.logistics.shipment.store;
+
+import com.logistics.shipment.model.Shipment;
+import com.logistics.shipment.model.ShipmentStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Point-in-time snapshots of the multi-version storage engines
+ */
+class ShipmentSnapshotTest {
+    
+    private static final List<Supplier<ShipmentStore>> ENGINES = List.of(
+            ConcurrentMapShipmentStore::new,
+            () -> new PartitionedShipmentStore(4, 64));
+    
+    @Test
+    void testSnapshotIgnoresLaterWrites() {
+        for (Supplier<ShipmentStore> engine : ENGINES) {
+            try (ShipmentStore store = engine.get()) {
+                store.put(new Shipment("ORDER-1", "New York", "Boston", ShipmentStatus.PENDING));
+                store.put(new Shipment("ORDER-2", "Chicago", "Miami", ShipmentStatus.PENDING));
+                
+                try (ShipmentSnapshot snapshot = store.snapshot()) {
+                    Shipment before = store.get("ORDER-1");
+                    store.update("ORDER-1", shipment -> {
+                        shipment.setStatus(ShipmentStatus.DISPATCHED);
+                        return shipment;
+                    });
+                    store.remove("ORDER-2", removed -> { });
+                    store.put(new Shipment("ORDER-3", "Denver", "Austin", ShipmentStatus.PENDING));
+                    
+                    // The stored instance is replaced, never modified
+                    assertEquals(ShipmentStatus.PENDING, before.getStatus());
+                    assertEquals(ShipmentStatus.DISPATCHED, store.get("ORDER-1").getStatus());
+                    assertEquals(ShipmentStatus.PENDING, snapshot.get("ORDER-1").getStatus());
+                    assertNotNull(snapshot.get("ORDER-2"));
+                    assertNull(snapshot.get("ORDER-3"));
+                    assertEquals(List.of("ORDER-1", "ORDER-2"), orderIds(snapshot));
+                    assertEquals(2, snapshot.count());
+                    
+                    try (ShipmentSnapshot later = store.snapshot()) {
+                        assertTrue(later.getVersion() > snapshot.getVersion());
+                        assertEquals(List.of("ORDER-1", "ORDER-3"), orderIds(later));
+                        assertEquals(ShipmentStatus.DISPATCHED, later.get("ORDER-1").getStatus());
+                    }
+                }
+                assertEquals(2, store.size());
+                assertNull(store.get("ORDER-2"));
+            }
+        }
+    }
+    
+    @Test
+    void testOldVersionsAreReleasedWithTheLastSnapshot() {
+        ConcurrentMapShipmentStore store = new ConcurrentMapShipmentStore();
+        store.put(new Shipment("ORDER-1", "New York", "Boston", ShipmentStatus.PENDING));
+        
+        ShipmentSnapshot snapshot = store.snapshot();
+        store.update("ORDER-1", shipment -> {
+            shipment.setStatus(ShipmentStatus.DISPATCHED);
+            return shipment;
+        });
+        store.remove("ORDER-1", removed -> { });
+        assertEquals(0, store.size());
+        assertEquals(ShipmentStatus.PENDING, snapshot.get("ORDER-1").getStatus());
+        snapshot.close();
+        snapshot.close();
+        
+        // Re-creating the order ID starts a fresh chain once no snapshot needs the old one
+        store.put(new Shipment("ORDER-1", "Chicago", "Miami", ShipmentStatus.PENDING));
+        try (ShipmentSnapshot fresh = store.snapshot()) {
+            assertEquals("Chicago", fresh.get("ORDER-1").getOrigin());
+            assertEquals(1, fresh.count());
+        }
+        assertEquals(1, store.size());
+    }
+    
+    @Test
+    void testCountsStayConsistentUnderConcurrentWrites() throws Exception {
+        int shipments = 200;
+        for (Supplier<ShipmentStore> engine : ENGINES) {
+            try (ShipmentStore store = engine.get()) {
+                for (int i = 0; i < shipments; i++) {
+                    store.put(new Shipment("ORDER-" + i, "New York", "Boston", ShipmentStatus.PENDING));
+                }
+                // Each round moves one shipment to DISPATCHED and another back to PENDING
+                AtomicBoolean running = new AtomicBoolean(true);
+                Thread writer = new Thread(() -> {
+                    for (int round = 0; running.get(); round++) {
+                        String dispatched = "ORDER-" + (round % shipments);
+                        String pending = "ORDER-" + ((round + shipments / 2) % shipments);
+                        store.update(dispatched, shipment -> withStatus(shipment, ShipmentStatus.DISPATCHED));
+                        store.update(pending, shipment -> withStatus(shipment, ShipmentStatus.PENDING));
+                    }
+                });
+                writer.start();
+                try {
+                    for (int read = 0; read < 200; read++) {
+                        try (ShipmentSnapshot snapshot = store.snapshot()) {
+                            Map<ShipmentStatus, Long> counts = snapshot.stream()
+                                    .collect(Collectors.groupingBy(Shipment::getStatus, Collectors.counting()));
+                            assertEquals(shipments, counts.values().stream().mapToLong(Long::longValue).sum());
+                            assertEquals(counts, snapshot.stream()
+                                    .collect(Collectors.groupingBy(Shipment::getStatus, Collectors.counting())));
+                        }
+                    }
+                } finally {
+                    running.set(false);
+                    writer.join();
+                }
+            }
+        }
+    }
+    
+    @Test
+    void testSnapshotsRespectWriteOrderAcrossConcurrentWriters() throws Exception {
+        int writers = 4;
+        for (Supplier<ShipmentStore> engine : ENGINES) {
+            try (ShipmentStore store = engine.get()) {
+                for (int w = 0; w < writers; w++) {
+                    store.put(new Shipment("FIRST-" + w, "New York", "0", ShipmentStatus.PENDING));
+                    store.put(new Shipment("SECOND-" + w, "New York", "0", ShipmentStatus.PENDING));
+                }
+                // Each writer stamps round n on its first shipment, then on its second
+                AtomicBoolean running = new AtomicBoolean(true);
+                List<Thread> threads = new ArrayList<>();
+                for (int w = 0; w < writers; w++) {
+                    int writer = w;
+                    threads.add(new Thread(() -> {
+                        for (int round = 1; running.get(); round++) {
+                            String destination = Integer.toString(round);
+                            store.update("FIRST-" + writer, shipment -> withDestination(shipment, destination));
+                            store.update("SECOND-" + writer, shipment -> withDestination(shipment, destination));
+                        }
+                    }));
+                }
+                threads.forEach(Thread::start);
+                try {
+                    for (int read = 0; read < 500; read++) {
+                        try (ShipmentSnapshot snapshot = store.snapshot()) {
+                            for (int w = 0; w < writers; w++) {
+                                int first = Integer.parseInt(snapshot.get("FIRST-" + w).getDestination());
+                                int second = Integer.parseInt(snapshot.get("SECOND-" + w).getDestination());
+                                // A snapshot that sees a write also sees every write that finished before it
+                                assertTrue(first == second || first == second + 1, first + " / " + second);
+                                assertEquals(Integer.toString(first), snapshot.get("FIRST-" + w).getDestination());
+                            }
+                        }
+                    }
+                } finally {
+                    running.set(false);
+                    for (Thread thread : threads) {
+                        thread.join();
+                    }
+                }
+            }
+        }
+    }
+    
+    private static Shipment withDestination(Shipment shipment, String destination) {
+        shipment.setDestination(destination);
+        return shipment;
+    }
+    
+    private static Shipment withStatus(Shipment shipment, ShipmentStatus status) {
+        shipment.setStatus(status);
+        return shipment;
+    }
+    
+    private static List<String> orderIds(ShipmentSnapshot snapshot) {
+        return snapshot.stream().map(Shipment::getOrderId).sorted().toList();
+    }
+}
\ No newline at end of file
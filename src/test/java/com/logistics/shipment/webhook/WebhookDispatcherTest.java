@@ -0,0 +1,213 @@
+package com.logistics.shipment.webhook;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.logistics.shipment.model.Shipment;
+import com.logistics.shipment.model.ShipmentStatus;
+import com.logistics.shipment.service.ShipmentService;
+import com.logistics.shipment.store.ConcurrentMapShipmentStore;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests webhook batching, retries and circuit breaking against a local stand-in receiver
+ */
+class WebhookDispatcherTest {
+    
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final Queue<JsonNode> received = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger failuresLeft = new AtomicInteger();
+    private HttpServer server;
+    private WebhookProperties properties;
+    private WebhookDispatcher dispatcher;
+    private ShipmentService shipmentService;
+    
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/ok", exchange -> {
+            int status = failuresLeft.getAndDecrement() > 0 ? 503 : 200;
+            if (status == 200) {
+                received.add(objectMapper.readTree(exchange.getRequestBody()));
+            }
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+        });
+        server.createContext("/slow", exchange -> {
+            try {
+                Thread.sleep(2000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.createContext("/reject", exchange -> {
+            exchange.sendResponseHeaders(400, -1);
+            exchange.close();
+        });
+        server.setExecutor(java.util.concurrent.Executors.newCachedThreadPool());
+        server.start();
+        
+        properties = new WebhookProperties();
+        properties.setLinger(Duration.ofMillis(200));
+        properties.setInitialBackoff(Duration.ofMillis(20));
+        properties.setMaxBackoff(Duration.ofMillis(100));
+        properties.setRequestTimeout(Duration.ofMillis(300));
+        // The stand-in receiver listens on loopback
+        properties.setAllowedHosts(List.of("127.0.0.1"));
+    }
+    
+    @AfterEach
+    void tearDown() {
+        if (dispatcher != null) {
+            dispatcher.close();
+        }
+        server.stop(0);
+    }
+    
+    @Test
+    void testTransitionsAreDeliveredInBatches() {
+        start();
+        dispatcher.register(url("/ok"), null);
+        dispatcher.register(url("/ok"), Set.of(ShipmentStatus.DELIVERED));
+        
+        for (int i = 1; i <= 5; i++) {
+            shipmentService.createShipment(new Shipment("ORDER-" + i, "Chicago", "Miami"));
+            shipmentService.updateShipmentStatus("ORDER-" + i, ShipmentStatus.DISPATCHED);
+        }
+        awaitCondition(() -> delivered(0) == 5);
+        
+        // All five events fit in one linger window
+        assertEquals(1, received.size());
+        JsonNode events = received.peek().get("events");
+        assertEquals(5, events.size());
+        assertEquals("ORDER-1", events.get(0).get("orderId").asText());
+        assertEquals("PENDING", events.get(0).get("previousStatus").asText());
+        assertEquals("DISPATCHED", events.get(0).get("status").asText());
+        assertEquals(36, events.get(0).get("eventId").asText().length());
+        assertEquals(0, dispatcher.getEndpoints().get(1).getDelivered());
+    }
+    
+    @Test
+    void testFailedBatchIsRetriedWithBackoff() {
+        start();
+        failuresLeft.set(3);
+        dispatcher.register(url("/ok"), null);
+        
+        shipmentService.createShipment(new Shipment("ORDER-1", "Chicago", "Miami"));
+        shipmentService.updateShipmentStatus("ORDER-1", ShipmentStatus.DISPATCHED);
+        awaitCondition(() -> delivered(0) == 1);
+        
+        WebhookEndpointStatus status = dispatcher.getEndpoints().get(0);
+        assertEquals(3, status.getRetried());
+        assertEquals(0, status.getFailed());
+        assertEquals(CircuitBreaker.State.CLOSED, status.getCircuit());
+    }
+    
+    @Test
+    void testSlowReceiverOpensCircuitWithoutDelayingOthers() {
+        properties.setFailureThreshold(2);
+        properties.setOpenDuration(Duration.ofMinutes(1));
+        properties.setQueueCapacity(2);
+        start();
+        dispatcher.register(url("/slow"), null);
+        dispatcher.register(url("/ok"), null);
+        dispatcher.register(url("/reject"), null);
+        
+        shipmentService.createShipment(new Shipment("ORDER-1", "Chicago", "Miami"));
+        shipmentService.updateShipmentStatus("ORDER-1", ShipmentStatus.DISPATCHED);
+        awaitCondition(() -> dispatcher.getEndpoints().get(0).getCircuit() == CircuitBreaker.State.OPEN);
+        assertEquals(1, delivered(1));
+        assertEquals(1, dispatcher.getEndpoints().get(2).getFailed());
+        
+        // The open circuit holds the slow receiver's batch; its queue fills up and sheds the rest
+        for (int i = 2; i <= 5; i++) {
+            shipmentService.createShipment(new Shipment("ORDER-" + i, "Chicago", "Miami"));
+            shipmentService.updateShipmentStatus("ORDER-" + i, ShipmentStatus.DISPATCHED);
+            int expected = i;
+            awaitCondition(() -> delivered(1) == expected);
+        }
+        
+        WebhookEndpointStatus slow = dispatcher.getEndpoints().get(0);
+        assertEquals(0, slow.getDelivered());
+        assertEquals(2, slow.getQueued());
+        assertEquals(2, slow.getDropped());
+    }
+    
+    @Test
+    void testRegistrationAndBackoffBounds() {
+        start();
+        assertThrows(IllegalArgumentException.class, () -> dispatcher.register("ftp://example.com/hook", null));
+        assertThrows(IllegalArgumentException.class, () -> dispatcher.register("not a url", null));
+        String id = dispatcher.register(url("/ok"), null).getId();
+        assertTrue(dispatcher.unregister(id));
+        assertFalse(dispatcher.unregister(id));
+        assertTrue(dispatcher.getEndpoints().isEmpty());
+        
+        for (int attempt = 1; attempt < 40; attempt++) {
+            long delay = WebhookDestination.backoffMillis(attempt, 100, 5000);
+            assertTrue(delay >= 0 && delay <= Math.min(5000, 100L << Math.min(attempt - 1, 30)), "attempt " + attempt);
+        }
+    }
+    
+    @Test
+    void testRegistrationRejectsInternalAddresses() {
+        properties.setAllowedHosts(List.of("partner.internal"));
+        start();
+        for (String url : List.of("http://127.0.0.1:8080/hook", "http://localhost/hook",
+                "http://169.254.169.254/latest/meta-data", "http://10.1.2.3/hook", "http://192.168.0.1/hook",
+                "http://100.64.0.1/hook", "http://0.0.0.0/hook", "http://[::1]/hook", "http://[fd00::1]/hook")) {
+            assertThrows(IllegalArgumentException.class, () -> dispatcher.register(url, null), url);
+        }
+        assertNotNull(dispatcher.register("https://93.184.216.34/hook", null));
+        // Listed hosts are trusted whatever they resolve to, and are not resolved at all
+        assertNotNull(dispatcher.register("http://PARTNER.internal/hook", null));
+        
+        properties.setAllowPrivateAddresses(true);
+        assertNotNull(dispatcher.register("http://10.1.2.3/hook", null));
+    }
+    
+    private void start() {
+        dispatcher = new WebhookDispatcher(properties, objectMapper);
+        shipmentService = new ShipmentService(new ConcurrentMapShipmentStore(), List.of(dispatcher));
+    }
+    
+    private long delivered(int endpoint) {
+        return dispatcher.getEndpoints().get(endpoint).getDelivered();
+    }
+    
+    private String url(String path) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + path;
+    }
+    
+    private static void awaitCondition(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Timed out waiting for webhook delivery");
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(e);
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,59 @@
+#!/bin/bash
+
+# Startup benchmark: time to first successful request and resident memory after it,
+# for the standard jar, the fast-startup profile alone, and the AOT + AppCDS build.
+# Usage: ./startup-benchmark.sh [runs]   (default 5; set PORT to change the port)
+
+RUNS=${1:-5}
+PORT=${PORT:-18090}
+JAR=target/shipment-tracking-api-1.0.0.jar
+FAST_DIR=target/fast-startup
+URL="http://localhost:$PORT/api/v1/shipments/stats"
+
+if [ ! -f "$FAST_DIR/application.jsa" ]; then
+    echo "📦 Building fast-startup artifact..."
+    mvn -q -Pfast-startup clean package -DskipTests || { echo "❌ Build failed!"; exit 1; }
+fi
+
+now_ms() {
+    date +%s%3N
+}
+
+median() {
+    sort -n | awk '{ v[NR] = $1 } END { print v[int((NR + 1) / 2)] }'
+}
+
+# measure <label> <dir> <java args...>
+measure() {
+    local label=$1 dir=$2
+    shift 2
+    local times=() rss=()
+    for ((run = 1; run <= RUNS; run++)); do
+        local start
+        start=$(now_ms)
+        (cd "$dir" && exec java "$@" --server.port="$PORT") > /dev/null 2>&1 &
+        local pid=$!
+        until curl -sf -o /dev/null "$URL"; do
+            if ! kill -0 "$pid" 2> /dev/null; then
+                echo "❌ $label exited before serving a request"
+                return 1
+            fi
+            sleep 0.01
+        done
+        times+=($(($(now_ms) - start)))
+        rss+=($(ps -o rss= -p "$pid" | tr -d ' '))
+        kill "$pid"
+        wait "$pid" 2> /dev/null
+    done
+    local time_ms rss_kb
+    time_ms=$(printf '%s\n' "${times[@]}" | median)
+    rss_kb=$(printf '%s\n' "${rss[@]}" | median)
+    printf "%-26s %8d ms %8d MB   (runs: %s ms)\n" "$label" "$time_ms" $((rss_kb / 1024)) "${times[*]}"
+}
+
+echo "Median of $RUNS runs: time to first successful request, RSS after it"
+measure "standard jar" . -jar "$JAR"
+measure "fast-startup profile" . -jar "$JAR" --spring.profiles.active=fast-startup
+measure "AOT + AppCDS" "$FAST_DIR" -XX:SharedArchiveFile=application.jsa -Xlog:cds=off \
+    -Dspring.aot.enabled=true -Dspring.profiles.active=fast-startup \
+    org.springframework.boot.loader.launch.JarLauncher